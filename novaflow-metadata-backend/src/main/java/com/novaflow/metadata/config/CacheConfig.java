@@ -0,0 +1,45 @@
+package com.novaflow.metadata.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process cache for RBAC decisions made by AuthorizationService.
+ * Entries are bounded in size, evicted by RbacInvalidationEvents and expire after rbac.cache.ttl.seconds.
+ * Statistics are recorded so actuator publishes cache.gets / cache.evictions per cache.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USER_ROLES = "userRoles";
+    public static final String USER_PERMISSIONS = "userPermissions";
+    public static final String USER_ALL_PERMISSIONS = "userAllPermissions";
+
+    @Value("${rbac.cache.ttl.seconds:3600}")
+    private int cacheTtlSeconds;
+
+    @Value("${rbac.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .recordStats());
+        // Fixed set of caches: unknown cache names fail fast instead of creating unbounded ones
+        cacheManager.setCacheNames(List.of(USER_ROLES, USER_PERMISSIONS, USER_ALL_PERMISSIONS));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
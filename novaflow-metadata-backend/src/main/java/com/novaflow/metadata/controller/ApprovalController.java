@@ -1,16 +1,20 @@
 package com.novaflow.metadata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novaflow.metadata.entity.Approval;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.ApprovalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,11 +28,38 @@ public class ApprovalController {
     @Autowired
     private ApprovalService approvalService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    @Operation(summary = "Get all approvals", description = "Retrieve all approval records")
-    public ResponseEntity<List<Approval>> getAllApprovals() {
-        List<Approval> approvals = approvalService.findAll();
-        return ResponseEntity.ok(approvals);
+    @Operation(summary = "Get approvals", description = "Page through approval records, most recent request first by default. " +
+        "Sortable by requestedDate, approvedDate, status, approvalType, entityType, requestedBy; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<Approval>> getAllApprovals(
+            @Parameter(description = "Entity ID filter") @RequestParam(required = false) String entityId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Requested by filter") @RequestParam(required = false) String requestedBy,
+            @Parameter(description = "Approved by filter") @RequestParam(required = false) String approvedBy,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Approval type filter") @RequestParam(required = false) String approvalType,
+            @Parameter(description = "Requested on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Requested on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @ParameterObject PageQuery page) {
+        return approvalService.search(entityId, entityType, requestedBy, approvedBy, status, approvalType, from, to, page).toResponse();
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.NDJSON)
+    @Operation(summary = "Stream approvals", description = "Stream all matching approvals as newline-delimited JSON, with the same filters and sort as the paged list")
+    public ResponseEntity<StreamingResponseBody> streamApprovals(
+            @Parameter(description = "Entity ID filter") @RequestParam(required = false) String entityId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Requested by filter") @RequestParam(required = false) String requestedBy,
+            @Parameter(description = "Approved by filter") @RequestParam(required = false) String approvedBy,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Approval type filter") @RequestParam(required = false) String approvalType,
+            @Parameter(description = "Requested on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Requested on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Comma separated sort properties, '-' prefix for descending") @RequestParam(required = false) String sort) {
+        return NdjsonResponses.<Approval>of(objectMapper, sink -> approvalService.stream(entityId, entityType, requestedBy, approvedBy, status, approvalType, from, to, sort, sink));
     }
 
     @GetMapping("/{id}")
@@ -41,62 +72,56 @@ public class ApprovalController {
 
     @GetMapping("/entity/{entityId}")
     @Operation(summary = "Get approvals by entity ID", description = "Retrieve approvals for a specific entity")
-    public ResponseEntity<List<Approval>> getApprovalsByEntityId(@PathVariable String entityId) {
-        List<Approval> approvals = approvalService.findByEntityId(entityId);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByEntityId(@PathVariable String entityId, @ParameterObject PageQuery page) {
+        return approvalService.search(entityId, null, null, null, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/entity-type/{entityType}")
     @Operation(summary = "Get approvals by entity type", description = "Retrieve approvals by entity type")
-    public ResponseEntity<List<Approval>> getApprovalsByEntityType(@PathVariable String entityType) {
-        List<Approval> approvals = approvalService.findByEntityType(entityType);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByEntityType(@PathVariable String entityType, @ParameterObject PageQuery page) {
+        return approvalService.search(null, entityType, null, null, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/requested-by/{requestedBy}")
     @Operation(summary = "Get approvals by requester", description = "Retrieve approvals by user who requested them")
-    public ResponseEntity<List<Approval>> getApprovalsByRequestedBy(@PathVariable String requestedBy) {
-        List<Approval> approvals = approvalService.findByRequestedBy(requestedBy);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByRequestedBy(@PathVariable String requestedBy, @ParameterObject PageQuery page) {
+        return approvalService.search(null, null, requestedBy, null, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/approved-by/{approvedBy}")
     @Operation(summary = "Get approvals by approver", description = "Retrieve approvals by user who approved them")
-    public ResponseEntity<List<Approval>> getApprovalsByApprovedBy(@PathVariable String approvedBy) {
-        List<Approval> approvals = approvalService.findByApprovedBy(approvedBy);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByApprovedBy(@PathVariable String approvedBy, @ParameterObject PageQuery page) {
+        return approvalService.search(null, null, null, approvedBy, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get approvals by status", description = "Retrieve approvals by status")
-    public ResponseEntity<List<Approval>> getApprovalsByStatus(@PathVariable String status) {
-        List<Approval> approvals = approvalService.findByStatus(status);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByStatus(@PathVariable String status, @ParameterObject PageQuery page) {
+        return approvalService.search(null, null, null, null, status, null, null, null, page).toResponse();
     }
 
     @GetMapping("/approval-type/{approvalType}")
     @Operation(summary = "Get approvals by type", description = "Retrieve approvals by approval type")
-    public ResponseEntity<List<Approval>> getApprovalsByType(@PathVariable String approvalType) {
-        List<Approval> approvals = approvalService.findByApprovalType(approvalType);
-        return ResponseEntity.ok(approvals);
+    public ResponseEntity<List<Approval>> getApprovalsByType(@PathVariable String approvalType, @ParameterObject PageQuery page) {
+        return approvalService.search(null, null, null, null, null, approvalType, null, null, page).toResponse();
     }
 
     @GetMapping("/entity/{entityId}/entity-type/{entityType}")
     @Operation(summary = "Get approvals by entity ID and type", description = "Retrieve approvals for specific entity ID and type")
     public ResponseEntity<List<Approval>> getApprovalsByEntityIdAndType(
             @PathVariable String entityId, 
-            @PathVariable String entityType) {
-        List<Approval> approvals = approvalService.findByEntityIdAndEntityType(entityId, entityType);
-        return ResponseEntity.ok(approvals);
+            @PathVariable String entityType,
+            @ParameterObject PageQuery page) {
+        return approvalService.search(entityId, entityType, null, null, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get approvals by date range", description = "Retrieve approvals within a date range")
     public ResponseEntity<List<Approval>> getApprovalsByDateRange(
             @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Approval> approvals = approvalService.findByDateRange(startDate, endDate);
-        return ResponseEntity.ok(approvals);
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @ParameterObject PageQuery page) {
+        return approvalService.search(null, null, null, null, null, null, startDate, endDate, page).toResponse();
     }
 
     @PostMapping
@@ -3,8 +3,10 @@ package com.novaflow.metadata.controller;
 import com.novaflow.metadata.dto.CreateConnectionRequest;
 import com.novaflow.metadata.dto.UpdateConnectionRequest;
 import com.novaflow.metadata.dto.ConnectionResponse;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.ConnectionService;
 import com.novaflow.metadata.service.AuthorizationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.*;
@@ -36,35 +39,54 @@ public class ConnectionController {
     @Autowired
     private AuthorizationService authorizationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @PreAuthorize("@authz.hasPermission(authentication, 'READ', '/connections')")
-    @Operation(summary = "Get connections", description = "Retrieve connections by domain ID or all accessible connections")
+    @Operation(summary = "Get connections", description = "Retrieve connections by domain ID or all accessible connections. " +
+        "All accessible connections are paged, " + PageQuery.DEFAULT_LIMIT + " per page by default; the next page's cursor is returned in the X-Next-Cursor header")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved connections"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     public ResponseEntity<List<ConnectionResponse>> getConnections(
             @Parameter(description = "Domain ID filter (optional)") @RequestParam(required = false) String domain_id,
+            @Parameter(description = "Page size for all accessible connections (default " + PageQuery.DEFAULT_LIMIT + ", max " + PageQuery.MAX_LIMIT + ")") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor from a previous X-Next-Cursor header (optional)") @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
             if (domain_id != null && !"all".equals(domain_id)) {
                 List<ConnectionResponse> connections = connectionService.listCurrentConnectionsByDomain(domain_id, authentication);
                 return ResponseEntity.ok(connections);
             } else {
-                // Return all accessible connections across all domains
-                List<ConnectionResponse> allConnections = new ArrayList<>();
-                List<String> accessibleDomains = connectionService.getAccessibleDomains(authentication);
-                for (String domainId : accessibleDomains) {
-                    allConnections.addAll(connectionService.listCurrentConnectionsByDomain(domainId, authentication));
-                }
-                return ResponseEntity.ok(allConnections);
+                // Return all accessible connections across all domains in a single query
+                int pageSize = new PageQuery(null, cursor, limit).resolvedLimit();
+                return connectionService.listAccessibleConnections(authentication, cursor, pageSize).toResponse();
             }
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping(value = "/stream", produces = NdjsonResponses.NDJSON)
+    @PreAuthorize("@authz.hasPermission(authentication, 'READ', '/connections')")
+    @Operation(summary = "Stream all accessible connections", description = "Stream all current connections the user can access as newline-delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Connections streamed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    public ResponseEntity<StreamingResponseBody> streamConnections(Authentication authentication) {
+        // Resolve domains on the request thread; the body is written after the handler returns
+        Set<String> domainIds = authorizationService.getAuthorizationContext(authentication).accessibleDomainIds();
+        return NdjsonResponses.<ConnectionResponse>of(objectMapper, sink -> connectionService.streamConnectionsByDomains(domainIds, sink));
+    }
+
     @GetMapping("/domains")
     @PreAuthorize("@authz.hasPermission(authentication, 'READ', '/connections')")
     @Operation(summary = "Get accessible domains", description = "Retrieve all domains accessible to the authenticated user")
@@ -143,7 +165,7 @@ public class ConnectionController {
             @Valid @RequestBody CreateConnectionRequest request,
             Authentication authentication) {
         try {
-            String actor = authorizationService.getCurrentIdentity(authentication).email();
+            String actor = authorizationService.getAuthorizationContext(authentication).email();
             ConnectionResponse created = connectionService.createConnection(request, actor, authentication);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (SecurityException e) {
@@ -166,7 +188,7 @@ public class ConnectionController {
             @Valid @RequestBody UpdateConnectionRequest request,
             Authentication authentication) {
         try {
-            String actor = authorizationService.getCurrentIdentity(authentication).email();
+            String actor = authorizationService.getAuthorizationContext(authentication).email();
             ConnectionResponse created = connectionService.createNewVersion(request, actor, authentication);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (SecurityException e) {
@@ -1,15 +1,19 @@
 package com.novaflow.metadata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novaflow.metadata.entity.DynamicDataRecord;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.DynamicDataRecordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,11 +26,32 @@ public class DynamicDataRecordController {
     @Autowired
     private DynamicDataRecordService dynamicDataRecordService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    @Operation(summary = "Get all dynamic data records", description = "Retrieve all dynamic data records")
-    public ResponseEntity<List<DynamicDataRecord>> getAllDynamicDataRecords() {
-        List<DynamicDataRecord> records = dynamicDataRecordService.findAll();
-        return ResponseEntity.ok(records);
+    @Operation(summary = "Get dynamic data records", description = "Page through dynamic data records, newest first by default. " +
+        "Sortable by createdDate, lastModifiedDate, entityType, approvalStatus, status, version; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<DynamicDataRecord>> getAllDynamicDataRecords(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "UI metadata ID filter") @RequestParam(required = false) String uiMetadataId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Approval status filter") @RequestParam(required = false) String approvalStatus,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @ParameterObject PageQuery page) {
+        return dynamicDataRecordService.search(domainId, uiMetadataId, entityType, approvalStatus, status, page).toResponse();
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.NDJSON)
+    @Operation(summary = "Stream dynamic data records", description = "Stream all matching dynamic data records as newline-delimited JSON, with the same filters and sort as the paged list")
+    public ResponseEntity<StreamingResponseBody> streamDynamicDataRecords(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "UI metadata ID filter") @RequestParam(required = false) String uiMetadataId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Approval status filter") @RequestParam(required = false) String approvalStatus,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Comma separated sort properties, '-' prefix for descending") @RequestParam(required = false) String sort) {
+        return NdjsonResponses.<DynamicDataRecord>of(objectMapper, sink -> dynamicDataRecordService.stream(domainId, uiMetadataId, entityType, approvalStatus, status, sort, sink));
     }
 
     @GetMapping("/{id}")
@@ -41,34 +66,30 @@ public class DynamicDataRecordController {
     @Operation(summary = "Get dynamic data records by domain", description = "Retrieve all dynamic data records for a specific domain")
     public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByDomain(
             @Parameter(description = "Domain ID") @PathVariable String domainId,
-            @Parameter(description = "Include only active records") @RequestParam(defaultValue = "false") boolean activeOnly) {
-        List<DynamicDataRecord> records = activeOnly ? 
-            dynamicDataRecordService.findActiveByDomainId(domainId) : 
-            dynamicDataRecordService.findByDomainId(domainId);
-        return ResponseEntity.ok(records);
+            @Parameter(description = "Include only active records") @RequestParam(defaultValue = "false") boolean activeOnly,
+            @ParameterObject PageQuery page) {
+        return dynamicDataRecordService.search(domainId, null, null, null, activeOnly ? Character.valueOf('A') : null, page).toResponse();
     }
 
     @GetMapping("/entity-type/{entityType}")
     @Operation(summary = "Get dynamic data records by entity type", description = "Retrieve dynamic data records by entity type")
-    public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByEntityType(@PathVariable String entityType) {
-        List<DynamicDataRecord> records = dynamicDataRecordService.findByEntityType(entityType);
-        return ResponseEntity.ok(records);
+    public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByEntityType(@PathVariable String entityType, @ParameterObject PageQuery page) {
+        return dynamicDataRecordService.search(null, null, entityType, null, null, page).toResponse();
     }
 
     @GetMapping("/approval-status/{approvalStatus}")
     @Operation(summary = "Get dynamic data records by approval status", description = "Retrieve dynamic data records by approval status")
-    public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByApprovalStatus(@PathVariable String approvalStatus) {
-        List<DynamicDataRecord> records = dynamicDataRecordService.findByApprovalStatus(approvalStatus);
-        return ResponseEntity.ok(records);
+    public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByApprovalStatus(@PathVariable String approvalStatus, @ParameterObject PageQuery page) {
+        return dynamicDataRecordService.search(null, null, null, approvalStatus, null, page).toResponse();
     }
 
     @GetMapping("/domain/{domainId}/entity-type/{entityType}")
     @Operation(summary = "Get dynamic data records by domain and entity type", description = "Retrieve dynamic data records for a domain and entity type")
     public ResponseEntity<List<DynamicDataRecord>> getDynamicDataRecordsByDomainAndEntityType(
             @PathVariable String domainId, 
-            @PathVariable String entityType) {
-        List<DynamicDataRecord> records = dynamicDataRecordService.findByDomainIdAndEntityType(domainId, entityType);
-        return ResponseEntity.ok(records);
+            @PathVariable String entityType,
+            @ParameterObject PageQuery page) {
+        return dynamicDataRecordService.search(domainId, null, entityType, null, null, page).toResponse();
     }
 
     @PostMapping
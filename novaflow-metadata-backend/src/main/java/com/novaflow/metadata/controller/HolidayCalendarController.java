@@ -1,13 +1,25 @@
 package com.novaflow.metadata.controller;
 
+import com.novaflow.metadata.dto.BusinessDaysResponse;
 import com.novaflow.metadata.entity.HolidayCalendar;
+import com.novaflow.metadata.pagination.PageQuery;
+import com.novaflow.metadata.runcontrol.BusinessCalendar;
+import com.novaflow.metadata.service.BusinessCalendarService;
 import com.novaflow.metadata.service.HolidayCalendarService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +32,22 @@ public class HolidayCalendarController {
     @Autowired
     private HolidayCalendarService holidayCalendarService;
 
+    @Autowired
+    private BusinessCalendarService businessCalendarService;
+
+    // Longest range the business-days preview returns day by day
+    private static final int MAX_PREVIEW_DAYS = 366;
+
     @GetMapping
-    @Operation(summary = "Get all holiday calendars", description = "Retrieve all holiday calendars with their holidays and run controls")
-    public ResponseEntity<List<HolidayCalendar>> getAllHolidayCalendars() {
-        List<HolidayCalendar> calendars = holidayCalendarService.getAllHolidayCalendars();
-        return ResponseEntity.ok(calendars);
+    @Operation(summary = "Get holiday calendars", description = "Page through holiday calendars, ordered by name by default. " +
+        "Sortable by name, country, status, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<HolidayCalendar>> getAllHolidayCalendars(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Country filter") @RequestParam(required = false) String country,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @ParameterObject PageQuery page) {
+        return holidayCalendarService.search(domainId, country, status, name, page).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -48,6 +71,56 @@ public class HolidayCalendarController {
         return ResponseEntity.ok(calendars);
     }
 
+    @GetMapping("/{id}/business-days")
+    @Operation(summary = "Preview business days", description = "List every day from 'from' to 'to' (both included, at most " +
+        MAX_PREVIEW_DAYS + " days) with whether it is a business day and the holiday on it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Business days of the range"),
+        @ApiResponse(responseCode = "400", description = "'to' is before 'from' or the range is too long"),
+        @ApiResponse(responseCode = "404", description = "Holiday calendar not found")
+    })
+    public ResponseEntity<BusinessDaysResponse> getBusinessDays(
+            @PathVariable String id,
+            @Parameter(description = "First day (ISO date)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO date)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_PREVIEW_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<BusinessCalendar> calendar = businessCalendarService.get(id);
+        if (calendar.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        BusinessCalendar businessCalendar = calendar.get();
+        List<BusinessDaysResponse.Day> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(new BusinessDaysResponse.Day(day, businessCalendar.isBusinessDay(day), businessCalendar.holidayName(day)));
+        }
+        return ResponseEntity.ok(new BusinessDaysResponse(id, from, to, businessCalendar.countBusinessDays(from, to), days));
+    }
+
+    @GetMapping("/{id}/business-days/{date}/next")
+    @Operation(summary = "Get next business day", description = "Get the n-th business day after a date, so n=1 is the first business day after it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The business day"),
+        @ApiResponse(responseCode = "204", description = "The calendar has fewer than n business days in the following years"),
+        @ApiResponse(responseCode = "400", description = "n is less than 1"),
+        @ApiResponse(responseCode = "404", description = "Holiday calendar not found")
+    })
+    public ResponseEntity<LocalDate> getNextBusinessDay(
+            @PathVariable String id,
+            @Parameter(description = "Date to count from (ISO date), not itself counted") @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Which business day after the date") @RequestParam(defaultValue = "1") int n) {
+        if (n < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<BusinessCalendar> calendar = businessCalendarService.get(id);
+        if (calendar.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDate next = calendar.get().nextBusinessDay(date, n);
+        return next != null ? ResponseEntity.ok(next) : ResponseEntity.noContent().build();
+    }
+
     @PostMapping
     @Operation(summary = "Create holiday calendar", description = "Create a new holiday calendar")
     public ResponseEntity<HolidayCalendar> createHolidayCalendar(@RequestBody HolidayCalendar holidayCalendar) {
@@ -1,10 +1,12 @@
 package com.novaflow.metadata.controller;
 
 import com.novaflow.metadata.entity.IntegrationObject;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.IntegrationObjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,21 +21,32 @@ import java.util.UUID;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class IntegrationObjectController {
 
+    private static final String EXPAND_DESCRIPTION = "Comma separated relations to include: attributes, sourceRules, targetRules, " +
+        "sourceScaffolds, targetScaffolds, uiMetadata, uiMetadata.dynamicDataRecords. Omitted relations are not loaded";
+
     @Autowired
     private IntegrationObjectService integrationObjectService;
 
     @GetMapping
-    @Operation(summary = "Get all integration objects", description = "Retrieve all integration objects in the system")
-    public ResponseEntity<List<IntegrationObject>> getAllIntegrationObjects() {
-        List<IntegrationObject> objects = integrationObjectService.getAllIntegrationObjects();
-        return ResponseEntity.ok(objects);
+    @Operation(summary = "Get integration objects", description = "Page through integration objects, ordered by name by default. " +
+        "Sortable by name, type, status, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<IntegrationObject>> getAllIntegrationObjects(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Object type filter") @RequestParam(required = false) String type,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Connection ID filter") @RequestParam(required = false) UUID connectionId,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand,
+            @ParameterObject PageQuery page) {
+        return integrationObjectService.search(domainId, type, status, connectionId, name, expand, page).toResponse();
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get integration object by ID", description = "Retrieve a specific integration object by its ID")
     public ResponseEntity<IntegrationObject> getIntegrationObjectById(
-            @Parameter(description = "Integration object ID") @PathVariable String id) {
-        return integrationObjectService.getIntegrationObjectById(id)
+            @Parameter(description = "Integration object ID") @PathVariable String id,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        return integrationObjectService.getIntegrationObjectById(id, expand)
                 .map(object -> ResponseEntity.ok(object))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -41,32 +54,36 @@ public class IntegrationObjectController {
     @GetMapping("/domain/{domainId}")
     @Operation(summary = "Get integration objects by domain", description = "Retrieve all integration objects for a specific domain")
     public ResponseEntity<List<IntegrationObject>> getIntegrationObjectsByDomain(
-            @Parameter(description = "Domain ID") @PathVariable String domainId) {
-        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByDomain(domainId);
+            @Parameter(description = "Domain ID") @PathVariable String domainId,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByDomain(domainId, expand);
         return ResponseEntity.ok(objects);
     }
 
     @GetMapping("/domain/{domainId}/active")
     @Operation(summary = "Get active integration objects by domain", description = "Retrieve all active integration objects for a specific domain")
     public ResponseEntity<List<IntegrationObject>> getActiveIntegrationObjectsByDomain(
-            @Parameter(description = "Domain ID") @PathVariable String domainId) {
-        List<IntegrationObject> objects = integrationObjectService.getActiveIntegrationObjectsByDomain(domainId);
+            @Parameter(description = "Domain ID") @PathVariable String domainId,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<IntegrationObject> objects = integrationObjectService.getActiveIntegrationObjectsByDomain(domainId, expand);
         return ResponseEntity.ok(objects);
     }
 
     @GetMapping("/type/{type}")
     @Operation(summary = "Get integration objects by type", description = "Retrieve all integration objects of a specific type")
     public ResponseEntity<List<IntegrationObject>> getIntegrationObjectsByType(
-            @Parameter(description = "Object type") @PathVariable String type) {
-        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByType(type);
+            @Parameter(description = "Object type") @PathVariable String type,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByType(type, expand);
         return ResponseEntity.ok(objects);
     }
 
     @GetMapping("/connection/{connectionId}")
     @Operation(summary = "Get integration objects by connection", description = "Retrieve all integration objects for a specific connection")
     public ResponseEntity<List<IntegrationObject>> getIntegrationObjectsByConnection(
-            @Parameter(description = "Connection ID") @PathVariable UUID connectionId) {
-        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByConnection(connectionId);
+            @Parameter(description = "Connection ID") @PathVariable UUID connectionId,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<IntegrationObject> objects = integrationObjectService.getIntegrationObjectsByConnection(connectionId, expand);
         return ResponseEntity.ok(objects);
     }
 
@@ -74,8 +91,9 @@ public class IntegrationObjectController {
     @Operation(summary = "Search integration objects by name", description = "Search integration objects by name within a domain")
     public ResponseEntity<List<IntegrationObject>> searchIntegrationObjectsByName(
             @Parameter(description = "Domain ID") @RequestParam String domainId,
-            @Parameter(description = "Search term") @RequestParam String name) {
-        List<IntegrationObject> objects = integrationObjectService.searchIntegrationObjectsByName(domainId, name);
+            @Parameter(description = "Search term") @RequestParam String name,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<IntegrationObject> objects = integrationObjectService.searchIntegrationObjectsByName(domainId, name, expand);
         return ResponseEntity.ok(objects);
     }
 
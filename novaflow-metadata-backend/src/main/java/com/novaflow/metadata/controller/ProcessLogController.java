@@ -1,16 +1,20 @@
 package com.novaflow.metadata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novaflow.metadata.entity.ProcessLog;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.ProcessLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,11 +28,30 @@ public class ProcessLogController {
     @Autowired
     private ProcessLogService processLogService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    @Operation(summary = "Get all process logs", description = "Retrieve all process logs")
-    public ResponseEntity<List<ProcessLog>> getAllProcessLogs() {
-        List<ProcessLog> processLogs = processLogService.findAll();
-        return ResponseEntity.ok(processLogs);
+    @Operation(summary = "Get process logs", description = "Page through process logs, newest first by default. " +
+        "Sortable by createdDate, startTime, endTime, status, executionId, triggeredBy; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<ProcessLog>> getAllProcessLogs(
+            @Parameter(description = "Run control ID filter") @RequestParam(required = false) String runControlId,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Created on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @ParameterObject PageQuery page) {
+        return processLogService.search(runControlId, status, from, to, page).toResponse();
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.NDJSON)
+    @Operation(summary = "Stream process logs", description = "Stream all matching process logs as newline-delimited JSON, with the same filters and sort as the paged list")
+    public ResponseEntity<StreamingResponseBody> streamProcessLogs(
+            @Parameter(description = "Run control ID filter") @RequestParam(required = false) String runControlId,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Created on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Comma separated sort properties, '-' prefix for descending") @RequestParam(required = false) String sort) {
+        return NdjsonResponses.<ProcessLog>of(objectMapper, sink -> processLogService.stream(runControlId, status, from, to, sort, sink));
     }
 
     @GetMapping("/{id}")
@@ -41,9 +64,8 @@ public class ProcessLogController {
 
     @GetMapping("/run-control/{runControlId}")
     @Operation(summary = "Get process logs by run control", description = "Retrieve process logs for a specific run control")
-    public ResponseEntity<List<ProcessLog>> getProcessLogsByRunControl(@PathVariable String runControlId) {
-        List<ProcessLog> processLogs = processLogService.findByRunControlId(runControlId);
-        return ResponseEntity.ok(processLogs);
+    public ResponseEntity<List<ProcessLog>> getProcessLogsByRunControl(@PathVariable String runControlId, @ParameterObject PageQuery page) {
+        return processLogService.search(runControlId, null, null, null, page).toResponse();
     }
 
     @GetMapping("/run-control/{runControlId}/latest")
@@ -56,27 +78,26 @@ public class ProcessLogController {
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get process logs by status", description = "Retrieve process logs by status")
-    public ResponseEntity<List<ProcessLog>> getProcessLogsByStatus(@PathVariable String status) {
-        List<ProcessLog> processLogs = processLogService.findByStatus(status);
-        return ResponseEntity.ok(processLogs);
+    public ResponseEntity<List<ProcessLog>> getProcessLogsByStatus(@PathVariable String status, @ParameterObject PageQuery page) {
+        return processLogService.search(null, status, null, null, page).toResponse();
     }
 
     @GetMapping("/run-control/{runControlId}/status/{status}")
     @Operation(summary = "Get process logs by run control and status", description = "Retrieve process logs for a run control with specific status")
     public ResponseEntity<List<ProcessLog>> getProcessLogsByRunControlAndStatus(
             @PathVariable String runControlId, 
-            @PathVariable String status) {
-        List<ProcessLog> processLogs = processLogService.findByRunControlIdAndStatus(runControlId, status);
-        return ResponseEntity.ok(processLogs);
+            @PathVariable String status,
+            @ParameterObject PageQuery page) {
+        return processLogService.search(runControlId, status, null, null, page).toResponse();
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get process logs by date range", description = "Retrieve process logs within a date range")
     public ResponseEntity<List<ProcessLog>> getProcessLogsByDateRange(
             @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<ProcessLog> processLogs = processLogService.findByDateRange(startDate, endDate);
-        return ResponseEntity.ok(processLogs);
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @ParameterObject PageQuery page) {
+        return processLogService.search(null, null, startDate, endDate, page).toResponse();
     }
 
     @PostMapping
@@ -86,6 +107,12 @@ public class ProcessLogController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedProcessLog);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create process logs", description = "Create several process logs, inserted in JDBC batches")
+    public ResponseEntity<List<ProcessLog>> createProcessLogs(@Valid @RequestBody List<ProcessLog> processLogs) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(processLogService.saveAll(processLogs));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update process log", description = "Update an existing process log")
     public ResponseEntity<ProcessLog> updateProcessLog(@PathVariable String id, @Valid @RequestBody ProcessLog processLog) {
@@ -1,16 +1,27 @@
 package com.novaflow.metadata.controller;
 
+import com.novaflow.metadata.dto.ColumnarRuleEvaluationResponse;
+import com.novaflow.metadata.dto.DomainRuleEvaluationResponse;
+import com.novaflow.metadata.dto.RuleEvaluationResponse;
+import com.novaflow.metadata.dto.RuleImpactResponse;
 import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.pagination.PageQuery;
+import com.novaflow.metadata.service.RuleEvaluationService;
+import com.novaflow.metadata.service.RuleImpactService;
+import com.novaflow.metadata.service.RuleIndexService;
 import com.novaflow.metadata.service.RuleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/rules")
@@ -21,11 +32,27 @@ public class RuleController {
     @Autowired
     private RuleService ruleService;
 
+    @Autowired
+    private RuleEvaluationService ruleEvaluationService;
+
+    @Autowired
+    private RuleIndexService ruleIndexService;
+
+    @Autowired
+    private RuleImpactService ruleImpactService;
+
     @GetMapping
-    @Operation(summary = "Get all rules", description = "Retrieve all rules in the system")
-    public ResponseEntity<List<Rule>> getAllRules() {
-        List<Rule> rules = ruleService.getAllRules();
-        return ResponseEntity.ok(rules);
+    @Operation(summary = "Get rules", description = "Page through rules, ordered by name by default. " +
+        "Sortable by name, ruleType, priority, status, effectiveDate, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<Rule>> getAllRules(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Rule type filter") @RequestParam(required = false) String ruleType,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Source object ID filter") @RequestParam(required = false) String sourceObjectId,
+            @Parameter(description = "Target object ID filter") @RequestParam(required = false) String targetObjectId,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @ParameterObject PageQuery page) {
+        return ruleService.search(domainId, ruleType, status, sourceObjectId, targetObjectId, name, page).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -154,6 +181,74 @@ public class RuleController {
         }
     }
 
+    @PostMapping("/{id}/evaluate")
+    @Operation(summary = "Evaluate rule", description = "Evaluate a rule's conditions against a batch of records " +
+        "and apply its actions to the records that match. Records are JSON objects keyed by attribute name")
+    public ResponseEntity<RuleEvaluationResponse> evaluateRule(
+            @Parameter(description = "Rule ID") @PathVariable String id,
+            @Parameter(description = "Only return matching records") @RequestParam(defaultValue = "false") boolean matchedOnly,
+            @RequestBody List<Map<String, Object>> records) {
+        return ruleEvaluationService.evaluate(id, records, matchedOnly)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/evaluate/columnar")
+    @Operation(summary = "Evaluate rule over columns", description = "Evaluate a rule against a columnar batch: one array per attribute, " +
+        "all of the same length. Conditions are evaluated a column at a time and actions applied only to matching rows. " +
+        "Columns are typed from the rule's source object schema")
+    public ResponseEntity<ColumnarRuleEvaluationResponse> evaluateRuleColumnar(
+            @Parameter(description = "Rule ID") @PathVariable String id,
+            @RequestBody Map<String, List<Object>> columns) {
+        return ruleEvaluationService.evaluateColumnar(id, columns)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/impact")
+    @Operation(summary = "Start rule impact analysis", description = "Dry-run the rule's current (typically draft) version against " +
+        "a uniform sample, or a full streaming scan, of its source object's records, without writing anything back. " +
+        "Runs in the background; poll the returned job for selectivity, per-action change counts and evaluation latency")
+    public ResponseEntity<RuleImpactResponse> startImpactAnalysis(
+            @Parameter(description = "Rule ID") @PathVariable String id,
+            @Parameter(description = "Records to sample; 0 scans every record") @RequestParam(defaultValue = "1000") int sampleSize) {
+        try {
+            return ruleImpactService.start(id, sampleSize)
+                    .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/impact/{jobId}")
+    @Operation(summary = "Get rule impact analysis", description = "Progress and (partial) results of an impact analysis job")
+    public ResponseEntity<RuleImpactResponse> getImpactAnalysis(
+            @Parameter(description = "Impact analysis job ID") @PathVariable String jobId) {
+        return ruleImpactService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/impact/{jobId}")
+    @Operation(summary = "Cancel rule impact analysis", description = "Stop a queued or running impact analysis, keeping the results gathered so far")
+    public ResponseEntity<RuleImpactResponse> cancelImpactAnalysis(
+            @Parameter(description = "Impact analysis job ID") @PathVariable String jobId) {
+        return ruleImpactService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/domain/{domainId}/evaluate")
+    @Operation(summary = "Evaluate domain rules", description = "Test a batch of records against every active rule of a domain. " +
+        "A condition index narrows each record to the rules it can match; the actions of matching rules are applied in priority order")
+    public ResponseEntity<DomainRuleEvaluationResponse> evaluateDomainRules(
+            @Parameter(description = "Domain ID") @PathVariable String domainId,
+            @Parameter(description = "Only return records that matched at least one rule") @RequestParam(defaultValue = "false") boolean matchedOnly,
+            @RequestBody List<Map<String, Object>> records) {
+        return ResponseEntity.ok(ruleIndexService.evaluate(domainId, records, matchedOnly));
+    }
+
     @GetMapping("/domain/{domainId}/count")
     @Operation(summary = "Get rule count by domain", description = "Get total number of rules in a domain")
     public ResponseEntity<Long> getRuleCountByDomain(
@@ -0,0 +1,48 @@
+package com.novaflow.metadata.controller;
+
+import com.novaflow.metadata.dto.RuleSetExecutionResponse;
+import com.novaflow.metadata.entity.RuleSet;
+import com.novaflow.metadata.service.RuleSetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rule-sets")
+@Tag(name = "Rule Sets", description = "Rule set execution APIs")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class RuleSetController {
+
+    @Autowired
+    private RuleSetService ruleSetService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get rule set by ID", description = "Retrieve a specific rule set by its ID")
+    public ResponseEntity<RuleSet> getRuleSetById(
+            @Parameter(description = "Rule set ID") @PathVariable String id) {
+        return ruleSetService.getRuleSetById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/execute")
+    @Operation(summary = "Execute rule set", description = "Run a rule set's active, effective rules over a batch of records. " +
+        "Sequential sets chain rules in order; Parallel sets evaluate every rule against the input records and merge outputs in rule order. " +
+        "Returns the resulting records with per-rule hit counts and timings")
+    public ResponseEntity<RuleSetExecutionResponse> executeRuleSet(
+            @Parameter(description = "Rule set ID") @PathVariable String id,
+            @Parameter(description = "Select rules effective at this time instead of now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestBody List<Map<String, Object>> records) {
+        return ruleSetService.execute(id, records, asOf)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
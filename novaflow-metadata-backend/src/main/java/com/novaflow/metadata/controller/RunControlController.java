@@ -1,17 +1,25 @@
 package com.novaflow.metadata.controller;
 
+import com.novaflow.metadata.entity.ProcessLog;
 import com.novaflow.metadata.entity.RunControl;
+import com.novaflow.metadata.pagination.PageQuery;
+import com.novaflow.metadata.service.RunControlExecutionService;
+import com.novaflow.metadata.service.RunControlScheduler;
 import com.novaflow.metadata.service.RunControlService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/run-controls")
@@ -22,11 +30,23 @@ public class RunControlController {
     @Autowired
     private RunControlService runControlService;
 
+    @Autowired
+    private RunControlExecutionService runControlExecutionService;
+
+    @Autowired
+    private RunControlScheduler runControlScheduler;
+
     @GetMapping
-    @Operation(summary = "Get all run controls", description = "Retrieve all run controls")
-    public ResponseEntity<List<RunControl>> getAllRunControls() {
-        List<RunControl> runControls = runControlService.getAllRunControls();
-        return ResponseEntity.ok(runControls);
+    @Operation(summary = "Get run controls", description = "Page through run controls, ordered by name by default. " +
+        "Sortable by name, executionMode, triggerType, status, effectiveDate, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<RunControl>> getAllRunControls(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Execution mode filter") @RequestParam(required = false) String executionMode,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Holiday calendar ID filter") @RequestParam(required = false) String holidayCalendarId,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @ParameterObject PageQuery page) {
+        return runControlService.search(domainId, executionMode, status, holidayCalendarId, name, page).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -116,6 +136,38 @@ public class RunControlController {
             ResponseEntity.notFound().build();
     }
 
+    @PostMapping("/{id}/execute")
+    @Operation(summary = "Execute run control", description = "Queue a run of the run control's steps: each Scaffold_In step streams its " +
+        "records through the RuleSet and Scaffold_Out steps after it. Returns the run's process log, which is updated with " +
+        "record counts and per-step results when the run finishes")
+    public ResponseEntity<ProcessLog> executeRunControl(
+            @Parameter(description = "Run control ID") @PathVariable String id,
+            @Parameter(description = "User or system that triggered the run") @RequestParam(defaultValue = "system") String triggeredBy) {
+        try {
+            return runControlExecutionService.start(id, triggeredBy)
+                    .map(log -> ResponseEntity.status(HttpStatus.ACCEPTED).body(log))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/{id}/next-fire")
+    @Operation(summary = "Next scheduled run", description = "When the scheduler next fires the run control, after holiday " +
+        "calendar rules; nominalTime is the cron time the firing stands for")
+    public ResponseEntity<Map<String, Object>> getNextFire(@Parameter(description = "Run control ID") @PathVariable String id) {
+        return runControlScheduler.nextFire(id)
+                .map(fire -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("runControlId", id);
+                    body.put("fireTime", fire.at());
+                    body.put("nominalTime", fire.nominal());
+                    body.put("rolledToNextBusinessDay", fire.rolled());
+                    return ResponseEntity.ok(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/domain/{domainId}/count")
     @Operation(summary = "Count run controls by domain", description = "Get count of run controls for a domain")
     public ResponseEntity<Long> countRunControlsByDomain(
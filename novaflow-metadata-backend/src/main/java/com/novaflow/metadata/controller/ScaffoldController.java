@@ -1,16 +1,25 @@
 package com.novaflow.metadata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novaflow.metadata.dto.ScaffoldPlanResponse;
 import com.novaflow.metadata.entity.Scaffold;
+import com.novaflow.metadata.pagination.PageQuery;
+import com.novaflow.metadata.service.RunControlService;
+import com.novaflow.metadata.service.ScaffoldExecutionService;
 import com.novaflow.metadata.service.ScaffoldService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -22,11 +31,27 @@ public class ScaffoldController {
     @Autowired
     private ScaffoldService scaffoldService;
 
+    @Autowired
+    private ScaffoldExecutionService scaffoldExecutionService;
+
+    @Autowired
+    private RunControlService runControlService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    @Operation(summary = "Get all scaffolds", description = "Retrieve all scaffolds")
-    public ResponseEntity<List<Scaffold>> getAllScaffolds() {
-        List<Scaffold> scaffolds = scaffoldService.findAll();
-        return ResponseEntity.ok(scaffolds);
+    @Operation(summary = "Get scaffolds", description = "Page through scaffolds, ordered by name by default. " +
+        "Sortable by name, type, status, effectiveDate, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<Scaffold>> getAllScaffolds(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Scaffold type filter") @RequestParam(required = false) String type,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Source object ID filter") @RequestParam(required = false) String sourceObjectId,
+            @Parameter(description = "Target object ID filter") @RequestParam(required = false) String targetObjectId,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @ParameterObject PageQuery page) {
+        return scaffoldService.search(domainId, type, status, sourceObjectId, targetObjectId, name, page).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -116,6 +141,36 @@ public class ScaffoldController {
             ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/{id}/plan")
+    @Operation(summary = "Explain scaffold", description = "Show the scaffold's physical plan: the query pushed down to a JDBC source " +
+        "and the projection, filter, hash aggregation and sort operators that run in memory")
+    public ResponseEntity<ScaffoldPlanResponse> explainScaffold(
+            @Parameter(description = "Scaffold ID") @PathVariable String id,
+            @Parameter(description = "Return at most this many rows") @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        return scaffoldExecutionService.explain(id, limit, authentication)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/{id}/execute", produces = NdjsonResponses.NDJSON)
+    @Operation(summary = "Execute scaffold", description = "Run the scaffold over its source and stream the output rows as newline-delimited JSON. " +
+        "With a run control, the execution's row counts and sort/aggregation spill statistics are recorded as a process log")
+    public ResponseEntity<StreamingResponseBody> executeScaffold(
+            @Parameter(description = "Scaffold ID") @PathVariable String id,
+            @Parameter(description = "Return at most this many rows") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Run control to record the execution under") @RequestParam(required = false) String runControlId,
+            @Parameter(description = "User who triggered the execution") @RequestParam(defaultValue = "system") String triggeredBy,
+            Authentication authentication) {
+        // Plan up front so a missing, invalid or forbidden scaffold is reported before the stream starts
+        if (scaffoldExecutionService.explain(id, limit, authentication).isEmpty()
+                || (runControlId != null && runControlService.findById(runControlId).isEmpty())) {
+            return ResponseEntity.notFound().build();
+        }
+        return NdjsonResponses.<Map<String, Object>>of(objectMapper,
+                sink -> scaffoldExecutionService.execute(id, limit, runControlId, triggeredBy, authentication, sink));
+    }
+
     @GetMapping("/domain/{domainId}/count")
     @Operation(summary = "Count scaffolds by domain", description = "Get count of scaffolds for a domain")
     public ResponseEntity<Long> countScaffoldsByDomain(
@@ -1,11 +1,13 @@
 package com.novaflow.metadata.controller;
 
 import com.novaflow.metadata.entity.UIMetadata;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.UIMetadataService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,20 +21,32 @@ import java.util.Optional;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class UIMetadataController {
 
+    private static final String EXPAND_DESCRIPTION = "Comma separated relations to include: dynamicDataRecords. Omitted relations are not loaded";
+
     @Autowired
     private UIMetadataService uiMetadataService;
 
     @GetMapping
-    @Operation(summary = "Get all UI metadata", description = "Retrieve all UI metadata")
-    public ResponseEntity<List<UIMetadata>> getAllUIMetadata() {
-        List<UIMetadata> uiMetadataList = uiMetadataService.findAll();
-        return ResponseEntity.ok(uiMetadataList);
+    @Operation(summary = "Get UI metadata", description = "Page through UI metadata, ordered by name by default. " +
+        "Sortable by name, layoutType, status, approvalStatus, effectiveDate, createdDate, lastModifiedDate; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<UIMetadata>> getAllUIMetadata(
+            @Parameter(description = "Domain ID filter") @RequestParam(required = false) String domainId,
+            @Parameter(description = "Layout type filter") @RequestParam(required = false) String layoutType,
+            @Parameter(description = "Status filter (A or I)") @RequestParam(required = false) Character status,
+            @Parameter(description = "Approval status filter") @RequestParam(required = false) String approvalStatus,
+            @Parameter(description = "Source object ID filter") @RequestParam(required = false) String sourceObjectId,
+            @Parameter(description = "Name contains (case-insensitive)") @RequestParam(required = false) String name,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand,
+            @ParameterObject PageQuery page) {
+        return uiMetadataService.search(domainId, layoutType, status, approvalStatus, sourceObjectId, name, expand, page).toResponse();
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get UI metadata by ID", description = "Retrieve specific UI metadata by its ID")
-    public ResponseEntity<UIMetadata> getUIMetadataById(@PathVariable String id) {
-        Optional<UIMetadata> uiMetadata = uiMetadataService.findById(id);
+    public ResponseEntity<UIMetadata> getUIMetadataById(
+            @PathVariable String id,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        Optional<UIMetadata> uiMetadata = uiMetadataService.findById(id, expand);
         return uiMetadata.map(ResponseEntity::ok)
                         .orElse(ResponseEntity.notFound().build());
     }
@@ -41,17 +55,20 @@ public class UIMetadataController {
     @Operation(summary = "Get UI metadata by domain", description = "Retrieve all UI metadata for a specific domain")
     public ResponseEntity<List<UIMetadata>> getUIMetadataByDomain(
             @Parameter(description = "Domain ID") @PathVariable String domainId,
-            @Parameter(description = "Include only active UI metadata") @RequestParam(defaultValue = "false") boolean activeOnly) {
+            @Parameter(description = "Include only active UI metadata") @RequestParam(defaultValue = "false") boolean activeOnly,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
         List<UIMetadata> uiMetadataList = activeOnly ? 
-            uiMetadataService.findActiveByDomainId(domainId) : 
-            uiMetadataService.findByDomainId(domainId);
+            uiMetadataService.findActiveByDomainId(domainId, expand) : 
+            uiMetadataService.findByDomainId(domainId, expand);
         return ResponseEntity.ok(uiMetadataList);
     }
 
     @GetMapping("/source-object/{sourceObjectId}")
     @Operation(summary = "Get UI metadata by source object", description = "Retrieve UI metadata for a specific source object")
-    public ResponseEntity<List<UIMetadata>> getUIMetadataBySourceObject(@PathVariable String sourceObjectId) {
-        List<UIMetadata> uiMetadataList = uiMetadataService.findBySourceObjectId(sourceObjectId);
+    public ResponseEntity<List<UIMetadata>> getUIMetadataBySourceObject(
+            @PathVariable String sourceObjectId,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataService.findBySourceObjectId(sourceObjectId, expand);
         return ResponseEntity.ok(uiMetadataList);
     }
 
@@ -59,8 +76,9 @@ public class UIMetadataController {
     @Operation(summary = "Search UI metadata", description = "Search UI metadata by name within a domain")
     public ResponseEntity<List<UIMetadata>> searchUIMetadata(
             @Parameter(description = "Domain ID") @RequestParam String domainId,
-            @Parameter(description = "Search term") @RequestParam String name) {
-        List<UIMetadata> uiMetadataList = uiMetadataService.searchByName(domainId, name);
+            @Parameter(description = "Search term") @RequestParam String name,
+            @Parameter(description = EXPAND_DESCRIPTION) @RequestParam(required = false) String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataService.searchByName(domainId, name, expand);
         return ResponseEntity.ok(uiMetadataList);
     }
 
@@ -1,16 +1,20 @@
 package com.novaflow.metadata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novaflow.metadata.entity.VersionHistory;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.service.VersionHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,11 +28,34 @@ public class VersionHistoryController {
     @Autowired
     private VersionHistoryService versionHistoryService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    @Operation(summary = "Get all version history", description = "Retrieve all version history records")
-    public ResponseEntity<List<VersionHistory>> getAllVersionHistory() {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findAll();
-        return ResponseEntity.ok(versionHistoryList);
+    @Operation(summary = "Get version history", description = "Page through version history records, most recent change first by default. " +
+        "Sortable by changedDate, version, entityId, entityType, changeType, changedBy; the next page's cursor is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<VersionHistory>> getAllVersionHistory(
+            @Parameter(description = "Entity ID filter") @RequestParam(required = false) String entityId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Changed by filter") @RequestParam(required = false) String changedBy,
+            @Parameter(description = "Change type filter") @RequestParam(required = false) String changeType,
+            @Parameter(description = "Changed on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Changed on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @ParameterObject PageQuery page) {
+        return versionHistoryService.search(entityId, entityType, changedBy, changeType, from, to, page).toResponse();
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.NDJSON)
+    @Operation(summary = "Stream version history records", description = "Stream all matching version history records as newline-delimited JSON, with the same filters and sort as the paged list")
+    public ResponseEntity<StreamingResponseBody> streamVersionHistory(
+            @Parameter(description = "Entity ID filter") @RequestParam(required = false) String entityId,
+            @Parameter(description = "Entity type filter") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Changed by filter") @RequestParam(required = false) String changedBy,
+            @Parameter(description = "Change type filter") @RequestParam(required = false) String changeType,
+            @Parameter(description = "Changed on or after") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Changed on or before") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Comma separated sort properties, '-' prefix for descending") @RequestParam(required = false) String sort) {
+        return NdjsonResponses.<VersionHistory>of(objectMapper, sink -> versionHistoryService.stream(entityId, entityType, changedBy, changeType, from, to, sort, sink));
     }
 
     @GetMapping("/{id}")
@@ -41,48 +68,44 @@ public class VersionHistoryController {
 
     @GetMapping("/entity/{entityId}")
     @Operation(summary = "Get version history by entity ID", description = "Retrieve version history for a specific entity")
-    public ResponseEntity<List<VersionHistory>> getVersionHistoryByEntityId(@PathVariable String entityId) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByEntityId(entityId);
-        return ResponseEntity.ok(versionHistoryList);
+    public ResponseEntity<List<VersionHistory>> getVersionHistoryByEntityId(@PathVariable String entityId, @ParameterObject PageQuery page) {
+        return versionHistoryService.search(entityId, null, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/entity-type/{entityType}")
     @Operation(summary = "Get version history by entity type", description = "Retrieve version history by entity type")
-    public ResponseEntity<List<VersionHistory>> getVersionHistoryByEntityType(@PathVariable String entityType) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByEntityType(entityType);
-        return ResponseEntity.ok(versionHistoryList);
+    public ResponseEntity<List<VersionHistory>> getVersionHistoryByEntityType(@PathVariable String entityType, @ParameterObject PageQuery page) {
+        return versionHistoryService.search(null, entityType, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/changed-by/{changedBy}")
     @Operation(summary = "Get version history by changed by user", description = "Retrieve version history by user who made changes")
-    public ResponseEntity<List<VersionHistory>> getVersionHistoryByChangedBy(@PathVariable String changedBy) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByChangedBy(changedBy);
-        return ResponseEntity.ok(versionHistoryList);
+    public ResponseEntity<List<VersionHistory>> getVersionHistoryByChangedBy(@PathVariable String changedBy, @ParameterObject PageQuery page) {
+        return versionHistoryService.search(null, null, changedBy, null, null, null, page).toResponse();
     }
 
     @GetMapping("/change-type/{changeType}")
     @Operation(summary = "Get version history by change type", description = "Retrieve version history by change type")
-    public ResponseEntity<List<VersionHistory>> getVersionHistoryByChangeType(@PathVariable String changeType) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByChangeType(changeType);
-        return ResponseEntity.ok(versionHistoryList);
+    public ResponseEntity<List<VersionHistory>> getVersionHistoryByChangeType(@PathVariable String changeType, @ParameterObject PageQuery page) {
+        return versionHistoryService.search(null, null, null, changeType, null, null, page).toResponse();
     }
 
     @GetMapping("/entity/{entityId}/entity-type/{entityType}")
     @Operation(summary = "Get version history by entity ID and type", description = "Retrieve version history for specific entity ID and type")
     public ResponseEntity<List<VersionHistory>> getVersionHistoryByEntityIdAndType(
             @PathVariable String entityId, 
-            @PathVariable String entityType) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByEntityIdAndEntityType(entityId, entityType);
-        return ResponseEntity.ok(versionHistoryList);
+            @PathVariable String entityType,
+            @ParameterObject PageQuery page) {
+        return versionHistoryService.search(entityId, entityType, null, null, null, null, page).toResponse();
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get version history by date range", description = "Retrieve version history within a date range")
     public ResponseEntity<List<VersionHistory>> getVersionHistoryByDateRange(
             @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<VersionHistory> versionHistoryList = versionHistoryService.findByDateRange(startDate, endDate);
-        return ResponseEntity.ok(versionHistoryList);
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @ParameterObject PageQuery page) {
+        return versionHistoryService.search(null, null, null, null, startDate, endDate, page).toResponse();
     }
 
     @PostMapping
@@ -92,6 +115,12 @@ public class VersionHistoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedVersionHistory);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create version history records", description = "Create several version history records, inserted in JDBC batches")
+    public ResponseEntity<List<VersionHistory>> createVersionHistories(@Valid @RequestBody List<VersionHistory> versionHistories) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(versionHistoryService.saveAll(versionHistories));
+    }
+
     @PostMapping("/create")
     @Operation(summary = "Create version history record", description = "Create version history with basic information")
     public ResponseEntity<VersionHistory> createVersionHistoryRecord(
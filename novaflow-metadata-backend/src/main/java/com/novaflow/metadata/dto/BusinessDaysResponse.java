@@ -0,0 +1,80 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Business days of a holiday calendar over a date range, for previewing the calendar")
+public class BusinessDaysResponse {
+
+    @Schema(description = "Holiday calendar ID", example = "CAL001")
+    private String holidayCalendarId;
+
+    @Schema(description = "First day of the range", example = "2026-12-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the range, included", example = "2026-12-31")
+    private LocalDate to;
+
+    @Schema(description = "Number of business days in the range", example = "21")
+    private int businessDayCount;
+
+    @Schema(description = "Every day of the range, in order")
+    private List<Day> days;
+
+    public BusinessDaysResponse() {}
+
+    public BusinessDaysResponse(String holidayCalendarId, LocalDate from, LocalDate to, int businessDayCount, List<Day> days) {
+        this.holidayCalendarId = holidayCalendarId;
+        this.from = from;
+        this.to = to;
+        this.businessDayCount = businessDayCount;
+        this.days = days;
+    }
+
+    public String getHolidayCalendarId() { return holidayCalendarId; }
+    public void setHolidayCalendarId(String holidayCalendarId) { this.holidayCalendarId = holidayCalendarId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public int getBusinessDayCount() { return businessDayCount; }
+    public void setBusinessDayCount(int businessDayCount) { this.businessDayCount = businessDayCount; }
+
+    public List<Day> getDays() { return days; }
+    public void setDays(List<Day> days) { this.days = days; }
+
+    @Schema(description = "One day of the range")
+    public static class Day {
+
+        @Schema(description = "Date", example = "2026-12-25")
+        private LocalDate date;
+
+        @Schema(description = "Whether the day is neither a weekend day nor a holiday", example = "false")
+        private boolean businessDay;
+
+        @Schema(description = "Name of the holiday on the day; null when it is not a holiday", example = "Christmas Day")
+        private String holiday;
+
+        public Day() {}
+
+        public Day(LocalDate date, boolean businessDay, String holiday) {
+            this.date = date;
+            this.businessDay = businessDay;
+            this.holiday = holiday;
+        }
+
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+
+        public boolean isBusinessDay() { return businessDay; }
+        public void setBusinessDay(boolean businessDay) { this.businessDay = businessDay; }
+
+        public String getHoliday() { return holiday; }
+        public void setHoliday(String holiday) { this.holiday = holiday; }
+    }
+}
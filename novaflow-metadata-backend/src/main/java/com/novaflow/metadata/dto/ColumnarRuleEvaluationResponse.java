@@ -0,0 +1,58 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Outcome of evaluating a rule against a columnar batch")
+public class ColumnarRuleEvaluationResponse {
+
+    @Schema(description = "Rule ID", example = "RULE001")
+    private String ruleId;
+
+    @Schema(description = "Rule version that was evaluated", example = "3")
+    private Integer version;
+
+    @Schema(description = "Number of rows evaluated", example = "100000")
+    private int rows;
+
+    @Schema(description = "Number of rows matching the rule's conditions", example = "4200")
+    private int matched;
+
+    @Schema(description = "Indexes of the matching rows, ascending")
+    private List<Integer> selected;
+
+    @Schema(description = "Columns after the rule's actions were applied, one value per row")
+    private Map<String, List<Object>> columns;
+
+    public ColumnarRuleEvaluationResponse() {}
+
+    public ColumnarRuleEvaluationResponse(String ruleId, Integer version, int rows, int matched, List<Integer> selected,
+                                          Map<String, List<Object>> columns) {
+        this.ruleId = ruleId;
+        this.version = version;
+        this.rows = rows;
+        this.matched = matched;
+        this.selected = selected;
+        this.columns = columns;
+    }
+
+    public String getRuleId() { return ruleId; }
+    public void setRuleId(String ruleId) { this.ruleId = ruleId; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+
+    public int getMatched() { return matched; }
+    public void setMatched(int matched) { this.matched = matched; }
+
+    public List<Integer> getSelected() { return selected; }
+    public void setSelected(List<Integer> selected) { this.selected = selected; }
+
+    public Map<String, List<Object>> getColumns() { return columns; }
+    public void setColumns(Map<String, List<Object>> columns) { this.columns = columns; }
+}
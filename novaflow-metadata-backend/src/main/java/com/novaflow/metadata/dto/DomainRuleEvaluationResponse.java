@@ -0,0 +1,88 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Outcome of evaluating a domain's active rules against a batch of records")
+public class DomainRuleEvaluationResponse {
+
+    @Schema(description = "Domain ID", example = "DOM001")
+    private String domainId;
+
+    @Schema(description = "Number of active, effective rules in the domain", example = "250")
+    private int rules;
+
+    @Schema(description = "Number of records evaluated", example = "100")
+    private int evaluated;
+
+    @Schema(description = "Number of records matching at least one rule", example = "42")
+    private int matched;
+
+    @Schema(description = "Rule conditions actually tested after index pruning; rules x records without the index", example = "180")
+    private long conditionsTested;
+
+    @Schema(description = "Per-record results, in request order")
+    private List<RecordResult> results;
+
+    @Schema(description = "Result for one record")
+    public static class RecordResult {
+
+        @Schema(description = "Position of the record in the request", example = "0")
+        private int index;
+
+        @Schema(description = "IDs of the rules the record matched, in the order their actions were applied")
+        private List<String> matchedRules;
+
+        @Schema(description = "The record after the matching rules' actions were applied")
+        private Map<String, Object> record;
+
+        public RecordResult() {}
+
+        public RecordResult(int index, List<String> matchedRules, Map<String, Object> record) {
+            this.index = index;
+            this.matchedRules = matchedRules;
+            this.record = record;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public List<String> getMatchedRules() { return matchedRules; }
+        public void setMatchedRules(List<String> matchedRules) { this.matchedRules = matchedRules; }
+
+        public Map<String, Object> getRecord() { return record; }
+        public void setRecord(Map<String, Object> record) { this.record = record; }
+    }
+
+    public DomainRuleEvaluationResponse() {}
+
+    public DomainRuleEvaluationResponse(String domainId, int rules, int evaluated, int matched, long conditionsTested,
+                                        List<RecordResult> results) {
+        this.domainId = domainId;
+        this.rules = rules;
+        this.evaluated = evaluated;
+        this.matched = matched;
+        this.conditionsTested = conditionsTested;
+        this.results = results;
+    }
+
+    public String getDomainId() { return domainId; }
+    public void setDomainId(String domainId) { this.domainId = domainId; }
+
+    public int getRules() { return rules; }
+    public void setRules(int rules) { this.rules = rules; }
+
+    public int getEvaluated() { return evaluated; }
+    public void setEvaluated(int evaluated) { this.evaluated = evaluated; }
+
+    public int getMatched() { return matched; }
+    public void setMatched(int matched) { this.matched = matched; }
+
+    public long getConditionsTested() { return conditionsTested; }
+    public void setConditionsTested(long conditionsTested) { this.conditionsTested = conditionsTested; }
+
+    public List<RecordResult> getResults() { return results; }
+    public void setResults(List<RecordResult> results) { this.results = results; }
+}
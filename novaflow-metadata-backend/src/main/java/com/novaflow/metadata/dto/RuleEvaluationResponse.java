@@ -0,0 +1,80 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Outcome of evaluating a rule against a batch of records")
+public class RuleEvaluationResponse {
+
+    @Schema(description = "Rule ID", example = "RULE001")
+    private String ruleId;
+
+    @Schema(description = "Rule version that was evaluated", example = "3")
+    private Integer version;
+
+    @Schema(description = "Number of records evaluated", example = "100")
+    private int evaluated;
+
+    @Schema(description = "Number of records matching the rule's conditions", example = "42")
+    private int matched;
+
+    @Schema(description = "Per-record results, in request order")
+    private List<RecordResult> results;
+
+    @Schema(description = "Result for one record")
+    public static class RecordResult {
+
+        @Schema(description = "Position of the record in the request", example = "0")
+        private int index;
+
+        @Schema(description = "Whether the record matched the rule's conditions", example = "true")
+        private boolean matched;
+
+        @Schema(description = "The record after the rule's actions were applied")
+        private Map<String, Object> record;
+
+        public RecordResult() {}
+
+        public RecordResult(int index, boolean matched, Map<String, Object> record) {
+            this.index = index;
+            this.matched = matched;
+            this.record = record;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public boolean isMatched() { return matched; }
+        public void setMatched(boolean matched) { this.matched = matched; }
+
+        public Map<String, Object> getRecord() { return record; }
+        public void setRecord(Map<String, Object> record) { this.record = record; }
+    }
+
+    public RuleEvaluationResponse() {}
+
+    public RuleEvaluationResponse(String ruleId, Integer version, int evaluated, int matched, List<RecordResult> results) {
+        this.ruleId = ruleId;
+        this.version = version;
+        this.evaluated = evaluated;
+        this.matched = matched;
+        this.results = results;
+    }
+
+    public String getRuleId() { return ruleId; }
+    public void setRuleId(String ruleId) { this.ruleId = ruleId; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public int getEvaluated() { return evaluated; }
+    public void setEvaluated(int evaluated) { this.evaluated = evaluated; }
+
+    public int getMatched() { return matched; }
+    public void setMatched(int matched) { this.matched = matched; }
+
+    public List<RecordResult> getResults() { return results; }
+    public void setResults(List<RecordResult> results) { this.results = results; }
+}
@@ -0,0 +1,142 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Progress and results of a rule impact analysis; figures are partial until status is COMPLETED")
+public class RuleImpactResponse {
+
+    @Schema(description = "Analysis job ID, for polling", example = "5f0c1c9e-2a7b-4d0e-9a43-0b8f3f1e6d21")
+    private String jobId;
+
+    @Schema(description = "Rule ID", example = "RULE001")
+    private String ruleId;
+
+    @Schema(description = "Rule version that was analysed", example = "3")
+    private int version;
+
+    @Schema(description = "Source integration object whose records are scanned", example = "OBJ001")
+    private String sourceObjectId;
+
+    @Schema(description = "Job status", example = "RUNNING", allowableValues = {"QUEUED", "RUNNING", "COMPLETED", "FAILED", "CANCELLED"})
+    private String status;
+
+    @Schema(description = "Requested sample size; 0 for a full scan", example = "1000")
+    private int sampleSize;
+
+    @Schema(description = "Records of the source object when the job started", example = "250000")
+    private long totalRecords;
+
+    @Schema(description = "Records evaluated so far", example = "1000")
+    private long evaluated;
+
+    @Schema(description = "Records matching the rule's conditions", example = "42")
+    private long matched;
+
+    @Schema(description = "Fraction of evaluated records that matched", example = "0.042")
+    private double selectivity;
+
+    @Schema(description = "Evaluated records as a fraction of the records to evaluate", example = "0.5")
+    private double progress;
+
+    @Schema(description = "Median per-record evaluation time in microseconds", example = "0.8")
+    private double p50Micros;
+
+    @Schema(description = "99th percentile per-record evaluation time in microseconds", example = "4.2")
+    private double p99Micros;
+
+    @Schema(description = "Per-action change counts, in action order")
+    private List<ActionImpact> actions;
+
+    @Schema(description = "When the job started running")
+    private LocalDateTime startedDate;
+
+    @Schema(description = "When the job finished")
+    private LocalDateTime finishedDate;
+
+    @Schema(description = "Failure message when status is FAILED")
+    private String error;
+
+    @Schema(description = "Effect of one action on the matched records")
+    public static class ActionImpact {
+
+        @Schema(description = "Attribute the action writes", example = "fee")
+        private String targetAttribute;
+
+        @Schema(description = "Assignment operator", example = "ASSIGN")
+        private String operator;
+
+        @Schema(description = "Matched records whose attribute value the action changed", example = "40")
+        private long changed;
+
+        public ActionImpact() {}
+
+        public ActionImpact(String targetAttribute, String operator, long changed) {
+            this.targetAttribute = targetAttribute;
+            this.operator = operator;
+            this.changed = changed;
+        }
+
+        public String getTargetAttribute() { return targetAttribute; }
+        public void setTargetAttribute(String targetAttribute) { this.targetAttribute = targetAttribute; }
+
+        public String getOperator() { return operator; }
+        public void setOperator(String operator) { this.operator = operator; }
+
+        public long getChanged() { return changed; }
+        public void setChanged(long changed) { this.changed = changed; }
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getRuleId() { return ruleId; }
+    public void setRuleId(String ruleId) { this.ruleId = ruleId; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getSourceObjectId() { return sourceObjectId; }
+    public void setSourceObjectId(String sourceObjectId) { this.sourceObjectId = sourceObjectId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getSampleSize() { return sampleSize; }
+    public void setSampleSize(int sampleSize) { this.sampleSize = sampleSize; }
+
+    public long getTotalRecords() { return totalRecords; }
+    public void setTotalRecords(long totalRecords) { this.totalRecords = totalRecords; }
+
+    public long getEvaluated() { return evaluated; }
+    public void setEvaluated(long evaluated) { this.evaluated = evaluated; }
+
+    public long getMatched() { return matched; }
+    public void setMatched(long matched) { this.matched = matched; }
+
+    public double getSelectivity() { return selectivity; }
+    public void setSelectivity(double selectivity) { this.selectivity = selectivity; }
+
+    public double getProgress() { return progress; }
+    public void setProgress(double progress) { this.progress = progress; }
+
+    public double getP50Micros() { return p50Micros; }
+    public void setP50Micros(double p50Micros) { this.p50Micros = p50Micros; }
+
+    public double getP99Micros() { return p99Micros; }
+    public void setP99Micros(double p99Micros) { this.p99Micros = p99Micros; }
+
+    public List<ActionImpact> getActions() { return actions; }
+    public void setActions(List<ActionImpact> actions) { this.actions = actions; }
+
+    public LocalDateTime getStartedDate() { return startedDate; }
+    public void setStartedDate(LocalDateTime startedDate) { this.startedDate = startedDate; }
+
+    public LocalDateTime getFinishedDate() { return finishedDate; }
+    public void setFinishedDate(LocalDateTime finishedDate) { this.finishedDate = finishedDate; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
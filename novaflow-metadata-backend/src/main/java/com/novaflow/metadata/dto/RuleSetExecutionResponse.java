@@ -0,0 +1,116 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Outcome of executing a rule set over a batch of records")
+public class RuleSetExecutionResponse {
+
+    @Schema(description = "Rule set ID", example = "RULESET001")
+    private String ruleSetId;
+
+    @Schema(description = "Rule set version that was executed", example = "2")
+    private Integer version;
+
+    @Schema(description = "Execution order used", example = "SEQUENTIAL")
+    private String executionOrder;
+
+    @Schema(description = "Number of records executed", example = "100")
+    private int evaluated;
+
+    @Schema(description = "Wall-clock time for the whole batch in milliseconds", example = "12.5")
+    private double elapsedMs;
+
+    @Schema(description = "Per-rule statistics, in execution order")
+    private List<RuleResult> rules;
+
+    @Schema(description = "Records after all rules were applied, in request order")
+    private List<Map<String, Object>> records;
+
+    @Schema(description = "Statistics for one rule of the set")
+    public static class RuleResult {
+
+        @Schema(description = "Rule ID", example = "RULE001")
+        private String ruleId;
+
+        @Schema(description = "Rule version that was executed", example = "3")
+        private int version;
+
+        @Schema(description = "Rule priority", example = "1")
+        private int priority;
+
+        @Schema(description = "Records the rule was evaluated against", example = "100")
+        private long evaluated;
+
+        @Schema(description = "Records matching the rule's conditions", example = "42")
+        private long hits;
+
+        @Schema(description = "Time spent evaluating the rule in milliseconds; summed across threads for Parallel sets", example = "1.25")
+        private double elapsedMs;
+
+        public RuleResult() {}
+
+        public RuleResult(String ruleId, int version, int priority, long evaluated, long hits, double elapsedMs) {
+            this.ruleId = ruleId;
+            this.version = version;
+            this.priority = priority;
+            this.evaluated = evaluated;
+            this.hits = hits;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public String getRuleId() { return ruleId; }
+        public void setRuleId(String ruleId) { this.ruleId = ruleId; }
+
+        public int getVersion() { return version; }
+        public void setVersion(int version) { this.version = version; }
+
+        public int getPriority() { return priority; }
+        public void setPriority(int priority) { this.priority = priority; }
+
+        public long getEvaluated() { return evaluated; }
+        public void setEvaluated(long evaluated) { this.evaluated = evaluated; }
+
+        public long getHits() { return hits; }
+        public void setHits(long hits) { this.hits = hits; }
+
+        public double getElapsedMs() { return elapsedMs; }
+        public void setElapsedMs(double elapsedMs) { this.elapsedMs = elapsedMs; }
+    }
+
+    public RuleSetExecutionResponse() {}
+
+    public RuleSetExecutionResponse(String ruleSetId, Integer version, String executionOrder, int evaluated,
+                                    double elapsedMs, List<RuleResult> rules, List<Map<String, Object>> records) {
+        this.ruleSetId = ruleSetId;
+        this.version = version;
+        this.executionOrder = executionOrder;
+        this.evaluated = evaluated;
+        this.elapsedMs = elapsedMs;
+        this.rules = rules;
+        this.records = records;
+    }
+
+    public String getRuleSetId() { return ruleSetId; }
+    public void setRuleSetId(String ruleSetId) { this.ruleSetId = ruleSetId; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public String getExecutionOrder() { return executionOrder; }
+    public void setExecutionOrder(String executionOrder) { this.executionOrder = executionOrder; }
+
+    public int getEvaluated() { return evaluated; }
+    public void setEvaluated(int evaluated) { this.evaluated = evaluated; }
+
+    public double getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(double elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public List<RuleResult> getRules() { return rules; }
+    public void setRules(List<RuleResult> rules) { this.rules = rules; }
+
+    public List<Map<String, Object>> getRecords() { return records; }
+    public void setRecords(List<Map<String, Object>> records) { this.records = records; }
+}
@@ -0,0 +1,71 @@
+package com.novaflow.metadata.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Physical plan of a scaffold: what the source database executes and what runs in memory")
+public class ScaffoldPlanResponse {
+
+    @Schema(description = "Scaffold ID", example = "SCAFFOLD001")
+    private String scaffoldId;
+
+    @Schema(description = "Scaffold version that was planned", example = "1")
+    private Integer version;
+
+    @Schema(description = "Where source records are read from", example = "JDBC", allowableValues = {"JDBC", "DYNAMIC_RECORDS"})
+    private String source;
+
+    @Schema(description = "Query sent to a JDBC source, with ? placeholders", example = "SELECT * FROM \"daily_cash_position\" WHERE \"net_flow\" > ?")
+    private String sql;
+
+    @Schema(description = "Values bound to the query's placeholders, in order")
+    private List<Object> parameters;
+
+    @Schema(description = "Operators executed by the source database")
+    private List<String> pushedDown;
+
+    @Schema(description = "Operators executed in memory over the source rows, in order")
+    private List<String> operators;
+
+    @Schema(description = "Output column names; empty when source records are passed through unprojected")
+    private List<String> outputColumns;
+
+    public ScaffoldPlanResponse() {}
+
+    public ScaffoldPlanResponse(String scaffoldId, Integer version, String source, String sql, List<Object> parameters,
+                                List<String> pushedDown, List<String> operators, List<String> outputColumns) {
+        this.scaffoldId = scaffoldId;
+        this.version = version;
+        this.source = source;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.pushedDown = pushedDown;
+        this.operators = operators;
+        this.outputColumns = outputColumns;
+    }
+
+    public String getScaffoldId() { return scaffoldId; }
+    public void setScaffoldId(String scaffoldId) { this.scaffoldId = scaffoldId; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getSql() { return sql; }
+    public void setSql(String sql) { this.sql = sql; }
+
+    public List<Object> getParameters() { return parameters; }
+    public void setParameters(List<Object> parameters) { this.parameters = parameters; }
+
+    public List<String> getPushedDown() { return pushedDown; }
+    public void setPushedDown(List<String> pushedDown) { this.pushedDown = pushedDown; }
+
+    public List<String> getOperators() { return operators; }
+    public void setOperators(List<String> operators) { this.operators = operators; }
+
+    public List<String> getOutputColumns() { return outputColumns; }
+    public void setOutputColumns(List<String> outputColumns) { this.outputColumns = outputColumns; }
+}
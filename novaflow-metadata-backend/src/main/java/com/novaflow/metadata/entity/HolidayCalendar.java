@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
@@ -14,6 +17,8 @@ import java.util.Map;
 @Entity
 @Table(name = "holiday_calendars", schema = "metadata")
 @Schema(description = "Holiday calendar entity for managing business holidays")
+// Schedules reference calendars lazily; a fetched proxy serializes through its getters
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class HolidayCalendar {
     
     @Id
@@ -62,10 +67,14 @@ public class HolidayCalendar {
     private LocalDateTime lastModifiedDate;
     
     @OneToMany(mappedBy = "holidayCalendar", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("calendar-holidays")
     private List<Holiday> holidayList;
     
     @OneToMany(mappedBy = "holidayCalendar", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("calendar-runcontrols")
     private List<RunControl> runControls;
     
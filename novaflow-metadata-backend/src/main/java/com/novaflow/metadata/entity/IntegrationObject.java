@@ -5,7 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -65,27 +67,39 @@ public class IntegrationObject {
     @Schema(description = "Last modification timestamp")
     private LocalDateTime lastModifiedDate;
     
-    @OneToMany(mappedBy = "integrationObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "integrationObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("integrationobject-attributes")
     private List<ObjectSchemaAttribute> attributes;
     
-    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("sourceobject-rules")
     private List<Rule> sourceRules;
     
-    @OneToMany(mappedBy = "targetObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "targetObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("targetobject-rules")
     private List<Rule> targetRules;
     
-    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("sourceobject-scaffolds")
     private List<Scaffold> sourceScaffolds;
     
-    @OneToMany(mappedBy = "targetObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "targetObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("targetobject-scaffolds")
     private List<Scaffold> targetScaffolds;
     
-    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "sourceObject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("integrationobject-uimetadata")
     private List<UIMetadata> uiMetadataList;
     
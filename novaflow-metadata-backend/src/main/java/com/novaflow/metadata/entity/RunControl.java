@@ -5,8 +5,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonRawValue;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
@@ -88,6 +90,8 @@ public class RunControl {
     private LocalDateTime lastModifiedDate;
     
     @OneToMany(mappedBy = "runControl", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("runcontrol-processlogs")
     private List<ProcessLog> processLogs;
     
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
 @Table(name = "run_control_schedules", schema = "metadata")
@@ -35,6 +36,8 @@ public class RunControlSchedule {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "holiday_calendar_id")
     @Schema(description = "Holiday calendar for schedule adjustments")
+    // The calendar's run controls lead back to this schedule
+    @JsonIgnoreProperties("runControls")
     private HolidayCalendar holidayCalendar;
     
     @NotNull
@@ -5,10 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonRawValue;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -111,7 +113,9 @@ public class UIMetadata {
     @Schema(description = "Last modification timestamp")
     private LocalDateTime lastModifiedDate;
     
-    @OneToMany(mappedBy = "uiMetadata", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "uiMetadata", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)
     @JsonManagedReference("uimetadata-dynamicdata")
     private List<DynamicDataRecord> dynamicDataRecords;
     
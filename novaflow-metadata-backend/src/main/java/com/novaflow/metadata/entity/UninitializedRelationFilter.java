@@ -0,0 +1,22 @@
+package com.novaflow.metadata.entity;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Jackson value filter for lazy relations: a relation that was not loaded is left out of the JSON
+ * instead of being initialized (or failing) during serialization. Use with
+ * {@code @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedRelationFilter.class)}.
+ */
+public class UninitializedRelationFilter {
+
+    @Override
+    public boolean equals(Object value) {
+        // Jackson omits the property when this returns true
+        return value != null && !Hibernate.isInitialized(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.novaflow.metadata.pagination;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Null-tolerant Specification building blocks for list filters: a filter whose value is
+ * null (or a blank string) yields null, which Specification.allOf ignores.
+ * Attribute paths may be dotted to filter on a to-one association's id, e.g. "runControl.id".
+ */
+public final class Filters {
+
+    private Filters() {
+    }
+
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        if (isEmpty(value)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(path(root, attribute), value);
+    }
+
+    /**
+     * Case-insensitive substring match
+     */
+    public static <T> Specification<T> contains(String attribute, String text) {
+        if (isEmpty(text)) {
+            return null;
+        }
+        String pattern = "%" + text.toLowerCase()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(path(root, attribute)), pattern, '\\');
+    }
+
+    /**
+     * Inclusive lower bound
+     */
+    public static <T, V extends Comparable<? super V>> Specification<T> atLeast(String attribute, V value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(path(root, attribute), value);
+    }
+
+    /**
+     * Inclusive upper bound
+     */
+    public static <T, V extends Comparable<? super V>> Specification<T> atMost(String attribute, V value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(path(root, attribute), value);
+    }
+
+    /**
+     * Left fetch joins of to-one associations, loaded with the rows instead of one query per row.
+     * Paths may be dotted, e.g. "runControlSchedule.holidayCalendar"; shared prefixes are joined once.
+     */
+    public static <T> Specification<T> fetch(String... associations) {
+        return (root, query, cb) -> {
+            for (String association : associations) {
+                FetchParent<?, ?> parent = root;
+                for (String part : association.split("\\.")) {
+                    parent = fetched(parent, part);
+                }
+            }
+            return null;
+        };
+    }
+
+    private static FetchParent<?, ?> fetched(FetchParent<?, ?> parent, String attribute) {
+        for (Fetch<?, ?> fetch : parent.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute)) {
+                return fetch;
+            }
+        }
+        return parent.fetch(attribute, JoinType.LEFT);
+    }
+
+    static <T, V> Path<V> path(Root<T> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<V> typed = (Path<V>) path;
+        return typed;
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || (value instanceof String s && s.isBlank());
+    }
+}
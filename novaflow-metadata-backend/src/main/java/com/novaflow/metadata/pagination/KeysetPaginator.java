@@ -0,0 +1,183 @@
+package com.novaflow.metadata.pagination;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination over a JpaSpecificationExecutor.
+ * Every sort is made total by appending id, a page is read with "WHERE (sort keys) > (last row's keys)
+ * ORDER BY sort keys LIMIT n + 1", so the cost of a page does not grow with its depth and no count query is run.
+ * The cursor is base64url JSON of the sort it was issued for plus the last row's sort key values.
+ * Only whitelisted top-level properties can be sorted on; nullable ones are ordered the PostgreSQL way
+ * (nulls last ascending, first descending) and the seek predicate follows that order.
+ */
+public final class KeysetPaginator<T> {
+
+    private static final String ID = "id";
+    private static final ObjectMapper CURSOR_MAPPER = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    private final String defaultSort;
+    private final Map<String, Class<?>> sortableTypes = new LinkedHashMap<>();
+
+    public KeysetPaginator(Class<T> entityType, String defaultSort, String... sortableProperties) {
+        List<String> properties = new ArrayList<>(List.of(sortableProperties));
+        properties.add(ID);
+        for (String property : properties) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+            if (descriptor == null) {
+                throw new IllegalStateException(entityType.getSimpleName() + " has no property " + property);
+            }
+            sortableTypes.put(property, descriptor.getPropertyType());
+        }
+        this.defaultSort = defaultSort;
+        parseSort(defaultSort);
+    }
+
+    /**
+     * Read one page of the rows matching filter (may be null)
+     */
+    public CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter, PageQuery query) {
+        String sortSpec = query.sort() == null || query.sort().isBlank() ? defaultSort : query.sort().replace(" ", "");
+        List<Sort.Order> orders = parseSort(sortSpec);
+        int limit = query.resolvedLimit();
+
+        Specification<T> spec = Specification.where(filter);
+        if (query.hasCursor()) {
+            spec = spec.and(seekAfter(orders, decodeCursor(query.cursor(), sortSpec, orders)));
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        Sort sort = Sort.by(orders);
+        List<T> rows = repository.findBy(spec, q -> q.sortBy(sort).limit(limit + 1).all());
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPage<>(items, encodeCursor(sortSpec, orders, items.get(limit - 1)));
+    }
+
+    /**
+     * The total order a page request with this sort (null for the default) reads rows in, for full exports
+     */
+    public Sort sort(String sortSpec) {
+        return Sort.by(parseSort(sortSpec == null || sortSpec.isBlank() ? defaultSort : sortSpec.replace(" ", "")));
+    }
+
+    private List<Sort.Order> parseSort(String sortSpec) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (String token : sortSpec.split(",")) {
+            boolean descending = token.startsWith("-");
+            String property = descending ? token.substring(1) : token;
+            if (!sortableTypes.containsKey(property)) {
+                throw new IllegalArgumentException("Unsupported sort property: " + property
+                    + " (sortable: " + String.join(", ", sortableTypes.keySet()) + ")");
+            }
+            hasId |= ID.equals(property);
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        if (!hasId) {
+            orders.add(Sort.Order.asc(ID));
+        }
+        return orders;
+    }
+
+    // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... with "greater" taken in each key's sort direction
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<T> seekAfter(List<Sort.Order> orders, Object[] keys) {
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Expression<Comparable> path = root.get(order.getProperty());
+                Comparable key = (Comparable) keys[i];
+                Predicate beyond = beyond(cb, path, key, order.isAscending());
+                if (beyond != null) {
+                    List<Predicate> conjunction = new ArrayList<>(equalSoFar);
+                    conjunction.add(beyond);
+                    alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+                }
+                equalSoFar.add(key == null ? cb.isNull(path) : cb.equal(path, key));
+            }
+            return cb.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression<Comparable> path, Comparable key, boolean ascending) {
+        if (ascending) {
+            // Nulls sort last: after a null there is nothing, after a value come greater values and nulls
+            return key == null ? null : cb.or(cb.greaterThan(path, key), cb.isNull(path));
+        }
+        // Nulls sort first: after a null come all values, after a value only smaller values
+        return key == null ? cb.isNotNull(path) : cb.lessThan(path, key);
+    }
+
+    private String encodeCursor(String sortSpec, List<Sort.Order> orders, T last) {
+        BeanWrapper row = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        ObjectNode cursor = CURSOR_MAPPER.createObjectNode();
+        cursor.put("s", sortSpec);
+        ArrayNode keys = cursor.putArray("k");
+        for (Sort.Order order : orders) {
+            keys.addPOJO(row.getPropertyValue(order.getProperty()));
+        }
+        try {
+            byte[] json = CURSOR_MAPPER.writeValueAsBytes(cursor);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    private Object[] decodeCursor(String encoded, String sortSpec, List<Sort.Order> orders) {
+        JsonNode cursor;
+        try {
+            cursor = CURSOR_MAPPER.readTree(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (cursor == null || !sortSpec.equals(cursor.path("s").asText(null))) {
+            throw new IllegalArgumentException("Cursor does not belong to sort " + sortSpec);
+        }
+        JsonNode keys = cursor.path("k");
+        if (!keys.isArray() || keys.size() != orders.size()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Object[] values = new Object[orders.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                JsonNode key = keys.get(i);
+                values[i] = key.isNull() ? null
+                    : CURSOR_MAPPER.treeToValue(key, sortableTypes.get(orders.get(i).getProperty()));
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        return values;
+    }
+}
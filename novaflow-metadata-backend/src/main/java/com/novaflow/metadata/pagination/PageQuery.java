@@ -0,0 +1,33 @@
+package com.novaflow.metadata.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Paging parameters of a list request, bound from the sort, cursor and limit query parameters.
+ * Limit defaults to DEFAULT_LIMIT and is capped at MAX_LIMIT.
+ */
+public record PageQuery(
+    @Schema(description = "Comma separated sort properties, '-' prefix for descending (e.g. -createdDate,status)")
+    String sort,
+    @Schema(description = "Cursor from the X-Next-Cursor header of the previous page")
+    String cursor,
+    @Schema(description = "Page size (default " + PageQuery.DEFAULT_LIMIT + ", max " + PageQuery.MAX_LIMIT + ")")
+    Integer limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public int resolvedLimit() {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isBlank();
+    }
+}
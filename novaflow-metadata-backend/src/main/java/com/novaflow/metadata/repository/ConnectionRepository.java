@@ -1,13 +1,19 @@
 package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.Connection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ConnectionRepository extends JpaRepository<Connection, UUID> {
@@ -52,6 +58,25 @@ public interface ConnectionRepository extends JpaRepository<Connection, UUID> {
     @Query("SELECT COUNT(c) FROM Connection c WHERE c.domainId = :domainId AND c.status = 'ACTIVE' AND c.isCurrent = true")
     long countCurrentActiveConnectionsByDomain(@Param("domainId") String domainId);
     
+    // Find current connections across a set of domains in one query, ordered by the (domain_id, name, id) keyset
+    @Query("SELECT c FROM Connection c WHERE c.domainId IN :domainIds AND c.isCurrent = true ORDER BY c.domainId, c.name, c.id")
+    List<Connection> findCurrentConnectionsByDomains(@Param("domainIds") Collection<String> domainIds, Pageable pageable);
+    
+    // Next keyset page: rows strictly after (afterDomainId, afterName, afterId)
+    @Query("SELECT c FROM Connection c WHERE c.domainId IN :domainIds AND c.isCurrent = true " +
+           "AND (c.domainId > :afterDomainId OR (c.domainId = :afterDomainId AND (c.name > :afterName " +
+           "OR (c.name = :afterName AND c.id > :afterId)))) ORDER BY c.domainId, c.name, c.id")
+    List<Connection> findCurrentConnectionsByDomainsAfter(@Param("domainIds") Collection<String> domainIds,
+                                                          @Param("afterDomainId") String afterDomainId,
+                                                          @Param("afterName") String afterName,
+                                                          @Param("afterId") UUID afterId,
+                                                          Pageable pageable);
+    
+    // Stream current connections across a set of domains (must be consumed inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Connection c WHERE c.domainId IN :domainIds AND c.isCurrent = true ORDER BY c.domainId, c.name, c.id")
+    Stream<Connection> streamCurrentConnectionsByDomains(@Param("domainIds") Collection<String> domainIds);
+    
     // Get domains that user has access to (for domain-scoped authorization)
     @Query(value = """
         SELECT DISTINCT c.domain_id 
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.DynamicDataRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DynamicDataRecordRepository extends JpaRepository<DynamicDataRecord, String> {
+public interface DynamicDataRecordRepository extends JpaRepository<DynamicDataRecord, String>, JpaSpecificationExecutor<DynamicDataRecord> {
     
     List<DynamicDataRecord> findByDomainId(String domainId);
     
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.HolidayCalendar;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,13 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HolidayCalendarRepository extends JpaRepository<HolidayCalendar, String> {
-    
-    @Query("SELECT DISTINCT hc FROM HolidayCalendar hc LEFT JOIN FETCH hc.holidayList")
-    List<HolidayCalendar> findAllWithHolidays();
-    
-    @Query("SELECT DISTINCT hc FROM HolidayCalendar hc LEFT JOIN FETCH hc.runControls WHERE hc IN :calendars")
-    List<HolidayCalendar> findWithRunControls(@Param("calendars") List<HolidayCalendar> calendars);
+public interface HolidayCalendarRepository extends JpaRepository<HolidayCalendar, String>, JpaSpecificationExecutor<HolidayCalendar> {
     
     List<HolidayCalendar> findByDomainId(String domainId);
     
@@ -33,6 +28,14 @@ public interface HolidayCalendarRepository extends JpaRepository<HolidayCalendar
     @Query("SELECT hc FROM HolidayCalendar hc WHERE hc.status = 'A' ORDER BY hc.name")
     List<HolidayCalendar> findAllActive();
     
+    /**
+     * Initialize the run controls of a page of calendars in one joined query, with the run controls'
+     * one-to-one step configurations, which would otherwise load one query per run control
+     */
+    @Query("SELECT DISTINCT hc FROM HolidayCalendar hc LEFT JOIN FETCH hc.runControls rc LEFT JOIN FETCH rc.runControlSchedule "
+         + "LEFT JOIN FETCH rc.runControlStream LEFT JOIN FETCH rc.runControlFileWatch WHERE hc IN :calendars")
+    List<HolidayCalendar> findWithRunControls(@Param("calendars") List<HolidayCalendar> calendars);
+    
     long countByDomainId(String domainId);
     
     long countByDomainIdAndStatus(String domainId, Character status);
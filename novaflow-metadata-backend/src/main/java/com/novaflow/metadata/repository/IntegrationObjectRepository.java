@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.IntegrationObject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,29 +11,11 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface IntegrationObjectRepository extends JpaRepository<IntegrationObject, String> {
+public interface IntegrationObjectRepository extends JpaRepository<IntegrationObject, String>, JpaSpecificationExecutor<IntegrationObject> {
     
     @Query("SELECT DISTINCT io FROM IntegrationObject io")
     List<IntegrationObject> findAllObjects();
     
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.attributes WHERE io IN :objects")
-    List<IntegrationObject> findWithAttributes(@Param("objects") List<IntegrationObject> objects);
-    
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.sourceRules WHERE io IN :objects")
-    List<IntegrationObject> findWithSourceRules(@Param("objects") List<IntegrationObject> objects);
-    
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.targetRules WHERE io IN :objects")
-    List<IntegrationObject> findWithTargetRules(@Param("objects") List<IntegrationObject> objects);
-    
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.sourceScaffolds WHERE io IN :objects")
-    List<IntegrationObject> findWithSourceScaffolds(@Param("objects") List<IntegrationObject> objects);
-    
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.targetScaffolds WHERE io IN :objects")
-    List<IntegrationObject> findWithTargetScaffolds(@Param("objects") List<IntegrationObject> objects);
-    
-    @Query("SELECT DISTINCT io FROM IntegrationObject io LEFT JOIN FETCH io.uiMetadataList ui LEFT JOIN FETCH ui.dynamicDataRecords WHERE io IN :objects")
-    List<IntegrationObject> findWithUiMetadata(@Param("objects") List<IntegrationObject> objects);
-    
     List<IntegrationObject> findByDomainId(String domainId);
     
     List<IntegrationObject> findByDomainIdAndStatus(String domainId, Character status);
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.ProcessLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProcessLogRepository extends JpaRepository<ProcessLog, String> {
+public interface ProcessLogRepository extends JpaRepository<ProcessLog, String>, JpaSpecificationExecutor<ProcessLog> {
     
     List<ProcessLog> findByRunControlId(String runControlId);
     
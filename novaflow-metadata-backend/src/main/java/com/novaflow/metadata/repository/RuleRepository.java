@@ -2,15 +2,17 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.Rule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RuleRepository extends JpaRepository<Rule, String> {
+public interface RuleRepository extends JpaRepository<Rule, String>, JpaSpecificationExecutor<Rule> {
     
     List<Rule> findByDomainId(String domainId);
     
@@ -35,6 +37,9 @@ public interface RuleRepository extends JpaRepository<Rule, String> {
     @Query("SELECT r FROM Rule r WHERE r.domainId = :domainId AND r.status = 'A' AND r.effectiveDate <= :currentDate ORDER BY r.priority, r.name")
     List<Rule> findActiveRulesByDomain(@Param("domainId") String domainId, @Param("currentDate") LocalDateTime currentDate);
     
+    @Query("SELECT r FROM Rule r WHERE r.id IN :ids AND r.status = 'A' AND r.effectiveDate <= :currentDate")
+    List<Rule> findActiveRulesByIdIn(@Param("ids") Collection<String> ids, @Param("currentDate") LocalDateTime currentDate);
+    
     long countByDomainId(String domainId);
     
     long countByDomainIdAndStatus(String domainId, Character status);
@@ -0,0 +1,12 @@
+package com.novaflow.metadata.repository;
+
+import com.novaflow.metadata.entity.RuleSet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface RuleSetRepository extends JpaRepository<RuleSet, String> {
+
+    List<RuleSet> findByDomainId(String domainId);
+}
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.RunControl;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,19 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RunControlRepository extends JpaRepository<RunControl, String> {
-    
-    @Query("SELECT DISTINCT rc FROM RunControl rc LEFT JOIN FETCH rc.processLogs")
-    List<RunControl> findAllWithProcessLogs();
-    
-    @Query("SELECT DISTINCT rc FROM RunControl rc LEFT JOIN FETCH rc.runControlSchedule WHERE rc IN :controls")
-    List<RunControl> findWithSchedule(@Param("controls") List<RunControl> controls);
-    
-    @Query("SELECT DISTINCT rc FROM RunControl rc LEFT JOIN FETCH rc.runControlStream WHERE rc IN :controls")
-    List<RunControl> findWithStream(@Param("controls") List<RunControl> controls);
-    
-    @Query("SELECT DISTINCT rc FROM RunControl rc LEFT JOIN FETCH rc.runControlFileWatch WHERE rc IN :controls")
-    List<RunControl> findWithFileWatch(@Param("controls") List<RunControl> controls);
+public interface RunControlRepository extends JpaRepository<RunControl, String>, JpaSpecificationExecutor<RunControl> {
     
     List<RunControl> findByDomainId(String domainId);
     
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RunControlScheduleRepository extends JpaRepository<RunControlSchedule, String> {
@@ -21,6 +22,14 @@ public interface RunControlScheduleRepository extends JpaRepository<RunControlSc
     
     List<RunControlSchedule> findByRunOnNextBusinessDay(Boolean runOnNextBusinessDay);
     
+    @Query("SELECT s FROM RunControlSchedule s JOIN FETCH s.runControl r LEFT JOIN FETCH s.holidayCalendar "
+            + "WHERE r.status = 'A' AND LOWER(r.triggerType) = 'scheduled'")
+    List<RunControlSchedule> findActiveScheduled();
+
+    @Query("SELECT s FROM RunControlSchedule s JOIN FETCH s.runControl r LEFT JOIN FETCH s.holidayCalendar "
+            + "WHERE s.runControlId = :runControlId AND r.status = 'A' AND LOWER(r.triggerType) = 'scheduled'")
+    Optional<RunControlSchedule> findActiveScheduledByRunControlId(@Param("runControlId") String runControlId);
+    
     @Query("SELECT COUNT(s) FROM RunControlSchedule s WHERE s.runControlId = :runControlId")
     long countByRunControlId(@Param("runControlId") String runControlId);
 }
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.Scaffold;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ScaffoldRepository extends JpaRepository<Scaffold, String> {
+public interface ScaffoldRepository extends JpaRepository<Scaffold, String>, JpaSpecificationExecutor<Scaffold> {
     
     List<Scaffold> findByDomainId(String domainId);
     
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.UIMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,10 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UIMetadataRepository extends JpaRepository<UIMetadata, String> {
-    
-    @Query("SELECT DISTINCT u FROM UIMetadata u LEFT JOIN FETCH u.dynamicDataRecords")
-    List<UIMetadata> findAllWithDynamicData();
+public interface UIMetadataRepository extends JpaRepository<UIMetadata, String>, JpaSpecificationExecutor<UIMetadata> {
     
     List<UIMetadata> findByDomainId(String domainId);
     
@@ -2,6 +2,7 @@ package com.novaflow.metadata.repository;
 
 import com.novaflow.metadata.entity.VersionHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface VersionHistoryRepository extends JpaRepository<VersionHistory, String> {
+public interface VersionHistoryRepository extends JpaRepository<VersionHistory, String>, JpaSpecificationExecutor<VersionHistory> {
     
     List<VersionHistory> findByEntityId(String entityId);
     
@@ -0,0 +1,292 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic of rule actions. Operands are normalised to Long, BigDecimal or Double and the result keeps
+ * the most exact of their kinds: long while both are integral (moving to BigDecimal on overflow or an
+ * inexact quotient), BigDecimal when either is a BigDecimal, a decimal literal or a numeric string, and
+ * double only when a Float or Double meets a Long or another Double.
+ *
+ * Null, non-numeric operands, division by zero and non-finite double results yield null.
+ */
+public final class Arithmetic {
+
+    /** Precision of quotients that do not terminate, such as 1 / 3 */
+    static final MathContext DIVISION = MathContext.DECIMAL128;
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private Arithmetic() {
+    }
+
+    /**
+     * Long, BigDecimal or Double form of a record value or literal, null when it is not a number.
+     * Numeric strings are read exactly, as Long when integral and in range, otherwise as BigDecimal.
+     */
+    public static Object number(Object value) {
+        if (value instanceof Long) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isFinite(number) ? (Object) number : null;
+        }
+        if (value instanceof BigDecimal) {
+            return value;
+        }
+        if (value instanceof BigInteger integer) {
+            return fitsLong(integer) ? (Object) integer.longValue() : new BigDecimal(integer);
+        }
+        if (value instanceof Number number) {
+            double converted = number.doubleValue();
+            return Double.isFinite(converted) ? (Object) converted : null;
+        }
+        if (value instanceof String text) {
+            return parse(text);
+        }
+        return null;
+    }
+
+    private static Object parse(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        char first = trimmed.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            BigDecimal decimal = new BigDecimal(trimmed);
+            boolean integral = trimmed.indexOf('.') < 0 && trimmed.indexOf('e') < 0 && trimmed.indexOf('E') < 0;
+            return integral && fitsLong(decimal.toBigInteger()) ? (Object) decimal.longValue() : decimal;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean fitsLong(BigInteger value) {
+        return value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0;
+    }
+
+    private static BigDecimal decimal(Object number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (number instanceof Long value) {
+            return BigDecimal.valueOf(value);
+        }
+        // Shortest decimal that reads back as the double, so 0.1 stays 0.1
+        return BigDecimal.valueOf((Double) number);
+    }
+
+    private static boolean isDouble(Object a, Object b) {
+        return (a instanceof Double || b instanceof Double) && !(a instanceof BigDecimal) && !(b instanceof BigDecimal);
+    }
+
+    private static Object finite(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    public static Object add(Object left, Object right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null) {
+            return null;
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            long sum = x + y;
+            // Overflow iff both operands have the sign the sum lacks
+            if (((x ^ sum) & (y ^ sum)) >= 0) {
+                return sum;
+            }
+        } else if (isDouble(a, b)) {
+            return finite(((Number) a).doubleValue() + ((Number) b).doubleValue());
+        }
+        return decimal(a).add(decimal(b));
+    }
+
+    static Object subtract(Object left, Object right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null) {
+            return null;
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            long difference = x - y;
+            if (((x ^ y) & (x ^ difference)) >= 0) {
+                return difference;
+            }
+        } else if (isDouble(a, b)) {
+            return finite(((Number) a).doubleValue() - ((Number) b).doubleValue());
+        }
+        return decimal(a).subtract(decimal(b));
+    }
+
+    static Object multiply(Object left, Object right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null) {
+            return null;
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            long high = Math.multiplyHigh(x, y);
+            long product = x * y;
+            if ((high == 0 && product >= 0) || (high == -1 && product < 0)) {
+                return product;
+            }
+        } else if (isDouble(a, b)) {
+            return finite(((Number) a).doubleValue() * ((Number) b).doubleValue());
+        }
+        return decimal(a).multiply(decimal(b));
+    }
+
+    static Object divide(Object left, Object right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null || isZero(b)) {
+            return null;
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            if (x % y == 0 && !(x == Long.MIN_VALUE && y == -1)) {
+                return x / y;
+            }
+        } else if (isDouble(a, b)) {
+            return finite(((Number) a).doubleValue() / ((Number) b).doubleValue());
+        }
+        BigDecimal dividend = decimal(a);
+        BigDecimal divisor = decimal(b);
+        try {
+            return dividend.divide(divisor);
+        } catch (ArithmeticException nonTerminating) {
+            return dividend.divide(divisor, DIVISION);
+        }
+    }
+
+    static Object remainder(Object left, Object right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null || isZero(b)) {
+            return null;
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            return y == -1 ? 0L : x % y;
+        }
+        if (isDouble(a, b)) {
+            return finite(((Number) a).doubleValue() % ((Number) b).doubleValue());
+        }
+        return decimal(a).remainder(decimal(b));
+    }
+
+    static Object negate(Object value) {
+        Object a = number(value);
+        if (a instanceof Long x) {
+            return x != Long.MIN_VALUE ? (Object) (-x) : BigDecimal.valueOf(x).negate();
+        }
+        if (a instanceof Double x) {
+            return -x;
+        }
+        return a == null ? null : ((BigDecimal) a).negate();
+    }
+
+    static Object abs(Object value) {
+        Object a = number(value);
+        if (a instanceof Long x) {
+            return x >= 0 ? a : negate(x);
+        }
+        if (a instanceof Double x) {
+            return Math.abs(x);
+        }
+        return a == null ? null : ((BigDecimal) a).abs();
+    }
+
+    static Object floor(Object value) {
+        return toIntegral(value, RoundingMode.FLOOR);
+    }
+
+    static Object ceil(Object value) {
+        return toIntegral(value, RoundingMode.CEILING);
+    }
+
+    private static Object toIntegral(Object value, RoundingMode mode) {
+        Object a = number(value);
+        if (a instanceof Double x) {
+            return mode == RoundingMode.FLOOR ? Math.floor(x) : Math.ceil(x);
+        }
+        if (a instanceof BigDecimal x) {
+            return x.setScale(0, mode);
+        }
+        return a;
+    }
+
+    /**
+     * value rounded half away from zero to places decimal places (negative places round to tens,
+     * hundreds, ...). Doubles keep RuleCompiler.round, so they round as the columnar kernels do.
+     */
+    static Object round(Object value, Object places) {
+        Object a = number(value);
+        Object p = number(places);
+        if (a == null || p == null) {
+            return null;
+        }
+        int scale = ((Number) p).intValue();
+        if (a instanceof Double x) {
+            return finite(RuleCompiler.round(x, scale));
+        }
+        if (a instanceof Long x) {
+            return scale >= 0 ? a : BigDecimal.valueOf(x).setScale(scale, RoundingMode.HALF_UP).longValue();
+        }
+        return ((BigDecimal) a).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The smaller (least true) or larger operand, unchanged; null when either is null
+     */
+    static Object extreme(Object left, Object right, boolean least) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null) {
+            return null;
+        }
+        int comparison = a instanceof Long x && b instanceof Long y ? Long.compare(x, y) : decimal(a).compareTo(decimal(b));
+        return (comparison <= 0) == least ? a : b;
+    }
+
+    /**
+     * Order of two numbers by exact value, so 2^53 and 2^53 + 1 differ while 3 and 3.0 are equal.
+     * Non-finite doubles order as Double.compare orders them.
+     */
+    public static int compare(Number left, Number right) {
+        Object a = number(left);
+        Object b = number(right);
+        if (a == null || b == null) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        if (a instanceof Long x && b instanceof Long y) {
+            return Long.compare(x, y);
+        }
+        if (a instanceof Double x && b instanceof Double y) {
+            // Adding 0.0 turns -0.0 into 0.0, which the other kinds cannot tell apart either
+            return Double.compare(x + 0.0, y + 0.0);
+        }
+        return decimal(a).compareTo(decimal(b));
+    }
+
+    private static boolean isZero(Object number) {
+        if (number instanceof Long value) {
+            return value == 0;
+        }
+        if (number instanceof Double value) {
+            return value == 0;
+        }
+        return ((BigDecimal) number).signum() == 0;
+    }
+}
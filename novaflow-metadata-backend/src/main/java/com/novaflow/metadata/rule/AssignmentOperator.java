@@ -0,0 +1,27 @@
+package com.novaflow.metadata.rule;
+
+/**
+ * Action operators: assign the expression to the target attribute, or combine it with the
+ * attribute's current numeric value
+ */
+public enum AssignmentOperator {
+    ASSIGN,
+    ADD,
+    SUBTRACT,
+    MULTIPLY,
+    DIVIDE;
+
+    public static AssignmentOperator of(String spelling) {
+        if (spelling == null) {
+            throw new RuleSyntaxException("Action operator is required");
+        }
+        return switch (spelling.trim()) {
+            case ":=", "=" -> ASSIGN;
+            case "+=" -> ADD;
+            case "-=" -> SUBTRACT;
+            case "*=" -> MULTIPLY;
+            case "/=" -> DIVIDE;
+            default -> throw new RuleSyntaxException("Unknown action operator '" + spelling + "'");
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.BitSet;
+
+/**
+ * One attribute of a ColumnBatch, stored as a primitive array plus a null mask
+ */
+public abstract class Column {
+
+    final int size;
+    final BitSet nulls;
+
+    private Column(int size) {
+        this.size = size;
+        this.nulls = new BitSet(size);
+    }
+
+    public abstract ColumnType type();
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * Boxed value of a row, null for a null row
+     */
+    public abstract Object get(int row);
+
+    /**
+     * Store a value if it already has this column's type; values are never converted, so a rule sees
+     * exactly what was written
+     *
+     * @return false if the column must be widened to hold it
+     */
+    abstract boolean set(int row, Object value);
+
+    /**
+     * Numeric value of every row, NaN for nulls and non-numbers, matching RuleCompiler.toDouble
+     */
+    double[] toDoubles() {
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = RuleCompiler.toDouble(get(i));
+        }
+        return result;
+    }
+
+    static Column create(ColumnType type, int size) {
+        Column column = switch (type) {
+            case LONG -> new LongColumn(new long[size]);
+            case DOUBLE -> new DoubleColumn(new double[size]);
+            case BOOLEAN -> new BooleanColumn(new boolean[size]);
+            case STRING -> new StringColumn(new String[size]);
+            case OBJECT -> new ObjectColumn(new Object[size]);
+        };
+        column.nulls.set(0, size);
+        return column;
+    }
+
+    public static Column ofLongs(long[] values) {
+        return new LongColumn(values);
+    }
+
+    public static Column ofDoubles(double[] values) {
+        DoubleColumn column = new DoubleColumn(values);
+        for (int i = 0; i < values.length; i++) {
+            if (Double.isNaN(values[i])) {
+                column.nulls.set(i);
+            }
+        }
+        return column;
+    }
+
+    public static Column ofBooleans(boolean[] values) {
+        return new BooleanColumn(values);
+    }
+
+    public static Column ofStrings(String[] values) {
+        StringColumn column = new StringColumn(values);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                column.nulls.set(i);
+            }
+        }
+        return column;
+    }
+
+    static final class LongColumn extends Column {
+        final long[] values;
+
+        LongColumn(long[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.LONG;
+        }
+
+        @Override
+        public Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+                return false;
+            }
+            values[row] = ((Number) value).longValue();
+            nulls.clear(row);
+            return true;
+        }
+
+        @Override
+        double[] toDoubles() {
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[i];
+            }
+            for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) {
+                result[i] = Double.NaN;
+            }
+            return result;
+        }
+    }
+
+    static final class DoubleColumn extends Column {
+        final double[] values;
+
+        DoubleColumn(double[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.DOUBLE;
+        }
+
+        @Override
+        public Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            // Decimals are kept exact in a widened column rather than rounded to double
+            if (!(value instanceof Number number) || value instanceof BigDecimal || value instanceof BigInteger
+                    || Double.isNaN(number.doubleValue())) {
+                return false;
+            }
+            setDouble(row, number.doubleValue());
+            return true;
+        }
+
+        void setDouble(int row, double value) {
+            values[row] = value;
+            if (Double.isNaN(value)) {
+                nulls.set(row);
+            } else {
+                nulls.clear(row);
+            }
+        }
+
+        @Override
+        double[] toDoubles() {
+            double[] result = values.clone();
+            for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) {
+                result[i] = Double.NaN;
+            }
+            return result;
+        }
+    }
+
+    static final class BooleanColumn extends Column {
+        final boolean[] values;
+
+        BooleanColumn(boolean[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.BOOLEAN;
+        }
+
+        @Override
+        public Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (!(value instanceof Boolean bool)) {
+                return false;
+            }
+            values[row] = bool;
+            nulls.clear(row);
+            return true;
+        }
+    }
+
+    static final class StringColumn extends Column {
+        final String[] values;
+
+        StringColumn(String[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value != null && !(value instanceof String)) {
+                return false;
+            }
+            values[row] = (String) value;
+            nulls.set(row, value == null);
+            return true;
+        }
+    }
+
+    static final class ObjectColumn extends Column {
+        final Object[] values;
+
+        ObjectColumn(Object[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.OBJECT;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            values[row] = value;
+            nulls.set(row, value == null);
+            return true;
+        }
+    }
+}
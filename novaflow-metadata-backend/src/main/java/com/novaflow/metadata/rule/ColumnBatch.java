@@ -0,0 +1,242 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of records stored column by column, one typed primitive array per attribute. Columns are
+ * typed from the schema where one is given, otherwise from their first non-null value, and widen to
+ * OBJECT if a value does not fit.
+ */
+public final class ColumnBatch {
+
+    private final int rowCount;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    public ColumnBatch(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @param schema column types by attribute name; attributes missing from it are inferred
+     */
+    public static ColumnBatch fromRecords(List<Map<String, Object>> records, Map<String, ColumnType> schema) {
+        ColumnBatch batch = new ColumnBatch(records.size());
+        for (int row = 0; row < records.size(); row++) {
+            Map<String, Object> record = records.get(row);
+            if (record == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> entry : record.entrySet()) {
+                batch.load(entry.getKey(), row, entry.getValue(), schema.get(entry.getKey()));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @param values attribute name to one value per row; every list must have the same length
+     */
+    public static ColumnBatch fromColumns(Map<String, List<Object>> values, Map<String, ColumnType> schema) {
+        int rowCount = values.isEmpty() ? 0 : values.values().iterator().next().size();
+        ColumnBatch batch = new ColumnBatch(rowCount);
+        for (Map.Entry<String, List<Object>> entry : values.entrySet()) {
+            List<Object> column = entry.getValue();
+            if (column.size() != rowCount) {
+                throw new IllegalArgumentException("Column " + entry.getKey() + " has " + column.size()
+                        + " values, expected " + rowCount);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                batch.load(entry.getKey(), row, column.get(row), schema.get(entry.getKey()));
+            }
+        }
+        return batch;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public Column column(String name) {
+        return columns.get(name);
+    }
+
+    public Set<String> columnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    public ColumnBatch put(String name, Column column) {
+        if (column.size != rowCount) {
+            throw new IllegalArgumentException("Column " + name + " has " + column.size + " rows, expected " + rowCount);
+        }
+        columns.put(name, column);
+        return this;
+    }
+
+    public Map<String, List<Object>> toColumns() {
+        Map<String, List<Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Column> entry : columns.entrySet()) {
+            List<Object> values = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                values.add(entry.getValue().get(row));
+            }
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+
+    public List<Map<String, Object>> toRecords() {
+        List<Map<String, Object>> records = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                if (!entry.getValue().isNull(row)) {
+                    record.put(entry.getKey(), entry.getValue().get(row));
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Store an input value, converting it to the schema type where it is a string or number of another
+     * kind (JSON numbers, numeric strings, "true" / "false")
+     */
+    private void load(String name, int row, Object value, ColumnType type) {
+        set(name, row, type != null ? coerce(type, value) : value, type);
+    }
+
+    private static Object coerce(ColumnType type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+            case LONG:
+                if (value instanceof Number number && number.doubleValue() == Math.rint(number.doubleValue())) {
+                    return number.longValue();
+                }
+                if (value instanceof String text) {
+                    try {
+                        return Long.parseLong(text.trim());
+                    } catch (NumberFormatException e) {
+                        return value;
+                    }
+                }
+                return value;
+            case DOUBLE:
+                // BigDecimals (and decimal strings) stay exact, widening the column
+                if (value instanceof BigDecimal || value instanceof BigInteger) {
+                    return value;
+                }
+                if (value instanceof Number number) {
+                    return number.doubleValue();
+                }
+                if (value instanceof String text) {
+                    Object number = Arithmetic.number(text);
+                    return number instanceof Long integral ? (Object) integral.doubleValue() : number != null ? number : value;
+                }
+                return value;
+            case BOOLEAN:
+                if (value instanceof String text && (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false"))) {
+                    return Boolean.parseBoolean(text);
+                }
+                return value;
+            default:
+                return value;
+        }
+    }
+
+    void set(String name, int row, Object value) {
+        set(name, row, value, null);
+    }
+
+    private void set(String name, int row, Object value, ColumnType type) {
+        Column column = columns.get(name);
+        if (column == null) {
+            if (value == null && type == null) {
+                return;
+            }
+            column = Column.create(type != null ? type : ColumnType.infer(value), rowCount);
+            columns.put(name, column);
+        }
+        if (!column.set(row, value)) {
+            Column widened = Column.create(ColumnType.OBJECT, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                widened.set(i, column.get(i));
+            }
+            widened.set(row, value);
+            columns.put(name, widened);
+        }
+    }
+
+    /**
+     * Store a numeric result, NaN meaning null, keeping double columns primitive
+     */
+    void setNumber(String name, int row, double value) {
+        Column column = columns.get(name);
+        if (column == null && !Double.isNaN(value)) {
+            column = Column.create(ColumnType.DOUBLE, rowCount);
+            columns.put(name, column);
+        }
+        if (column instanceof Column.DoubleColumn doubles) {
+            doubles.setDouble(row, value);
+        } else if (column != null) {
+            set(name, row, RuleCompiler.box(value));
+        }
+    }
+
+    /**
+     * Reusable Map view of one row, for evaluating row-at-a-time predicates and actions without
+     * materialising a record; move it with at(row)
+     */
+    public RowView row() {
+        return new RowView();
+    }
+
+    public final class RowView extends AbstractMap<String, Object> {
+        private int row;
+
+        public RowView at(int row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Column column = columns.get(key);
+            return column != null ? column.get(row) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Column column = columns.get(key);
+            return column != null && !column.isNull(row);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object previous = get(key);
+            set(key, row, value);
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                if (!entry.getValue().isNull(row)) {
+                    values.put(entry.getKey(), entry.getValue().get(row));
+                }
+            }
+            return values.entrySet();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * Storage type of a ColumnBatch column, derived from an ObjectSchemaAttribute's dataType
+ */
+public enum ColumnType {
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING,
+    /** Boxed values of mixed or unknown type */
+    OBJECT;
+
+    /**
+     * Column type for a schema data type such as "Integer", "Decimal" or "VARCHAR"; dates, JSON and
+     * anything unrecognised are kept as strings
+     */
+    public static ColumnType of(String dataType) {
+        if (dataType == null) {
+            return OBJECT;
+        }
+        String type = dataType.trim().toUpperCase(Locale.ROOT);
+        int precision = type.indexOf('(');
+        if (precision >= 0) {
+            type = type.substring(0, precision).trim();
+        }
+        return switch (type) {
+            case "INTEGER", "INT", "BIGINT", "SMALLINT", "TINYINT", "LONG" -> LONG;
+            case "DECIMAL", "NUMERIC", "NUMBER", "DOUBLE", "FLOAT", "REAL", "DOUBLE PRECISION" -> DOUBLE;
+            case "BOOLEAN", "BOOL", "BIT" -> BOOLEAN;
+            default -> STRING;
+        };
+    }
+
+    /**
+     * Column type that can hold a value without changing its comparison semantics
+     */
+    static ColumnType infer(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LONG;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return OBJECT;
+        }
+        if (value instanceof Number) {
+            return DOUBLE;
+        }
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        if (value instanceof String) {
+            return STRING;
+        }
+        return OBJECT;
+    }
+}
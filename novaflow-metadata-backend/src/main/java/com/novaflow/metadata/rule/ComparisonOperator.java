@@ -0,0 +1,63 @@
+package com.novaflow.metadata.rule;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Condition operators accepted in a rule condition's "operator", with their spellings.
+ * Spellings are matched case-insensitively, with spaces and underscores interchangeable.
+ */
+public enum ComparisonOperator {
+    EQ("=", "==", "eq", "equals"),
+    NE("!=", "<>", "ne", "not equals"),
+    GT(">", "gt", "greater than"),
+    GE(">=", "gte", "ge", "greater than or equals"),
+    LT("<", "lt", "less than"),
+    LE("<=", "lte", "le", "less than or equals"),
+    CONTAINS("contains"),
+    NOT_CONTAINS("not contains"),
+    STARTS_WITH("starts with", "startswith"),
+    ENDS_WITH("ends with", "endswith"),
+    /** Value is a comma-separated list */
+    IN("in"),
+    NOT_IN("not in"),
+    IS_NULL("is null", "is empty"),
+    IS_NOT_NULL("is not null", "is not empty");
+
+    private static final Map<String, ComparisonOperator> BY_SPELLING = new HashMap<>();
+
+    static {
+        for (ComparisonOperator operator : values()) {
+            BY_SPELLING.put(normalize(operator.name()), operator);
+            for (String spelling : operator.spellings) {
+                BY_SPELLING.put(normalize(spelling), operator);
+            }
+        }
+    }
+
+    private final String[] spellings;
+
+    ComparisonOperator(String... spellings) {
+        this.spellings = spellings;
+    }
+
+    /**
+     * Whether the operator ignores the condition's value
+     */
+    public boolean isUnary() {
+        return this == IS_NULL || this == IS_NOT_NULL;
+    }
+
+    public static ComparisonOperator of(String spelling) {
+        ComparisonOperator operator = spelling != null ? BY_SPELLING.get(normalize(spelling)) : null;
+        if (operator == null) {
+            throw new RuleSyntaxException("Unknown condition operator '" + spelling + "'");
+        }
+        return operator;
+    }
+
+    private static String normalize(String spelling) {
+        return spelling.trim().toLowerCase(Locale.ROOT).replace('_', ' ').replaceAll("\\s+", " ");
+    }
+}
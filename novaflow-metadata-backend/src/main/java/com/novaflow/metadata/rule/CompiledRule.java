@@ -0,0 +1,85 @@
+package com.novaflow.metadata.rule;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executable form of one version of a Rule. Immutable and safe to share between threads; records are
+ * plain attribute maps and actions write their results back into the record.
+ */
+public final class CompiledRule {
+
+    /**
+     * One compiled action, writing its result into the record
+     */
+    @FunctionalInterface
+    public interface Action {
+        void apply(Map<String, Object> record);
+    }
+
+    private final String ruleId;
+    private final int version;
+    private final int priority;
+    private final RuleDefinition definition;
+    private final RecordPredicate condition;
+    private final Action[] actions;
+
+    CompiledRule(String ruleId, int version, int priority, RuleDefinition definition,
+                 RecordPredicate condition, Action[] actions) {
+        this.ruleId = ruleId;
+        this.version = version;
+        this.priority = priority;
+        this.definition = definition;
+        this.condition = condition;
+        this.actions = actions;
+    }
+
+    public boolean matches(Map<String, Object> record) {
+        return condition.test(record);
+    }
+
+    /**
+     * Run the actions, in order, against a record that matches the condition
+     *
+     * @return whether the record matched
+     */
+    public boolean apply(Map<String, Object> record) {
+        if (!condition.test(record)) {
+            return false;
+        }
+        applyActions(record);
+        return true;
+    }
+
+    /**
+     * Run the actions, in order, without testing the condition
+     */
+    public void applyActions(Map<String, Object> record) {
+        for (Action action : actions) {
+            action.apply(record);
+        }
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public RuleDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Compiled actions, in the order of getDefinition().actions()
+     */
+    public List<Action> getActions() {
+        return List.of(actions);
+    }
+}
@@ -0,0 +1,30 @@
+package com.novaflow.metadata.rule;
+
+import java.util.List;
+
+/**
+ * Typed form of a rule's conditions array
+ */
+public sealed interface Condition {
+
+    /**
+     * attribute operator value; value is null for unary operators
+     */
+    record Comparison(String attribute, ComparisonOperator operator, String value) implements Condition {
+    }
+
+    record And(List<Condition> operands) implements Condition {
+    }
+
+    record Or(List<Condition> operands) implements Condition {
+    }
+
+    record Not(Condition operand) implements Condition {
+    }
+
+    /**
+     * A rule with no conditions matches every record
+     */
+    record Always() implements Condition {
+    }
+}
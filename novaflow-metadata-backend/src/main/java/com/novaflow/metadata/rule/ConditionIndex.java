@@ -0,0 +1,266 @@
+package com.novaflow.metadata.rule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Discrimination index over a set of compiled rules. Each rule is filed under one discriminating
+ * condition that every matching record must satisfy: a top-level comparison, or one conjunct of a
+ * top-level AND. Equality and IN conditions go into a per-attribute hash index, numeric GT/GE/LT/LE into
+ * per-attribute sorted threshold maps, and rules without such a condition are always candidates.
+ *
+ * candidates(record) returns a superset of the rules the record can match, in (priority, rule id) order;
+ * callers still run each candidate's full condition. Rules are added and removed individually, so a
+ * rule change only touches that rule's entries.
+ */
+public final class ConditionIndex {
+
+    private static final Comparator<CompiledRule> EXECUTION_ORDER =
+            Comparator.comparingInt(CompiledRule::getPriority).thenComparing(CompiledRule::getRuleId);
+
+    private final Map<String, AttributeIndex> attributes = new HashMap<>();
+    private final Map<String, Registration> registrations = new HashMap<>();
+    private final List<CompiledRule> unindexed = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Where a rule is filed, so it can be removed without scanning the index
+     */
+    private record Registration(CompiledRule rule, String attribute, List<Object> keys, NavigableMap<Double, List<CompiledRule>> range) {
+    }
+
+    private static final class AttributeIndex {
+        final Map<Object, List<CompiledRule>> equality = new HashMap<>();
+        final NavigableMap<Double, List<CompiledRule>> greaterThan = new TreeMap<>();
+        final NavigableMap<Double, List<CompiledRule>> greaterOrEqual = new TreeMap<>();
+        final NavigableMap<Double, List<CompiledRule>> lessThan = new TreeMap<>();
+        final NavigableMap<Double, List<CompiledRule>> lessOrEqual = new TreeMap<>();
+
+        boolean isEmpty() {
+            return equality.isEmpty() && greaterThan.isEmpty() && greaterOrEqual.isEmpty()
+                    && lessThan.isEmpty() && lessOrEqual.isEmpty();
+        }
+    }
+
+    public ConditionIndex() {
+    }
+
+    public ConditionIndex(List<CompiledRule> rules) {
+        for (CompiledRule rule : rules) {
+            put(rule);
+        }
+    }
+
+    /**
+     * Add a rule, replacing any rule with the same id
+     */
+    public void put(CompiledRule rule) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(rule.getRuleId());
+            register(rule);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String ruleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(ruleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return registrations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rules that may match the record, in (priority, rule id) order
+     */
+    public List<CompiledRule> candidates(Map<String, Object> record) {
+        List<CompiledRule> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            candidates.addAll(unindexed);
+            for (Map.Entry<String, AttributeIndex> entry : attributes.entrySet()) {
+                Object value = record.get(entry.getKey());
+                if (value != null) {
+                    collect(entry.getValue(), value, candidates);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        candidates.sort(EXECUTION_ORDER);
+        // A rule filed under several keys (IN lists, numeric or boolean literals) can be collected twice
+        for (int i = candidates.size() - 1; i > 0; i--) {
+            if (candidates.get(i) == candidates.get(i - 1)) {
+                candidates.remove(i);
+            }
+        }
+        return candidates;
+    }
+
+    private static void collect(AttributeIndex index, Object value, List<CompiledRule> candidates) {
+        for (Object key : lookupKeys(value)) {
+            List<CompiledRule> rules = index.equality.get(key);
+            if (rules != null) {
+                candidates.addAll(rules);
+            }
+        }
+        double number = RuleCompiler.toDouble(value);
+        if (Double.isNaN(number)) {
+            return;
+        }
+        index.greaterThan.headMap(number, false).values().forEach(candidates::addAll);
+        index.greaterOrEqual.headMap(number, true).values().forEach(candidates::addAll);
+        index.lessThan.tailMap(number, false).values().forEach(candidates::addAll);
+        index.lessOrEqual.tailMap(number, true).values().forEach(candidates::addAll);
+    }
+
+    private void register(CompiledRule rule) {
+        Condition.Comparison discriminator = discriminator(rule.getDefinition().condition());
+        if (discriminator == null) {
+            unindexed.add(rule);
+            registrations.put(rule.getRuleId(), new Registration(rule, null, List.of(), null));
+            return;
+        }
+        AttributeIndex index = attributes.computeIfAbsent(discriminator.attribute(), a -> new AttributeIndex());
+        String literal = discriminator.value() != null ? discriminator.value() : "";
+        switch (discriminator.operator()) {
+            case EQ, IN -> {
+                List<Object> keys = discriminator.operator() == ComparisonOperator.EQ
+                        ? equalityKeys(literal) : inKeys(literal);
+                for (Object key : keys) {
+                    index.equality.computeIfAbsent(key, k -> new ArrayList<>(1)).add(rule);
+                }
+                registrations.put(rule.getRuleId(), new Registration(rule, discriminator.attribute(), keys, null));
+            }
+            default -> {
+                NavigableMap<Double, List<CompiledRule>> range = switch (discriminator.operator()) {
+                    case GT -> index.greaterThan;
+                    case GE -> index.greaterOrEqual;
+                    case LT -> index.lessThan;
+                    default -> index.lessOrEqual;
+                };
+                double threshold = RuleCompiler.parseDouble(literal);
+                range.computeIfAbsent(threshold, t -> new ArrayList<>(1)).add(rule);
+                registrations.put(rule.getRuleId(), new Registration(rule, discriminator.attribute(), List.of(threshold), range));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeLocked(String ruleId) {
+        Registration registration = registrations.remove(ruleId);
+        if (registration == null) {
+            return;
+        }
+        if (registration.attribute() == null) {
+            unindexed.remove(registration.rule());
+            return;
+        }
+        AttributeIndex index = attributes.get(registration.attribute());
+        Map<Object, List<CompiledRule>> entries = registration.range() != null
+                ? (Map<Object, List<CompiledRule>>) (Map<?, ?>) registration.range() : index.equality;
+        for (Object key : registration.keys()) {
+            List<CompiledRule> rules = entries.get(key);
+            if (rules != null) {
+                rules.remove(registration.rule());
+                if (rules.isEmpty()) {
+                    entries.remove(key);
+                }
+            }
+        }
+        if (index.isEmpty()) {
+            attributes.remove(registration.attribute());
+        }
+    }
+
+    /**
+     * The most selective indexable condition every match must satisfy: equality before IN before a
+     * numeric range. Null when the rule has none (OR at the top, negations, string operators only).
+     */
+    static Condition.Comparison discriminator(Condition condition) {
+        List<Condition> conjuncts = condition instanceof Condition.And and ? and.operands() : List.of(condition);
+        Condition.Comparison best = null;
+        for (Condition conjunct : conjuncts) {
+            if (conjunct instanceof Condition.Comparison comparison && rank(comparison) < rank(best)) {
+                best = comparison;
+            }
+        }
+        return best;
+    }
+
+    private static int rank(Condition.Comparison comparison) {
+        if (comparison == null) {
+            return Integer.MAX_VALUE;
+        }
+        return switch (comparison.operator()) {
+            case EQ -> 0;
+            case IN -> 1;
+            case GT, GE, LT, LE -> Double.isNaN(RuleCompiler.parseDouble(comparison.value() != null ? comparison.value() : ""))
+                    ? Integer.MAX_VALUE : 2;
+            default -> Integer.MAX_VALUE;
+        };
+    }
+
+    // Keys mirror RuleCompiler's equality: numbers by value, booleans case-insensitively, everything else by string
+
+    private record NumberKey(double value) {
+    }
+
+    private record BooleanKey(boolean value) {
+    }
+
+    private static List<Object> equalityKeys(String literal) {
+        List<Object> keys = new ArrayList<>(2);
+        keys.add(literal);
+        double number = RuleCompiler.parseDouble(literal);
+        if (!Double.isNaN(number)) {
+            keys.add(new NumberKey(number));
+        }
+        if (literal.equalsIgnoreCase("true") || literal.equalsIgnoreCase("false")) {
+            keys.add(new BooleanKey(Boolean.parseBoolean(literal)));
+        }
+        return keys;
+    }
+
+    private static List<Object> inKeys(String literal) {
+        List<Object> keys = new ArrayList<>();
+        for (String value : literal.split(",")) {
+            String trimmed = value.trim();
+            keys.add(trimmed);
+            double number = RuleCompiler.parseDouble(trimmed);
+            if (!Double.isNaN(number)) {
+                keys.add(new NumberKey(number));
+            }
+        }
+        return keys;
+    }
+
+    private static List<Object> lookupKeys(Object value) {
+        if (value instanceof Number number) {
+            return List.of(new NumberKey(number.doubleValue()));
+        }
+        if (value instanceof Boolean bool) {
+            return List.of(new BooleanKey(bool), bool.toString());
+        }
+        return List.of(value.toString());
+    }
+}
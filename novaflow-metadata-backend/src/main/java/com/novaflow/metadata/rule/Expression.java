@@ -0,0 +1,36 @@
+package com.novaflow.metadata.rule;
+
+import java.util.List;
+
+/**
+ * Typed form of an action's expression
+ */
+public sealed interface Expression {
+
+    /**
+     * Value of the named attribute of the record being evaluated
+     */
+    record AttributeRef(String name) implements Expression {
+    }
+
+    /**
+     * A String, Long, BigDecimal, Boolean or null literal
+     */
+    record Constant(Object value) implements Expression {
+    }
+
+    /**
+     * operator is one of + - * / % and || (string concatenation)
+     */
+    record Binary(String operator, Expression left, Expression right) implements Expression {
+    }
+
+    record Negate(Expression operand) implements Expression {
+    }
+
+    /**
+     * Built-in function call; function is upper-cased
+     */
+    record Call(String function, List<Expression> arguments) implements Expression {
+    }
+}
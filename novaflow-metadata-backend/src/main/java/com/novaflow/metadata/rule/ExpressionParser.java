@@ -0,0 +1,215 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parses an action expression such as "ROUND(amount * 1.1, 2)" or "first_name || ' ' || last_name".
+ *
+ * Grammar, lowest precedence first: concat (||), additive (+ -), multiplicative (* / %), unary minus,
+ * then literals (numbers, 'single' or "double" quoted strings, TRUE, FALSE, NULL), function calls and
+ * attribute references. Integer literals are Long, decimal literals BigDecimal. Bare identifiers,
+ * optionally dotted, are attribute references.
+ */
+public final class ExpressionParser {
+
+    static final Set<String> FUNCTIONS = Set.of("ABS", "ROUND", "FLOOR", "CEIL", "MIN", "MAX",
+            "UPPER", "LOWER", "TRIM", "LENGTH", "CONCAT", "COALESCE");
+
+    private final String source;
+    private int position;
+
+    private ExpressionParser(String source) {
+        this.source = source;
+    }
+
+    public static Expression parse(String source) {
+        ExpressionParser parser = new ExpressionParser(source);
+        Expression expression = parser.concat();
+        parser.skipWhitespace();
+        if (parser.position < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.position) + "'");
+        }
+        return expression;
+    }
+
+    private RuleSyntaxException error(String message) {
+        return new RuleSyntaxException(message + " at position " + position + " in expression '" + source + "'");
+    }
+
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean accept(String symbol) {
+        skipWhitespace();
+        if (source.startsWith(symbol, position)) {
+            position += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private Expression concat() {
+        Expression left = additive();
+        while (accept("||")) {
+            left = new Expression.Binary("||", left, additive());
+        }
+        return left;
+    }
+
+    private Expression additive() {
+        Expression left = multiplicative();
+        while (true) {
+            if (accept("+")) {
+                left = new Expression.Binary("+", left, multiplicative());
+            } else if (accept("-")) {
+                left = new Expression.Binary("-", left, multiplicative());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression multiplicative() {
+        Expression left = unary();
+        while (true) {
+            if (accept("*")) {
+                left = new Expression.Binary("*", left, unary());
+            } else if (accept("/")) {
+                left = new Expression.Binary("/", left, unary());
+            } else if (accept("%")) {
+                left = new Expression.Binary("%", left, unary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression unary() {
+        if (accept("-")) {
+            Expression operand = unary();
+            if (operand instanceof Expression.Constant constant && constant.value() instanceof Long value) {
+                return new Expression.Constant(-value);
+            }
+            if (operand instanceof Expression.Constant constant && constant.value() instanceof BigDecimal value) {
+                return new Expression.Constant(value.negate());
+            }
+            return new Expression.Negate(operand);
+        }
+        accept("+");
+        return primary();
+    }
+
+    private Expression primary() {
+        skipWhitespace();
+        if (position >= source.length()) {
+            throw error("Unexpected end of expression");
+        }
+        char c = source.charAt(position);
+        if (c == '(') {
+            position++;
+            Expression inner = concat();
+            if (!accept(")")) {
+                throw error("Expected ')'");
+            }
+            return inner;
+        }
+        if (c == '\'' || c == '"') {
+            return new Expression.Constant(string(c));
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            return identifier();
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private String string(char quote) {
+        StringBuilder value = new StringBuilder();
+        position++;
+        while (position < source.length()) {
+            char c = source.charAt(position++);
+            if (c == quote) {
+                // A doubled quote is an escaped quote
+                if (position < source.length() && source.charAt(position) == quote) {
+                    value.append(quote);
+                    position++;
+                } else {
+                    return value.toString();
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Expression number() {
+        int start = position;
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (c != '.' && c != 'e' && c != 'E' && !Character.isDigit(c) && !((c == '+' || c == '-') && isExponent(position - 1))) {
+                break;
+            }
+            position++;
+        }
+        String text = source.substring(start, position);
+        // Decimal literals are read exactly, so 0.1 + 0.2 is 0.3; integers too large for a long are decimal
+        Object value = Arithmetic.number(text);
+        if (value == null) {
+            throw error("Invalid number '" + text + "'");
+        }
+        return new Expression.Constant(value);
+    }
+
+    private boolean isExponent(int index) {
+        return index >= 0 && (source.charAt(index) == 'e' || source.charAt(index) == 'E');
+    }
+
+    private Expression identifier() {
+        int start = position;
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                break;
+            }
+            position++;
+        }
+        String name = source.substring(start, position);
+        String upper = name.toUpperCase(Locale.ROOT);
+        switch (upper) {
+            case "TRUE":
+                return new Expression.Constant(Boolean.TRUE);
+            case "FALSE":
+                return new Expression.Constant(Boolean.FALSE);
+            case "NULL":
+                return new Expression.Constant(null);
+            default:
+                break;
+        }
+        if (!accept("(")) {
+            return new Expression.AttributeRef(name);
+        }
+        if (!FUNCTIONS.contains(upper)) {
+            throw error("Unknown function " + name);
+        }
+        List<Expression> arguments = new ArrayList<>();
+        if (!accept(")")) {
+            do {
+                arguments.add(concat());
+            } while (accept(","));
+            if (!accept(")")) {
+                throw error("Expected ')' after arguments of " + name);
+            }
+        }
+        return new Expression.Call(upper, List.copyOf(arguments));
+    }
+}
@@ -0,0 +1,49 @@
+package com.novaflow.metadata.rule;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Record view that reads through to a shared base record and keeps its own writes, so rules running in
+ * parallel all see the original input and their outputs can be merged afterwards
+ */
+final class OverlayRecord extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> base;
+    private final Map<String, Object> writes = new HashMap<>(8);
+
+    OverlayRecord(Map<String, Object> base) {
+        this.base = base;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return writes.containsKey(key) ? writes.get(key) : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return writes.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        writes.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> merged = new LinkedHashMap<>(base);
+        merged.putAll(writes);
+        return merged.entrySet();
+    }
+
+    Map<String, Object> writes() {
+        return writes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.novaflow.metadata.rule;
+
+import java.util.Map;
+
+/**
+ * Compiled action expression over one record
+ */
+@FunctionalInterface
+public interface RecordExpression {
+
+    Object evaluate(Map<String, Object> record);
+}
@@ -0,0 +1,12 @@
+package com.novaflow.metadata.rule;
+
+import java.util.Map;
+
+/**
+ * Compiled rule condition over one record
+ */
+@FunctionalInterface
+public interface RecordPredicate {
+
+    boolean test(Map<String, Object> record);
+}
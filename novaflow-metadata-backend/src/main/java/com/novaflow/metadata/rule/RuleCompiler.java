@@ -0,0 +1,458 @@
+package com.novaflow.metadata.rule;
+
+import com.novaflow.metadata.entity.Rule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a RuleDefinition into a tree of lambdas. Operators, literals and function calls are resolved
+ * once at compile time, so evaluating a record only walks the tree.
+ *
+ * Null semantics follow SQL: a comparison against a missing attribute is false (IS NULL aside), and
+ * arithmetic with a null operand yields null. Action arithmetic is exact (see Arithmetic): Long while the
+ * operands are integral, BigDecimal when one is a decimal, and Double only for floating-point inputs.
+ */
+public final class RuleCompiler {
+
+    private RuleCompiler() {
+    }
+
+    public static CompiledRule compile(Rule rule) {
+        RuleDefinition definition = RuleParser.parse(rule);
+        return compile(rule.getId(), rule.getVersion() != null ? rule.getVersion() : 0,
+                rule.getPriority() != null ? rule.getPriority() : 0, definition);
+    }
+
+    public static CompiledRule compile(String ruleId, int version, int priority, RuleDefinition definition) {
+        List<RuleDefinition.Action> actions = definition.actions();
+        CompiledRule.Action[] compiled = new CompiledRule.Action[actions.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compileAction(actions.get(i));
+        }
+        return new CompiledRule(ruleId, version, priority, definition, compile(definition.condition()), compiled);
+    }
+
+    // Conditions
+
+    public static RecordPredicate compile(Condition condition) {
+        if (condition instanceof Condition.Comparison comparison) {
+            return compileComparison(comparison);
+        }
+        if (condition instanceof Condition.Not not) {
+            RecordPredicate operand = compile(not.operand());
+            return record -> !operand.test(record);
+        }
+        if (condition instanceof Condition.And and) {
+            RecordPredicate[] operands = compileAll(and.operands());
+            return record -> {
+                for (RecordPredicate operand : operands) {
+                    if (!operand.test(record)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (condition instanceof Condition.Or or) {
+            RecordPredicate[] operands = compileAll(or.operands());
+            return record -> {
+                for (RecordPredicate operand : operands) {
+                    if (operand.test(record)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        return record -> true;
+    }
+
+    private static RecordPredicate[] compileAll(List<Condition> conditions) {
+        RecordPredicate[] compiled = new RecordPredicate[conditions.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(conditions.get(i));
+        }
+        return compiled;
+    }
+
+    private static RecordPredicate compileComparison(Condition.Comparison comparison) {
+        String attribute = comparison.attribute();
+        String literal = comparison.value() != null ? comparison.value() : "";
+        double number = parseDouble(literal);
+        boolean numeric = !Double.isNaN(number);
+
+        return switch (comparison.operator()) {
+            case IS_NULL -> record -> isEmpty(record.get(attribute));
+            case IS_NOT_NULL -> record -> !isEmpty(record.get(attribute));
+            case EQ -> record -> equalsLiteral(record.get(attribute), literal, number, numeric);
+            case NE -> record -> {
+                Object actual = record.get(attribute);
+                return actual != null && !equalsLiteral(actual, literal, number, numeric);
+            };
+            case GT -> ordered(attribute, literal, number, numeric, c -> c > 0);
+            case GE -> ordered(attribute, literal, number, numeric, c -> c >= 0);
+            case LT -> ordered(attribute, literal, number, numeric, c -> c < 0);
+            case LE -> ordered(attribute, literal, number, numeric, c -> c <= 0);
+            case CONTAINS -> record -> {
+                Object actual = record.get(attribute);
+                return actual != null && actual.toString().contains(literal);
+            };
+            case NOT_CONTAINS -> record -> {
+                Object actual = record.get(attribute);
+                return actual != null && !actual.toString().contains(literal);
+            };
+            case STARTS_WITH -> record -> {
+                Object actual = record.get(attribute);
+                return actual != null && actual.toString().startsWith(literal);
+            };
+            case ENDS_WITH -> record -> {
+                Object actual = record.get(attribute);
+                return actual != null && actual.toString().endsWith(literal);
+            };
+            case IN -> {
+                ValueSet values = new ValueSet(literal);
+                yield record -> {
+                    Object actual = record.get(attribute);
+                    return actual != null && values.contains(actual);
+                };
+            }
+            case NOT_IN -> {
+                ValueSet values = new ValueSet(literal);
+                yield record -> {
+                    Object actual = record.get(attribute);
+                    return actual != null && !values.contains(actual);
+                };
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Ordering {
+        boolean accept(int comparison);
+    }
+
+    private static RecordPredicate ordered(String attribute, String literal, double number, boolean numeric, Ordering ordering) {
+        if (numeric) {
+            return record -> {
+                double actual = toDouble(record.get(attribute));
+                return !Double.isNaN(actual) && ordering.accept(Double.compare(actual, number));
+            };
+        }
+        return record -> {
+            Object actual = record.get(attribute);
+            return actual != null && ordering.accept(actual.toString().compareTo(literal));
+        };
+    }
+
+    private static boolean equalsLiteral(Object actual, String literal, double number, boolean numeric) {
+        if (actual == null) {
+            return false;
+        }
+        if (numeric && actual instanceof Number value) {
+            return value.doubleValue() == number;
+        }
+        if (actual instanceof Boolean value) {
+            return literal.equalsIgnoreCase(value.toString());
+        }
+        return actual.toString().equals(literal);
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || (value instanceof String text && text.isBlank());
+    }
+
+    /**
+     * Literal list of an IN condition, split on commas, matched by string and, for numbers, by value
+     */
+    static final class ValueSet {
+        private final Set<String> strings = new HashSet<>();
+        private final double[] numbers;
+
+        ValueSet(String literal) {
+            List<Double> parsed = new ArrayList<>();
+            for (String value : literal.split(",")) {
+                String trimmed = value.trim();
+                strings.add(trimmed);
+                double number = parseDouble(trimmed);
+                if (!Double.isNaN(number)) {
+                    parsed.add(number);
+                }
+            }
+            numbers = parsed.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        boolean contains(Object actual) {
+            if (actual instanceof Number value) {
+                return containsNumber(value.doubleValue());
+            }
+            return containsString(actual.toString());
+        }
+
+        boolean containsNumber(double number) {
+            for (double candidate : numbers) {
+                if (candidate == number) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean containsString(String value) {
+            return strings.contains(value);
+        }
+    }
+
+    // Actions and expressions
+
+    static CompiledRule.Action compileAction(RuleDefinition.Action action) {
+        String target = action.target();
+        if (action.operator() == AssignmentOperator.ASSIGN) {
+            RecordExpression expression = compile(action.expression());
+            return record -> record.put(target, expression.evaluate(record));
+        }
+        RecordExpression operand = compileNumeric(action.expression());
+        return switch (action.operator()) {
+            case ADD -> record -> record.put(target, Arithmetic.add(record.get(target), operand.evaluate(record)));
+            case SUBTRACT -> record -> record.put(target, Arithmetic.subtract(record.get(target), operand.evaluate(record)));
+            case MULTIPLY -> record -> record.put(target, Arithmetic.multiply(record.get(target), operand.evaluate(record)));
+            case DIVIDE -> record -> record.put(target, Arithmetic.divide(record.get(target), operand.evaluate(record)));
+            case ASSIGN -> throw new IllegalStateException();
+        };
+    }
+
+    public static RecordExpression compile(Expression expression) {
+        if (expression instanceof Expression.Constant constant) {
+            Object value = constant.value();
+            return record -> value;
+        }
+        if (expression instanceof Expression.AttributeRef ref) {
+            String name = ref.name();
+            return record -> record.get(name);
+        }
+        if (expression instanceof Expression.Binary binary && binary.operator().equals("||")) {
+            RecordExpression left = compile(binary.left());
+            RecordExpression right = compile(binary.right());
+            return record -> text(left.evaluate(record)) + text(right.evaluate(record));
+        }
+        if (expression instanceof Expression.Call call && !isNumericFunction(call.function())) {
+            return compileCall(call);
+        }
+        return compileNumeric(expression);
+    }
+
+    private static RecordExpression compileCall(Expression.Call call) {
+        RecordExpression[] arguments = new RecordExpression[call.arguments().size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = compile(call.arguments().get(i));
+        }
+        return switch (call.function()) {
+            case "UPPER" -> {
+                RecordExpression argument = single(call, arguments);
+                yield record -> {
+                    Object value = argument.evaluate(record);
+                    return value == null ? null : value.toString().toUpperCase();
+                };
+            }
+            case "LOWER" -> {
+                RecordExpression argument = single(call, arguments);
+                yield record -> {
+                    Object value = argument.evaluate(record);
+                    return value == null ? null : value.toString().toLowerCase();
+                };
+            }
+            case "TRIM" -> {
+                RecordExpression argument = single(call, arguments);
+                yield record -> {
+                    Object value = argument.evaluate(record);
+                    return value == null ? null : value.toString().trim();
+                };
+            }
+            case "CONCAT" -> record -> {
+                StringBuilder result = new StringBuilder();
+                for (RecordExpression argument : arguments) {
+                    result.append(text(argument.evaluate(record)));
+                }
+                return result.toString();
+            };
+            case "COALESCE" -> {
+                requireArguments(call, 1, Integer.MAX_VALUE);
+                yield record -> {
+                    for (RecordExpression argument : arguments) {
+                        Object value = argument.evaluate(record);
+                        if (value != null) {
+                            return value;
+                        }
+                    }
+                    return null;
+                };
+            }
+            default -> throw new RuleSyntaxException("Unknown function " + call.function());
+        };
+    }
+
+    private static boolean isNumericFunction(String function) {
+        return switch (function) {
+            case "ABS", "ROUND", "FLOOR", "CEIL", "MIN", "MAX", "LENGTH" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Expression whose value is a Long, BigDecimal or Double, or null
+     */
+    private static RecordExpression compileNumeric(Expression expression) {
+        if (expression instanceof Expression.Constant constant) {
+            Object value = Arithmetic.number(constant.value());
+            if (value == null && constant.value() != null) {
+                throw new RuleSyntaxException("'" + constant.value() + "' is not a number");
+            }
+            return record -> value;
+        }
+        if (expression instanceof Expression.AttributeRef ref) {
+            String name = ref.name();
+            return record -> Arithmetic.number(record.get(name));
+        }
+        if (expression instanceof Expression.Negate negate) {
+            RecordExpression operand = compileNumeric(negate.operand());
+            return record -> Arithmetic.negate(operand.evaluate(record));
+        }
+        if (expression instanceof Expression.Binary binary && !binary.operator().equals("||")) {
+            RecordExpression left = compileNumeric(binary.left());
+            RecordExpression right = compileNumeric(binary.right());
+            return switch (binary.operator()) {
+                case "+" -> record -> Arithmetic.add(left.evaluate(record), right.evaluate(record));
+                case "-" -> record -> Arithmetic.subtract(left.evaluate(record), right.evaluate(record));
+                case "*" -> record -> Arithmetic.multiply(left.evaluate(record), right.evaluate(record));
+                case "/" -> record -> Arithmetic.divide(left.evaluate(record), right.evaluate(record));
+                case "%" -> record -> Arithmetic.remainder(left.evaluate(record), right.evaluate(record));
+                default -> throw new RuleSyntaxException("Unknown operator " + binary.operator());
+            };
+        }
+        if (expression instanceof Expression.Call call && isNumericFunction(call.function())) {
+            return compileNumericCall(call);
+        }
+        RecordExpression general = compile(expression);
+        return record -> Arithmetic.number(general.evaluate(record));
+    }
+
+    private static RecordExpression compileNumericCall(Expression.Call call) {
+        if (call.function().equals("LENGTH")) {
+            requireArguments(call, 1, 1);
+            RecordExpression argument = compile(call.arguments().get(0));
+            return record -> {
+                Object value = argument.evaluate(record);
+                return value == null ? null : (Object) (long) value.toString().length();
+            };
+        }
+        RecordExpression[] arguments = new RecordExpression[call.arguments().size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = compileNumeric(call.arguments().get(i));
+        }
+        return switch (call.function()) {
+            case "ABS" -> {
+                requireArguments(call, 1, 1);
+                yield record -> Arithmetic.abs(arguments[0].evaluate(record));
+            }
+            case "FLOOR" -> {
+                requireArguments(call, 1, 1);
+                yield record -> Arithmetic.floor(arguments[0].evaluate(record));
+            }
+            case "CEIL" -> {
+                requireArguments(call, 1, 1);
+                yield record -> Arithmetic.ceil(arguments[0].evaluate(record));
+            }
+            case "ROUND" -> {
+                requireArguments(call, 1, 2);
+                if (arguments.length == 1) {
+                    yield record -> Arithmetic.round(arguments[0].evaluate(record), 0L);
+                }
+                yield record -> Arithmetic.round(arguments[0].evaluate(record), arguments[1].evaluate(record));
+            }
+            case "MIN", "MAX" -> {
+                requireArguments(call, 1, Integer.MAX_VALUE);
+                boolean least = call.function().equals("MIN");
+                yield record -> {
+                    Object result = arguments[0].evaluate(record);
+                    for (int i = 1; i < arguments.length && result != null; i++) {
+                        result = Arithmetic.extreme(result, arguments[i].evaluate(record), least);
+                    }
+                    return result;
+                };
+            }
+            default -> throw new RuleSyntaxException("Unknown function " + call.function());
+        };
+    }
+
+    private static RecordExpression single(Expression.Call call, RecordExpression[] arguments) {
+        requireArguments(call, 1, 1);
+        return arguments[0];
+    }
+
+    private static void requireArguments(Expression.Call call, int min, int max) {
+        int count = call.arguments().size();
+        if (count < min || count > max) {
+            throw new RuleSyntaxException(call.function() + " takes " + (min == max ? String.valueOf(min)
+                    : max == Integer.MAX_VALUE ? "at least " + min : min + " to " + max) + " argument(s), got " + count);
+        }
+    }
+
+    // Value conversions
+
+    static double round(double value, double places) {
+        if (Double.isNaN(value) || Double.isNaN(places)) {
+            return Double.NaN;
+        }
+        double scale = Math.pow(10, (int) places);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Numeric value of a record value or literal; NaN stands for null or non-numeric
+     */
+    public static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            return parseDouble(text);
+        }
+        return Double.NaN;
+    }
+
+    static double parseDouble(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return Double.NaN;
+        }
+        char first = trimmed.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(trimmed);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Box a double result: null for NaN or infinite, Long when integral, otherwise Double
+     */
+    public static Object box(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+            return (long) value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.novaflow.metadata.rule;
+
+import java.util.List;
+
+/**
+ * Parsed conditions and actions of a Rule
+ */
+public record RuleDefinition(Condition condition, List<Action> actions) {
+
+    /**
+     * target operator expression, e.g. "amount *= 1.1"
+     */
+    public record Action(String target, AssignmentOperator operator, Expression expression) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.novaflow.metadata.rule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novaflow.metadata.entity.Rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a Rule's conditions and actions JSON (see rule-schema.json) into a RuleDefinition.
+ *
+ * Conditions are read as an infix list: each condition's conditionOperator joins it to the next one
+ * (AND when absent, NOT meaning AND NOT), AND binds tighter than OR, and parenthesis "(" / ")" opens a
+ * group before or closes one after the condition.
+ */
+public final class RuleParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private RuleParser() {
+    }
+
+    public static RuleDefinition parse(Rule rule) {
+        return parse(rule.getConditions(), rule.getActions());
+    }
+
+    public static RuleDefinition parse(String conditionsJson, String actionsJson) {
+        return new RuleDefinition(parseConditions(readArray(conditionsJson, "conditions")),
+                parseActions(readArray(actionsJson, "actions")));
+    }
+
+    private static JsonNode readArray(String json, String field) {
+        if (json == null || json.isBlank()) {
+            return MAPPER.createArrayNode();
+        }
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            if (node.isNull()) {
+                return MAPPER.createArrayNode();
+            }
+            if (!node.isArray()) {
+                throw new RuleSyntaxException("Rule " + field + " must be a JSON array");
+            }
+            return node;
+        } catch (JsonProcessingException e) {
+            throw new RuleSyntaxException("Rule " + field + " are not valid JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String required(JsonNode node, String field, int index, String kind) {
+        String value = text(node, field);
+        if (value == null || value.isBlank()) {
+            throw new RuleSyntaxException(kind + " " + (index + 1) + " is missing " + field);
+        }
+        return value.trim();
+    }
+
+    private static Condition parseConditions(JsonNode conditions) {
+        if (conditions.isEmpty()) {
+            return new Condition.Always();
+        }
+        List<Object> tokens = new ArrayList<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            JsonNode node = conditions.get(i);
+            String parenthesis = text(node, "parenthesis");
+            parenthesis = parenthesis == null ? "" : parenthesis.trim();
+            for (char c : parenthesis.toCharArray()) {
+                if (c == '(') {
+                    tokens.add(Token.OPEN);
+                }
+            }
+            ComparisonOperator operator = ComparisonOperator.of(required(node, "operator", i, "Condition"));
+            tokens.add(new Condition.Comparison(required(node, "sourceAttribute", i, "Condition"), operator,
+                    operator.isUnary() ? null : text(node, "value")));
+            for (char c : parenthesis.toCharArray()) {
+                if (c == ')') {
+                    tokens.add(Token.CLOSE);
+                } else if (c != '(') {
+                    throw new RuleSyntaxException("Condition " + (i + 1) + " has invalid parenthesis '" + parenthesis + "'");
+                }
+            }
+            if (i < conditions.size() - 1) {
+                String joiner = text(node, "conditionOperator");
+                switch (joiner == null || joiner.isBlank() ? "AND" : joiner.trim().toUpperCase(Locale.ROOT)) {
+                    case "AND" -> tokens.add(Token.AND);
+                    case "OR" -> tokens.add(Token.OR);
+                    case "NOT", "AND NOT" -> {
+                        tokens.add(Token.AND);
+                        tokens.add(Token.NOT);
+                    }
+                    case "OR NOT" -> {
+                        tokens.add(Token.OR);
+                        tokens.add(Token.NOT);
+                    }
+                    default -> throw new RuleSyntaxException("Condition " + (i + 1) + " has unknown conditionOperator '" + joiner + "'");
+                }
+            }
+        }
+        ConditionReader reader = new ConditionReader(tokens);
+        Condition condition = reader.or();
+        if (reader.position < tokens.size()) {
+            throw new RuleSyntaxException("Unbalanced parenthesis in rule conditions");
+        }
+        return condition;
+    }
+
+    private enum Token { OPEN, CLOSE, AND, OR, NOT }
+
+    /**
+     * Recursive descent over the condition token list
+     */
+    private static final class ConditionReader {
+        private final List<Object> tokens;
+        private int position;
+
+        ConditionReader(List<Object> tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean accept(Token token) {
+            if (position < tokens.size() && tokens.get(position) == token) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        Condition or() {
+            List<Condition> operands = new ArrayList<>();
+            operands.add(and());
+            while (accept(Token.OR)) {
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Condition.Or(List.copyOf(operands));
+        }
+
+        Condition and() {
+            List<Condition> operands = new ArrayList<>();
+            operands.add(unary());
+            while (accept(Token.AND)) {
+                operands.add(unary());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Condition.And(List.copyOf(operands));
+        }
+
+        Condition unary() {
+            if (accept(Token.NOT)) {
+                return new Condition.Not(unary());
+            }
+            if (accept(Token.OPEN)) {
+                Condition inner = or();
+                if (!accept(Token.CLOSE)) {
+                    throw new RuleSyntaxException("Unbalanced parenthesis in rule conditions");
+                }
+                return inner;
+            }
+            if (position < tokens.size() && tokens.get(position) instanceof Condition.Comparison comparison) {
+                position++;
+                return comparison;
+            }
+            throw new RuleSyntaxException("Unbalanced parenthesis in rule conditions");
+        }
+    }
+
+    private static List<RuleDefinition.Action> parseActions(JsonNode actions) {
+        List<RuleDefinition.Action> parsed = new ArrayList<>(actions.size());
+        for (int i = 0; i < actions.size(); i++) {
+            JsonNode node = actions.get(i);
+            String target = required(node, "targetAttribute", i, "Action");
+            String expression = required(node, "expression", i, "Action");
+            try {
+                parsed.add(new RuleDefinition.Action(target,
+                        AssignmentOperator.of(text(node, "operator") == null ? "=" : text(node, "operator")),
+                        ExpressionParser.parse(expression)));
+            } catch (RuleSyntaxException e) {
+                throw new RuleSyntaxException("Action " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return List.copyOf(parsed);
+    }
+}
@@ -0,0 +1,155 @@
+package com.novaflow.metadata.rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs an ordered list of compiled rules over a batch of records.
+ *
+ * SEQUENTIAL chains the rules: each rule sees the outputs of the rules before it. PARALLEL treats the
+ * rules as independent: every rule evaluates against the original records, (rule, chunk) tasks fan out
+ * across a fork-join pool, and action outputs are merged afterwards in rule order, so when two rules
+ * write the same attribute the later rule in the order wins regardless of scheduling.
+ */
+public final class RuleSetExecutor {
+
+    public enum Mode {
+        SEQUENTIAL,
+        PARALLEL;
+
+        /**
+         * Mode for a RuleSet's executionOrder ("Sequential" or "Parallel")
+         */
+        public static Mode of(String executionOrder) {
+            if (executionOrder == null || executionOrder.isBlank()) {
+                return SEQUENTIAL;
+            }
+            try {
+                return valueOf(executionOrder.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown execution order '" + executionOrder + "'");
+            }
+        }
+    }
+
+    /**
+     * Per-rule outcome; in PARALLEL mode elapsedNanos is summed over the rule's chunks
+     */
+    public record RuleStats(String ruleId, int version, int priority, long evaluated, long matched, long elapsedNanos) {
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public RuleSetExecutor(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Execute the rules over the records, writing action outputs into the records in place
+     */
+    public List<RuleStats> execute(List<CompiledRule> rules, List<Map<String, Object>> records, Mode mode) {
+        return mode == Mode.PARALLEL && rules.size() > 1
+                ? executeParallel(rules, records)
+                : executeSequential(rules, records);
+    }
+
+    private List<RuleStats> executeSequential(List<CompiledRule> rules, List<Map<String, Object>> records) {
+        List<RuleStats> stats = new ArrayList<>(rules.size());
+        for (CompiledRule rule : rules) {
+            long start = System.nanoTime();
+            long matched = 0;
+            for (Map<String, Object> record : records) {
+                if (rule.apply(record)) {
+                    matched++;
+                }
+            }
+            stats.add(stats(rule, records.size(), matched, System.nanoTime() - start));
+        }
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RuleStats> executeParallel(List<CompiledRule> rules, List<Map<String, Object>> records) {
+        int size = records.size();
+        // writes[rule][record] holds the attributes a rule wrote for a matching record; tasks write disjoint cells
+        Map<String, Object>[][] writes = new Map[rules.size()][size];
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        List<Integer> taskRule = new ArrayList<>();
+        for (int r = 0; r < rules.size(); r++) {
+            CompiledRule rule = rules.get(r);
+            Map<String, Object>[] ruleWrites = writes[r];
+            for (int from = 0; from < size; from += chunkSize) {
+                int start = from;
+                int end = Math.min(size, from + chunkSize);
+                tasks.add(() -> runChunk(rule, records, ruleWrites, start, end));
+                taskRule.add(r);
+            }
+        }
+
+        long[] matched = new long[rules.size()];
+        long[] elapsed = new long[rules.size()];
+        List<Future<long[]>> futures = pool.invokeAll(tasks);
+        for (int t = 0; t < futures.size(); t++) {
+            long[] result = join(futures.get(t));
+            matched[taskRule.get(t)] += result[0];
+            elapsed[taskRule.get(t)] += result[1];
+        }
+
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> record = records.get(i);
+            for (Map<String, Object>[] ruleWrites : writes) {
+                if (ruleWrites[i] != null) {
+                    record.putAll(ruleWrites[i]);
+                }
+            }
+        }
+
+        List<RuleStats> stats = new ArrayList<>(rules.size());
+        for (int r = 0; r < rules.size(); r++) {
+            stats.add(stats(rules.get(r), size, matched[r], elapsed[r]));
+        }
+        return stats;
+    }
+
+    private static long[] runChunk(CompiledRule rule, List<Map<String, Object>> records,
+                                   Map<String, Object>[] ruleWrites, int start, int end) {
+        long began = System.nanoTime();
+        long matched = 0;
+        for (int i = start; i < end; i++) {
+            Map<String, Object> record = records.get(i);
+            if (rule.matches(record)) {
+                OverlayRecord overlay = new OverlayRecord(record);
+                rule.applyActions(overlay);
+                ruleWrites[i] = overlay.writes();
+                matched++;
+            }
+        }
+        return new long[] {matched, System.nanoTime() - began};
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing rule set", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Rule set execution failed", e.getCause());
+        }
+    }
+
+    private static RuleStats stats(CompiledRule rule, long evaluated, long matched, long elapsedNanos) {
+        return new RuleStats(rule.getRuleId(), rule.getVersion(), rule.getPriority(), evaluated, matched, elapsedNanos);
+    }
+}
@@ -0,0 +1,16 @@
+package com.novaflow.metadata.rule;
+
+/**
+ * A rule's conditions or actions do not follow rule-schema.json or cannot be parsed.
+ * Extends IllegalArgumentException so it surfaces as a 400.
+ */
+public class RuleSyntaxException extends IllegalArgumentException {
+
+    public RuleSyntaxException(String message) {
+        super(message);
+    }
+
+    public RuleSyntaxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
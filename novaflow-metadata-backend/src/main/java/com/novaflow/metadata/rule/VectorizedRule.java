@@ -0,0 +1,486 @@
+package com.novaflow.metadata.rule;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Column-at-a-time form of a CompiledRule over a ColumnBatch. Conditions evaluate into selection
+ * bitmaps: comparisons of numeric, string and boolean columns run as tight loops over the primitive
+ * arrays, and AND / OR / NOT combine bitmaps a word at a time. Actions then run only on selected rows;
+ * constants are written directly, and numeric expressions are computed column-wise when every attribute
+ * they read is a double column, where double arithmetic is what the CompiledRule does too. Integral and
+ * decimal inputs, and decimal literals, go through the CompiledRule's exact arithmetic.
+ *
+ * Anything without a column kernel (string functions, numeric comparisons on string columns, widened
+ * OBJECT columns) falls back to the row-at-a-time predicate or action over a reusable row view, so a
+ * vectorised rule always selects and writes exactly what the CompiledRule would.
+ */
+public final class VectorizedRule {
+
+    @FunctionalInterface
+    private interface ColumnPredicate {
+        BitSet select(ColumnBatch batch);
+    }
+
+    @FunctionalInterface
+    private interface ColumnNumeric {
+        double[] evaluate(ColumnBatch batch);
+    }
+
+    @FunctionalInterface
+    private interface ColumnAction {
+        void apply(ColumnBatch batch, BitSet selection);
+    }
+
+    private final CompiledRule rule;
+    private final ColumnPredicate condition;
+    private final ColumnAction[] actions;
+
+    private VectorizedRule(CompiledRule rule, ColumnPredicate condition, ColumnAction[] actions) {
+        this.rule = rule;
+        this.condition = condition;
+        this.actions = actions;
+    }
+
+    public static VectorizedRule compile(CompiledRule rule) {
+        RuleDefinition definition = rule.getDefinition();
+        List<RuleDefinition.Action> actions = definition.actions();
+        ColumnAction[] compiled = new ColumnAction[actions.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compileAction(actions.get(i));
+        }
+        return new VectorizedRule(rule, compile(definition.condition()), compiled);
+    }
+
+    public CompiledRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Rows of the batch matching the rule's conditions
+     */
+    public BitSet select(ColumnBatch batch) {
+        return condition.select(batch);
+    }
+
+    /**
+     * Run the actions on the rows matching the conditions
+     *
+     * @return the matching rows
+     */
+    public BitSet apply(ColumnBatch batch) {
+        BitSet selection = condition.select(batch);
+        if (!selection.isEmpty()) {
+            for (ColumnAction action : actions) {
+                action.apply(batch, selection);
+            }
+        }
+        return selection;
+    }
+
+    // Conditions
+
+    private static ColumnPredicate compile(Condition condition) {
+        if (condition instanceof Condition.Comparison comparison) {
+            return compileComparison(comparison);
+        }
+        if (condition instanceof Condition.Not not) {
+            ColumnPredicate operand = compile(not.operand());
+            return batch -> {
+                BitSet selection = operand.select(batch);
+                selection.flip(0, batch.rowCount());
+                return selection;
+            };
+        }
+        if (condition instanceof Condition.And and) {
+            ColumnPredicate[] operands = and.operands().stream().map(VectorizedRule::compile).toArray(ColumnPredicate[]::new);
+            return batch -> {
+                BitSet selection = operands[0].select(batch);
+                for (int i = 1; i < operands.length && !selection.isEmpty(); i++) {
+                    selection.and(operands[i].select(batch));
+                }
+                return selection;
+            };
+        }
+        if (condition instanceof Condition.Or or) {
+            ColumnPredicate[] operands = or.operands().stream().map(VectorizedRule::compile).toArray(ColumnPredicate[]::new);
+            return batch -> {
+                BitSet selection = operands[0].select(batch);
+                for (int i = 1; i < operands.length; i++) {
+                    selection.or(operands[i].select(batch));
+                }
+                return selection;
+            };
+        }
+        return batch -> {
+            BitSet selection = new BitSet(batch.rowCount());
+            selection.set(0, batch.rowCount());
+            return selection;
+        };
+    }
+
+    private static ColumnPredicate compileComparison(Condition.Comparison comparison) {
+        RecordPredicate fallback = RuleCompiler.compile(comparison);
+        String attribute = comparison.attribute();
+        ComparisonOperator operator = comparison.operator();
+        String literal = comparison.value() != null ? comparison.value() : "";
+        double number = RuleCompiler.parseDouble(literal);
+        boolean numeric = !Double.isNaN(number);
+        RuleCompiler.ValueSet values = new RuleCompiler.ValueSet(literal);
+
+        return batch -> {
+            int rows = batch.rowCount();
+            Column column = batch.column(attribute);
+            if (column == null) {
+                // Every row is null: only IS NULL matches
+                BitSet selection = new BitSet(rows);
+                if (operator == ComparisonOperator.IS_NULL) {
+                    selection.set(0, rows);
+                }
+                return selection;
+            }
+            BitSet selection = kernel(column, rows, operator, literal, number, numeric, values);
+            if (selection == null) {
+                selection = new BitSet(rows);
+                ColumnBatch.RowView view = batch.row();
+                for (int i = 0; i < rows; i++) {
+                    if (fallback.test(view.at(i))) {
+                        selection.set(i);
+                    }
+                }
+            }
+            return selection;
+        };
+    }
+
+    /**
+     * Column kernel for a comparison, or null when the combination has none
+     */
+    private static BitSet kernel(Column column, int rows, ComparisonOperator operator, String literal,
+                                 double number, boolean numeric, RuleCompiler.ValueSet values) {
+        if (operator == ComparisonOperator.IS_NULL || operator == ComparisonOperator.IS_NOT_NULL) {
+            if (column instanceof Column.ObjectColumn) {
+                return null;
+            }
+            BitSet selection = (BitSet) column.nulls.clone();
+            if (column instanceof Column.StringColumn strings) {
+                for (int i = 0; i < rows; i++) {
+                    if (strings.values[i] != null && strings.values[i].isBlank()) {
+                        selection.set(i);
+                    }
+                }
+            }
+            if (operator == ComparisonOperator.IS_NOT_NULL) {
+                selection.flip(0, rows);
+            }
+            return selection;
+        }
+        BitSet selection = switch (column.type()) {
+            case LONG -> numericKernel(((Column.LongColumn) column).values, null, rows, operator, number, numeric, values);
+            case DOUBLE -> numericKernel(null, ((Column.DoubleColumn) column).values, rows, operator, number, numeric, values);
+            case STRING -> stringKernel(((Column.StringColumn) column).values, rows, operator, literal, numeric, values);
+            case BOOLEAN -> booleanKernel(((Column.BooleanColumn) column).values, rows, operator, literal);
+            case OBJECT -> null;
+        };
+        if (selection != null) {
+            // Nothing but IS NULL matches a null row
+            selection.andNot(column.nulls);
+        }
+        return selection;
+    }
+
+    private static BitSet numericKernel(long[] longs, double[] doubles, int rows, ComparisonOperator operator,
+                                        double number, boolean numeric, RuleCompiler.ValueSet values) {
+        if (operator == ComparisonOperator.IN || operator == ComparisonOperator.NOT_IN) {
+            boolean in = operator == ComparisonOperator.IN;
+            BitSet selection = new BitSet(rows);
+            for (int i = 0; i < rows; i++) {
+                if (values.containsNumber(longs != null ? longs[i] : doubles[i]) == in) {
+                    selection.set(i);
+                }
+            }
+            return selection;
+        }
+        if (!numeric) {
+            return null;
+        }
+        long[] words = new long[(rows + 63) >>> 6];
+        if (longs != null) {
+            switch (operator) {
+                case EQ -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] == number ? 1L : 0L) << i; }
+                case NE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] != number ? 1L : 0L) << i; }
+                case GT -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] > number ? 1L : 0L) << i; }
+                case GE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] >= number ? 1L : 0L) << i; }
+                case LT -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] < number ? 1L : 0L) << i; }
+                case LE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (longs[i] <= number ? 1L : 0L) << i; }
+                default -> { return null; }
+            }
+        } else {
+            switch (operator) {
+                case EQ -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] == number ? 1L : 0L) << i; }
+                case NE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] != number ? 1L : 0L) << i; }
+                case GT -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] > number ? 1L : 0L) << i; }
+                case GE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] >= number ? 1L : 0L) << i; }
+                case LT -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] < number ? 1L : 0L) << i; }
+                case LE -> { for (int i = 0; i < rows; i++) words[i >>> 6] |= (doubles[i] <= number ? 1L : 0L) << i; }
+                default -> { return null; }
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static BitSet stringKernel(String[] strings, int rows, ComparisonOperator operator, String literal,
+                                       boolean numeric, RuleCompiler.ValueSet values) {
+        BitSet selection = new BitSet(rows);
+        switch (operator) {
+            case EQ -> { for (int i = 0; i < rows; i++) if (literal.equals(strings[i])) selection.set(i); }
+            case NE -> { for (int i = 0; i < rows; i++) if (strings[i] != null && !literal.equals(strings[i])) selection.set(i); }
+            case CONTAINS -> { for (int i = 0; i < rows; i++) if (strings[i] != null && strings[i].contains(literal)) selection.set(i); }
+            case NOT_CONTAINS -> { for (int i = 0; i < rows; i++) if (strings[i] != null && !strings[i].contains(literal)) selection.set(i); }
+            case STARTS_WITH -> { for (int i = 0; i < rows; i++) if (strings[i] != null && strings[i].startsWith(literal)) selection.set(i); }
+            case ENDS_WITH -> { for (int i = 0; i < rows; i++) if (strings[i] != null && strings[i].endsWith(literal)) selection.set(i); }
+            case IN -> { for (int i = 0; i < rows; i++) if (strings[i] != null && values.containsString(strings[i])) selection.set(i); }
+            case NOT_IN -> { for (int i = 0; i < rows; i++) if (strings[i] != null && !values.containsString(strings[i])) selection.set(i); }
+            case GT, GE, LT, LE -> {
+                // Numeric literals compare strings by parsed value; leave those to the row predicate
+                if (numeric) {
+                    return null;
+                }
+                for (int i = 0; i < rows; i++) {
+                    if (strings[i] != null && accept(operator, strings[i].compareTo(literal))) {
+                        selection.set(i);
+                    }
+                }
+            }
+            default -> { return null; }
+        }
+        return selection;
+    }
+
+    private static BitSet booleanKernel(boolean[] booleans, int rows, ComparisonOperator operator, String literal) {
+        if (operator != ComparisonOperator.EQ && operator != ComparisonOperator.NE) {
+            return null;
+        }
+        boolean isBoolean = literal.equalsIgnoreCase("true") || literal.equalsIgnoreCase("false");
+        boolean target = Boolean.parseBoolean(literal);
+        BitSet selection = new BitSet(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean equal = isBoolean && booleans[i] == target;
+            if (equal == (operator == ComparisonOperator.EQ)) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    private static boolean accept(ComparisonOperator operator, int comparison) {
+        return switch (operator) {
+            case GT -> comparison > 0;
+            case GE -> comparison >= 0;
+            case LT -> comparison < 0;
+            default -> comparison <= 0;
+        };
+    }
+
+    // Actions
+
+    private static ColumnAction compileAction(RuleDefinition.Action action) {
+        String target = action.target();
+        Expression expression = action.expression();
+        if (action.operator() == AssignmentOperator.ASSIGN && expression instanceof Expression.Constant constant) {
+            Object value = constant.value();
+            return (batch, selection) -> {
+                for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                    batch.set(target, i, value);
+                }
+            };
+        }
+        // A plain attribute copy keeps its value as-is, so only arithmetic assigns go column-wise
+        boolean arithmetic = expression instanceof Expression.Negate || expression instanceof Expression.Binary
+                || expression instanceof Expression.Call;
+        ColumnNumeric numeric = action.operator() != AssignmentOperator.ASSIGN || arithmetic ? compileNumeric(expression) : null;
+        CompiledRule.Action fallback = RuleCompiler.compileAction(action);
+        ColumnAction rowWise = (batch, selection) -> {
+            ColumnBatch.RowView view = batch.row();
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                fallback.apply(view.at(i));
+            }
+        };
+        if (numeric == null) {
+            return rowWise;
+        }
+        // The target too, so results land in a double column just as the CompiledRule's Doubles would
+        Set<String> inputs = new LinkedHashSet<>();
+        attributes(expression, inputs);
+        inputs.add(target);
+        String[] read = inputs.toArray(String[]::new);
+        AssignmentOperator operator = action.operator();
+        return (batch, selection) -> {
+            if (!allDoubles(batch, read)) {
+                rowWise.apply(batch, selection);
+                return;
+            }
+            double[] operand = numeric.evaluate(batch);
+            if (operator == AssignmentOperator.ASSIGN) {
+                for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                    batch.setNumber(target, i, operand[i]);
+                }
+                return;
+            }
+            double[] current = attribute(batch, target);
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                double value = switch (operator) {
+                    case ADD -> current[i] + operand[i];
+                    case SUBTRACT -> current[i] - operand[i];
+                    case MULTIPLY -> current[i] * operand[i];
+                    default -> operand[i] == 0 ? Double.NaN : current[i] / operand[i];
+                };
+                batch.setNumber(target, i, value);
+            }
+        };
+    }
+
+    private static void attributes(Expression expression, Set<String> names) {
+        if (expression instanceof Expression.AttributeRef ref) {
+            names.add(ref.name());
+        } else if (expression instanceof Expression.Negate negate) {
+            attributes(negate.operand(), names);
+        } else if (expression instanceof Expression.Binary binary) {
+            attributes(binary.left(), names);
+            attributes(binary.right(), names);
+        } else if (expression instanceof Expression.Call call) {
+            call.arguments().forEach(argument -> attributes(argument, names));
+        }
+    }
+
+    // Whether each attribute is a double column or missing (all null) in this batch
+    private static boolean allDoubles(ColumnBatch batch, String[] names) {
+        for (String name : names) {
+            Column column = batch.column(name);
+            if (column != null && column.type() != ColumnType.DOUBLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] attribute(ColumnBatch batch, String name) {
+        Column column = batch.column(name);
+        if (column == null) {
+            double[] nulls = new double[batch.rowCount()];
+            Arrays.fill(nulls, Double.NaN);
+            return nulls;
+        }
+        return column.toDoubles();
+    }
+
+    /**
+     * Column-wise numeric expression, NaN meaning null, or null if the expression has no column form
+     */
+    private static ColumnNumeric compileNumeric(Expression expression) {
+        if (expression instanceof Expression.Constant constant) {
+            // Decimal literals and longs beyond double precision need exact arithmetic
+            if (constant.value() instanceof BigDecimal
+                    || (constant.value() instanceof Long value && (value > 1L << 53 || value < -(1L << 53)))
+                    || (constant.value() != null && !(constant.value() instanceof Number))) {
+                return null;
+            }
+            double value = RuleCompiler.toDouble(constant.value());
+            return batch -> {
+                double[] result = new double[batch.rowCount()];
+                Arrays.fill(result, value);
+                return result;
+            };
+        }
+        if (expression instanceof Expression.AttributeRef ref) {
+            String name = ref.name();
+            return batch -> attribute(batch, name);
+        }
+        if (expression instanceof Expression.Negate negate) {
+            ColumnNumeric operand = compileNumeric(negate.operand());
+            return operand == null ? null : batch -> {
+                double[] result = operand.evaluate(batch);
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = -result[i];
+                }
+                return result;
+            };
+        }
+        if (expression instanceof Expression.Binary binary && !binary.operator().equals("||")) {
+            ColumnNumeric left = compileNumeric(binary.left());
+            ColumnNumeric right = compileNumeric(binary.right());
+            if (left == null || right == null) {
+                return null;
+            }
+            String operator = binary.operator();
+            return batch -> {
+                double[] result = left.evaluate(batch);
+                double[] other = right.evaluate(batch);
+                switch (operator) {
+                    case "+" -> { for (int i = 0; i < result.length; i++) result[i] += other[i]; }
+                    case "-" -> { for (int i = 0; i < result.length; i++) result[i] -= other[i]; }
+                    case "*" -> { for (int i = 0; i < result.length; i++) result[i] *= other[i]; }
+                    case "/" -> { for (int i = 0; i < result.length; i++) result[i] = other[i] == 0 ? Double.NaN : result[i] / other[i]; }
+                    default -> { for (int i = 0; i < result.length; i++) result[i] = other[i] == 0 ? Double.NaN : result[i] % other[i]; }
+                }
+                return result;
+            };
+        }
+        if (expression instanceof Expression.Call call) {
+            return compileNumericCall(call);
+        }
+        return null;
+    }
+
+    private static ColumnNumeric compileNumericCall(Expression.Call call) {
+        ColumnNumeric[] arguments = new ColumnNumeric[call.arguments().size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = compileNumeric(call.arguments().get(i));
+            if (arguments[i] == null) {
+                return null;
+            }
+        }
+        // Arity was checked when the CompiledRule was built
+        return switch (call.function()) {
+            case "ABS" -> batch -> {
+                double[] result = arguments[0].evaluate(batch);
+                for (int i = 0; i < result.length; i++) result[i] = Math.abs(result[i]);
+                return result;
+            };
+            case "FLOOR" -> batch -> {
+                double[] result = arguments[0].evaluate(batch);
+                for (int i = 0; i < result.length; i++) result[i] = Math.floor(result[i]);
+                return result;
+            };
+            case "CEIL" -> batch -> {
+                double[] result = arguments[0].evaluate(batch);
+                for (int i = 0; i < result.length; i++) result[i] = Math.ceil(result[i]);
+                return result;
+            };
+            case "ROUND" -> batch -> {
+                double[] result = arguments[0].evaluate(batch);
+                double[] places = arguments.length > 1 ? arguments[1].evaluate(batch) : null;
+                for (int i = 0; i < result.length; i++) result[i] = RuleCompiler.round(result[i], places != null ? places[i] : 0);
+                return result;
+            };
+            case "MIN", "MAX" -> {
+                boolean min = call.function().equals("MIN");
+                yield batch -> {
+                    double[] result = arguments[0].evaluate(batch);
+                    for (int a = 1; a < arguments.length; a++) {
+                        double[] other = arguments[a].evaluate(batch);
+                        for (int i = 0; i < result.length; i++) {
+                            result[i] = min ? Math.min(result[i], other[i]) : Math.max(result[i], other[i]);
+                        }
+                    }
+                    return result;
+                };
+            }
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package com.novaflow.metadata.runcontrol;
+
+import com.novaflow.metadata.entity.Holiday;
+import com.novaflow.metadata.entity.HolidayCalendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Business days of a HolidayCalendar: days that are neither a weekend day nor a holiday. Holidays come
+ * from the calendar's holiday rows and its holidays JSON, either {"holidays": [{"date", "name",
+ * "recurring"}]} or a map keyed by date; a recurring holiday falls on the same month and day every year.
+ * The JSON may list the weekend days under "weekend" (day names); by default the weekend is Saturday and
+ * Sunday.
+ * <p>
+ * Each year is compiled on first use into a bitset with one bit per day of the year, set for business
+ * days, with recurring holidays expanded into it. isBusinessDay is then a single bit test and
+ * nextBusinessDay skips 64 days at a time by counting bits. Immutable apart from the compiled years,
+ * which any number of threads may share.
+ */
+public final class BusinessCalendar {
+
+    /** How far nextBusinessDay looks before giving up on a calendar without business days */
+    static final int MAX_SEARCH_YEARS = 10;
+
+    private final String id;
+    private final Set<DayOfWeek> weekend;
+    private final Map<LocalDate, String> dates;
+    private final Map<MonthDay, String> recurring;
+    private final Map<Integer, long[]> years = new ConcurrentHashMap<>();
+
+    BusinessCalendar(String id, Set<DayOfWeek> weekend, Map<LocalDate, String> dates, Map<MonthDay, String> recurring) {
+        this.id = id;
+        this.weekend = weekend;
+        this.dates = dates;
+        this.recurring = recurring;
+    }
+
+    /**
+     * Build from a calendar whose holiday rows can be loaded
+     */
+    public static BusinessCalendar of(HolidayCalendar calendar) {
+        Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        Map<LocalDate, String> dates = new HashMap<>();
+        Map<MonthDay, String> recurring = new HashMap<>();
+        if (calendar.getHolidayList() != null) {
+            for (Holiday holiday : calendar.getHolidayList()) {
+                add(holiday.getDate(), holiday.getName(), Boolean.TRUE.equals(holiday.getRecurring()), dates, recurring);
+            }
+        }
+        Map<String, Object> json = calendar.getHolidays();
+        if (json != null) {
+            if (json.get("weekend") instanceof List<?> days) {
+                weekend = EnumSet.noneOf(DayOfWeek.class);
+                for (Object day : days) {
+                    try {
+                        weekend.add(DayOfWeek.valueOf(String.valueOf(day).trim().toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new InvalidRunControlException("Holiday calendar " + calendar.getId() + " has an unknown weekend day " + day);
+                    }
+                }
+            }
+            if (json.get("holidays") instanceof List<?> entries) {
+                for (Object entry : entries) {
+                    if (entry instanceof Map<?, ?> holiday) {
+                        add(date(holiday.get("date")), name(holiday.get("name")), Boolean.TRUE.equals(holiday.get("recurring")),
+                                dates, recurring);
+                    }
+                }
+            }
+            for (Map.Entry<String, Object> entry : json.entrySet()) {
+                LocalDate date = date(entry.getKey());
+                if (date == null) {
+                    continue;
+                }
+                if (entry.getValue() instanceof Map<?, ?> holiday) {
+                    add(date, name(holiday.get("name")), Boolean.TRUE.equals(holiday.get("recurring")), dates, recurring);
+                } else {
+                    add(date, name(entry.getValue()), false, dates, recurring);
+                }
+            }
+        }
+        return new BusinessCalendar(calendar.getId(), weekend, dates, recurring);
+    }
+
+    private static void add(LocalDate date, String name, boolean repeats, Map<LocalDate, String> dates, Map<MonthDay, String> recurring) {
+        if (date == null) {
+            return;
+        }
+        String label = name != null ? name : "Holiday";
+        if (repeats) {
+            recurring.putIfAbsent(MonthDay.from(date), label);
+        } else {
+            dates.putIfAbsent(date, label);
+        }
+    }
+
+    private static LocalDate date(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.toString().trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String name(Object value) {
+        return value instanceof String text && !text.isBlank() ? text : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isBusinessDay(LocalDate day) {
+        int index = day.getDayOfYear() - 1;
+        return (year(day.getYear())[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Name of the holiday on a day, or null when it is not a holiday (it may still be a weekend day)
+     */
+    public String holidayName(LocalDate day) {
+        String name = dates.get(day);
+        return name != null ? name : recurring.get(MonthDay.from(day));
+    }
+
+    /**
+     * First business day after day
+     *
+     * @return null when the calendar has none in the next MAX_SEARCH_YEARS years
+     */
+    public LocalDate nextBusinessDay(LocalDate day) {
+        return nextBusinessDay(day, 1);
+    }
+
+    /**
+     * The n-th business day after day, so nextBusinessDay(day, 1) is the first
+     *
+     * @return null when the calendar has fewer than n in the next MAX_SEARCH_YEARS years
+     */
+    public LocalDate nextBusinessDay(LocalDate day, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        int remaining = n;
+        // Index in its year of the day after day
+        int from = day.getDayOfYear();
+        for (int year = day.getYear(); year <= day.getYear() + MAX_SEARCH_YEARS; year++) {
+            long[] bits = year(year);
+            for (int w = from >>> 6; w < bits.length; w++) {
+                long word = bits[w];
+                if (w == from >>> 6) {
+                    word &= -1L << (from & 63);
+                }
+                int count = Long.bitCount(word);
+                if (count < remaining) {
+                    remaining -= count;
+                    continue;
+                }
+                for (int k = 1; k < remaining; k++) {
+                    word &= word - 1;
+                }
+                return LocalDate.ofYearDay(year, (w << 6) + Long.numberOfTrailingZeros(word) + 1);
+            }
+            from = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Business days from start to end, both included
+     */
+    public int countBusinessDays(LocalDate start, LocalDate end) {
+        int count = 0;
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            long[] bits = year(year);
+            int first = year == start.getYear() ? start.getDayOfYear() - 1 : 0;
+            int last = year == end.getYear() ? end.getDayOfYear() - 1 : Year.of(year).length() - 1;
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                long word = bits[w];
+                if (w == first >>> 6) {
+                    word &= -1L << (first & 63);
+                }
+                if (w == last >>> 6) {
+                    word &= -1L >>> (63 - (last & 63));
+                }
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    private long[] year(int year) {
+        return years.computeIfAbsent(year, this::compile);
+    }
+
+    /**
+     * One bit per day of the year, bit i for day of year i + 1, set for business days
+     */
+    private long[] compile(int year) {
+        int length = Year.of(year).length();
+        long[] bits = new long[(length + 63) >>> 6];
+        DayOfWeek dayOfWeek = LocalDate.ofYearDay(year, 1).getDayOfWeek();
+        for (int i = 0; i < length; i++) {
+            if (!weekend.contains(dayOfWeek)) {
+                bits[i >>> 6] |= 1L << i;
+            }
+            dayOfWeek = dayOfWeek.plus(1);
+        }
+        for (LocalDate date : dates.keySet()) {
+            if (date.getYear() == year) {
+                clear(bits, date);
+            }
+        }
+        for (MonthDay monthDay : recurring.keySet()) {
+            if (monthDay.isValidYear(year)) {
+                clear(bits, monthDay.atYear(year));
+            }
+        }
+        return bits;
+    }
+
+    private static void clear(long[] bits, LocalDate date) {
+        int index = date.getDayOfYear() - 1;
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BusinessCalendar calendar && Objects.equals(id, calendar.id) && weekend.equals(calendar.weekend)
+                && dates.equals(calendar.dates) && recurring.equals(calendar.recurring);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, weekend, dates, recurring);
+    }
+}
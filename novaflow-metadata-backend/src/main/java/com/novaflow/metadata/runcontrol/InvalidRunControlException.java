@@ -0,0 +1,16 @@
+package com.novaflow.metadata.runcontrol;
+
+/**
+ * A run control's steps cannot be parsed or executed as a pipeline.
+ * Extends IllegalArgumentException so it surfaces as a 400.
+ */
+public class InvalidRunControlException extends IllegalArgumentException {
+
+    public InvalidRunControlException(String message) {
+        super(message);
+    }
+
+    public InvalidRunControlException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
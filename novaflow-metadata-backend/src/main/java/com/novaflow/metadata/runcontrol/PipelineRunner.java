@@ -0,0 +1,192 @@
+package com.novaflow.metadata.runcontrol;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs run control segments as streaming pipelines. Every step of a segment runs on its own thread and
+ * consecutive steps are connected by bounded RecordChannels, so records flow from the Scaffold_In step
+ * through the rule sets to the Scaffold_Out steps without the segment's records ever being held at once.
+ * A failing step aborts the rest of its segment. Segments are scheduled over a SegmentGraph: a chain for
+ * Sequential run controls, the inferred dependencies for Parallel ones.
+ */
+public final class PipelineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineRunner.class);
+
+    /**
+     * A step and the work that executes it
+     */
+    public record StepRun(RunControlStep step, StepTask task) {
+    }
+
+    private final ExecutorService threads;
+    private final int channelCapacity;
+
+    /**
+     * @param threads         runs the steps; must be able to run every step of the running segments at
+     *                        once, since a step blocks until its neighbours make progress
+     * @param channelCapacity batches buffered between two steps
+     */
+    public PipelineRunner(ExecutorService threads, int channelCapacity) {
+        this.threads = threads;
+        this.channelCapacity = Math.max(1, channelCapacity);
+    }
+
+    /**
+     * Run the segments in the order the graph allows and wait for them to finish. A segment starts once
+     * every segment it depends on has completed, at most maxSegments at a time, longest remaining path
+     * first; segments that depend on a failed one, directly or not, are skipped.
+     *
+     * @return metrics of every step, in segment and step order
+     */
+    public List<StepMetrics> run(List<List<StepRun>> segments, SegmentGraph graph, int maxSegments) throws InterruptedException {
+        if (graph.size() != segments.size()) {
+            throw new IllegalArgumentException("Graph has " + graph.size() + " segments, pipeline " + segments.size());
+        }
+        int count = segments.size();
+        List<List<StepMetrics>> metrics = new ArrayList<>();
+        for (List<StepRun> segment : segments) {
+            metrics.add(segment.stream().map(run -> new StepMetrics(run.step())).toList());
+        }
+        int[] waitingOn = new int[count];
+        boolean[] blocked = new boolean[count];
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator.comparingInt(graph::height).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < count; i++) {
+            waitingOn[i] = graph.dependencies(i).size();
+            if (waitingOn[i] == 0) {
+                ready.add(i);
+            }
+        }
+        // Segments that have ended, completed or not, in the order they end
+        BlockingQueue<Integer> ended = new LinkedBlockingQueue<>();
+        Segment[] started = new Segment[count];
+        int running = 0;
+        int remaining = count;
+        int limit = Math.max(1, maxSegments);
+        try {
+            while (remaining > 0) {
+                while (running < limit && !ready.isEmpty()) {
+                    int next = ready.poll();
+                    started[next] = new Segment(segments.get(next), metrics.get(next), () -> ended.add(next));
+                    running++;
+                }
+                int segment = ended.take();
+                remaining--;
+                boolean completed;
+                if (started[segment] != null) {
+                    running--;
+                    completed = started[segment].completed();
+                } else {
+                    metrics.get(segment).forEach(StepMetrics::skipped);
+                    completed = false;
+                }
+                for (int dependent : graph.dependents(segment)) {
+                    blocked[dependent] |= !completed;
+                    if (--waitingOn[dependent] == 0) {
+                        if (blocked[dependent]) {
+                            ended.add(dependent);
+                        } else {
+                            ready.add(dependent);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Segment segment : started) {
+                if (segment != null) {
+                    segment.abort();
+                }
+            }
+            throw e;
+        }
+        return metrics.stream().flatMap(List::stream).toList();
+    }
+
+    private final class Segment {
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final List<StepMetrics> metrics;
+        final List<Future<?>> futures = new ArrayList<>();
+        final AtomicInteger running;
+        final Runnable onEnd;
+
+        Segment(List<StepRun> steps, List<StepMetrics> metrics, Runnable onEnd) {
+            this.metrics = metrics;
+            this.running = new AtomicInteger(steps.size());
+            this.onEnd = onEnd;
+            RecordChannel input = null;
+            for (int i = 0; i < steps.size(); i++) {
+                RecordChannel output = i < steps.size() - 1 ? new RecordChannel(channelCapacity, aborted) : null;
+                StepTask task = steps.get(i).task();
+                StepMetrics stepMetrics = metrics.get(i);
+                RecordChannel stepInput = input;
+                futures.add(threads.submit(() -> {
+                    try {
+                        runStep(task, stepInput, output, stepMetrics);
+                    } finally {
+                        if (running.decrementAndGet() == 0) {
+                            onEnd.run();
+                        }
+                    }
+                }));
+                input = output;
+            }
+        }
+
+        private void runStep(StepTask task, RecordChannel input, RecordChannel output, StepMetrics stepMetrics) {
+            stepMetrics.started();
+            try {
+                task.run(input, output, stepMetrics);
+                if (output != null) {
+                    output.close();
+                }
+                stepMetrics.finished(StepMetrics.Status.COMPLETED, null);
+            } catch (CancellationException e) {
+                aborted.set(true);
+                stepMetrics.finished(StepMetrics.Status.CANCELLED, null);
+            } catch (InterruptedException e) {
+                aborted.set(true);
+                stepMetrics.finished(StepMetrics.Status.CANCELLED, "Interrupted");
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                fail(stepMetrics, e);
+            } catch (Error e) {
+                fail(stepMetrics, e);
+                throw e;
+            }
+        }
+
+        private void fail(StepMetrics stepMetrics, Throwable e) {
+            aborted.set(true);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            stepMetrics.finished(StepMetrics.Status.FAILED, message);
+            logger.warn("Run control step {} ({} {}) failed: {}", stepMetrics.getStep().id(),
+                    stepMetrics.getStep().runType().getLabel(), stepMetrics.getStep().runTypeName(), message, e);
+        }
+
+        /**
+         * Whether every step completed; only meaningful once the segment has ended
+         */
+        boolean completed() {
+            return metrics.stream().allMatch(step -> step.getStatus() == StepMetrics.Status.COMPLETED);
+        }
+
+        void abort() {
+            aborted.set(true);
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.novaflow.metadata.runcontrol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Collects records one at a time into batches for a channel, for steps whose producer is a callback
+ */
+public final class RecordBatcher implements Consumer<Map<String, Object>> {
+
+    private final RecordChannel channel;
+    private final int batchSize;
+    private List<Map<String, Object>> batch;
+
+    public RecordBatcher(RecordChannel channel, int batchSize) {
+        this.channel = channel;
+        this.batchSize = Math.max(1, batchSize);
+        this.batch = new ArrayList<>(this.batchSize);
+    }
+
+    /**
+     * @throws CancellationException when interrupted or the pipeline is aborted while waiting
+     */
+    @Override
+    public void accept(Map<String, Object> record) {
+        batch.add(record);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> full = batch;
+        batch = new ArrayList<>(batchSize);
+        try {
+            channel.send(full);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while sending records");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.novaflow.metadata.runcontrol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded hand-off of record batches from one pipeline step to the next. A full channel blocks the
+ * producer, so a slow step throttles the steps before it and at most capacity batches per channel are in
+ * memory. Both ends give up with a CancellationException once the pipeline is aborted, which is how a
+ * failing step stops the others.
+ */
+public final class RecordChannel {
+
+    private static final long POLL_MILLIS = 100;
+    // Compared by identity
+    private static final List<Map<String, Object>> END = new ArrayList<>(0);
+
+    private final BlockingQueue<List<Map<String, Object>>> queue;
+    private final AtomicBoolean aborted;
+
+    RecordChannel(int capacity, AtomicBoolean aborted) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.aborted = aborted;
+    }
+
+    /**
+     * Hand a batch to the next step, waiting while the channel is full. The producer must not touch
+     * the batch or its records afterwards.
+     */
+    public void send(List<Map<String, Object>> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        put(batch);
+    }
+
+    /**
+     * Signal the end of the records
+     */
+    void close() throws InterruptedException {
+        put(END);
+    }
+
+    private void put(List<Map<String, Object>> batch) throws InterruptedException {
+        while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            checkAborted();
+        }
+    }
+
+    /**
+     * Next batch, waiting until one arrives
+     *
+     * @return null once the previous step has finished
+     */
+    public List<Map<String, Object>> receive() throws InterruptedException {
+        while (true) {
+            List<Map<String, Object>> batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (batch == END) {
+                return null;
+            }
+            if (batch != null) {
+                return batch;
+            }
+            checkAborted();
+        }
+    }
+
+    private void checkAborted() {
+        if (aborted.get()) {
+            throw new CancellationException("Pipeline aborted");
+        }
+    }
+}
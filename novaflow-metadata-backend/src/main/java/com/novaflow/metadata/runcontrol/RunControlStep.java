@@ -0,0 +1,80 @@
+package com.novaflow.metadata.runcontrol;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One step of a run control, as stored in RunControl.steps
+ *
+ * @param runTypeName id of the scaffold or rule set the step executes
+ */
+public record RunControlStep(String id, int stepOrder, RunType runType, String runTypeName, String description, boolean active) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Parse a steps JSON array (or an object holding it under "steps") into steps ordered by stepOrder;
+     * steps without a stepOrder keep their array position
+     */
+    public static List<RunControlStep> parse(String json) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRunControlException("Run control steps are not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        JsonNode array = root.isObject() ? root.path("steps") : root;
+        if (!array.isArray()) {
+            throw new InvalidRunControlException("Run control steps must be a JSON array");
+        }
+        List<RunControlStep> steps = new ArrayList<>();
+        int position = 0;
+        for (JsonNode node : array) {
+            position++;
+            String id = node.path("id").asText(null);
+            String label = id != null ? id : "#" + position;
+            String runTypeName = node.path("runTypeName").asText("").trim();
+            RunType runType = RunType.of(node.path("runType").asText(null));
+            if (runTypeName.isEmpty()) {
+                throw new InvalidRunControlException("Step " + label + " has no runTypeName");
+            }
+            JsonNode order = node.path("stepOrder");
+            steps.add(new RunControlStep(label, order.canConvertToInt() ? order.asInt() : position, runType, runTypeName,
+                    node.path("description").asText(null), !"I".equalsIgnoreCase(node.path("status").asText("A").trim())));
+        }
+        steps.sort(Comparator.comparingInt(RunControlStep::stepOrder));
+        return steps;
+    }
+
+    /**
+     * Split the active steps into segments, each a Scaffold_In step followed by the RuleSet and
+     * Scaffold_Out steps that consume its records, up to the next Scaffold_In
+     */
+    public static List<List<RunControlStep>> segments(List<RunControlStep> steps) {
+        List<List<RunControlStep>> segments = new ArrayList<>();
+        for (RunControlStep step : steps) {
+            if (!step.active()) {
+                continue;
+            }
+            if (step.runType() == RunType.SCAFFOLD_IN) {
+                segments.add(new ArrayList<>());
+            } else if (segments.isEmpty()) {
+                throw new InvalidRunControlException("Step " + step.id() + " (" + step.runType().getLabel()
+                        + ") has no Scaffold_In step before it to read records from");
+            }
+            segments.get(segments.size() - 1).add(step);
+        }
+        if (segments.isEmpty()) {
+            throw new InvalidRunControlException("Run control has no active steps");
+        }
+        return segments;
+    }
+}
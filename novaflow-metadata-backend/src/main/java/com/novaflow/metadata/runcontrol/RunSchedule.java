@@ -0,0 +1,94 @@
+package com.novaflow.metadata.runcontrol;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * When a scheduled run control fires. The cron expression is evaluated in the schedule's time zone, so
+ * daylight saving changes move the fire instants, not the wall-clock times. On a day that is not a
+ * business day of the calendar, a firing moves to the same time on the next business day when
+ * runOnNextBusinessDay is set, is dropped when only skipOnHoliday is set, and happens anyway otherwise.
+ * Firings that land on the same rolled-forward time run once.
+ *
+ * @param calendar null when the schedule has no (active) holiday calendar
+ */
+public record RunSchedule(String runControlId, CronExpression cron, ZoneId zone, BusinessCalendar calendar,
+                          boolean skipOnHoliday, boolean runOnNextBusinessDay) {
+
+    // Cron firings looked at per call before giving up, for expressions that only match holidays
+    private static final int MAX_CANDIDATES = 1000;
+
+    /**
+     * A firing of the schedule
+     *
+     * @param nominal when the cron expression matched; before at when the firing was rolled forward
+     */
+    public record Fire(Instant at, ZonedDateTime nominal) {
+
+        public boolean rolled() {
+            return !nominal.toInstant().equals(at);
+        }
+    }
+
+    /**
+     * Parse a schedule's cron expression, Unix (five fields) or Spring (six fields, seconds first, or a
+     * macro such as @daily), and time zone
+     *
+     * @throws InvalidRunControlException when either is invalid
+     */
+    public static RunSchedule of(String runControlId, String cronExpression, String timezone, BusinessCalendar calendar,
+                                 boolean skipOnHoliday, boolean runOnNextBusinessDay) {
+        String expression = cronExpression != null ? cronExpression.trim() : "";
+        if (!expression.startsWith("@") && expression.split("\\s+").length == 5) {
+            expression = "0 " + expression;
+        }
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(expression);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRunControlException("Run control " + runControlId + " has an invalid cron expression '"
+                    + cronExpression + "': " + e.getMessage(), e);
+        }
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(timezone != null && !timezone.isBlank() ? timezone.trim() : "UTC");
+        } catch (DateTimeException e) {
+            throw new InvalidRunControlException("Run control " + runControlId + " has an unknown time zone " + timezone, e);
+        }
+        return new RunSchedule(runControlId, cron, zone, calendar, skipOnHoliday, runOnNextBusinessDay);
+    }
+
+    /**
+     * The first firing strictly after an instant
+     *
+     * @return null when the schedule never fires again
+     */
+    public Fire next(Instant after) {
+        ZonedDateTime cursor = after.atZone(zone);
+        for (int i = 0; i < MAX_CANDIDATES; i++) {
+            ZonedDateTime candidate = cron.next(cursor);
+            if (candidate == null) {
+                return null;
+            }
+            LocalDate day = candidate.toLocalDate();
+            if (calendar == null || calendar.isBusinessDay(day) || (!skipOnHoliday && !runOnNextBusinessDay)) {
+                return new Fire(candidate.toInstant(), candidate);
+            }
+            LocalDate businessDay = calendar.nextBusinessDay(day);
+            if (businessDay == null) {
+                return null;
+            }
+            if (runOnNextBusinessDay) {
+                return new Fire(ZonedDateTime.of(businessDay, candidate.toLocalTime(), zone).toInstant(), candidate);
+            }
+            // Skipped: the day's other firings are skipped too
+            cursor = businessDay.atStartOfDay(zone).minusSeconds(1);
+        }
+        return null;
+    }
+}
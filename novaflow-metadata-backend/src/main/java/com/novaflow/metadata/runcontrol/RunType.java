@@ -0,0 +1,32 @@
+package com.novaflow.metadata.runcontrol;
+
+/**
+ * What a run control step executes, named as in run-control-schema.json
+ */
+public enum RunType {
+    /** Reads a scaffold's source through its plan and feeds the rows to the following steps */
+    SCAFFOLD_IN("Scaffold_In"),
+    /** Applies a rule set's actions to each record */
+    RULE_SET("RuleSet"),
+    /** Applies a scaffold's plan to the records and writes the result to its target object */
+    SCAFFOLD_OUT("Scaffold_Out");
+
+    private final String label;
+
+    RunType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static RunType of(String label) {
+        for (RunType type : values()) {
+            if (type.label.equalsIgnoreCase(label == null ? "" : label.trim())) {
+                return type;
+            }
+        }
+        throw new InvalidRunControlException("Unknown step runType '" + label + "', expected Scaffold_In, RuleSet or Scaffold_Out");
+    }
+}
@@ -0,0 +1,136 @@
+package com.novaflow.metadata.runcontrol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependencies between the segments of a run control. A segment depends on an earlier one (by step
+ * order) when it reads an object the earlier one writes, writes an object the earlier one reads, or
+ * writes an object the earlier one also writes, so running the graph gives the same result as running
+ * the segments in order. Edges only point forward, so the graph is acyclic.
+ */
+public final class SegmentGraph {
+
+    /**
+     * Integration objects a segment reads and writes, as comparable keys
+     */
+    public record Access(Set<String> reads, Set<String> writes) {
+    }
+
+    private final List<List<Integer>> dependencies;
+    private final List<List<Integer>> dependents;
+    private final int[] height;
+
+    private SegmentGraph(int size) {
+        dependencies = new ArrayList<>(size);
+        dependents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependencies.add(new ArrayList<>());
+            dependents.add(new ArrayList<>());
+        }
+        height = new int[size];
+    }
+
+    /**
+     * Segments that run one after another
+     */
+    public static SegmentGraph chain(int size) {
+        SegmentGraph graph = new SegmentGraph(size);
+        for (int i = 1; i < size; i++) {
+            graph.edge(i - 1, i);
+        }
+        graph.computeHeights();
+        return graph;
+    }
+
+    /**
+     * Infer the graph from what each segment reads and writes, in segment order
+     */
+    public static SegmentGraph infer(List<Access> accesses) {
+        SegmentGraph graph = new SegmentGraph(accesses.size());
+        for (int later = 1; later < accesses.size(); later++) {
+            Access next = accesses.get(later);
+            for (int earlier = 0; earlier < later; earlier++) {
+                Access previous = accesses.get(earlier);
+                if (overlaps(previous.writes(), next.reads()) || overlaps(previous.reads(), next.writes())
+                        || overlaps(previous.writes(), next.writes())) {
+                    graph.edge(earlier, later);
+                }
+            }
+        }
+        graph.computeHeights();
+        return graph;
+    }
+
+    private static boolean overlaps(Set<String> a, Set<String> b) {
+        return !a.isEmpty() && !b.isEmpty() && !Collections.disjoint(a, b);
+    }
+
+    private void edge(int from, int to) {
+        dependencies.get(to).add(from);
+        dependents.get(from).add(to);
+    }
+
+    /**
+     * Number of segments on the longest path from each segment to the end of the graph
+     */
+    private void computeHeights() {
+        for (int i = height.length - 1; i >= 0; i--) {
+            int longest = 0;
+            for (int next : dependents.get(i)) {
+                longest = Math.max(longest, height[next]);
+            }
+            height[i] = longest + 1;
+        }
+    }
+
+    public int size() {
+        return height.length;
+    }
+
+    public List<Integer> dependencies(int segment) {
+        return Collections.unmodifiableList(dependencies.get(segment));
+    }
+
+    public List<Integer> dependents(int segment) {
+        return Collections.unmodifiableList(dependents.get(segment));
+    }
+
+    /**
+     * Segments on the longest path starting at this segment, itself included; ready segments with the
+     * longest remaining path start first
+     */
+    public int height(int segment) {
+        return height[segment];
+    }
+
+    /**
+     * Segments on the longest path through the graph
+     */
+    public int criticalPath() {
+        int longest = 0;
+        for (int h : height) {
+            longest = Math.max(longest, h);
+        }
+        return longest;
+    }
+
+    /**
+     * The graph as a map for process log details, segments named by their Scaffold_In step id
+     */
+    public Map<String, Object> summary(List<String> names) {
+        Map<String, List<String>> dependsOn = new LinkedHashMap<>();
+        for (int i = 0; i < size(); i++) {
+            dependsOn.put(names.get(i), dependencies.get(i).stream().map(names::get).toList());
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("segments", size());
+        summary.put("criticalPath", criticalPath());
+        summary.put("dependsOn", dependsOn);
+        return summary;
+    }
+}
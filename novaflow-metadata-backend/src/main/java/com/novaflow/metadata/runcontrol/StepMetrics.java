@@ -0,0 +1,126 @@
+package com.novaflow.metadata.runcontrol;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record counts and outcome of one pipeline step. Updated by the step's own thread only and read once
+ * the step has finished.
+ */
+public final class StepMetrics {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED, SKIPPED
+    }
+
+    /** Error messages kept per step; later ones are only counted */
+    static final int MAX_ERRORS = 10;
+
+    private final RunControlStep step;
+    private Status status = Status.PENDING;
+    private long recordsIn;
+    private long recordsOut;
+    private long errorRecords;
+    private long startNanos;
+    private long elapsedNanos;
+    private String error;
+    private final List<String> errors = new ArrayList<>();
+    private final Map<String, Object> details = new LinkedHashMap<>();
+
+    public StepMetrics(RunControlStep step) {
+        this.step = step;
+    }
+
+    public RunControlStep getStep() {
+        return step;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRecordsIn() {
+        return recordsIn;
+    }
+
+    public long getRecordsOut() {
+        return recordsOut;
+    }
+
+    public long getErrorRecords() {
+        return errorRecords;
+    }
+
+    /**
+     * Why the step failed, when it did
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void addRecordsIn(long count) {
+        recordsIn += count;
+    }
+
+    public void addRecordsOut(long count) {
+        recordsOut += count;
+    }
+
+    /**
+     * Count records the step could not process, keeping the first few reasons
+     */
+    public void addErrors(long count, Exception cause) {
+        errorRecords += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Step-specific figures for the process log
+     */
+    public void putDetail(String name, Object value) {
+        details.put(name, value);
+    }
+
+    void started() {
+        status = Status.RUNNING;
+        startNanos = System.nanoTime();
+    }
+
+    void finished(Status status, String error) {
+        this.status = status;
+        this.error = error;
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    void skipped() {
+        status = Status.SKIPPED;
+    }
+
+    /**
+     * The metrics as a map for process log details
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("stepId", step.id());
+        summary.put("stepOrder", step.stepOrder());
+        summary.put("runType", step.runType().getLabel());
+        summary.put("runTypeName", step.runTypeName());
+        summary.put("status", status.name());
+        summary.put("recordsIn", recordsIn);
+        summary.put("recordsOut", recordsOut);
+        summary.put("errorRecords", errorRecords);
+        summary.put("durationMs", elapsedNanos / 1_000_000);
+        if (error != null) {
+            summary.put("error", error);
+        }
+        if (!errors.isEmpty()) {
+            summary.put("recordErrors", List.copyOf(errors));
+        }
+        summary.putAll(details);
+        return summary;
+    }
+}
@@ -0,0 +1,17 @@
+package com.novaflow.metadata.runcontrol;
+
+/**
+ * The work of one pipeline step, run on its own thread
+ */
+@FunctionalInterface
+public interface StepTask {
+
+    /**
+     * Consume the input until it ends and send the step's records to output. The runner closes output
+     * when this returns normally.
+     *
+     * @param input  records of the previous step; null for a Scaffold_In step
+     * @param output channel to the next step; null for the last step of a segment
+     */
+    void run(RecordChannel input, RecordChannel output, StepMetrics metrics) throws Exception;
+}
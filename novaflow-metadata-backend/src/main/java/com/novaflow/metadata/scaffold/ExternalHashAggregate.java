@@ -0,0 +1,344 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.Arithmetic;
+import com.novaflow.metadata.rule.RecordExpression;
+import com.novaflow.metadata.rule.RuleCompiler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash aggregation with a memory budget. Groups live in a hash table until its estimated size exceeds
+ * the budget; the table is then split by key hash into partition files of partial aggregates and
+ * cleared, and later groups start afresh. At the end each partition is read back on its own, merging
+ * the partial aggregates of each group, and spilling again into sub-partitions (hashed with a different
+ * seed) when a partition alone exceeds the budget, up to MAX_DEPTH levels. Groups come out in first-seen
+ * order while nothing spills, otherwise partition by partition.
+ */
+final class ExternalHashAggregate implements RowSink {
+
+    // Hash map entry, Group, key array and normalized key list
+    private static final long GROUP_OVERHEAD = 128;
+    private static final long ACCUMULATOR_SIZE = 56;
+    // Past this depth a partition is aggregated in memory whatever its size, since hashing further
+    // cannot split a single huge group
+    private static final int MAX_DEPTH = 4;
+
+    private final List<String> keyNames;
+    private final List<RecordExpression> keys;
+    private final List<Operators.AggregateSpec> aggregates;
+    private final SpillContext spill;
+    private final RowSink downstream;
+    private final Table root = new Table(0);
+
+    ExternalHashAggregate(List<String> keyNames, List<RecordExpression> keys, List<Operators.AggregateSpec> aggregates,
+                          SpillContext spill, RowSink downstream) {
+        this.keyNames = keyNames;
+        this.keys = keys;
+        this.aggregates = aggregates;
+        this.spill = spill;
+        this.downstream = downstream;
+    }
+
+    @Override
+    public boolean accept(Map<String, Object> row) {
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = keys.get(i).evaluate(row);
+        }
+        Group group = root.group(values);
+        for (int i = 0; i < aggregates.size(); i++) {
+            Operators.AggregateSpec aggregate = aggregates.get(i);
+            root.bytes += group.accumulators[i].add(aggregate.argument() == null ? Boolean.TRUE : aggregate.argument().evaluate(row));
+        }
+        try {
+            root.checkBudget();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill scaffold aggregation", e);
+        }
+        return true;
+    }
+
+    @Override
+    public void finish() {
+        if (root.groups.isEmpty() && root.partitions == null && keys.isEmpty()) {
+            root.group(new Object[0]);
+        }
+        try {
+            root.drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read back scaffold aggregation partitions", e);
+        }
+        downstream.finish();
+    }
+
+    private final class Table {
+        final int depth;
+        final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+        long bytes;
+        SpillFile.Writer[] partitions;
+
+        Table(int depth) {
+            this.depth = depth;
+        }
+
+        Group group(Object[] values) {
+            List<Object> groupKey = new ArrayList<>(values.length);
+            for (Object value : values) {
+                groupKey.add(normalize(value));
+            }
+            Group group = groups.get(groupKey);
+            if (group == null) {
+                group = new Group(values, aggregates.size());
+                groups.put(groupKey, group);
+                bytes += GROUP_OVERHEAD + 2 * SpillFile.estimateSize(values) + aggregates.size() * ACCUMULATOR_SIZE;
+            }
+            return group;
+        }
+
+        void checkBudget() throws IOException {
+            if (bytes > spill.getMemoryBytes() && depth < MAX_DEPTH) {
+                writePartitions();
+            }
+        }
+
+        private void writePartitions() throws IOException {
+            if (partitions == null) {
+                partitions = new SpillFile.Writer[spill.getPartitions()];
+            }
+            for (Map.Entry<List<Object>, Group> entry : groups.entrySet()) {
+                int partition = partition(entry.getKey(), depth, partitions.length);
+                SpillFile.Writer writer = partitions[partition];
+                if (writer == null) {
+                    writer = new SpillFile.Writer(spill, "aggregate");
+                    partitions[partition] = writer;
+                    spill.hashPartition();
+                }
+                Group group = entry.getValue();
+                writer.startRecord();
+                for (Object key : group.keys) {
+                    writer.writeValue(key);
+                }
+                for (Accumulator accumulator : group.accumulators) {
+                    accumulator.write(writer);
+                }
+            }
+            groups.clear();
+            bytes = 0;
+        }
+
+        /**
+         * Merge one spilled group record into this table
+         */
+        private void read(SpillFile.Reader reader) throws IOException {
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = reader.readValue();
+            }
+            Group group = group(values);
+            for (Accumulator accumulator : group.accumulators) {
+                bytes += accumulator.merge(reader);
+            }
+        }
+
+        /**
+         * Emit every group downstream, reading spilled partitions back one at a time
+         *
+         * @return false when downstream wants no more rows
+         */
+        boolean drain() throws IOException {
+            if (partitions == null) {
+                for (Group group : groups.values()) {
+                    if (!downstream.accept(group.row())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            writePartitions();
+            SpillFile.Writer[] written = partitions;
+            partitions = null;
+            try {
+                for (SpillFile.Writer writer : written) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                }
+                for (int i = 0; i < written.length; i++) {
+                    if (written[i] == null) {
+                        continue;
+                    }
+                    Table child = new Table(depth + 1);
+                    try (SpillFile.Reader reader = new SpillFile.Reader(spill, written[i].path())) {
+                        while (reader.next()) {
+                            child.read(reader);
+                            child.checkBudget();
+                        }
+                    }
+                    spill.delete(written[i].path());
+                    written[i] = null;
+                    if (!child.drain()) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                for (SpillFile.Writer writer : written) {
+                    if (writer != null) {
+                        spill.delete(writer.path());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition of a group key at a recursion depth; each depth mixes the hash with its own seed
+     */
+    private static int partition(List<Object> groupKey, int depth, int count) {
+        int h = groupKey.hashCode() + depth * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, count);
+    }
+
+    /**
+     * Numeric keys group by exact value, as a GROUP BY in the database does: integral values that fit a
+     * long become that Long, so 3, 3.0 and 3.00 fall in the same group, and other numbers a BigDecimal
+     * without trailing zeros
+     */
+    private static Object normalize(Object value) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        Object number = Arithmetic.number(value);
+        if (number == null || number instanceof Long) {
+            return number == null ? value : number;
+        }
+        BigDecimal decimal = (number instanceof BigDecimal exact ? exact : BigDecimal.valueOf((Double) number)).stripTrailingZeros();
+        if (decimal.scale() <= 0) {
+            try {
+                return decimal.longValueExact();
+            } catch (ArithmeticException outOfRange) {
+                // Integral but beyond a long
+            }
+        }
+        return decimal;
+    }
+
+    private final class Group {
+        final Object[] keys;
+        final Accumulator[] accumulators;
+
+        Group(Object[] keys, int aggregates) {
+            this.keys = keys;
+            this.accumulators = new Accumulator[aggregates];
+            Arrays.setAll(accumulators, i -> new Accumulator());
+        }
+
+        Map<String, Object> row() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < keyNames.size(); i++) {
+                row.put(keyNames.get(i), keys[i]);
+            }
+            for (int i = 0; i < aggregates.size(); i++) {
+                row.put(aggregates.get(i).alias(), accumulators[i].result(aggregates.get(i).function()));
+            }
+            return row;
+        }
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private long numericCount;
+        // Long while the values are integral and it fits, BigDecimal with decimals, Double only with doubles
+        private Object sum;
+        private Object min;
+        private Object max;
+
+        /**
+         * @return change in estimated size
+         */
+        long add(Object value) {
+            if (value == null) {
+                return 0;
+            }
+            count++;
+            Object number = Arithmetic.number(value);
+            long delta = 0;
+            if (number != null) {
+                delta = addToSum(number);
+                numericCount++;
+            }
+            return delta + extremes(value, value);
+        }
+
+        /**
+         * Add a number or a partial sum; call before counting what it adds
+         */
+        private long addToSum(Object number) {
+            long before = SpillFile.estimateSize(sum);
+            sum = numericCount == 0 ? number : Arithmetic.add(sum, number);
+            return SpillFile.estimateSize(sum) - before;
+        }
+
+        private long extremes(Object low, Object high) {
+            long delta = 0;
+            if (low != null && (min == null || Operators.compareValues(low, min) < 0)) {
+                delta += SpillFile.estimateSize(low) - SpillFile.estimateSize(min);
+                min = low;
+            }
+            if (high != null && (max == null || Operators.compareValues(high, max) > 0)) {
+                delta += SpillFile.estimateSize(high) - SpillFile.estimateSize(max);
+                max = high;
+            }
+            return delta;
+        }
+
+        void write(SpillFile.Writer writer) throws IOException {
+            writer.writeVarLong(count);
+            writer.writeVarLong(numericCount);
+            writer.writeValue(sum);
+            writer.writeValue(min);
+            writer.writeValue(max);
+        }
+
+        /**
+         * Merge a partial aggregate read from a spill file
+         *
+         * @return change in estimated size
+         */
+        long merge(SpillFile.Reader reader) throws IOException {
+            count += reader.readVarLong();
+            long partialCount = reader.readVarLong();
+            Object partialSum = reader.readValue();
+            long delta = 0;
+            if (partialCount > 0) {
+                delta = addToSum(partialSum);
+                numericCount += partialCount;
+            }
+            Object low = reader.readValue();
+            Object high = reader.readValue();
+            return delta + extremes(low, high);
+        }
+
+        Object result(ScaffoldDefinition.AggregateFunction function) {
+            return switch (function) {
+                case COUNT -> count;
+                case SUM -> numericCount > 0 ? sum : null;
+                case AVG -> numericCount > 0 && sum != null ? RuleCompiler.toDouble(sum) / numericCount : null;
+                case MIN -> min;
+                case MAX -> max;
+            };
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.RecordExpression;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sort operator with a memory budget. Rows are buffered (with a limit, only the best limit rows, in a
+ * heap) until their estimated size exceeds the budget; the buffer is then sorted and written out as a
+ * run, truncated to the limit. At the end the runs and the rows still in memory are k-way merged, in
+ * extra passes of mergeFanIn runs at a time when there are too many. Ties keep input order, across runs
+ * too, since every row carries its input sequence number.
+ */
+final class ExternalSort implements RowSink {
+
+    // Keyed record, key array and buffer slot
+    private static final long ROW_OVERHEAD = 64;
+
+    private final List<RecordExpression> keys;
+    private final Integer limit;
+    private final SpillContext spill;
+    private final RowSink downstream;
+    private final Comparator<Keyed> order;
+
+    private List<Keyed> rows = new ArrayList<>();
+    private final PriorityQueue<Keyed> best;
+    private final List<Path> runs = new ArrayList<>();
+    private long bytes;
+    private long sequence;
+
+    ExternalSort(List<RecordExpression> keys, boolean[] descending, Integer limit, SpillContext spill, RowSink downstream) {
+        this.keys = keys;
+        this.limit = limit;
+        this.spill = spill;
+        this.downstream = downstream;
+        this.order = (a, b) -> {
+            for (int i = 0; i < a.keys.length; i++) {
+                int comparison = Operators.compareValues(a.keys[i], b.keys[i]);
+                if (comparison != 0) {
+                    return descending[i] ? -comparison : comparison;
+                }
+            }
+            return Long.compare(a.sequence, b.sequence);
+        };
+        this.best = limit != null ? new PriorityQueue<>(order.reversed()) : null;
+    }
+
+    private record Keyed(Object[] keys, long sequence, Map<String, Object> row, long size) {
+    }
+
+    @FunctionalInterface
+    private interface KeyedSink {
+        boolean accept(Keyed keyed) throws IOException;
+    }
+
+    @Override
+    public boolean accept(Map<String, Object> row) {
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = keys.get(i).evaluate(row);
+        }
+        Keyed keyed = new Keyed(values, sequence++, row,
+                ROW_OVERHEAD + SpillFile.estimateSize(values) + SpillFile.estimateSize(row));
+        if (best == null) {
+            rows.add(keyed);
+            bytes += keyed.size;
+        } else if (limit > 0) {
+            best.add(keyed);
+            bytes += keyed.size;
+            if (best.size() > limit) {
+                bytes -= best.poll().size;
+            }
+        }
+        if (bytes > spill.getMemoryBytes()) {
+            try {
+                writeRun();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not spill scaffold sort run", e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void finish() {
+        try {
+            if (runs.isEmpty()) {
+                for (Keyed keyed : drainSorted()) {
+                    if (!downstream.accept(keyed.row)) {
+                        break;
+                    }
+                }
+            } else {
+                mergeRuns();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not merge scaffold sort runs", e);
+        } finally {
+            runs.forEach(spill::delete);
+            runs.clear();
+        }
+        downstream.finish();
+    }
+
+    private List<Keyed> drainSorted() {
+        List<Keyed> sorted;
+        if (best != null) {
+            sorted = new ArrayList<>(best);
+            best.clear();
+        } else {
+            sorted = rows;
+            rows = new ArrayList<>();
+        }
+        sorted.sort(order);
+        bytes = 0;
+        return sorted;
+    }
+
+    private void writeRun() throws IOException {
+        List<Keyed> sorted = drainSorted();
+        try (SpillFile.Writer writer = new SpillFile.Writer(spill, "sort")) {
+            runs.add(writer.path());
+            for (Keyed keyed : sorted) {
+                write(writer, keyed);
+            }
+        }
+        spill.sortRun();
+    }
+
+    private void write(SpillFile.Writer writer, Keyed keyed) throws IOException {
+        writer.startRecord();
+        writer.writeVarLong(keyed.sequence);
+        for (Object key : keyed.keys) {
+            writer.writeValue(key);
+        }
+        writer.writeRow(keyed.row);
+    }
+
+    private void mergeRuns() throws IOException {
+        List<Keyed> memory = drainSorted();
+        int fanIn = spill.getMergeFanIn();
+        // Leave one merge input for the rows still in memory
+        while (runs.size() + (memory.isEmpty() ? 0 : 1) > fanIn) {
+            List<Path> batch = new ArrayList<>(runs.subList(0, fanIn));
+            runs.subList(0, fanIn).clear();
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "sort")) {
+                runs.add(writer.path());
+                long[] written = {0};
+                merge(batch, List.of(), keyed -> {
+                    write(writer, keyed);
+                    return limit == null || ++written[0] < limit;
+                });
+            } finally {
+                batch.forEach(spill::delete);
+            }
+            spill.sortRun();
+            spill.mergePass();
+        }
+        long[] emitted = {0};
+        merge(runs, memory, keyed -> downstream.accept(keyed.row) && (limit == null || ++emitted[0] < limit));
+        spill.mergePass();
+    }
+
+    /**
+     * K-way merge of sorted runs and an in-memory sorted list, until sink returns false
+     */
+    private void merge(List<Path> files, List<Keyed> memory, KeyedSink sink) throws IOException {
+        List<Cursor> cursors = new ArrayList<>();
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(files.size() + 1, (a, b) -> order.compare(a.current, b.current));
+        try {
+            for (Path file : files) {
+                cursors.add(new RunCursor(new SpillFile.Reader(spill, file)));
+            }
+            cursors.add(new ListCursor(memory.iterator()));
+            for (Cursor cursor : cursors) {
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                Cursor head = heads.poll();
+                if (!sink.accept(head.current)) {
+                    return;
+                }
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private abstract static class Cursor implements Closeable {
+        Keyed current;
+
+        /**
+         * Move to the next row; false at the end
+         */
+        abstract boolean advance() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static final class ListCursor extends Cursor {
+        private final Iterator<Keyed> rows;
+
+        ListCursor(Iterator<Keyed> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        boolean advance() {
+            current = rows.hasNext() ? rows.next() : null;
+            return current != null;
+        }
+    }
+
+    private final class RunCursor extends Cursor {
+        private final SpillFile.Reader reader;
+
+        RunCursor(SpillFile.Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (!reader.next()) {
+                current = null;
+                return false;
+            }
+            long rowSequence = reader.readVarLong();
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = reader.readValue();
+            }
+            current = new Keyed(values, rowSequence, reader.readRow(), 0);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
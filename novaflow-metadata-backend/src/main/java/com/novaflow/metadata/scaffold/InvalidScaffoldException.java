@@ -0,0 +1,16 @@
+package com.novaflow.metadata.scaffold;
+
+/**
+ * A scaffold's columns, filters, aggregations or ordering cannot be parsed or planned.
+ * Extends IllegalArgumentException so it surfaces as a 400.
+ */
+public class InvalidScaffoldException extends IllegalArgumentException {
+
+    public InvalidScaffoldException(String message) {
+        super(message);
+    }
+
+    public InvalidScaffoldException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
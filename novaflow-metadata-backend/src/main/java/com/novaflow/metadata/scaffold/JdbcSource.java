@@ -0,0 +1,16 @@
+package com.novaflow.metadata.scaffold;
+
+import java.util.Properties;
+
+/**
+ * Where a scaffold reads its source rows from over JDBC: a URL checked by JdbcSourcePolicy and the driver
+ * properties (user and password of a managed connection) passed alongside it rather than inside it.
+ */
+public record JdbcSource(String url, Properties properties) {
+
+    @Override
+    public String toString() {
+        // Never print the credentials
+        return url;
+    }
+}
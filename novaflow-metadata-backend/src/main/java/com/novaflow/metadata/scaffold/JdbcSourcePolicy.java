@@ -0,0 +1,188 @@
+package com.novaflow.metadata.scaffold;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Allowlist for the JDBC URLs scaffolds may open. A URL passes only when its driver is one of the allowed
+ * drivers (postgresql, sqlserver, oracle thin), every host it names is an allowed host, and every URL
+ * property it sets is an allowed property. Hosts match exactly, or by suffix for entries starting with a
+ * dot (".db.internal"). Driver properties that load classes or open sockets, such as pgjdbc's
+ * socketFactory or sslfactory, are therefore refused unless explicitly allowed; user and password are
+ * refused always, since credentials belong to a managed connection. Oracle URLs are limited to the
+ * host:port/service and host:port:sid forms.
+ */
+public final class JdbcSourcePolicy {
+
+    private static final Set<String> CREDENTIALS = Set.of("user", "password");
+    private static final Pattern PROPERTY_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_.]*");
+    private static final Pattern HOST = Pattern.compile("[A-Za-z0-9_.-]+|\\[[0-9A-Fa-f:.]+]");
+    private static final Pattern PORT = Pattern.compile("[0-9]{1,5}");
+
+    private final Set<String> drivers;
+    private final List<String> hosts;
+    private final Set<String> properties;
+
+    public JdbcSourcePolicy(Collection<String> drivers, Collection<String> hosts, Collection<String> properties) {
+        this.drivers = normalise(drivers);
+        this.hosts = List.copyOf(normalise(hosts));
+        this.properties = normalise(properties);
+    }
+
+    private static Set<String> normalise(Collection<String> values) {
+        return values.stream()
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @return the trimmed URL
+     * @throws InvalidScaffoldException when the URL is not allowed
+     */
+    public String check(String jdbcUrl) {
+        String url = jdbcUrl.trim();
+        String lower = url.toLowerCase(Locale.ROOT);
+        List<String> named = new ArrayList<>();
+        List<String> set = new ArrayList<>();
+        String driver;
+        if (lower.startsWith("jdbc:postgresql:")) {
+            driver = "postgresql";
+            parsePostgres(url, url.substring("jdbc:postgresql:".length()), named, set);
+        } else if (lower.startsWith("jdbc:sqlserver:")) {
+            driver = "sqlserver";
+            parseSqlServer(url, url.substring("jdbc:sqlserver:".length()), named, set);
+        } else if (lower.startsWith("jdbc:oracle:thin:")) {
+            driver = "oracle";
+            parseOracle(url, url.substring("jdbc:oracle:thin:".length()), named);
+        } else {
+            throw new InvalidScaffoldException("JDBC driver not allowed: " + redact(url));
+        }
+        if (!drivers.contains(driver)) {
+            throw new InvalidScaffoldException("JDBC driver not allowed: " + driver);
+        }
+        for (String host : named) {
+            if (!hostAllowed(host)) {
+                throw new InvalidScaffoldException("JDBC host not allowed: " + host);
+            }
+        }
+        for (String property : set) {
+            String key = property.toLowerCase(Locale.ROOT);
+            if (CREDENTIALS.contains(key)) {
+                throw new InvalidScaffoldException("JDBC URLs must not carry credentials; reference a managed connection instead");
+            }
+            if (!PROPERTY_NAME.matcher(property).matches() || !properties.contains(key)) {
+                throw new InvalidScaffoldException("JDBC URL property not allowed: " + property);
+            }
+        }
+        return url;
+    }
+
+    // jdbc:postgresql://host[:port][,host[:port]...]/database[?name=value&...]
+    private static void parsePostgres(String url, String rest, List<String> hosts, List<String> properties) {
+        if (!rest.startsWith("//")) {
+            throw new InvalidScaffoldException("JDBC URL must name its host: " + redact(url));
+        }
+        String path = rest.substring(2);
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            names(path.substring(query + 1), '&', properties);
+            path = path.substring(0, query);
+        }
+        int slash = path.indexOf('/');
+        for (String address : (slash >= 0 ? path.substring(0, slash) : path).split(",", -1)) {
+            hosts.add(host(url, address));
+        }
+    }
+
+    // jdbc:sqlserver://host[\instance][:port][;name=value;...]
+    private static void parseSqlServer(String url, String rest, List<String> hosts, List<String> properties) {
+        // Braced values may hide ';' and further properties
+        if (!rest.startsWith("//") || rest.indexOf('{') >= 0) {
+            throw new InvalidScaffoldException("JDBC URL not allowed: " + redact(url));
+        }
+        String path = rest.substring(2);
+        int semicolon = path.indexOf(';');
+        String address = semicolon >= 0 ? path.substring(0, semicolon) : path;
+        if (semicolon >= 0) {
+            names(path.substring(semicolon + 1), ';', properties);
+        }
+        int instance = address.indexOf('\\');
+        if (instance >= 0) {
+            int port = address.indexOf(':', instance);
+            address = address.substring(0, instance) + (port >= 0 ? address.substring(port) : "");
+        }
+        hosts.add(host(url, address));
+    }
+
+    // jdbc:oracle:thin:@[//]host[:port]/service or jdbc:oracle:thin:@host:port:sid, no connect descriptors
+    private static void parseOracle(String url, String rest, List<String> hosts) {
+        String address = rest.startsWith("@//") ? rest.substring(3) : rest.startsWith("@") ? rest.substring(1) : null;
+        if (address == null || address.chars().anyMatch(c -> "()?,@=".indexOf(c) >= 0)) {
+            throw new InvalidScaffoldException("JDBC URL not allowed: " + redact(url));
+        }
+        int end = address.length();
+        for (char separator : new char[] {':', '/'}) {
+            int at = address.indexOf(separator);
+            if (at >= 0) {
+                end = Math.min(end, at);
+            }
+        }
+        hosts.add(host(url, address.substring(0, end)));
+    }
+
+    private static void names(String list, char separator, List<String> properties) {
+        for (String pair : list.split(Pattern.quote(String.valueOf(separator)))) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            properties.add((equals >= 0 ? pair.substring(0, equals) : pair).trim());
+        }
+    }
+
+    /**
+     * Host part of host[:port], validated
+     */
+    private static String host(String url, String address) {
+        String host = address;
+        String port = null;
+        int colon = address.startsWith("[") ? address.indexOf(':', address.indexOf(']')) : address.indexOf(':');
+        if (colon >= 0) {
+            host = address.substring(0, colon);
+            port = address.substring(colon + 1);
+        }
+        if (!HOST.matcher(host).matches() || (port != null && !PORT.matcher(port).matches())) {
+            throw new InvalidScaffoldException("JDBC URL has an invalid host: " + redact(url));
+        }
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean hostAllowed(String host) {
+        for (String allowed : hosts) {
+            if (allowed.startsWith(".") ? host.endsWith(allowed) : host.equals(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The URL up to its properties, which may hold secrets
+     */
+    private static String redact(String url) {
+        int cut = url.length();
+        for (char c : new char[] {'?', ';', '@'}) {
+            int at = url.indexOf(c);
+            if (at >= 0) {
+                cut = Math.min(cut, at);
+            }
+        }
+        return url.substring(0, cut);
+    }
+}
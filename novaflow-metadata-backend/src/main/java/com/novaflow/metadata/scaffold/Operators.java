@@ -0,0 +1,124 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.Arithmetic;
+import com.novaflow.metadata.rule.RecordExpression;
+import com.novaflow.metadata.rule.RecordPredicate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The in-memory operators of a scaffold pipeline. Rows are attribute maps; expressions and predicates
+ * are compiled by RuleCompiler, so values follow rule semantics. Ordering puts nulls last ascending and
+ * first descending, as PostgreSQL and Oracle do by default. The blocking operators (sort, hash
+ * aggregation) keep to the memory budget of the execution's SpillContext.
+ */
+public final class Operators {
+
+    private Operators() {
+    }
+
+    public static RowSink filter(RecordPredicate predicate, RowSink downstream) {
+        return new RowSink() {
+            @Override
+            public boolean accept(Map<String, Object> row) {
+                return !predicate.test(row) || downstream.accept(row);
+            }
+
+            @Override
+            public void finish() {
+                downstream.finish();
+            }
+        };
+    }
+
+    /**
+     * Replace each row by the named expressions evaluated over it
+     */
+    public static RowSink project(List<String> names, List<RecordExpression> expressions, RowSink downstream) {
+        return new RowSink() {
+            @Override
+            public boolean accept(Map<String, Object> row) {
+                Map<String, Object> projected = new LinkedHashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    projected.put(names.get(i), expressions.get(i).evaluate(row));
+                }
+                return downstream.accept(projected);
+            }
+
+            @Override
+            public void finish() {
+                downstream.finish();
+            }
+        };
+    }
+
+    /**
+     * Pass the first limit rows, then ask the source to stop
+     */
+    public static RowSink limit(int limit, RowSink downstream) {
+        return new RowSink() {
+            private int passed;
+
+            @Override
+            public boolean accept(Map<String, Object> row) {
+                if (passed >= limit) {
+                    return false;
+                }
+                passed++;
+                return downstream.accept(row) && passed < limit;
+            }
+
+            @Override
+            public void finish() {
+                downstream.finish();
+            }
+        };
+    }
+
+    /**
+     * Sort all rows by the keys; with a limit only the best limit rows are kept (top-N). Rows beyond the
+     * spill context's memory budget are sorted in runs on disk and merged. Ties keep input order.
+     */
+    public static RowSink sort(List<RecordExpression> keys, boolean[] descending, Integer limit, SpillContext spill,
+                               RowSink downstream) {
+        return new ExternalSort(keys, descending, limit, spill, downstream);
+    }
+
+    /**
+     * One aggregate of a hash aggregation; argument is null for COUNT of rows
+     */
+    public record AggregateSpec(ScaffoldDefinition.AggregateFunction function, RecordExpression argument, String alias) {
+    }
+
+    /**
+     * Group rows by the key expressions in a hash table and emit one row per group, with the keys and
+     * aggregates, when the input ends. Without keys there is always exactly one output row. Numeric keys
+     * group by exact value, so 3 and 3.0 fall in the same group and 2^53 and 2^53 + 1 do not. SUM is exact
+     * for integers and decimals, as in rule arithmetic. Groups beyond the spill context's memory
+     * budget are spilled to partition files as partial aggregates and merged back partition by partition.
+     */
+    public static RowSink hashAggregate(List<String> keyNames, List<RecordExpression> keys, List<AggregateSpec> aggregates,
+                                        SpillContext spill, RowSink downstream) {
+        return new ExternalHashAggregate(keyNames, keys, aggregates, spill, downstream);
+    }
+
+    /**
+     * Order of two values: nulls after everything else, numbers by exact value, otherwise natural order when
+     * both have the same type and string order when they do not
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            return Arithmetic.compare(x, y);
+        }
+        if (a instanceof Comparable comparable && a.getClass() == b.getClass()) {
+            return comparable.compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+}
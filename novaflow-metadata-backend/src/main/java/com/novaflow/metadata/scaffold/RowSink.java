@@ -0,0 +1,17 @@
+package com.novaflow.metadata.scaffold;
+
+import java.util.Map;
+
+/**
+ * Push-based stage of an in-memory scaffold pipeline. A source calls accept for each row and then
+ * finish once; blocking stages (aggregation, sort) emit their rows from finish.
+ */
+public interface RowSink {
+
+    /**
+     * @return false when no more rows are wanted, so the source can stop reading
+     */
+    boolean accept(Map<String, Object> row);
+
+    void finish();
+}
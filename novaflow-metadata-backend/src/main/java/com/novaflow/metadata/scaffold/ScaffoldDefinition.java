@@ -0,0 +1,45 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.ComparisonOperator;
+import com.novaflow.metadata.rule.Expression;
+
+import java.util.List;
+
+/**
+ * Typed form of a Scaffold's columns, filters, aggregations, ordering and configuration JSON.
+ * Filters apply to source attributes; groupBy, aggregate and ordering columns name either an output
+ * column or a source attribute.
+ *
+ * @param sourceTable table to read from a JDBC source, null to use the scaffold's source object name
+ * @param limit       maximum rows to return, null for all
+ */
+public record ScaffoldDefinition(List<Column> columns, List<Filter> filters, List<String> groupBy,
+                                 List<Aggregate> aggregates, List<Order> ordering, String sourceTable, Integer limit) {
+
+    public boolean isAggregated() {
+        return !groupBy.isEmpty() || !aggregates.isEmpty();
+    }
+
+    /**
+     * Output column: name is the target column, expression is evaluated over the source record
+     */
+    public record Column(String name, Expression expression) {
+    }
+
+    public record Filter(String column, ComparisonOperator operator, String value) {
+    }
+
+    public enum AggregateFunction {
+        SUM, COUNT, AVG, MIN, MAX
+    }
+
+    /**
+     * @param column source attribute or output column, null for COUNT of rows
+     * @param alias  output name
+     */
+    public record Aggregate(AggregateFunction function, String column, String alias) {
+    }
+
+    public record Order(String column, boolean descending) {
+    }
+}
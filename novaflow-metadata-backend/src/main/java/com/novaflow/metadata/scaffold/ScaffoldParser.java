@@ -0,0 +1,247 @@
+package com.novaflow.metadata.scaffold;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novaflow.metadata.entity.Scaffold;
+import com.novaflow.metadata.rule.ComparisonOperator;
+import com.novaflow.metadata.rule.Expression;
+import com.novaflow.metadata.rule.ExpressionParser;
+import com.novaflow.metadata.rule.RuleSyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a Scaffold's JSON fields, in the shapes the scaffold definition screen saves them, into a
+ * ScaffoldDefinition:
+ * <ul>
+ *   <li>columns: [{name, transformation: {sourceColumn, targetColumn, transformation, expression,
+ *       sourceColumns, steps}}]; the output name is targetColumn (else name) and the value is the
+ *       expression for "Expression", the joined sourceColumns for "Concatenate", the last step when
+ *       there are steps, and otherwise the sourceColumn</li>
+ *   <li>filters: [{column, operator, value}], operators as in rule conditions or equals, not_equals,
+ *       greater_than, less_than, contains, starts_with, ends_with</li>
+ *   <li>aggregations: [{groupByColumns: [...], aggregations: [{column, aggregationFunction, alias}]}]</li>
+ *   <li>ordering: [{column, direction}]</li>
+ *   <li>configuration: {sourceTable, limit}</li>
+ * </ul>
+ */
+public final class ScaffoldParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ScaffoldParser() {
+    }
+
+    public static ScaffoldDefinition parse(Scaffold scaffold) {
+        return parse(scaffold.getColumns(), scaffold.getFilters(), scaffold.getAggregations(), scaffold.getOrdering(),
+                scaffold.getConfiguration());
+    }
+
+    public static ScaffoldDefinition parse(String columnsJson, String filtersJson, String aggregationsJson,
+                                           String orderingJson, String configurationJson) {
+        List<ScaffoldDefinition.Column> columns = parseColumns(readArray(columnsJson, "columns"));
+        List<ScaffoldDefinition.Filter> filters = parseFilters(readArray(filtersJson, "filters"));
+        JsonNode aggregations = readArray(aggregationsJson, "aggregations");
+        if (aggregations.size() > 1) {
+            throw new InvalidScaffoldException("Scaffold aggregations may have only one group, got " + aggregations.size());
+        }
+        List<String> groupBy = new ArrayList<>();
+        List<ScaffoldDefinition.Aggregate> aggregates = new ArrayList<>();
+        if (!aggregations.isEmpty()) {
+            JsonNode group = aggregations.get(0);
+            for (JsonNode column : group.path("groupByColumns")) {
+                if (!column.asText().isBlank()) {
+                    groupBy.add(column.asText().trim());
+                }
+            }
+            aggregates = parseAggregates(group.path("aggregations"));
+        }
+        List<ScaffoldDefinition.Order> ordering = parseOrdering(readArray(orderingJson, "ordering"));
+
+        JsonNode configuration = readObject(configurationJson);
+        String sourceTable = text(configuration, "sourceTable");
+        Integer limit = null;
+        if (configuration.hasNonNull("limit")) {
+            if (!configuration.get("limit").canConvertToInt() || configuration.get("limit").asInt() < 0) {
+                throw new InvalidScaffoldException("Scaffold configuration limit must be a non-negative integer");
+            }
+            limit = configuration.get("limit").asInt();
+        }
+        return new ScaffoldDefinition(columns, filters, groupBy, aggregates, ordering,
+                sourceTable != null && !sourceTable.isBlank() ? sourceTable.trim() : null, limit);
+    }
+
+    private static JsonNode readArray(String json, String field) {
+        JsonNode node = read(json, field);
+        if (node.isNull() || node.isMissingNode()) {
+            return MAPPER.createArrayNode();
+        }
+        if (!node.isArray()) {
+            throw new InvalidScaffoldException("Scaffold " + field + " must be a JSON array");
+        }
+        return node;
+    }
+
+    private static JsonNode readObject(String json) {
+        JsonNode node = read(json, "configuration");
+        if (node.isNull() || node.isMissingNode()) {
+            return MAPPER.createObjectNode();
+        }
+        if (!node.isObject()) {
+            throw new InvalidScaffoldException("Scaffold configuration must be a JSON object");
+        }
+        return node;
+    }
+
+    private static JsonNode read(String json, String field) {
+        if (json == null || json.isBlank()) {
+            return MAPPER.missingNode();
+        }
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new InvalidScaffoldException("Scaffold " + field + " are not valid JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String required(JsonNode node, String field, int index, String kind) {
+        String value = text(node, field);
+        if (value == null || value.isBlank()) {
+            throw new InvalidScaffoldException(kind + " " + (index + 1) + " is missing " + field);
+        }
+        return value.trim();
+    }
+
+    private static List<ScaffoldDefinition.Column> parseColumns(JsonNode columns) {
+        List<ScaffoldDefinition.Column> result = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            JsonNode column = columns.get(i);
+            JsonNode transformation = column.has("transformation") && column.get("transformation").isObject()
+                    ? column.get("transformation") : column;
+            String target = text(transformation, "targetColumn");
+            String name = target != null && !target.isBlank() ? target.trim() : required(column, "name", i, "Column");
+            try {
+                result.add(new ScaffoldDefinition.Column(name, columnExpression(column, transformation, name)));
+            } catch (RuleSyntaxException e) {
+                throw new InvalidScaffoldException("Column " + name + ": " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    private static Expression columnExpression(JsonNode column, JsonNode transformation, String name) {
+        String type = normalize(text(transformation, "transformation"));
+        String expression = text(transformation, "expression");
+        if (type.equals("expression") && expression != null && !expression.isBlank()) {
+            return ExpressionParser.parse(expression);
+        }
+        if (type.equals("concatenate")) {
+            return concatenate(transformation.path("sourceColumns"), text(transformation, "delimiter"));
+        }
+        JsonNode steps = transformation.path("steps");
+        if (steps.isArray() && !steps.isEmpty() && !type.equals("direct")) {
+            JsonNode step = steps.get(steps.size() - 1);
+            String stepType = normalize(text(step, "type"));
+            if (stepType.equals("expression")) {
+                return ExpressionParser.parse(text(step, "expression"));
+            }
+            if (stepType.equals("concatenate")) {
+                return concatenate(step.path("sourceColumns"), text(step, "delimiter"));
+            }
+            if (step.path("sourceColumns").size() > 0) {
+                return new Expression.AttributeRef(step.path("sourceColumns").get(0).asText());
+            }
+        }
+        String source = text(transformation, "sourceColumn");
+        if (source == null || source.isBlank()) {
+            source = text(column, "name");
+        }
+        return new Expression.AttributeRef(source != null && !source.isBlank() ? source.trim() : name);
+    }
+
+    private static Expression concatenate(JsonNode sourceColumns, String delimiter) {
+        if (!sourceColumns.isArray() || sourceColumns.isEmpty()) {
+            throw new RuleSyntaxException("Concatenate needs sourceColumns");
+        }
+        List<Expression> arguments = new ArrayList<>();
+        for (JsonNode column : sourceColumns) {
+            if (!arguments.isEmpty() && delimiter != null && !delimiter.isEmpty()) {
+                arguments.add(new Expression.Constant(delimiter));
+            }
+            arguments.add(new Expression.AttributeRef(column.asText().trim()));
+        }
+        return new Expression.Call("CONCAT", arguments);
+    }
+
+    private static List<ScaffoldDefinition.Filter> parseFilters(JsonNode filters) {
+        List<ScaffoldDefinition.Filter> result = new ArrayList<>();
+        for (int i = 0; i < filters.size(); i++) {
+            JsonNode filter = filters.get(i);
+            String column = required(filter, "column", i, "Filter");
+            ComparisonOperator operator;
+            try {
+                operator = ComparisonOperator.of(text(filter, "operator"));
+            } catch (RuleSyntaxException e) {
+                throw new InvalidScaffoldException("Filter " + (i + 1) + ": " + e.getMessage(), e);
+            }
+            String value = operator.isUnary() ? null : text(filter, "value");
+            result.add(new ScaffoldDefinition.Filter(column, operator, value != null ? value : operator.isUnary() ? null : ""));
+        }
+        return result;
+    }
+
+    private static List<ScaffoldDefinition.Aggregate> parseAggregates(JsonNode aggregates) {
+        List<ScaffoldDefinition.Aggregate> result = new ArrayList<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            JsonNode aggregate = aggregates.get(i);
+            String spelling = required(aggregate, "aggregationFunction", i, "Aggregation");
+            ScaffoldDefinition.AggregateFunction function;
+            try {
+                function = ScaffoldDefinition.AggregateFunction.valueOf(spelling.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidScaffoldException("Aggregation " + (i + 1) + ": unknown function '" + spelling + "'");
+            }
+            String column = text(aggregate, "column");
+            if (column == null || column.isBlank() || column.trim().equals("*")) {
+                if (function != ScaffoldDefinition.AggregateFunction.COUNT) {
+                    throw new InvalidScaffoldException("Aggregation " + (i + 1) + " is missing column");
+                }
+                column = null;
+            } else {
+                column = column.trim();
+            }
+            String alias = text(aggregate, "alias");
+            if (alias == null || alias.isBlank()) {
+                alias = function.name().toLowerCase(Locale.ROOT) + (column != null ? "_" + column : "");
+            }
+            result.add(new ScaffoldDefinition.Aggregate(function, column, alias.trim()));
+        }
+        return result;
+    }
+
+    private static List<ScaffoldDefinition.Order> parseOrdering(JsonNode ordering) {
+        List<ScaffoldDefinition.Order> result = new ArrayList<>();
+        for (int i = 0; i < ordering.size(); i++) {
+            JsonNode order = ordering.get(i);
+            String column = required(order, "column", i, "Ordering");
+            String direction = normalize(text(order, "direction"));
+            if (!direction.isEmpty() && !direction.equals("asc") && !direction.equals("desc")) {
+                throw new InvalidScaffoldException("Ordering " + (i + 1) + ": direction must be asc or desc");
+            }
+            result.add(new ScaffoldDefinition.Order(column, direction.equals("desc")));
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
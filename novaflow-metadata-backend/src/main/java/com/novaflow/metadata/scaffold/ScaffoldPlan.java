@@ -0,0 +1,78 @@
+package com.novaflow.metadata.scaffold;
+
+import java.util.List;
+
+/**
+ * Physical plan of a scaffold: the query pushed down to a JDBC source, if any, followed by the in-memory
+ * operator pipeline that processes what the source returns. Immutable; open builds a fresh pipeline.
+ */
+public final class ScaffoldPlan {
+
+    /**
+     * One in-memory operator: a description for explain output and a factory that wraps the downstream sink
+     */
+    public record Stage(String description, Operator operator) {
+    }
+
+    /**
+     * Creates an operator in front of downstream; blocking operators spill through the execution's context
+     */
+    @FunctionalInterface
+    public interface Operator {
+        RowSink open(RowSink downstream, SpillContext spill);
+    }
+
+    private final String sql;
+    private final List<Object> parameters;
+    private final List<String> pushedDown;
+    private final List<Stage> stages;
+    private final List<String> outputColumns;
+
+    ScaffoldPlan(String sql, List<Object> parameters, List<String> pushedDown, List<Stage> stages, List<String> outputColumns) {
+        this.sql = sql;
+        this.parameters = List.copyOf(parameters);
+        this.pushedDown = List.copyOf(pushedDown);
+        this.stages = List.copyOf(stages);
+        this.outputColumns = List.copyOf(outputColumns);
+    }
+
+    /**
+     * Query for a JDBC source, with ? placeholders for getParameters(); null when the source is not JDBC
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Operators executed by the source database
+     */
+    public List<String> getPushedDown() {
+        return pushedDown;
+    }
+
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * Output column names; empty when source records are passed through unprojected
+     */
+    public List<String> getOutputColumns() {
+        return outputColumns;
+    }
+
+    /**
+     * Build the in-memory pipeline in front of output; the source pushes its rows into the returned sink
+     */
+    public RowSink open(RowSink output, SpillContext spill) {
+        RowSink sink = output;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            sink = stages.get(i).operator().open(sink, spill);
+        }
+        return sink;
+    }
+}
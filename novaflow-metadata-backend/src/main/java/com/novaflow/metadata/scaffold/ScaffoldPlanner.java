@@ -0,0 +1,380 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.Condition;
+import com.novaflow.metadata.rule.Expression;
+import com.novaflow.metadata.rule.RecordExpression;
+import com.novaflow.metadata.rule.RecordPredicate;
+import com.novaflow.metadata.rule.RuleCompiler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a ScaffoldDefinition into a ScaffoldPlan. The logical plan is always
+ * filter, then projection or hash aggregation, then sort (top-N with a limit), then limit.
+ * <p>
+ * Without aggregation the sort runs on source records, so ordering may name source attributes as well
+ * as output columns, and the projection comes last. With aggregation the output is the group-by columns
+ * followed by the aggregates, and ordering must name one of those.
+ * <p>
+ * For a JDBC source every filter SqlRenderer can translate goes into the WHERE clause. If all of them
+ * can, and so can every projected, grouped, aggregated and sort expression, the whole plan runs in the
+ * database; otherwise the database returns the filtered source rows and the rest runs in memory.
+ */
+public final class ScaffoldPlanner {
+
+    private ScaffoldPlanner() {
+    }
+
+    /**
+     * Plan for a source that cannot run queries; every operator runs in memory
+     */
+    public static ScaffoldPlan plan(ScaffoldDefinition definition) {
+        Logical logical = new Logical(definition);
+        return new ScaffoldPlan(null, List.of(), List.of(), logical.stages(definition.filters(), definition.limit()),
+                logical.outputColumns);
+    }
+
+    /**
+     * Plan for a JDBC source
+     *
+     * @param table          source table, optionally schema-qualified
+     * @param attributeTypes source attribute name to data type, which decides which filters can be pushed
+     */
+    public static ScaffoldPlan plan(ScaffoldDefinition definition, SqlDialect dialect, String table,
+                                    Map<String, String> attributeTypes) {
+        Logical logical = new Logical(definition);
+        SqlRenderer renderer = new SqlRenderer(dialect, attributeTypes);
+        Integer limit = definition.limit();
+
+        List<Object> parameters = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        List<ScaffoldDefinition.Filter> pushedFilters = new ArrayList<>();
+        List<ScaffoldDefinition.Filter> residual = new ArrayList<>();
+        for (ScaffoldDefinition.Filter filter : definition.filters()) {
+            List<Object> bound = new ArrayList<>();
+            String sql = renderer.filter(filter, bound);
+            if (sql != null) {
+                where.add(sql);
+                parameters.addAll(bound);
+                pushedFilters.add(filter);
+            } else {
+                residual.add(filter);
+            }
+        }
+        List<String> pushedDown = new ArrayList<>();
+        if (!pushedFilters.isEmpty()) {
+            pushedDown.add(describeFilters(pushedFilters));
+        }
+
+        String select = residual.isEmpty() ? logical.selectList(renderer, dialect) : null;
+        List<String> orderBy = select != null ? logical.orderBy(renderer, dialect) : null;
+        List<String> groupBy = select != null && definition.isAggregated() ? logical.groupBy(renderer) : List.of();
+        boolean full = select != null && orderBy != null && groupBy != null;
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        boolean limitPushed = limit != null && (full || (residual.isEmpty() && !definition.isAggregated()
+                && definition.ordering().isEmpty()));
+        if (limitPushed) {
+            sql.append(dialect.top(limit));
+        }
+        sql.append(full ? select : "*").append(" FROM ").append(dialect.quote(table));
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        List<ScaffoldPlan.Stage> stages;
+        if (full) {
+            if (!groupBy.isEmpty()) {
+                sql.append(" GROUP BY ").append(String.join(", ", groupBy));
+            }
+            if (!orderBy.isEmpty()) {
+                sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+            }
+            pushedDown.addAll(logical.describe(limit));
+            stages = List.of();
+        } else {
+            stages = logical.stages(residual, limitPushed ? null : limit);
+            if (limitPushed) {
+                pushedDown.add("Limit: " + limit);
+            }
+        }
+        if (limitPushed) {
+            sql.append(dialect.fetchFirst(limit));
+        }
+        return new ScaffoldPlan(sql.toString(), parameters, pushedDown, stages, logical.outputColumns);
+    }
+
+    static String describeFilters(List<ScaffoldDefinition.Filter> filters) {
+        return "Filter: " + filters.stream()
+                .map(filter -> filter.column() + " " + filter.operator() + (filter.value() != null ? " '" + filter.value() + "'" : ""))
+                .collect(Collectors.joining(" AND "));
+    }
+
+    /**
+     * The definition with every column name resolved to an expression
+     */
+    private static final class Logical {
+        private final ScaffoldDefinition definition;
+        private final Map<String, Expression> columns = new LinkedHashMap<>();
+        private final List<Expression> keys = new ArrayList<>();
+        private final List<Expression> arguments = new ArrayList<>();
+        private final List<Expression> sortKeys = new ArrayList<>();
+        private final List<String> outputColumns = new ArrayList<>();
+
+        Logical(ScaffoldDefinition definition) {
+            this.definition = definition;
+            for (ScaffoldDefinition.Column column : definition.columns()) {
+                if (columns.put(column.name(), column.expression()) != null) {
+                    throw new InvalidScaffoldException("Duplicate output column " + column.name());
+                }
+            }
+            if (definition.isAggregated()) {
+                Set<String> names = new LinkedHashSet<>();
+                for (String name : definition.groupBy()) {
+                    keys.add(resolve(name));
+                    addOutput(names, name);
+                }
+                for (ScaffoldDefinition.Aggregate aggregate : definition.aggregates()) {
+                    arguments.add(aggregate.column() != null ? resolve(aggregate.column()) : null);
+                    addOutput(names, aggregate.alias());
+                }
+                outputColumns.addAll(names);
+                for (ScaffoldDefinition.Order order : definition.ordering()) {
+                    if (!names.contains(order.column())) {
+                        throw new InvalidScaffoldException("Ordering column " + order.column()
+                                + " is neither a group-by column nor an aggregate of the scaffold");
+                    }
+                    sortKeys.add(new Expression.AttributeRef(order.column()));
+                }
+            } else {
+                outputColumns.addAll(columns.keySet());
+                for (ScaffoldDefinition.Order order : definition.ordering()) {
+                    sortKeys.add(resolve(order.column()));
+                }
+            }
+        }
+
+        private static void addOutput(Set<String> names, String name) {
+            if (!names.add(name)) {
+                throw new InvalidScaffoldException("Duplicate aggregation output column " + name);
+            }
+        }
+
+        private Expression resolve(String name) {
+            Expression column = columns.get(name);
+            return column != null ? column : new Expression.AttributeRef(name);
+        }
+
+        /**
+         * Select list for the fully pushed-down query, or null if part of it cannot be rendered
+         */
+        String selectList(SqlRenderer renderer, SqlDialect dialect) {
+            List<String> items = new ArrayList<>();
+            if (definition.isAggregated()) {
+                for (int i = 0; i < keys.size(); i++) {
+                    String key = renderer.expression(keys.get(i));
+                    if (key == null) {
+                        return null;
+                    }
+                    items.add(key + " AS " + dialect.quote(definition.groupBy().get(i)));
+                }
+                for (int i = 0; i < arguments.size(); i++) {
+                    String aggregate = aggregate(renderer, dialect, i);
+                    if (aggregate == null) {
+                        return null;
+                    }
+                    items.add(aggregate + " AS " + dialect.quote(definition.aggregates().get(i).alias()));
+                }
+                return String.join(", ", items);
+            }
+            if (columns.isEmpty()) {
+                return "*";
+            }
+            for (Map.Entry<String, Expression> column : columns.entrySet()) {
+                String expression = renderer.expression(column.getValue());
+                if (expression == null) {
+                    return null;
+                }
+                items.add(expression + " AS " + dialect.quote(column.getKey()));
+            }
+            return String.join(", ", items);
+        }
+
+        private String aggregate(SqlRenderer renderer, SqlDialect dialect, int index) {
+            ScaffoldDefinition.AggregateFunction function = definition.aggregates().get(index).function();
+            if (arguments.get(index) == null) {
+                return "COUNT(*)";
+            }
+            String argument = renderer.expression(arguments.get(index));
+            if (argument == null) {
+                return null;
+            }
+            // SUM is exact in the database as it is in memory; AVG is a double in both
+            return switch (function) {
+                case AVG -> "AVG(CAST(" + argument + " AS " + dialect.doubleType() + "))";
+                default -> function.name() + "(" + argument + ")";
+            };
+        }
+
+        List<String> groupBy(SqlRenderer renderer) {
+            List<String> items = new ArrayList<>();
+            for (Expression key : keys) {
+                String rendered = renderer.expression(key);
+                if (rendered == null) {
+                    return null;
+                }
+                items.add(rendered);
+            }
+            return items;
+        }
+
+        /**
+         * ORDER BY items, or null if a sort key cannot be rendered. Aggregated plans sort by the underlying
+         * expression rather than the output alias, which not every database accepts inside an expression.
+         */
+        List<String> orderBy(SqlRenderer renderer, SqlDialect dialect) {
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < sortKeys.size(); i++) {
+                ScaffoldDefinition.Order order = definition.ordering().get(i);
+                String rendered;
+                if (definition.isAggregated()) {
+                    int key = definition.groupBy().indexOf(order.column());
+                    if (key >= 0) {
+                        rendered = renderer.expression(keys.get(key));
+                    } else {
+                        rendered = aggregate(renderer, dialect, aliasIndex(order.column()));
+                    }
+                } else {
+                    rendered = renderer.expression(sortKeys.get(i));
+                }
+                if (rendered == null) {
+                    return null;
+                }
+                items.add(dialect.orderBy(rendered, order.descending()));
+            }
+            return items;
+        }
+
+        private int aliasIndex(String alias) {
+            for (int i = 0; i < definition.aggregates().size(); i++) {
+                if (definition.aggregates().get(i).alias().equals(alias)) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("No aggregate " + alias);
+        }
+
+        /**
+         * In-memory stages for the given filters and limit
+         */
+        List<ScaffoldPlan.Stage> stages(List<ScaffoldDefinition.Filter> filters, Integer limit) {
+            List<ScaffoldPlan.Stage> stages = new ArrayList<>();
+            if (!filters.isEmpty()) {
+                List<Condition> comparisons = new ArrayList<>();
+                for (ScaffoldDefinition.Filter filter : filters) {
+                    comparisons.add(new Condition.Comparison(filter.column(), filter.operator(), filter.value()));
+                }
+                RecordPredicate predicate = RuleCompiler.compile(new Condition.And(comparisons));
+                stages.add(new ScaffoldPlan.Stage(describeFilters(filters), (downstream, spill) -> Operators.filter(predicate, downstream)));
+            }
+            if (definition.isAggregated()) {
+                List<RecordExpression> compiledKeys = keys.stream().map(RuleCompiler::compile).toList();
+                List<Operators.AggregateSpec> aggregates = new ArrayList<>();
+                for (int i = 0; i < arguments.size(); i++) {
+                    ScaffoldDefinition.Aggregate aggregate = definition.aggregates().get(i);
+                    aggregates.add(new Operators.AggregateSpec(aggregate.function(),
+                            arguments.get(i) != null ? RuleCompiler.compile(arguments.get(i)) : null, aggregate.alias()));
+                }
+                List<String> keyNames = definition.groupBy();
+                stages.add(new ScaffoldPlan.Stage(describeAggregation(),
+                        (downstream, spill) -> Operators.hashAggregate(keyNames, compiledKeys, aggregates, spill, downstream)));
+                addSortAndLimit(stages, limit);
+            } else {
+                addSortAndLimit(stages, limit);
+                if (!columns.isEmpty()) {
+                    List<String> names = List.copyOf(columns.keySet());
+                    List<RecordExpression> expressions = columns.values().stream().map(RuleCompiler::compile).toList();
+                    stages.add(new ScaffoldPlan.Stage(describeProjection(),
+                            (downstream, spill) -> Operators.project(names, expressions, downstream)));
+                }
+            }
+            return stages;
+        }
+
+        private void addSortAndLimit(List<ScaffoldPlan.Stage> stages, Integer limit) {
+            if (!sortKeys.isEmpty()) {
+                List<RecordExpression> compiled = sortKeys.stream().map(RuleCompiler::compile).toList();
+                boolean[] descending = new boolean[sortKeys.size()];
+                for (int i = 0; i < descending.length; i++) {
+                    descending[i] = definition.ordering().get(i).descending();
+                }
+                stages.add(new ScaffoldPlan.Stage(describeSort(limit),
+                        (downstream, spill) -> Operators.sort(compiled, descending, limit, spill, downstream)));
+            } else if (limit != null) {
+                stages.add(new ScaffoldPlan.Stage("Limit: " + limit, (downstream, spill) -> Operators.limit(limit, downstream)));
+            }
+        }
+
+        /**
+         * Descriptions of every operator after the filter, for a fully pushed-down plan
+         */
+        List<String> describe(Integer limit) {
+            List<String> descriptions = new ArrayList<>();
+            if (definition.isAggregated()) {
+                descriptions.add(describeAggregation());
+            } else if (!columns.isEmpty()) {
+                descriptions.add(describeProjection());
+            }
+            if (!sortKeys.isEmpty()) {
+                descriptions.add(describeSort(limit));
+            } else if (limit != null) {
+                descriptions.add("Limit: " + limit);
+            }
+            return descriptions;
+        }
+
+        private String describeProjection() {
+            return "Project: " + columns.entrySet().stream()
+                    .map(column -> column.getKey() + " = " + describe(column.getValue()))
+                    .collect(Collectors.joining(", "));
+        }
+
+        private String describeAggregation() {
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < arguments.size(); i++) {
+                ScaffoldDefinition.Aggregate aggregate = definition.aggregates().get(i);
+                items.add(aggregate.function() + "(" + (arguments.get(i) != null ? describe(arguments.get(i)) : "*") + ") AS " + aggregate.alias());
+            }
+            return "HashAggregate: group by " + definition.groupBy() + (items.isEmpty() ? "" : "; " + String.join(", ", items));
+        }
+
+        private String describeSort(Integer limit) {
+            String keys = definition.ordering().stream()
+                    .map(order -> order.column() + (order.descending() ? " DESC" : " ASC"))
+                    .collect(Collectors.joining(", "));
+            return limit != null ? "TopN " + limit + ": " + keys : "Sort: " + keys;
+        }
+
+        private static String describe(Expression expression) {
+            if (expression instanceof Expression.AttributeRef ref) {
+                return ref.name();
+            }
+            if (expression instanceof Expression.Constant constant) {
+                return constant.value() instanceof String text ? "'" + text + "'" : String.valueOf(constant.value());
+            }
+            if (expression instanceof Expression.Negate negate) {
+                return "-" + describe(negate.operand());
+            }
+            if (expression instanceof Expression.Binary binary) {
+                return "(" + describe(binary.left()) + " " + binary.operator() + " " + describe(binary.right()) + ")";
+            }
+            Expression.Call call = (Expression.Call) expression;
+            return call.function() + "(" + call.arguments().stream().map(Logical::describe).collect(Collectors.joining(", ")) + ")";
+        }
+    }
+}
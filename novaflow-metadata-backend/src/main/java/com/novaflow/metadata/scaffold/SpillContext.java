@@ -0,0 +1,186 @@
+package com.novaflow.metadata.scaffold;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Memory budget and spill files of one scaffold execution. Each blocking operator (sort, hash
+ * aggregation) keeps up to memoryBytes of estimated row data on the heap and spills the rest to files
+ * in a private directory under the spill root, created on first use and deleted by close. Also counts
+ * what was spilled, for the process log. Not thread-safe: one context per execution.
+ */
+public final class SpillContext implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillContext.class);
+
+    private final Path root;
+    private final long memoryBytes;
+    private final int partitions;
+    private final int mergeFanIn;
+
+    private final Set<Closeable> open = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Path directory;
+    private int fileSequence;
+
+    private long spilledBytes;
+    private int spillFiles;
+    private int sortRuns;
+    private int mergePasses;
+    private int hashPartitions;
+
+    /**
+     * @param root       directory under which the execution's spill directory is created
+     * @param memoryBytes estimated heap each blocking operator may hold before spilling
+     * @param partitions files a spilling hash aggregation splits its groups into
+     * @param mergeFanIn sorted runs merged at once; more runs take extra merge passes
+     */
+    public SpillContext(Path root, long memoryBytes, int partitions, int mergeFanIn) {
+        if (memoryBytes <= 0) {
+            throw new IllegalArgumentException("Spill memory budget must be positive");
+        }
+        if (partitions < 2 || mergeFanIn < 2) {
+            throw new IllegalArgumentException("Spill partitions and merge fan-in must be at least 2");
+        }
+        this.root = root;
+        this.memoryBytes = memoryBytes;
+        this.partitions = partitions;
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getMergeFanIn() {
+        return mergeFanIn;
+    }
+
+    /**
+     * Bytes written to spill files
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public int getSpillFiles() {
+        return spillFiles;
+    }
+
+    /**
+     * Sorted runs written by sorts, including those written by intermediate merge passes
+     */
+    public int getSortRuns() {
+        return sortRuns;
+    }
+
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    /**
+     * Partition files written by hash aggregations, at every recursion depth
+     */
+    public int getHashPartitions() {
+        return hashPartitions;
+    }
+
+    /**
+     * The counters as a map for process log details
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("memoryBudgetBytes", memoryBytes);
+        summary.put("spilledBytes", spilledBytes);
+        summary.put("spillFiles", spillFiles);
+        summary.put("sortRuns", sortRuns);
+        summary.put("mergePasses", mergePasses);
+        summary.put("hashPartitions", hashPartitions);
+        return summary;
+    }
+
+    Path newFile(String kind) throws IOException {
+        if (root == null) {
+            throw new IllegalStateException("No spill directory configured");
+        }
+        if (directory == null) {
+            Files.createDirectories(root);
+            directory = Files.createTempDirectory(root, "scaffold-");
+        }
+        spillFiles++;
+        return directory.resolve(kind + "-" + (++fileSequence) + ".spill");
+    }
+
+    void opened(Closeable file) {
+        open.add(file);
+    }
+
+    void closed(Closeable file, long bytesWritten) {
+        open.remove(file);
+        spilledBytes += bytesWritten;
+    }
+
+    void sortRun() {
+        sortRuns++;
+    }
+
+    void mergePass() {
+        mergePasses++;
+    }
+
+    void hashPartition() {
+        hashPartitions++;
+    }
+
+    void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete spill file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Close any spill files left open by a failed execution and delete the spill directory
+     */
+    @Override
+    public void close() {
+        for (Closeable file : new ArrayList<>(open)) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                logger.debug("Could not close spill file: {}", e.getMessage());
+            }
+        }
+        open.clear();
+        if (directory == null) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        } catch (IOException e) {
+            logger.warn("Could not list spill directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        files.forEach(this::delete);
+        delete(directory);
+        directory = null;
+    }
+}
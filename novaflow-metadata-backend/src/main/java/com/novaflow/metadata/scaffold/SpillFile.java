@@ -0,0 +1,393 @@
+package com.novaflow.metadata.scaffold;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of spill files. A file is a sequence of records, each a marker byte followed by
+ * whatever the operator writes: varint-encoded integers, raw doubles and tagged values. Values keep
+ * their Java type (Long, Double, String, BigDecimal, java.time dates, nested maps and lists); map keys
+ * are written once per file and referenced by number afterwards. Types without a tag are written as
+ * their toString.
+ */
+final class SpillFile {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int RECORD = 0x5A;
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int LONG = 3;
+    private static final int INTEGER = 4;
+    private static final int DOUBLE = 5;
+    private static final int STRING = 6;
+    private static final int DECIMAL = 7;
+    private static final int DATE = 8;
+    private static final int DATE_TIME = 9;
+    private static final int TIME = 10;
+    private static final int MAP = 11;
+    private static final int LIST = 12;
+    private static final int SHORT = 13;
+    private static final int FLOAT = 14;
+    private static final int BIG_INTEGER = 15;
+    private static final int BYTES = 16;
+
+    private SpillFile() {
+    }
+
+    /**
+     * Rough heap footprint of a value, for memory budgets. Map keys count as references only: row maps
+     * share their key strings with the source's column labels.
+     */
+    static long estimateSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof String text) {
+            return 48 + text.length();
+        }
+        if (value instanceof Number) {
+            return value instanceof BigDecimal || value instanceof BigInteger ? 64 : 16;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 64;
+            for (Object entry : map.values()) {
+                size += 48 + estimateSize(entry);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 40;
+            for (Object element : collection) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Object[] array) {
+            long size = 16;
+            for (Object element : array) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        return 48;
+    }
+
+    static final class Writer implements Closeable {
+
+        private final SpillContext context;
+        private final Path path;
+        private final DataOutputStream out;
+        private final Map<String, Integer> names = new HashMap<>();
+        private boolean closed;
+
+        Writer(SpillContext context, String kind) throws IOException {
+            this.context = context;
+            this.path = context.newFile(kind);
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+            context.opened(this);
+        }
+
+        Path path() {
+            return path;
+        }
+
+        void startRecord() throws IOException {
+            out.write(RECORD);
+        }
+
+        /**
+         * Unsigned LEB128; negative values take ten bytes
+         */
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        /**
+         * Zigzag varint, so small negative values stay short
+         */
+        void writeLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        void writeRow(Map<String, Object> row) throws IOException {
+            writeValue(row);
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof Boolean bool) {
+                out.write(bool ? TRUE : FALSE);
+            } else if (value instanceof Long number) {
+                out.write(LONG);
+                writeLong(number);
+            } else if (value instanceof Integer number) {
+                out.write(INTEGER);
+                writeLong(number);
+            } else if (value instanceof Short number) {
+                out.write(SHORT);
+                writeLong(number);
+            } else if (value instanceof Double number) {
+                out.write(DOUBLE);
+                out.writeDouble(number);
+            } else if (value instanceof Float number) {
+                out.write(FLOAT);
+                out.writeFloat(number);
+            } else if (value instanceof String text) {
+                out.write(STRING);
+                writeString(text);
+            } else if (value instanceof BigDecimal decimal) {
+                out.write(DECIMAL);
+                writeLong(decimal.scale());
+                writeBytes(decimal.unscaledValue().toByteArray());
+            } else if (value instanceof BigInteger integer) {
+                out.write(BIG_INTEGER);
+                writeBytes(integer.toByteArray());
+            } else if (value instanceof LocalDate date) {
+                out.write(DATE);
+                writeLong(date.toEpochDay());
+            } else if (value instanceof LocalDateTime dateTime) {
+                out.write(DATE_TIME);
+                writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                writeVarLong(dateTime.getNano());
+            } else if (value instanceof LocalTime time) {
+                out.write(TIME);
+                writeVarLong(time.toNanoOfDay());
+            } else if (value instanceof Map<?, ?> map) {
+                out.write(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeName(String.valueOf(entry.getKey()));
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Collection<?> collection) {
+                out.write(LIST);
+                writeVarLong(collection.size());
+                for (Object element : collection) {
+                    writeValue(element);
+                }
+            } else if (value instanceof byte[] bytes) {
+                out.write(BYTES);
+                writeBytes(bytes);
+            } else {
+                out.write(STRING);
+                writeString(value.toString());
+            }
+        }
+
+        private void writeName(String name) throws IOException {
+            Integer id = names.get(name);
+            if (id != null) {
+                writeVarLong(id);
+                return;
+            }
+            writeVarLong(0);
+            writeString(name);
+            names.put(name, names.size() + 1);
+        }
+
+        private void writeString(String text) throws IOException {
+            writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } finally {
+                context.closed(this, Files.exists(path) ? Files.size(path) : 0);
+            }
+        }
+    }
+
+    static final class Reader implements Closeable {
+
+        private final SpillContext context;
+        private final Path path;
+        private final DataInputStream in;
+        private final List<String> names = new ArrayList<>();
+
+        Reader(SpillContext context, Path path) throws IOException {
+            this.context = context;
+            this.path = path;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            context.opened(this);
+        }
+
+        /**
+         * @return false at the end of the file
+         */
+        boolean next() throws IOException {
+            int marker = in.read();
+            if (marker < 0) {
+                return false;
+            }
+            if (marker != RECORD) {
+                throw new IOException("Corrupt spill file " + path);
+            }
+            return true;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt varint in spill file " + path);
+        }
+
+        long readLong() throws IOException {
+            long encoded = readVarLong();
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+
+        double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> readRow() throws IOException {
+            Object value = readValue();
+            if (!(value instanceof Map)) {
+                throw new IOException("Expected a row in spill file " + path);
+            }
+            return (Map<String, Object>) value;
+        }
+
+        Object readValue() throws IOException {
+            int tag = in.read();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case LONG:
+                    return readLong();
+                case INTEGER:
+                    return (int) readLong();
+                case SHORT:
+                    return (short) readLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case STRING:
+                    return readString();
+                case DECIMAL: {
+                    int scale = (int) readLong();
+                    return new BigDecimal(new BigInteger(readBytes()), scale);
+                }
+                case BIG_INTEGER:
+                    return new BigInteger(readBytes());
+                case DATE:
+                    return LocalDate.ofEpochDay(readLong());
+                case DATE_TIME: {
+                    long seconds = readLong();
+                    return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(), ZoneOffset.UTC);
+                }
+                case TIME:
+                    return LocalTime.ofNanoOfDay(readVarLong());
+                case MAP: {
+                    int size = (int) readVarLong();
+                    Map<String, Object> map = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        String name = readName();
+                        map.put(name, readValue());
+                    }
+                    return map;
+                }
+                case LIST: {
+                    int size = (int) readVarLong();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case BYTES:
+                    return readBytes();
+                case -1:
+                    throw new EOFException("Truncated spill file " + path);
+                default:
+                    throw new IOException("Unknown value tag " + tag + " in spill file " + path);
+            }
+        }
+
+        private String readName() throws IOException {
+            int id = (int) readVarLong();
+            if (id > 0) {
+                return names.get(id - 1);
+            }
+            String name = readString();
+            names.add(name);
+            return name;
+        }
+
+        private String readString() throws IOException {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[(int) readVarLong()];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                context.closed(this, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.novaflow.metadata.scaffold;
+
+import java.util.Locale;
+
+/**
+ * The SQL differences that matter when pushing a scaffold down to a JDBC source, chosen from the JDBC
+ * URL. Unknown databases get standard SQL.
+ */
+public enum SqlDialect {
+    POSTGRES,
+    ORACLE,
+    SQLSERVER,
+    ANSI;
+
+    public static SqlDialect of(String jdbcUrl) {
+        String url = jdbcUrl.toLowerCase(Locale.ROOT);
+        if (url.startsWith("jdbc:postgresql:")) {
+            return POSTGRES;
+        }
+        if (url.startsWith("jdbc:oracle:")) {
+            return ORACLE;
+        }
+        if (url.startsWith("jdbc:sqlserver:")) {
+            return SQLSERVER;
+        }
+        return ANSI;
+    }
+
+    /**
+     * Quoted identifier; dotted names are quoted part by part
+     */
+    public String quote(String identifier) {
+        StringBuilder quoted = new StringBuilder();
+        for (String part : identifier.split("\\.", -1)) {
+            if (part.isEmpty()) {
+                throw new InvalidScaffoldException("Invalid identifier '" + identifier + "'");
+            }
+            if (quoted.length() > 0) {
+                quoted.append('.');
+            }
+            quoted.append('"').append(part.replace("\"", "\"\"")).append('"');
+        }
+        return quoted.toString();
+    }
+
+    String doubleType() {
+        return this == SQLSERVER ? "FLOAT" : "DOUBLE PRECISION";
+    }
+
+    /**
+     * Text after SELECT that limits the row count
+     */
+    String top(int limit) {
+        return this == SQLSERVER ? "TOP " + limit + " " : "";
+    }
+
+    /**
+     * Clause after ORDER BY that limits the row count
+     */
+    String fetchFirst(int limit) {
+        return switch (this) {
+            case POSTGRES -> " LIMIT " + limit;
+            case ORACLE, ANSI -> " FETCH FIRST " + limit + " ROWS ONLY";
+            case SQLSERVER -> "";
+        };
+    }
+
+    /**
+     * Sort key with nulls last ascending and first descending, as the in-memory sort orders them
+     */
+    String orderBy(String expression, boolean descending) {
+        if (this == SQLSERVER) {
+            return "CASE WHEN " + expression + " IS NULL THEN 1 ELSE 0 END" + (descending ? " DESC, " : " ASC, ")
+                    + expression + (descending ? " DESC" : " ASC");
+        }
+        return expression + (descending ? " DESC NULLS FIRST" : " ASC NULLS LAST");
+    }
+}
@@ -0,0 +1,261 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.ColumnType;
+import com.novaflow.metadata.rule.ComparisonOperator;
+import com.novaflow.metadata.rule.Expression;
+import com.novaflow.metadata.rule.RuleCompiler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders scaffold expressions and filters as SQL with the same results as the in-memory operators.
+ * Anything whose SQL would behave differently (MIN/MAX of nulls, comparisons against columns of unknown
+ * type, string ordering outside PostgreSQL, division) renders as null and is left to the in-memory pipeline.
+ * Rule division is exact, a Long when it divides evenly and otherwise a 34-digit BigDecimal, which
+ * neither integer nor floating-point division in SQL reproduces.
+ */
+final class SqlRenderer {
+
+    enum SqlType {
+        NUMERIC, STRING, BOOLEAN, OTHER
+    }
+
+    private final SqlDialect dialect;
+    private final Map<String, String> attributeTypes;
+
+    /**
+     * @param attributeTypes source attribute name to ObjectSchemaAttribute data type
+     */
+    SqlRenderer(SqlDialect dialect, Map<String, String> attributeTypes) {
+        this.dialect = dialect;
+        this.attributeTypes = attributeTypes;
+    }
+
+    SqlType typeOf(String attribute) {
+        String dataType = attributeTypes.get(attribute);
+        if (dataType == null) {
+            return SqlType.OTHER;
+        }
+        ColumnType type = ColumnType.of(dataType);
+        if (type == ColumnType.LONG || type == ColumnType.DOUBLE) {
+            return SqlType.NUMERIC;
+        }
+        if (type == ColumnType.BOOLEAN) {
+            return SqlType.BOOLEAN;
+        }
+        String name = dataType.trim().toUpperCase(Locale.ROOT);
+        for (String text : new String[] {"STRING", "TEXT", "VARCHAR", "CHAR", "NVARCHAR", "NCHAR", "VARCHAR2", "CLOB"}) {
+            if (name.startsWith(text)) {
+                return SqlType.STRING;
+            }
+        }
+        return SqlType.OTHER;
+    }
+
+    /**
+     * @return SQL for the expression, or null if it cannot be pushed down
+     */
+    String expression(Expression expression) {
+        if (expression instanceof Expression.AttributeRef ref) {
+            return dialect.quote(ref.name());
+        }
+        if (expression instanceof Expression.Constant constant) {
+            return literal(constant.value());
+        }
+        if (expression instanceof Expression.Negate negate) {
+            String operand = expression(negate.operand());
+            return operand == null ? null : "(-" + operand + ")";
+        }
+        if (expression instanceof Expression.Binary binary) {
+            String left = expression(binary.left());
+            String right = expression(binary.right());
+            if (left == null || right == null) {
+                return null;
+            }
+            return switch (binary.operator()) {
+                case "+", "-", "*" -> "(" + left + " " + binary.operator() + " " + right + ")";
+                case "%" -> dialect == SqlDialect.SQLSERVER ? "(" + left + " % NULLIF(" + right + ", 0))"
+                        : "MOD(" + left + ", NULLIF(" + right + ", 0))";
+                case "||" -> "CONCAT(" + left + ", " + right + ")";
+                default -> null;
+            };
+        }
+        if (expression instanceof Expression.Call call) {
+            return call(call);
+        }
+        return null;
+    }
+
+    private String call(Expression.Call call) {
+        List<String> arguments = new ArrayList<>();
+        for (Expression argument : call.arguments()) {
+            String rendered = expression(argument);
+            if (rendered == null) {
+                return null;
+            }
+            arguments.add(rendered);
+        }
+        switch (call.function()) {
+            case "UPPER", "LOWER", "TRIM", "ABS", "FLOOR":
+                return arguments.size() == 1 ? call.function() + "(" + arguments.get(0) + ")" : null;
+            case "CEIL":
+                return arguments.size() == 1 ? (dialect == SqlDialect.SQLSERVER ? "CEILING(" : "CEIL(") + arguments.get(0) + ")" : null;
+            case "LENGTH":
+                // SQL Server's LEN ignores trailing spaces
+                return arguments.size() == 1 && dialect != SqlDialect.SQLSERVER ? "LENGTH(" + arguments.get(0) + ")" : null;
+            case "COALESCE":
+                return arguments.isEmpty() ? null : "COALESCE(" + String.join(", ", arguments) + ")";
+            case "CONCAT": {
+                if (arguments.isEmpty()) {
+                    return "''";
+                }
+                // Nested two-argument CONCAT, which every dialect has; all treat null as empty
+                String result = arguments.get(0);
+                for (int i = 1; i < arguments.size(); i++) {
+                    result = "CONCAT(" + result + ", " + arguments.get(i) + ")";
+                }
+                return arguments.size() == 1 ? "CONCAT(" + result + ", '')" : result;
+            }
+            case "ROUND": {
+                String places = "0";
+                if (arguments.size() == 2) {
+                    if (!(call.arguments().get(1) instanceof Expression.Constant constant)
+                            || !(constant.value() instanceof Long)) {
+                        return null;
+                    }
+                    places = arguments.get(1);
+                } else if (arguments.size() != 1) {
+                    return null;
+                }
+                String value = dialect == SqlDialect.POSTGRES ? "CAST(" + arguments.get(0) + " AS NUMERIC)" : arguments.get(0);
+                return "ROUND(" + value + ", " + places + ")";
+            }
+            default:
+                // MIN and MAX: LEAST / GREATEST skip nulls on some databases, where a rule yields null
+                return null;
+        }
+    }
+
+    private String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return value.toString();
+        }
+        if (value instanceof Double number) {
+            return Double.isFinite(number) ? BigDecimal.valueOf(number).toPlainString() : null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof String text) {
+            return "'" + text.replace("'", "''") + "'";
+        }
+        return null;
+    }
+
+    /**
+     * Appends the filter's bind values to parameters when it can be pushed down
+     *
+     * @return SQL for the filter, or null if it cannot be pushed down
+     */
+    String filter(ScaffoldDefinition.Filter filter, List<Object> parameters) {
+        String column = dialect.quote(filter.column());
+        SqlType type = typeOf(filter.column());
+        String literal = filter.value() != null ? filter.value() : "";
+        double number = RuleCompiler.toDouble(literal);
+        boolean numeric = !Double.isNaN(number);
+        ComparisonOperator operator = filter.operator();
+        switch (operator) {
+            case IS_NULL:
+                return type == SqlType.STRING ? "(" + column + " IS NULL OR TRIM(" + column + ") = '')"
+                        : type == SqlType.OTHER ? null : column + " IS NULL";
+            case IS_NOT_NULL:
+                return type == SqlType.STRING ? "(" + column + " IS NOT NULL AND TRIM(" + column + ") <> '')"
+                        : type == SqlType.OTHER ? null : column + " IS NOT NULL";
+            case EQ:
+            case NE:
+            case GT:
+            case GE:
+            case LT:
+            case LE: {
+                String sql = column + " " + symbol(operator) + " ?";
+                if (type == SqlType.NUMERIC && numeric) {
+                    parameters.add(BigDecimal.valueOf(number));
+                    return sql;
+                }
+                if (type == SqlType.STRING && (operator == ComparisonOperator.EQ || operator == ComparisonOperator.NE)) {
+                    parameters.add(literal);
+                    return sql;
+                }
+                if (type == SqlType.STRING && !numeric && dialect == SqlDialect.POSTGRES) {
+                    // Rules compare strings by code point, which the C collation matches
+                    parameters.add(literal);
+                    return column + " COLLATE \"C\" " + symbol(operator) + " ?";
+                }
+                if (type == SqlType.BOOLEAN && (operator == ComparisonOperator.EQ || operator == ComparisonOperator.NE)
+                        && (literal.equalsIgnoreCase("true") || literal.equalsIgnoreCase("false"))) {
+                    parameters.add(Boolean.parseBoolean(literal));
+                    return sql;
+                }
+                return null;
+            }
+            case CONTAINS:
+            case NOT_CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH: {
+                if (type != SqlType.STRING) {
+                    return null;
+                }
+                String escaped = literal.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                parameters.add(switch (operator) {
+                    case STARTS_WITH -> escaped + "%";
+                    case ENDS_WITH -> "%" + escaped;
+                    default -> "%" + escaped + "%";
+                });
+                return column + (operator == ComparisonOperator.NOT_CONTAINS ? " NOT LIKE" : " LIKE") + " ? ESCAPE '\\'";
+            }
+            case IN:
+            case NOT_IN: {
+                List<Object> values = new ArrayList<>();
+                for (String value : literal.split(",")) {
+                    String trimmed = value.trim();
+                    if (type == SqlType.NUMERIC) {
+                        double parsed = RuleCompiler.toDouble(trimmed);
+                        if (Double.isNaN(parsed)) {
+                            return null;
+                        }
+                        values.add(BigDecimal.valueOf(parsed));
+                    } else if (type == SqlType.STRING) {
+                        values.add(trimmed);
+                    } else {
+                        return null;
+                    }
+                }
+                parameters.addAll(values);
+                return column + (operator == ComparisonOperator.NOT_IN ? " NOT IN (" : " IN (")
+                        + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static String symbol(ComparisonOperator operator) {
+        return switch (operator) {
+            case EQ -> "=";
+            case NE -> "<>";
+            case GT -> ">";
+            case GE -> ">=";
+            case LT -> "<";
+            case LE -> "<=";
+            default -> throw new IllegalArgumentException(operator.name());
+        };
+    }
+}
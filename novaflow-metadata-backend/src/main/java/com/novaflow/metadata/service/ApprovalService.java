@@ -1,61 +1,72 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.Approval;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.ApprovalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class ApprovalService {
 
+    private static final KeysetPaginator<Approval> PAGINATOR = new KeysetPaginator<>(Approval.class,
+        "-requestedDate", "requestedDate", "approvedDate", "status", "approvalType", "entityType", "requestedBy");
+
     @Autowired
     private ApprovalRepository approvalRepository;
 
-    public List<Approval> findAll() {
-        return approvalRepository.findAll();
+    @Autowired
+    private EntityStreamer entityStreamer;
+
+    /**
+     * Page through approvals, most recent request first by default. Every filter is optional;
+     * the date range applies to requestedDate and is inclusive.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Approval> search(String entityId, String entityType, String requestedBy, String approvedBy,
+                                       String status, String approvalType, LocalDateTime from, LocalDateTime to,
+                                       PageQuery page) {
+        return PAGINATOR.page(approvalRepository, filter(entityId, entityType, requestedBy, approvedBy, status, approvalType, from, to), page);
+    }
+
+    /**
+     * Stream all approvals matching the filters (same semantics as search) in the given sort order,
+     * one detached entity at a time
+     */
+    @Transactional(readOnly = true)
+    public void stream(String entityId, String entityType, String requestedBy, String approvedBy,
+                       String status, String approvalType, LocalDateTime from, LocalDateTime to,
+                       String sort, Consumer<Approval> sink) {
+        entityStreamer.stream(Approval.class, filter(entityId, entityType, requestedBy, approvedBy, status, approvalType, from, to), PAGINATOR.sort(sort), sink);
+    }
+
+    private static Specification<Approval> filter(String entityId, String entityType, String requestedBy,
+                                                  String approvedBy, String status, String approvalType,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return Specification.allOf(
+            Filters.equal("entityId", entityId),
+            Filters.equal("entityType", entityType),
+            Filters.equal("requestedBy", requestedBy),
+            Filters.equal("approvedBy", approvedBy),
+            Filters.equal("status", status),
+            Filters.equal("approvalType", approvalType),
+            Filters.atLeast("requestedDate", from),
+            Filters.atMost("requestedDate", to));
     }
 
     public Optional<Approval> findById(String id) {
         return approvalRepository.findById(id);
     }
 
-    public List<Approval> findByEntityId(String entityId) {
-        return approvalRepository.findByEntityId(entityId);
-    }
-
-    public List<Approval> findByEntityType(String entityType) {
-        return approvalRepository.findByEntityType(entityType);
-    }
-
-    public List<Approval> findByRequestedBy(String requestedBy) {
-        return approvalRepository.findByRequestedBy(requestedBy);
-    }
-
-    public List<Approval> findByApprovedBy(String approvedBy) {
-        return approvalRepository.findByApprovedBy(approvedBy);
-    }
-
-    public List<Approval> findByStatus(String status) {
-        return approvalRepository.findByStatus(status);
-    }
-
-    public List<Approval> findByApprovalType(String approvalType) {
-        return approvalRepository.findByApprovalType(approvalType);
-    }
-
-    public List<Approval> findByEntityIdAndEntityType(String entityId, String entityType) {
-        return approvalRepository.findByEntityIdAndEntityType(entityId, entityType);
-    }
-
-    public List<Approval> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return approvalRepository.findByRequestedDateBetween(startDate, endDate);
-    }
-
     public Approval save(Approval approval) {
         if (approval.getRequestedDate() == null) {
             approval.setRequestedDate(LocalDateTime.now());
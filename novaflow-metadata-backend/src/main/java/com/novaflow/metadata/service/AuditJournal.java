@@ -0,0 +1,417 @@
+package com.novaflow.metadata.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable append-only audit journal. Events are numbered with a gapless sequence and appended to
+ * segment files named after the first sequence they hold (audit-00000000000000000042.log). A new
+ * segment is started once the active one exceeds audit.journal.segment-bytes or is older than
+ * audit.journal.segment-max-age-ms.
+ * <p>
+ * Closed segments are deleted once every sink has acknowledged all their events (see release), and
+ * regardless of acknowledgement once they are older than audit.journal.retention-max-age-ms or the
+ * journal exceeds audit.journal.retention-max-bytes. Retention is applied on startup, on release and
+ * whenever a new segment is started; the active segment is never deleted.
+ * <p>
+ * Record layout: payload length (int), CRC32C of sequence and payload (int), sequence (long),
+ * UTF-8 JSON payload. On startup the active segment is scanned and truncated at the first torn or
+ * corrupt record, so a crash mid-write loses at most that record.
+ * <p>
+ * Only the audit writer appends; any number of Readers may tail the journal concurrently. Readers only
+ * see events up to the last flush, so a sink never acknowledges an event that a crash could still take
+ * back and whose sequence would then be reused.
+ */
+@Component
+public class AuditJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+    static final int HEADER_BYTES = 16;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.log");
+
+    @Value("${audit.journal.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${audit.journal.dir:${java.io.tmpdir}/novaflow-audit/journal}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "novaflow-audit", "journal");
+
+    @Value("${audit.journal.segment-bytes:67108864}")
+    private long segmentBytes = 64L * 1024 * 1024;
+
+    @Value("${audit.journal.segment-max-age-ms:3600000}")
+    private long segmentMaxAgeMs = 3_600_000L;
+
+    @Value("${audit.journal.fsync:true}")
+    private boolean fsync = true;
+
+    @Value("${audit.journal.retention-max-age-ms:604800000}")
+    private long retentionMaxAgeMs = 604_800_000L;
+
+    @Value("${audit.journal.retention-max-bytes:1073741824}")
+    private long retentionMaxBytes = 1024L * 1024 * 1024;
+
+    // Base sequences of all segments, ascending; the last one is active
+    private final List<Long> segments = new CopyOnWriteArrayList<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+    private FileChannel active;
+    private long activeSize;
+    private long activeOpenedAt;
+    private volatile long nextSequence;
+    // Every sequence below this is on disk (or, without fsync, handed to the OS) and visible to readers
+    private volatile long durableSequence;
+    // Every sequence below this has been acknowledged by all sinks
+    private long released;
+    private volatile boolean open;
+
+    /**
+     * One journaled event
+     */
+    public record Entry(long sequence, String payload) {
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled || open) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                .filter(Matcher::matches)
+                .map(matcher -> Long.parseLong(matcher.group(1)))
+                .sorted()
+                .forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            segments.add(0L);
+        }
+        long base = segments.get(segments.size() - 1);
+        active = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        long[] recovered = recover(active, base);
+        nextSequence = recovered[0];
+        durableSequence = nextSequence;
+        activeSize = recovered[1];
+        if (active.size() > activeSize) {
+            logger.warn("Truncating audit journal segment {} from {} to {} bytes after an incomplete write",
+                segmentPath(base), active.size(), activeSize);
+            active.truncate(activeSize);
+        }
+        active.position(activeSize);
+        activeOpenedAt = System.currentTimeMillis();
+        open = true;
+        enforceRetention();
+        logger.info("Audit journal opened at {}: {} segments, next sequence {}", directory, segments.size(), nextSequence);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        active.force(true);
+        active.close();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /** Sequence the next appended event will get */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /** Every sequence from firstSequence up to this one, exclusive, is durable and readable */
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /** Lowest sequence still in the journal; moves up as old segments are deleted */
+    public long firstSequence() {
+        return segments.isEmpty() ? 0L : segments.get(0);
+    }
+
+    /**
+     * Append one event and return its sequence. Not durable, nor visible to readers, until flush.
+     */
+    public synchronized long append(String payload) throws IOException {
+        if (!open) {
+            throw new IllegalStateException("Audit journal is not open");
+        }
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (activeSize > 0 && (activeSize + HEADER_BYTES + bytes.length > segmentBytes
+                || System.currentTimeMillis() - activeOpenedAt >= segmentMaxAgeMs)) {
+            roll();
+        }
+        long sequence = nextSequence;
+        header.clear();
+        header.putInt(bytes.length).putInt(checksum(sequence, bytes)).putLong(sequence).flip();
+        ByteBuffer[] record = {header, ByteBuffer.wrap(bytes)};
+        long remaining = HEADER_BYTES + bytes.length;
+        while (remaining > 0) {
+            remaining -= active.write(record);
+        }
+        activeSize += HEADER_BYTES + bytes.length;
+        nextSequence = sequence + 1;
+        if (!fsync) {
+            // Nothing will ever be forced; the write already survives a crash of this process
+            durableSequence = nextSequence;
+        }
+        return sequence;
+    }
+
+    /**
+     * Force appended events to disk (when audit.journal.fsync is on) and make them visible to readers
+     */
+    public synchronized void flush() throws IOException {
+        if (open && fsync) {
+            active.force(false);
+            durableSequence = nextSequence;
+        }
+    }
+
+    /**
+     * Mark every event below sequence as acknowledged by all sinks, so segments holding only such
+     * events may be deleted
+     */
+    public synchronized void release(long sequence) throws IOException {
+        if (!open || sequence <= released) {
+            return;
+        }
+        released = sequence;
+        enforceRetention();
+    }
+
+    /**
+     * Read events from fromSequence onwards. The reader only ever returns complete events and
+     * picks up new ones as they are appended.
+     */
+    public Reader reader(long fromSequence) {
+        return new Reader(Math.max(fromSequence, firstSequence()));
+    }
+
+    /**
+     * Hand every event from fromSequence up to the durable end of the journal to the consumer,
+     * returning the sequence to continue from
+     */
+    public long replay(long fromSequence, Consumer<Entry> consumer) throws IOException {
+        try (Reader reader = reader(fromSequence)) {
+            List<Entry> entries;
+            while (!(entries = reader.poll(1000)).isEmpty()) {
+                entries.forEach(consumer);
+            }
+            return reader.position();
+        }
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    private void roll() throws IOException {
+        active.force(true);
+        durableSequence = nextSequence;
+        active.close();
+        long base = nextSequence;
+        active = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        segments.add(base);
+        activeSize = 0;
+        activeOpenedAt = System.currentTimeMillis();
+        logger.debug("Audit journal rolled to segment {}", base);
+        enforceRetention();
+    }
+
+    // Delete closed segments from the oldest while they are released, too old or over the size cap
+    private void enforceRetention() throws IOException {
+        long totalBytes = activeSize;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            totalBytes += Files.size(segmentPath(segments.get(i)));
+        }
+        long now = System.currentTimeMillis();
+        while (segments.size() > 1) {
+            long base = segments.get(0);
+            // First sequence of the next segment, one past this segment's last
+            long end = segments.get(1);
+            Path path = segmentPath(base);
+            long size = Files.size(path);
+            boolean acknowledged = end <= released;
+            boolean expired = now - Files.getLastModifiedTime(path).toMillis() > retentionMaxAgeMs;
+            if (!acknowledged && !expired && totalBytes <= retentionMaxBytes) {
+                break;
+            }
+            if (!acknowledged) {
+                logger.warn("Deleting audit journal segment {} with events {} to {} not yet acknowledged by every sink ({})",
+                    path, base, end - 1, expired ? "older than retention-max-age-ms" : "journal over retention-max-bytes");
+            }
+            // Unlist before deleting, so new readers start at the next segment
+            segments.remove(0);
+            Files.deleteIfExists(path);
+            totalBytes -= size;
+            logger.debug("Deleted audit journal segment {}", path);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("audit-%020d.log", base));
+    }
+
+    // Scan a segment and return {next sequence, length of its valid prefix}
+    private static long[] recover(FileChannel channel, long base) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        long expected = base;
+        while (true) {
+            Entry entry = readRecord(channel, position, head);
+            if (entry == null || entry.sequence() != expected) {
+                return new long[] {expected, position};
+            }
+            position += HEADER_BYTES + head.getInt(0);
+            expected++;
+        }
+    }
+
+    /**
+     * Read the record at position, or null if it is incomplete or fails its checksum.
+     * Leaves the record header in head.
+     */
+    private static Entry readRecord(FileChannel channel, long position, ByteBuffer head) throws IOException {
+        head.clear();
+        if (!readFully(channel, head, position)) {
+            return null;
+        }
+        int length = head.getInt(0);
+        int storedCrc = head.getInt(4);
+        long sequence = head.getLong(8);
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(channel, payload, position + HEADER_BYTES)) {
+            return null;
+        }
+        byte[] bytes = payload.array();
+        if (checksum(sequence, bytes) != storedCrc) {
+            return null;
+        }
+        return new Entry(sequence, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer sequenceBytes = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+        crc.update(sequenceBytes);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Sequential cursor over the journal. Not thread-safe; each consumer uses its own.
+     */
+    public final class Reader implements Closeable {
+
+        private final ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+        private long next;
+        private long segment = -1;
+        private FileChannel channel;
+        private long position;
+
+        private Reader(long next) {
+            this.next = next;
+        }
+
+        /** Sequence of the next event poll will return */
+        public long position() {
+            return next;
+        }
+
+        /**
+         * Up to max durable events from the current position; empty when the reader has caught up
+         */
+        public List<Entry> poll(int max) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            long end = durableSequence;
+            while (entries.size() < max && next < end) {
+                if (channel == null) {
+                    openSegmentFor(next);
+                }
+                Entry entry = readRecord(channel, position, head);
+                if (entry == null && nextSegmentStartsAt(next)) {
+                    // End of a rolled segment
+                    openSegmentFor(next);
+                    continue;
+                }
+                if (entry == null) {
+                    throw new IOException("Corrupt audit journal record " + next + " in segment " + segmentPath(segment));
+                }
+                position += HEADER_BYTES + head.getInt(0);
+                if (entry.sequence() >= next) {
+                    entries.add(entry);
+                    next = entry.sequence() + 1;
+                }
+            }
+            return entries;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        private boolean nextSegmentStartsAt(long sequence) {
+            int index = segments.indexOf(segment);
+            return index + 1 < segments.size() && segments.get(index + 1) <= sequence;
+        }
+
+        private void openSegmentFor(long sequence) throws IOException {
+            close();
+            long base = segments.get(0);
+            for (long candidate : segments) {
+                if (candidate <= sequence) {
+                    base = candidate;
+                }
+            }
+            segment = base;
+            channel = FileChannel.open(segmentPath(base), StandardOpenOption.READ);
+            position = 0;
+        }
+    }
+}
@@ -1,58 +1,481 @@
 package com.novaflow.metadata.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Structured audit events, written asynchronously. emit only copies its arguments and a timestamp
+ * into a preallocated ring buffer slot; a dedicated writer thread drains the buffer in batches and
+ * does all formatting and serialisation through one reusable JsonGenerator. When the buffer is full
+ * the configured AuditOverflowPolicy applies.
+ * <p>
+ * Serialised events are appended to the AuditJournal, fsynced once per batch, and reach the log and
+ * any other AuditSink from there. With the journal disabled they are logged directly.
+ * <p>
+ * With audit.aggregation.enabled, SUCCESS events of the audit.aggregation.event-types are not
+ * written one by one: the writer counts them per key and writes one summary record per key every
+ * audit.aggregation.window-ms. DENIED and ERROR events are always written individually.
+ */
 @Service
 public class AuditLogger {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditLogger.class);
+
+    static final String SERVICE_NAME = "novaflow-metadata-backend";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.systemDefault());
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Value("${audit.buffer-size:8192}")
+    private int bufferSize = 8192;
+
+    @Value("${audit.batch-size:256}")
+    private int batchSize = 256;
+
+    @Value("${audit.overflow-policy:BLOCK}")
+    private AuditOverflowPolicy overflowPolicy = AuditOverflowPolicy.BLOCK;
+
+    @Value("${audit.drop-sample-rate:100}")
+    private int dropSampleRate = 100;
+
+    @Value("${audit.spill-dir:${java.io.tmpdir}/novaflow-audit}")
+    private Path spillDir = Path.of(System.getProperty("java.io.tmpdir"), "novaflow-audit");
+
+    @Value("${audit.aggregation.enabled:false}")
+    private boolean aggregationEnabled;
+
+    @Value("${audit.aggregation.window-ms:60000}")
+    private long aggregationWindowMs = 60_000L;
+
+    @Value("${audit.aggregation.event-types:PERMISSION_CHECK,ROLE_QUERY,USER_EXISTENCE_CHECK}")
+    private String[] aggregatedEventTypes = {"PERMISSION_CHECK", "ROLE_QUERY", "USER_EXISTENCE_CHECK"};
+
+    @Value("${audit.aggregation.max-keys:50000}")
+    private int aggregationMaxKeys = 50_000;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private AuditJournal journal;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder aggregated = new LongAdder();
+    private final LongAdder summaries = new LongAdder();
+    private final AtomicLong overflowSuccesses = new AtomicLong();
+
+    private AuditRingBuffer buffer;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    // Writer thread only
+    private final EventSerializer writerSerializer = new EventSerializer();
+    private AuditAggregator aggregator;
+    private Set<String> aggregatedTypes = Set.of();
+
+    // Guards the spill file, its serializer, and events emitted after shutdown
+    private final Object spillLock = new Object();
+    private final EventSerializer spillSerializer = new EventSerializer();
+    private FileChannel spillChannel;
+    private volatile boolean spillPending;
+
+    @PostConstruct
+    public void start() {
+        if (buffer == null) {
+            buffer = new AuditRingBuffer(bufferSize);
+        }
+        if (aggregationEnabled) {
+            aggregator = new AuditAggregator(aggregationWindowMs, aggregationMaxKeys);
+            aggregatedTypes = Set.of(aggregatedEventTypes);
+        }
+        spillPending = Files.exists(spillFile()) || Files.exists(drainingFile());
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("audit.events.emitted", emitted, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("audit.events.dropped", dropped, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("audit.events.flushed", flushed, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("audit.events.spilled", spilled, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("audit.events.aggregated", aggregated, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("audit.summaries.written", summaries, LongAdder::sum).register(meterRegistry);
+            Gauge.builder("audit.queue.depth", this, AuditLogger::getQueueDepth).register(meterRegistry);
+        }
+        logger.info("Audit writer started: buffer {} slots, batch {}, overflow policy {}, aggregation {}",
+            buffer.capacity(), batchSize, overflowPolicy,
+            aggregationEnabled ? aggregatedTypes + " per " + aggregationWindowMs + "ms" : "off");
+    }
+
+    /**
+     * Stop accepting buffered events and wait for the writer to flush what is queued.
+     * Events emitted afterwards are written synchronously.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writer == null || stopped) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Audit writer did not finish within 10s; {} events still queued", getQueueDepth());
+        }
+    }
+
     /**
      * Emit structured audit log events
-     * Later this will publish to Kafka for centralized audit logging
      */
     public void emit(String eventType, String entityType, String entityId, String outcome, String details) {
-        try {
-            Map<String, Object> auditEvent = new HashMap<>();
-            auditEvent.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            auditEvent.put("eventType", eventType);
-            auditEvent.put("entityType", entityType);
-            auditEvent.put("entityId", entityId);
-            auditEvent.put("outcome", outcome);
-            auditEvent.put("details", details);
-            auditEvent.put("service", "novaflow-metadata-backend");
-
-            String jsonLog = objectMapper.writeValueAsString(auditEvent);
-            
-            // Log as structured JSON
-            if ("DENIED".equals(outcome) || "ERROR".equals(outcome)) {
-                logger.warn("AUDIT: {}", jsonLog);
-            } else {
-                logger.info("AUDIT: {}", jsonLog);
+        long timestamp = System.currentTimeMillis();
+        if (stopped || buffer == null) {
+            writeDirect(timestamp, eventType, entityType, entityId, outcome, details);
+            return;
+        }
+        long sequence = buffer.tryClaim();
+        if (sequence < 0) {
+            switch (overflowPolicy) {
+                case DROP_SAMPLED -> {
+                    if (!isWarning(outcome) && overflowSuccesses.incrementAndGet() % dropSampleRate != 0) {
+                        dropped.increment();
+                        return;
+                    }
+                    sequence = claimBlocking();
+                }
+                case SPILL -> {
+                    spill(timestamp, eventType, entityType, entityId, outcome, details);
+                    return;
+                }
+                default -> sequence = claimBlocking();
             }
-            
-            // TODO: Later integrate with Kafka producer to publish audit events
-            // kafkaTemplate.send("audit-events", jsonLog);
-            
-        } catch (Exception e) {
-            logger.error("Failed to emit audit log", e);
         }
+        buffer.slot(sequence).set(timestamp, eventType, entityType, entityId, outcome, details);
+        buffer.publish(sequence);
+        emitted.increment();
     }
 
     /**
      * Emit audit event for connection operations
      */
     public void emitConnectionOperation(String connectionKey, String operation, String performedBy, String outcome, String details) {
-        emit("CONNECTION_OPERATION", "CONNECTION", connectionKey, outcome, 
+        emit("CONNECTION_OPERATION", "CONNECTION", connectionKey, outcome,
             String.format("Operation %s performed by %s: %s", operation, performedBy, details));
     }
+
+    /** Events accepted into the buffer or spill file */
+    public long getEmittedCount() {
+        return emitted.sum();
+    }
+
+    /** Events discarded by DROP_SAMPLED, or lost because they could not be spilled */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Events written out */
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    /** Events that overflowed to the spill file (also counted as emitted) */
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+
+    public int getQueueDepth() {
+        return buffer != null ? buffer.size() : 0;
+    }
+
+    static boolean isWarning(String outcome) {
+        return "DENIED".equals(outcome) || "ERROR".equals(outcome);
+    }
+
+    private long claimBlocking() {
+        long sequence;
+        while ((sequence = buffer.tryClaim()) < 0) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    private void runWriter() {
+        while (running || buffer.size() > 0) {
+            int count = buffer.drain(this::write, batchSize);
+            if (count > 0) {
+                flushJournal();
+                flushed.add(count);
+            } else if (spillPending) {
+                replaySpill();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (aggregator != null && aggregator.due(System.currentTimeMillis())) {
+                writeSummaries();
+            }
+        }
+        if (spillPending) {
+            replaySpill();
+        }
+        if (aggregator != null) {
+            writeSummaries();
+        }
+    }
+
+    private void write(AuditEvent event) {
+        if (aggregator != null && "SUCCESS".equals(event.outcome) && aggregatedTypes.contains(event.eventType)) {
+            aggregator.add(event);
+            aggregated.increment();
+            return;
+        }
+        String json;
+        try {
+            json = writerSerializer.serialize(event);
+        } catch (Exception e) {
+            logger.error("Failed to emit audit log", e);
+            return;
+        }
+        output(json, event.isWarning());
+    }
+
+    private void writeSummaries() {
+        long windowStart = aggregator.windowStart();
+        long windowEnd = System.currentTimeMillis();
+        int written = 0;
+        for (AuditAggregator.Summary summary : aggregator.drain()) {
+            try {
+                output(writerSerializer.serialize(summary, windowStart, windowEnd), false);
+                written++;
+            } catch (Exception e) {
+                logger.error("Failed to emit audit summary", e);
+            }
+        }
+        flushJournal();
+        summaries.add(written);
+    }
+
+    private void output(String json, boolean warning) {
+        if (journal != null && journal.isOpen()) {
+            try {
+                journal.append(json);
+                return;
+            } catch (Exception e) {
+                logger.error("Failed to journal audit event; logging it instead", e);
+            }
+        }
+        log(json, warning);
+    }
+
+    private void flushJournal() {
+        if (journal != null) {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                logger.error("Failed to flush audit journal", e);
+            }
+        }
+    }
+
+    private static void log(String json, boolean warning) {
+        if (warning) {
+            logger.warn("AUDIT: {}", json);
+        } else {
+            logger.info("AUDIT: {}", json);
+        }
+    }
+
+    private void writeDirect(long timestamp, String eventType, String entityType, String entityId,
+                             String outcome, String details) {
+        synchronized (spillLock) {
+            try {
+                output(spillSerializer.serialize(timestamp, eventType, entityType, entityId, outcome, details),
+                    isWarning(outcome));
+                flushJournal();
+                emitted.increment();
+                flushed.increment();
+            } catch (Exception e) {
+                logger.error("Failed to emit audit log", e);
+            }
+        }
+    }
+
+    // Overflow only: serialises on the calling thread, which SPILL accepts in exchange for losing nothing
+    private void spill(long timestamp, String eventType, String entityType, String entityId,
+                       String outcome, String details) {
+        synchronized (spillLock) {
+            try {
+                if (spillChannel == null) {
+                    Files.createDirectories(spillDir);
+                    spillChannel = FileChannel.open(spillFile(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                String line = spillSerializer.serialize(timestamp, eventType, entityType, entityId, outcome, details) + "\n";
+                ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    spillChannel.write(bytes);
+                }
+                spillPending = true;
+                emitted.increment();
+                spilled.increment();
+            } catch (IOException e) {
+                dropped.increment();
+                logger.error("Failed to spill audit event", e);
+            }
+        }
+    }
+
+    // Writer thread: hand the spill file over and write its events out once the buffer is empty
+    private void replaySpill() {
+        Path draining = drainingFile();
+        synchronized (spillLock) {
+            spillPending = false;
+            try {
+                if (spillChannel != null) {
+                    spillChannel.close();
+                    spillChannel = null;
+                }
+                // A draining file left by a crash is replayed first; new spills go to a fresh file
+                if (!Files.exists(draining) && Files.exists(spillFile())) {
+                    Files.move(spillFile(), draining, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to rotate audit spill file {}", spillFile(), e);
+                return;
+            }
+        }
+        if (!Files.exists(draining)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(draining, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    output(line, isWarning(objectMapper.readTree(line).path("outcome").asText(null)));
+                    flushed.increment();
+                }
+            }
+            flushJournal();
+            Files.delete(draining);
+        } catch (IOException e) {
+            logger.error("Failed to replay audit spill file {}", draining, e);
+        }
+        spillPending = spillPending || Files.exists(spillFile());
+    }
+
+    private Path spillFile() {
+        return spillDir.resolve(SERVICE_NAME + "-spill.ndjson");
+    }
+
+    private Path drainingFile() {
+        return spillDir.resolve(SERVICE_NAME + "-spill.ndjson.draining");
+    }
+
+    /**
+     * Serialises events with one JsonGenerator over a reused StringWriter. Not thread-safe.
+     */
+    private static final class EventSerializer {
+
+        private final StringWriter out = new StringWriter(256);
+        private final JsonGenerator generator;
+
+        EventSerializer() {
+            try {
+                generator = JSON_FACTORY.createGenerator(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            generator.setRootValueSeparator(null);
+        }
+
+        String serialize(AuditEvent event) throws IOException {
+            return serialize(event.timestamp, event.eventType, event.entityType, event.entityId,
+                event.outcome, event.details);
+        }
+
+        String serialize(long timestamp, String eventType, String entityType, String entityId,
+                         String outcome, String details) throws IOException {
+            out.getBuffer().setLength(0);
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timestamp)));
+            generator.writeStringField("eventType", eventType);
+            generator.writeStringField("entityType", entityType);
+            generator.writeStringField("entityId", entityId);
+            generator.writeStringField("outcome", outcome);
+            generator.writeStringField("details", details);
+            generator.writeStringField("service", SERVICE_NAME);
+            generator.writeEndObject();
+            generator.flush();
+            return out.toString();
+        }
+
+        String serialize(AuditAggregator.Summary summary, long windowStart, long windowEnd) throws IOException {
+            AuditAggregator.Key key = summary.key;
+            out.getBuffer().setLength(0);
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(windowEnd)));
+            generator.writeStringField("eventType", key.eventType());
+            generator.writeStringField("entityType", key.entityType());
+            generator.writeStringField("entityId", key.entityId());
+            generator.writeStringField("outcome", "SUCCESS");
+            generator.writeStringField("details", key.details());
+            if (summary.page != null) {
+                generator.writeStringField("page", summary.page);
+                generator.writeStringField("permission", summary.permission);
+            }
+            generator.writeBooleanField("summary", true);
+            generator.writeNumberField("count", summary.count);
+            generator.writeStringField("windowStart", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(windowStart)));
+            generator.writeStringField("windowEnd", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(windowEnd)));
+            generator.writeStringField("firstSeen", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(summary.firstSeen)));
+            generator.writeStringField("lastSeen", TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(summary.lastSeen)));
+            generator.writeStringField("service", SERVICE_NAME);
+            generator.writeEndObject();
+            generator.flush();
+            return out.toString();
+        }
+    }
 }
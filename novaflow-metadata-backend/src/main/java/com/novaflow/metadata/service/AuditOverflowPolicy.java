@@ -0,0 +1,13 @@
+package com.novaflow.metadata.service;
+
+/**
+ * What AuditLogger.emit does when the audit ring buffer is full (audit.overflow-policy)
+ */
+public enum AuditOverflowPolicy {
+    /** Wait for the writer to free a slot; no event is lost */
+    BLOCK,
+    /** Drop SUCCESS events except one in audit.drop-sample-rate; DENIED and ERROR events still wait */
+    DROP_SAMPLED,
+    /** Append the event to a spill file that the writer replays once the buffer has drained */
+    SPILL
+}
@@ -0,0 +1,158 @@
+package com.novaflow.metadata.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tails the audit journal into every AuditSink bean, one thread per sink. Each sink's position is
+ * persisted in sinks/{name}.offset under the journal directory after every acknowledged batch, so
+ * after a restart a sink resumes where it left off. The lowest acknowledged position is released to
+ * the journal, which then deletes the segments every sink is done with.
+ */
+@Component
+public class AuditSinkDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSinkDispatcher.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private AuditJournal journal;
+
+    @Autowired(required = false)
+    private List<AuditSink> sinks = List.of();
+
+    @Value("${audit.sink.batch-size:500}")
+    private int batchSize = 500;
+
+    private final List<Thread> threads = new ArrayList<>();
+    // Last acknowledged position of each sink, by name
+    private final Map<String, Long> acknowledged = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!journal.isOpen()) {
+            return;
+        }
+        running = true;
+        for (AuditSink sink : sinks) {
+            try {
+                acknowledged.put(sink.name(), position(sink));
+            } catch (IOException | NumberFormatException e) {
+                logger.warn("Could not read the position of audit sink {}; journal segments are kept until it acknowledges",
+                    sink.name(), e);
+                acknowledged.put(sink.name(), 0L);
+            }
+        }
+        release();
+        for (AuditSink sink : sinks) {
+            Thread thread = new Thread(() -> run(sink), "audit-sink-" + sink.name());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Journal sequence the sink will receive next
+     */
+    public long position(AuditSink sink) throws IOException {
+        Path file = offsetFile(sink);
+        return Files.exists(file) ? Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()) : 0L;
+    }
+
+    private void run(AuditSink sink) {
+        AuditJournal.Reader reader = null;
+        while (running) {
+            try {
+                if (reader == null) {
+                    reader = journal.reader(position(sink));
+                }
+                List<AuditJournal.Entry> entries = reader.poll(batchSize);
+                if (entries.isEmpty()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                sink.publish(entries);
+                storePosition(sink, reader.position());
+            } catch (Exception e) {
+                logger.error("Audit sink {} failed; retrying from its last acknowledged position", sink.name(), e);
+                closeQuietly(reader);
+                reader = null;
+                LockSupport.parkNanos(RETRY_PARK_NANOS);
+            }
+        }
+        closeQuietly(reader);
+    }
+
+    private void storePosition(AuditSink sink, long position) throws IOException {
+        Path file = offsetFile(sink);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(position), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        acknowledged.put(sink.name(), position);
+        release();
+    }
+
+    // Let the journal drop what every sink has acknowledged
+    private void release() {
+        if (acknowledged.isEmpty()) {
+            return;
+        }
+        long lowest = acknowledged.values().stream().mapToLong(Long::longValue).min().orElse(0L);
+        try {
+            journal.release(lowest);
+        } catch (IOException e) {
+            logger.warn("Failed to delete acknowledged audit journal segments", e);
+        }
+    }
+
+    private Path offsetFile(AuditSink sink) {
+        return journal.directory().resolve("sinks").resolve(sink.name() + ".offset");
+    }
+
+    private static void closeQuietly(AuditJournal.Reader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close audit journal reader", e);
+        }
+    }
+}
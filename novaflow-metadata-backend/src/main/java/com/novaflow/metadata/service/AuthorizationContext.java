@@ -0,0 +1,71 @@
+package com.novaflow.metadata.service;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Authorization facts about the caller of one request: identity and effective roles, resolved
+ * once from the JWT, plus the accessible domain ids, loaded on first use. Built and stored per
+ * request by AuthorizationService.getAuthorizationContext.
+ */
+public final class AuthorizationContext {
+
+    private final String principalName;
+    private final AuthorizationService.Identity identity;
+    private final Set<String> roles;
+    private final boolean rolesResolved;
+    private final Supplier<Set<String>> domainLoader;
+    private volatile Set<String> accessibleDomainIds;
+
+    AuthorizationContext(String principalName, AuthorizationService.Identity identity, Set<String> roles,
+                         Supplier<Set<String>> domainLoader) {
+        this.principalName = principalName;
+        this.identity = identity;
+        this.roles = roles != null ? Collections.unmodifiableSet(roles) : Collections.emptySet();
+        this.rolesResolved = roles != null;
+        this.domainLoader = domainLoader;
+    }
+
+    public AuthorizationService.Identity identity() { return identity; }
+
+    public String email() { return identity.email(); }
+
+    /**
+     * Effective roles; empty when the user has none or the lookup failed (see rolesResolved)
+     */
+    public Set<String> roles() { return roles; }
+
+    /**
+     * False when the role lookup failed, so callers can report an error rather than a plain denial
+     */
+    public boolean rolesResolved() { return rolesResolved; }
+
+    /**
+     * Domain ids the user holds an active role in; loaded once, failures propagate and are retried
+     */
+    public Set<String> accessibleDomainIds() {
+        Set<String> domains = accessibleDomainIds;
+        if (domains == null) {
+            synchronized (this) {
+                domains = accessibleDomainIds;
+                if (domains == null) {
+                    domains = Collections.unmodifiableSet(domainLoader.get());
+                    accessibleDomainIds = domains;
+                }
+            }
+        }
+        return domains;
+    }
+
+    public boolean canAccessDomain(String domainId) {
+        return domainId != null && accessibleDomainIds().contains(domainId);
+    }
+
+    boolean isFor(Authentication authentication) {
+        return authentication != null && Objects.equals(principalName, authentication.getName());
+    }
+}
@@ -1,7 +1,6 @@
 package com.novaflow.metadata.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
@@ -9,6 +8,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.*;
 
@@ -18,14 +19,16 @@ public class AuthorizationService {
     // Identity record for Google OIDC
     public record Identity(String sub, String email) {}
 
+    private static final String CONTEXT_ATTRIBUTE = AuthorizationContext.class.getName();
+
     @Autowired
     private AuditLogger auditLogger;
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    @Value("${rbac.cache.ttl.seconds:600}")
-    private int cacheTtlSeconds;
+    @Autowired
+    private PermissionMatrixService permissionMatrixService;
 
     /**
      * Extract user identity from Google JWT token.
@@ -56,6 +59,24 @@ public class AuthorizationService {
         return new Identity(sub, email);
     }
 
+    /**
+     * Key of per-user RBAC cache entries: the email claim, so that RbacInvalidationEvents
+     * (which identify users by email) can evict them. Never throws; falls back to the principal name.
+     */
+    public String cacheKey(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
+            Jwt jwt = jwtAuth.getToken();
+            String email = jwt.getClaimAsString("email");
+            if (email == null || email.isEmpty()) {
+                email = jwt.getClaimAsString("preferred_username");
+            }
+            if (email != null && !email.isEmpty()) {
+                return email;
+            }
+        }
+        return authentication.getName();
+    }
+
     /**
      * Check if user exists in the database by email
      */
@@ -81,83 +102,96 @@ public class AuthorizationService {
     }
 
     /**
-     * Get effective roles for a user from database only - DB-only RBAC
+     * Authorization context of the caller, resolved once per HTTP request and reused by
+     * @PreAuthorize checks, services and controllers for the rest of that request.
+     * Outside a request (e.g. scheduled jobs) a fresh context is resolved on every call.
      */
-    @Cacheable(value = "userRoles", key = "#authentication.name")
-    public Set<String> getEffectiveRoles(Authentication authentication) {
-        Identity identity = getCurrentIdentity(authentication);
-        
-        String sql = """
-            SELECT DISTINCT r.name
-            FROM user_management.users u
-            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
-            JOIN user_management.roles r ON r.id = udr.role_id
-            WHERE u.email = ?
-        """;
-        Object[] params = new Object[]{identity.email()};
+    public AuthorizationContext getAuthorizationContext(Authentication authentication) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AuthorizationContext context
+                && context.isFor(authentication)) {
+            return context;
+        }
 
-        try {
-            List<String> roles = jdbcTemplate.queryForList(sql, String.class, params);
-            
-            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "SUCCESS", roles.size() + " roles found");
-            return new HashSet<>(roles);
-        } catch (Exception e) {
-            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "ERROR", "Failed to get effective roles: " + e.getMessage());
-            return new HashSet<>();
+        Identity identity = getCurrentIdentity(authentication);
+        AuthorizationContext context = new AuthorizationContext(authentication.getName(), identity,
+            lookupRoles(identity), () -> lookupAccessibleDomainIds(identity));
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CONTEXT_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
         }
+        return context;
+    }
+
+    /**
+     * Get effective roles for a user from database only - DB-only RBAC.
+     * Empty results are not cached so new role assignments (and DB errors) are not pinned for the TTL.
+     */
+    @Cacheable(value = "userRoles", key = "#root.target.cacheKey(#authentication)", unless = "#result.isEmpty()")
+    public Set<String> getEffectiveRoles(Authentication authentication) {
+        return new HashSet<>(getAuthorizationContext(authentication).roles());
     }
 
     /**
-     * Check if user has specific permission for a page - DB-only RBAC
+     * Check if user has specific permission for a page - DB-only RBAC.
+     * Only grants are cached; denials and failed checks are re-evaluated on the next call.
      */
-    @Cacheable(value = "userPermissions", key = "#authentication.name + ':' + #pagePath + ':' + #permissionName")
+    @Cacheable(value = "userPermissions", key = "#root.target.cacheKey(#authentication) + ':' + #pagePath + ':' + #permissionName", unless = "!#result")
     public boolean hasPermission(Authentication authentication, String permissionName, String pagePath) {
-        try {
-            // First get user's effective roles
-            Set<String> roles = getEffectiveRoles(authentication);
-            if (roles.isEmpty()) {
-                Identity identity = getCurrentIdentity(authentication);
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "DENIED", "No roles found for user");
-                return false;
-            }
+        AuthorizationContext context = getAuthorizationContext(authentication);
+        String email = context.email();
 
-            // Check if any role grants the permission for the page
-            String sql = """
-                SELECT EXISTS (
-                    SELECT 1
-                    FROM user_management.role_page_permissions rpp
-                    JOIN user_management.pages p ON p.id = rpp.page_id
-                    JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
-                    WHERE p.path = ?
-                    AND pt.name = ?
-                    AND rpp.is_granted = TRUE
-                    AND rpp.role_name = ANY(?)
-                )
-            """;
+        if (!context.rolesResolved()) {
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "ERROR", "Permission check failed: roles could not be resolved");
+            return false;
+        }
+        Set<String> roles = context.roles();
+        if (roles.isEmpty()) {
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "DENIED", "No roles found for user");
+            return false;
+        }
 
-            boolean hasPermission = jdbcTemplate.queryForObject(
-                sql, 
-                Boolean.class, 
-                pagePath, 
-                permissionName, 
-                roles.toArray(new String[0])
-            );
+        try {
+            // Check if any role grants the permission for the page, from the in-memory matrix when available
+            boolean hasPermission;
+            PermissionMatrix matrix = permissionMatrixService.current();
+            if (matrix != null) {
+                hasPermission = matrix.isGranted(roles, pagePath, permissionName);
+            } else {
+                String sql = """
+                    SELECT EXISTS (
+                        SELECT 1
+                        FROM user_management.role_page_permissions rpp
+                        JOIN user_management.pages p ON p.id = rpp.page_id
+                        JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
+                        WHERE p.path = ?
+                        AND pt.name = ?
+                        AND rpp.is_granted = TRUE
+                        AND rpp.role_name = ANY(?)
+                    )
+                """;
+
+                hasPermission = jdbcTemplate.queryForObject(
+                    sql, 
+                    Boolean.class, 
+                    pagePath, 
+                    permissionName, 
+                    roles.toArray(new String[0])
+                );
+            }
 
-            Identity identity = getCurrentIdentity(authentication);
-            
             if (hasPermission) {
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "SUCCESS", 
+                auditLogger.emit("PERMISSION_CHECK", "USER", email, "SUCCESS", 
                     String.format("Permission %s granted for page %s", permissionName, pagePath));
             } else {
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "DENIED", 
+                auditLogger.emit("PERMISSION_CHECK", "USER", email, "DENIED", 
                     String.format("Permission %s denied for page %s", permissionName, pagePath));
             }
 
             return hasPermission;
 
         } catch (Exception e) {
-            Identity identity = getCurrentIdentity(authentication);
-            auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "ERROR", "Permission check failed: " + e.getMessage());
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "ERROR", "Permission check failed: " + e.getMessage());
             return false;
         }
     }
@@ -165,10 +199,11 @@ public class AuthorizationService {
     /**
      * Get all permissions for a user across all pages 
      */
-    @Cacheable(value = "userAllPermissions", key = "#authentication.name")
+    @Cacheable(value = "userAllPermissions", key = "#root.target.cacheKey(#authentication)", unless = "#result.isEmpty()")
     public List<UserPermission> getAllPermissions(Authentication authentication) {
+        AuthorizationContext context = getAuthorizationContext(authentication);
         try {
-            Set<String> roles = getEffectiveRoles(authentication);
+            Set<String> roles = context.roles();
             if (roles.isEmpty()) {
                 return new ArrayList<>();
             }
@@ -189,12 +224,49 @@ public class AuthorizationService {
             );
 
         } catch (Exception e) {
-            Identity identity = getCurrentIdentity(authentication);
-            auditLogger.emit("PERMISSION_QUERY", "USER", identity.email(), "ERROR", "Failed to get all permissions: " + e.getMessage());
+            auditLogger.emit("PERMISSION_QUERY", "USER", context.email(), "ERROR", "Failed to get all permissions: " + e.getMessage());
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Effective role names of the user, or null when the lookup failed
+     */
+    private Set<String> lookupRoles(Identity identity) {
+        String sql = """
+            SELECT DISTINCT r.name
+            FROM user_management.users u
+            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
+            JOIN user_management.roles r ON r.id = udr.role_id
+            WHERE u.email = ?
+        """;
+        Object[] params = new Object[]{identity.email()};
+
+        try {
+            List<String> roles = jdbcTemplate.queryForList(sql, String.class, params);
+            
+            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "SUCCESS", roles.size() + " roles found");
+            return new HashSet<>(roles);
+        } catch (Exception e) {
+            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "ERROR", "Failed to get effective roles: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ids of the domains the (active) user holds an active role in
+     */
+    private Set<String> lookupAccessibleDomainIds(Identity identity) {
+        String sql = """
+            SELECT DISTINCT r.domain_id
+            FROM user_management.users u
+            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
+            JOIN user_management.roles r ON r.id = udr.role_id
+            WHERE u.email = ? AND u.is_active = TRUE
+        """;
+        return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, identity.email()));
+    }
+
     // Inner classes for data transfer
 
     public static class UserPermission {
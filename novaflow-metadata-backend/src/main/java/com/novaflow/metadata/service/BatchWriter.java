@@ -0,0 +1,44 @@
+package com.novaflow.metadata.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Inserts new entities in JDBC batches. Repository saveAll merges entities with assigned ids, which
+ * costs a SELECT per row before the INSERT; persisting directly skips that, and flushing every
+ * hibernate.jdbc.batch_size rows lets Hibernate group the INSERTs into one batch per flush and keeps
+ * the persistence context from growing with the input. Callers must be transactional.
+ */
+@Component
+public class BatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Persist every entity as a new row. The persistence context is cleared as it goes, so these and
+     * any other entities loaded earlier in the transaction are detached on return.
+     */
+    public <T> List<T> persistAll(List<T> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % batchSize == 0) {
+                flush();
+            }
+        }
+        flush();
+        return entities;
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.entity.HolidayCalendar;
+import com.novaflow.metadata.repository.HolidayCalendarRepository;
+import com.novaflow.metadata.runcontrol.BusinessCalendar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the compiled BusinessCalendar of each holiday calendar. An entry is dropped when its calendar is
+ * saved or deleted through HolidayCalendarService, and rebuilt after holiday.business-days.cache-ttl-ms
+ * anyway, for changes made by other nodes or directly in the database.
+ */
+@Service
+public class BusinessCalendarService {
+
+    @Autowired
+    private HolidayCalendarRepository holidayCalendarRepository;
+
+    @Value("${holiday.business-days.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    private record Cached(BusinessCalendar calendar, long loadedNanos) {
+    }
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so a build that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Business days of a holiday calendar
+     *
+     * @return empty when the calendar does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<BusinessCalendar> get(String holidayCalendarId) {
+        BusinessCalendar cached = cached(holidayCalendarId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long seen = invalidations.get();
+        return holidayCalendarRepository.findById(holidayCalendarId).map(calendar -> build(calendar, seen));
+    }
+
+    /**
+     * Business days of an already loaded holiday calendar, whose holiday rows can still be loaded
+     */
+    @Transactional(readOnly = true)
+    public BusinessCalendar get(HolidayCalendar holidayCalendar) {
+        BusinessCalendar cached = cached(holidayCalendar.getId());
+        return cached != null ? cached : build(holidayCalendar, invalidations.get());
+    }
+
+    private BusinessCalendar cached(String holidayCalendarId) {
+        Cached entry = cache.get(holidayCalendarId);
+        if (entry == null || System.nanoTime() - entry.loadedNanos() > cacheTtlMs * 1_000_000L) {
+            return null;
+        }
+        return entry.calendar();
+    }
+
+    private BusinessCalendar build(HolidayCalendar holidayCalendar, long seen) {
+        BusinessCalendar calendar = BusinessCalendar.of(holidayCalendar);
+        if (invalidations.get() == seen) {
+            cache.put(holidayCalendar.getId(), new Cached(calendar, System.nanoTime()));
+        }
+        return calendar;
+    }
+
+    /**
+     * Drop a changed calendar, before other listeners (the run control scheduler) look it up again
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHolidayCalendarChanged(HolidayCalendarChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.remove(event.holidayCalendarId());
+    }
+}
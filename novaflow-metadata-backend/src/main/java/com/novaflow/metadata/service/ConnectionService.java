@@ -4,26 +4,50 @@ import com.novaflow.metadata.dto.CreateConnectionRequest;
 import com.novaflow.metadata.dto.UpdateConnectionRequest;
 import com.novaflow.metadata.dto.ConnectionResponse;
 import com.novaflow.metadata.entity.Connection;
+import com.novaflow.metadata.exception.ConnectionNotFoundException;
+import com.novaflow.metadata.exception.DomainAccessDeniedException;
+import com.novaflow.metadata.pagination.CursorPage;
 import com.novaflow.metadata.repository.ConnectionRepository;
+import com.novaflow.metadata.scaffold.JdbcSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ConnectionService {
 
+    // The only properties a ${SECRET_REF:name} password can read
+    static final String SECRETS_PREFIX = "novaflow.secrets.";
+
     @Autowired
     private ConnectionRepository connectionRepository;
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private Environment environment;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * List current connections by domain (domain-scoped access)
      */
@@ -36,6 +60,59 @@ public class ConnectionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * List current connections across every domain the user can access, in one query.
+     * Without a limit all rows are returned; with a limit the result is keyset-paginated on
+     * (domain_id, name, id) and the cursor of the next page is returned alongside.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ConnectionResponse> listAccessibleConnections(Authentication authentication, String cursor, Integer limit) {
+        Set<String> domainIds = authorizationService.getAuthorizationContext(authentication).accessibleDomainIds();
+        if (domainIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        if (limit == null) {
+            List<Connection> connections = connectionRepository.findCurrentConnectionsByDomains(domainIds, Pageable.unpaged());
+            return new CursorPage<>(connections.stream().map(this::mapToResponse).collect(Collectors.toList()), null);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.ofSize(limit + 1);
+        List<Connection> connections;
+        if (cursor == null || cursor.isEmpty()) {
+            connections = connectionRepository.findCurrentConnectionsByDomains(domainIds, page);
+        } else {
+            String[] keyset = decodeCursor(cursor);
+            connections = connectionRepository.findCurrentConnectionsByDomainsAfter(
+                domainIds, keyset[0], keyset[1], UUID.fromString(keyset[2]), page);
+        }
+
+        String nextCursor = null;
+        if (connections.size() > limit) {
+            connections = connections.subList(0, limit);
+            nextCursor = encodeCursor(connections.get(limit - 1));
+        }
+        return new CursorPage<>(connections.stream().map(this::mapToResponse).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Stream current connections across the given domains without materializing the result set.
+     * Rows are fetched in batches and detached once handed to the sink, so memory stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void streamConnectionsByDomains(Collection<String> domainIds, Consumer<ConnectionResponse> sink) {
+        if (domainIds.isEmpty()) {
+            return;
+        }
+        try (Stream<Connection> connections = connectionRepository.streamCurrentConnectionsByDomains(domainIds)) {
+            connections.forEach(connection -> {
+                sink.accept(mapToResponse(connection));
+                entityManager.detach(connection);
+            });
+        }
+    }
+
     /**
      * Get connection history for a specific connection key
      */
@@ -166,10 +243,73 @@ public class ConnectionService {
      * Get domains accessible by user
      */
     public List<String> getAccessibleDomains(Authentication authentication) {
-        String userEmail = extractUserEmail(authentication);
+        String userEmail = authorizationService.getAuthorizationContext(authentication).email();
         return connectionRepository.findAccessibleDomainsByUser(userEmail);
     }
 
+    /**
+     * JDBC source of a managed database connection, for a scaffold of the given domain. The connection
+     * must be current, active and of that domain, and a caller, when there is one, must be allowed into
+     * the domain; scheduled runs act for the scaffold's domain. The URL is built from host, port and
+     * database (service_name for Oracle) and user and password travel as driver properties. A password
+     * of the form ${SECRET_REF:name} is read from the property novaflow.secrets.name (environment variable
+     * NOVAFLOW_SECRETS_NAME); nothing outside that prefix can be referenced, so a connection cannot send
+     * the application's own credentials to a host of its choosing.
+     */
+    @Transactional(readOnly = true)
+    public JdbcSource resolveJdbcSource(UUID connectionKey, String domainId, Authentication authentication) {
+        Connection connection = connectionRepository.findCurrentConnectionByKey(connectionKey)
+                .filter(found -> found.getStatus() == Connection.ConnectionStatus.ACTIVE)
+                .orElseThrow(() -> new ConnectionNotFoundException("Active connection not found with key: " + connectionKey));
+        if (!Objects.equals(connection.getDomainId(), domainId)
+                || (authentication != null && !authorizationService.getAuthorizationContext(authentication).canAccessDomain(domainId))) {
+            throw new DomainAccessDeniedException("Access denied to connection " + connectionKey + " from domain: " + domainId);
+        }
+        Map<String, Object> parameters = connection.getParameters() != null ? connection.getParameters() : Map.of();
+        String host = text(parameters, "host");
+        String port = parameters.get("port") != null ? ":" + text(parameters, "port") : "";
+        String url = switch (connection.getTypeCode()) {
+            case "POSTGRES" -> "jdbc:postgresql://" + host + port + "/" + text(parameters, "database")
+                    + (Boolean.parseBoolean(String.valueOf(parameters.get("ssl"))) ? "?ssl=true" : "");
+            case "SQLSERVER" -> "jdbc:sqlserver://" + host + port + ";databaseName=" + text(parameters, "database")
+                    + ";encrypt=" + Boolean.parseBoolean(String.valueOf(parameters.get("encrypt")));
+            case "ORACLE" -> "jdbc:oracle:thin:@//" + host + port + "/" + text(parameters, "service_name");
+            default -> throw new IllegalArgumentException("Connection " + connectionKey + " of type " + connection.getTypeCode() + " is not a JDBC source");
+        };
+        Properties properties = new Properties();
+        if (parameters.get("user") != null) {
+            properties.setProperty("user", String.valueOf(parameters.get("user")));
+        }
+        if (parameters.get("password") != null) {
+            properties.setProperty("password", secret(String.valueOf(parameters.get("password"))));
+        }
+        return new JdbcSource(url, properties);
+    }
+
+    private static String text(Map<String, Object> parameters, String name) {
+        Object value = parameters.get(name);
+        // Names and hosts only: anything else could smuggle URL syntax or driver properties
+        if (value == null || !String.valueOf(value).matches("[A-Za-z0-9_.$-]+")) {
+            throw new IllegalArgumentException("Connection parameter '" + name + "' is missing or invalid");
+        }
+        return String.valueOf(value);
+    }
+
+    String secret(String value) {
+        if (!value.startsWith("${SECRET_REF:") || !value.endsWith("}")) {
+            return value;
+        }
+        String name = value.substring("${SECRET_REF:".length(), value.length() - 1);
+        if (!name.matches("[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)*")) {
+            throw new IllegalArgumentException("Secret reference '" + name + "' is invalid");
+        }
+        String secret = environment.getProperty(SECRETS_PREFIX + name);
+        if (secret == null) {
+            throw new IllegalStateException("Secret '" + name + "' is not configured");
+        }
+        return secret;
+    }
+
     // Private helper methods
 
     private UUID callCreateConnectionVersionFunction(UUID connectionKey, String domainId, String name, 
@@ -188,20 +328,36 @@ public class ConnectionService {
     }
 
     private void validateDomainAccess(String domainId, Authentication authentication) {
-        String userEmail = extractUserEmail(authentication);
-        List<String> accessibleDomains = connectionRepository.findAccessibleDomainsByUser(userEmail);
-        
-        if (!accessibleDomains.contains(domainId)) {
+        // Domains are resolved once per request by the authorization context, not once per check
+        if (!authorizationService.getAuthorizationContext(authentication).canAccessDomain(domainId)) {
             throw new SecurityException("Access denied to domain: " + domainId);
         }
     }
 
-    private String extractUserEmail(Authentication authentication) {
-        // This should match the pattern used in AuthorizationService
-        if (authentication != null && authentication.getName() != null) {
-            return authentication.getName();
+    // Opaque keyset cursor: base64url(domainId).base64url(name).id
+    private static String encodeCursor(Connection last) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(last.getDomainId().getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(last.getName().getBytes(StandardCharsets.UTF_8)) + "."
+            + last.getId();
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            UUID.fromString(parts[2]);
+            return new String[] {
+                new String(decoder.decode(parts[0]), StandardCharsets.UTF_8),
+                new String(decoder.decode(parts[1]), StandardCharsets.UTF_8),
+                parts[2]
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
         }
-        throw new SecurityException("Unable to extract user email from authentication");
     }
 
     private ConnectionResponse mapToResponse(Connection connection) {
@@ -1,47 +1,82 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.DynamicDataRecord;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.DynamicDataRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Service
 @Transactional
 public class DynamicDataRecordService {
 
+    private static final KeysetPaginator<DynamicDataRecord> PAGINATOR = new KeysetPaginator<>(DynamicDataRecord.class,
+        "-createdDate", "createdDate", "lastModifiedDate", "entityType", "approvalStatus", "status", "version");
+
     @Autowired
     private DynamicDataRecordRepository dynamicDataRecordRepository;
 
-    public List<DynamicDataRecord> findAll() {
-        return dynamicDataRecordRepository.findAll();
-    }
+    @Autowired
+    private EntityStreamer entityStreamer;
 
-    public Optional<DynamicDataRecord> findById(String id) {
-        return dynamicDataRecordRepository.findById(id);
+    @Autowired
+    private BatchWriter batchWriter;
+
+    /**
+     * Page through dynamic data records, newest first by default. Every filter is optional.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<DynamicDataRecord> search(String domainId, String uiMetadataId, String entityType, String approvalStatus,
+                                                Character status, PageQuery page) {
+        return PAGINATOR.page(dynamicDataRecordRepository, filter(domainId, uiMetadataId, entityType, approvalStatus, status), page);
     }
 
-    public List<DynamicDataRecord> findByDomainId(String domainId) {
-        return dynamicDataRecordRepository.findByDomainId(domainId);
+    /**
+     * Stream all dynamic data records matching the filters (same semantics as search) in the given sort order,
+     * one detached entity at a time
+     */
+    @Transactional(readOnly = true)
+    public void stream(String domainId, String uiMetadataId, String entityType, String approvalStatus,
+                       Character status, String sort, Consumer<DynamicDataRecord> sink) {
+        entityStreamer.stream(DynamicDataRecord.class, filter(domainId, uiMetadataId, entityType, approvalStatus, status), PAGINATOR.sort(sort), sink);
     }
 
-    public List<DynamicDataRecord> findActiveByDomainId(String domainId) {
-        return dynamicDataRecordRepository.findActiveByDomainId(domainId);
+    /**
+     * Stream matching records like stream, until the sink returns false
+     */
+    @Transactional(readOnly = true)
+    public void streamWhile(String domainId, String uiMetadataId, String entityType, String approvalStatus,
+                            Character status, String sort, Predicate<DynamicDataRecord> sink) {
+        entityStreamer.streamWhile(DynamicDataRecord.class, filter(domainId, uiMetadataId, entityType, approvalStatus, status), PAGINATOR.sort(sort), sink);
     }
 
-    public List<DynamicDataRecord> findByEntityType(String entityType) {
-        return dynamicDataRecordRepository.findByEntityType(entityType);
+    @Transactional(readOnly = true)
+    public long count(String domainId, String uiMetadataId, String entityType, String approvalStatus, Character status) {
+        return dynamicDataRecordRepository.count(filter(domainId, uiMetadataId, entityType, approvalStatus, status));
     }
 
-    public List<DynamicDataRecord> findByApprovalStatus(String approvalStatus) {
-        return dynamicDataRecordRepository.findByApprovalStatus(approvalStatus);
+    private static Specification<DynamicDataRecord> filter(String domainId, String uiMetadataId, String entityType,
+                                                           String approvalStatus, Character status) {
+        return Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("uiMetadata.id", uiMetadataId),
+            Filters.equal("entityType", entityType),
+            Filters.equal("approvalStatus", approvalStatus),
+            Filters.equal("status", status));
     }
 
-    public List<DynamicDataRecord> findByDomainIdAndEntityType(String domainId, String entityType) {
-        return dynamicDataRecordRepository.findByDomainIdAndEntityType(domainId, entityType);
+    public Optional<DynamicDataRecord> findById(String id) {
+        return dynamicDataRecordRepository.findById(id);
     }
 
     public DynamicDataRecord save(DynamicDataRecord dynamicDataRecord) {
@@ -52,6 +87,20 @@ public class DynamicDataRecordService {
         return dynamicDataRecordRepository.save(dynamicDataRecord);
     }
 
+    /**
+     * Insert new records in JDBC batches
+     */
+    public List<DynamicDataRecord> saveAll(List<DynamicDataRecord> dynamicDataRecords) {
+        LocalDateTime now = LocalDateTime.now();
+        for (DynamicDataRecord dynamicDataRecord : dynamicDataRecords) {
+            if (dynamicDataRecord.getCreatedDate() == null) {
+                dynamicDataRecord.setCreatedDate(now);
+            }
+            dynamicDataRecord.setLastModifiedDate(now);
+        }
+        return batchWriter.persistAll(dynamicDataRecords);
+    }
+
     public DynamicDataRecord update(String id, DynamicDataRecord dynamicDataRecord) {
         Optional<DynamicDataRecord> existingRecord = dynamicDataRecordRepository.findById(id);
         if (existingRecord.isPresent()) {
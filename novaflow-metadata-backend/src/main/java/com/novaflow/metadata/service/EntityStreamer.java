@@ -0,0 +1,70 @@
+package com.novaflow.metadata.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Streams every entity matching a Specification through a forward-only Hibernate scroll.
+ * The JDBC driver fetches FETCH_SIZE rows per round trip (PostgreSQL only honours the fetch size
+ * inside a transaction, so callers must be transactional) and each entity is detached once handed
+ * to the sink, so memory stays flat whatever the result size.
+ */
+@Component
+public class EntityStreamer {
+
+    static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> void stream(Class<T> entityType, Specification<T> filter, Sort sort, Consumer<T> sink) {
+        streamWhile(entityType, filter, sort, entity -> {
+            sink.accept(entity);
+            return true;
+        });
+    }
+
+    /**
+     * Like stream, but stops (closing the cursor) as soon as the sink returns false
+     */
+    public <T> void streamWhile(Class<T> entityType, Specification<T> filter, Sort sort, java.util.function.Predicate<T> sink) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<T> rows = session.createQuery(query)
+                .setFetchSize(FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                T entity = rows.get();
+                boolean more = sink.test(entity);
+                session.detach(entity);
+                if (!more) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.novaflow.metadata.service;
+
+/**
+ * Published by HolidayCalendarService when a holiday calendar is saved or deleted. Listeners run after
+ * the transaction commits, so they see the calendar's committed state.
+ */
+public record HolidayCalendarChangedEvent(String holidayCalendarId) {
+}
@@ -1,8 +1,15 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.HolidayCalendar;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.HolidayCalendarRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -12,21 +19,33 @@ import java.util.Optional;
 @Transactional
 public class HolidayCalendarService {
 
+    private static final KeysetPaginator<HolidayCalendar> PAGINATOR = new KeysetPaginator<>(HolidayCalendar.class,
+        "name", "name", "country", "status", "createdDate", "lastModifiedDate");
+
     @Autowired
     private HolidayCalendarRepository holidayCalendarRepository;
 
-    public List<HolidayCalendar> getAllHolidayCalendars() {
-        // Step 1: Load base calendars with holidayList
-        List<HolidayCalendar> calendars = holidayCalendarRepository.findAllWithHolidays();
-        
-        if (calendars.isEmpty()) {
-            return calendars;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Page through holiday calendars, ordered by name by default. Every filter is optional.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<HolidayCalendar> search(String domainId, String country, Character status, String name, PageQuery page) {
+        Specification<HolidayCalendar> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("country", country),
+            Filters.equal("status", status),
+            Filters.contains("name", name));
+        CursorPage<HolidayCalendar> result = PAGINATOR.page(holidayCalendarRepository, filter, page);
+        List<HolidayCalendar> calendars = result.items();
+        if (!calendars.isEmpty()) {
+            // holidayList is @BatchSize'd: the first initialization loads the whole page in one IN query
+            calendars.forEach(calendar -> Hibernate.initialize(calendar.getHolidayList()));
+            holidayCalendarRepository.findWithRunControls(calendars);
         }
-        
-        // Step 2: Load runControls collection in separate query
-        holidayCalendarRepository.findWithRunControls(calendars);
-        
-        return calendars;
+        return result;
     }
 
     public Optional<HolidayCalendar> findById(String id) {
@@ -42,10 +61,13 @@ public class HolidayCalendarService {
     }
 
     public HolidayCalendar save(HolidayCalendar holidayCalendar) {
-        return holidayCalendarRepository.save(holidayCalendar);
+        HolidayCalendar saved = holidayCalendarRepository.save(holidayCalendar);
+        eventPublisher.publishEvent(new HolidayCalendarChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void deleteById(String id) {
+        eventPublisher.publishEvent(new HolidayCalendarChangedEvent(id));
         holidayCalendarRepository.deleteById(id);
     }
 }
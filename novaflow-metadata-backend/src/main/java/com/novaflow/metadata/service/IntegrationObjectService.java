@@ -1,8 +1,14 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.IntegrationObject;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.IntegrationObjectRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -14,39 +20,80 @@ import java.util.UUID;
 @Transactional
 public class IntegrationObjectService {
 
+    private static final KeysetPaginator<IntegrationObject> PAGINATOR = new KeysetPaginator<>(IntegrationObject.class,
+        "name", "name", "type", "status", "createdDate", "lastModifiedDate");
+
+    private static final RelationExpander<IntegrationObject> EXPANDER = new RelationExpander<IntegrationObject>()
+        .relation("attributes", object -> Hibernate.initialize(object.getAttributes()))
+        .relation("sourceRules", object -> Hibernate.initialize(object.getSourceRules()))
+        .relation("targetRules", object -> Hibernate.initialize(object.getTargetRules()))
+        .relation("sourceScaffolds", object -> Hibernate.initialize(object.getSourceScaffolds()))
+        .relation("targetScaffolds", object -> Hibernate.initialize(object.getTargetScaffolds()))
+        .relation("uiMetadata", object -> Hibernate.initialize(object.getUiMetadataList()))
+        .relation("uiMetadata.dynamicDataRecords", object ->
+            object.getUiMetadataList().forEach(uiMetadata -> Hibernate.initialize(uiMetadata.getDynamicDataRecords())));
+
     @Autowired
     private IntegrationObjectRepository integrationObjectRepository;
 
-    public List<IntegrationObject> getAllIntegrationObjects() {
-        return integrationObjectRepository.findAllObjects();
+    /**
+     * Page through integration objects, ordered by name by default. Every filter is optional.
+     * Relations are only loaded when named in expand (e.g. "attributes,sourceRules").
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<IntegrationObject> search(String domainId, String type, Character status,
+                                                UUID connectionId, String name, String expand, PageQuery page) {
+        Specification<IntegrationObject> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("type", type),
+            Filters.equal("status", status),
+            Filters.equal("connection.id", connectionId),
+            Filters.contains("name", name));
+        CursorPage<IntegrationObject> result = PAGINATOR.page(integrationObjectRepository, filter, page);
+        EXPANDER.expand(result.items(), expand);
+        return result;
     }
 
-    public Optional<IntegrationObject> getIntegrationObjectById(String id) {
-        return integrationObjectRepository.findById(id);
+    public Optional<IntegrationObject> getIntegrationObjectById(String id, String expand) {
+        Optional<IntegrationObject> object = integrationObjectRepository.findById(id);
+        object.ifPresent(found -> EXPANDER.expand(found, expand));
+        return object;
     }
 
-    public List<IntegrationObject> getIntegrationObjectsByDomain(String domainId) {
-        return integrationObjectRepository.findByDomainId(domainId);
+    public List<IntegrationObject> getIntegrationObjectsByDomain(String domainId, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findByDomainId(domainId);
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
-    public List<IntegrationObject> getActiveIntegrationObjectsByDomain(String domainId) {
-        return integrationObjectRepository.findByDomainIdAndStatus(domainId, 'A');
+    public List<IntegrationObject> getActiveIntegrationObjectsByDomain(String domainId, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findByDomainIdAndStatus(domainId, 'A');
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
-    public List<IntegrationObject> getIntegrationObjectsByType(String type) {
-        return integrationObjectRepository.findByType(type);
+    public List<IntegrationObject> getIntegrationObjectsByType(String type, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findByType(type);
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
-    public List<IntegrationObject> getIntegrationObjectsByConnection(UUID connectionId) {
-        return integrationObjectRepository.findByConnectionId(connectionId);
+    public List<IntegrationObject> getIntegrationObjectsByConnection(UUID connectionId, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findByConnectionId(connectionId);
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
-    public List<IntegrationObject> getActiveIntegrationObjectsByConnection(UUID connectionId) {
-        return integrationObjectRepository.findActiveByConnectionId(connectionId);
+    public List<IntegrationObject> getActiveIntegrationObjectsByConnection(UUID connectionId, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findActiveByConnectionId(connectionId);
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
-    public List<IntegrationObject> searchIntegrationObjectsByName(String domainId, String name) {
-        return integrationObjectRepository.findByDomainIdAndNameContaining(domainId, name);
+    public List<IntegrationObject> searchIntegrationObjectsByName(String domainId, String name, String expand) {
+        List<IntegrationObject> objects = integrationObjectRepository.findByDomainIdAndNameContaining(domainId, name);
+        EXPANDER.expand(objects, expand);
+        return objects;
     }
 
     public IntegrationObject createIntegrationObject(IntegrationObject integrationObject) {
@@ -0,0 +1,37 @@
+package com.novaflow.metadata.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Local stand-in for a broker: writes journaled audit events to the application log as
+ * "AUDIT: {json}" lines, at WARN for DENIED and ERROR outcomes.
+ */
+@Component
+public class LoggingAuditSink implements AuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogger.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<AuditJournal.Entry> entries) throws Exception {
+        for (AuditJournal.Entry entry : entries) {
+            String outcome = objectMapper.readTree(entry.payload()).path("outcome").asText(null);
+            if (AuditLogger.isWarning(outcome)) {
+                logger.warn("AUDIT: {}", entry.payload());
+            } else {
+                logger.info("AUDIT: {}", entry.payload());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.novaflow.metadata.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every granted (role name, page path, permission type) triple in
+ * role_page_permissions. Role names, page paths and permission type names are interned to
+ * dense ints; each role owns one bitset over the (page, permission type) cells, so a check is
+ * two map lookups plus one bit test per role. Grants are bound by role name, not role id.
+ */
+public final class PermissionMatrix {
+
+    private final Map<String, Integer> roleIds;
+    private final Map<String, Integer> pageIds;
+    private final Map<String, Integer> permissionIds;
+    private final long[][] grants; // [roleId][cell >>> 6], cell = pageId * permissionCount + permissionId
+    private final int grantCount;
+    private final LocalDateTime builtAt;
+
+    private PermissionMatrix(Map<String, Integer> roleIds, Map<String, Integer> pageIds,
+                             Map<String, Integer> permissionIds, long[][] grants, int grantCount) {
+        this.roleIds = roleIds;
+        this.pageIds = pageIds;
+        this.permissionIds = permissionIds;
+        this.grants = grants;
+        this.grantCount = grantCount;
+        this.builtAt = LocalDateTime.now();
+    }
+
+    /**
+     * Build from granted rows of (role name, page path, permission type name)
+     */
+    public static PermissionMatrix build(List<String[]> grantedRows) {
+        Map<String, Integer> roleIds = new HashMap<>();
+        Map<String, Integer> pageIds = new HashMap<>();
+        Map<String, Integer> permissionIds = new HashMap<>();
+        for (String[] row : grantedRows) {
+            roleIds.putIfAbsent(row[0], roleIds.size());
+            pageIds.putIfAbsent(row[1], pageIds.size());
+            permissionIds.putIfAbsent(row[2], permissionIds.size());
+        }
+
+        int words = (pageIds.size() * permissionIds.size() + 63) >>> 6;
+        long[][] grants = new long[roleIds.size()][words];
+        int grantCount = 0;
+        for (String[] row : grantedRows) {
+            int cell = pageIds.get(row[1]) * permissionIds.size() + permissionIds.get(row[2]);
+            long[] roleGrants = grants[roleIds.get(row[0])];
+            long bit = 1L << cell;
+            if ((roleGrants[cell >>> 6] & bit) == 0) {
+                roleGrants[cell >>> 6] |= bit;
+                grantCount++;
+            }
+        }
+        return new PermissionMatrix(Map.copyOf(roleIds), Map.copyOf(pageIds), Map.copyOf(permissionIds), grants, grantCount);
+    }
+
+    /**
+     * True if any of the roles is granted the permission on the page
+     */
+    public boolean isGranted(Collection<String> roles, String pagePath, String permissionName) {
+        Integer pageId = pageIds.get(pagePath);
+        Integer permissionId = permissionIds.get(permissionName);
+        if (pageId == null || permissionId == null) {
+            return false;
+        }
+        int cell = pageId * permissionIds.size() + permissionId;
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        for (String role : roles) {
+            Integer roleId = roleIds.get(role);
+            if (roleId != null && (grants[roleId][word] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getRoleCount() { return roleIds.size(); }
+    public int getPageCount() { return pageIds.size(); }
+    public int getPermissionTypeCount() { return permissionIds.size(); }
+    public int getGrantCount() { return grantCount; }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+}
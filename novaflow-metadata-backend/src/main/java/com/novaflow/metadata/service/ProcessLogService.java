@@ -1,43 +1,66 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.ProcessLog;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.ProcessLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class ProcessLogService {
 
+    private static final KeysetPaginator<ProcessLog> PAGINATOR = new KeysetPaginator<>(ProcessLog.class,
+        "-createdDate", "createdDate", "startTime", "endTime", "status", "executionId", "triggeredBy");
+
     @Autowired
     private ProcessLogRepository processLogRepository;
 
-    public List<ProcessLog> findAll() {
-        return processLogRepository.findAll();
-    }
+    @Autowired
+    private EntityStreamer entityStreamer;
 
-    public Optional<ProcessLog> findById(String id) {
-        return processLogRepository.findById(id);
-    }
+    @Autowired
+    private BatchWriter batchWriter;
 
-    public List<ProcessLog> findByRunControlId(String runControlId) {
-        return processLogRepository.findByRunControlIdOrderByCreatedDateDesc(runControlId);
+    /**
+     * Page through process logs, newest first by default. Every filter is optional; the date range
+     * applies to createdDate and is inclusive.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProcessLog> search(String runControlId, String status, LocalDateTime from, LocalDateTime to, PageQuery page) {
+        return PAGINATOR.page(processLogRepository, filter(runControlId, status, from, to), page);
     }
 
-    public List<ProcessLog> findByStatus(String status) {
-        return processLogRepository.findByStatus(status);
+    /**
+     * Stream all process logs matching the filters (same semantics as search) in the given sort order,
+     * one detached entity at a time
+     */
+    @Transactional(readOnly = true)
+    public void stream(String runControlId, String status, LocalDateTime from, LocalDateTime to, String sort, Consumer<ProcessLog> sink) {
+        entityStreamer.stream(ProcessLog.class, filter(runControlId, status, from, to), PAGINATOR.sort(sort), sink);
     }
 
-    public List<ProcessLog> findByRunControlIdAndStatus(String runControlId, String status) {
-        return processLogRepository.findByRunControlIdAndStatus(runControlId, status);
+    private static Specification<ProcessLog> filter(String runControlId, String status, LocalDateTime from,
+                                                    LocalDateTime to) {
+        return Specification.allOf(
+            Filters.equal("runControl.id", runControlId),
+            Filters.equal("status", status),
+            Filters.atLeast("createdDate", from),
+            Filters.atMost("createdDate", to));
     }
 
-    public List<ProcessLog> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return processLogRepository.findByCreatedDateBetween(startDate, endDate);
+    public Optional<ProcessLog> findById(String id) {
+        return processLogRepository.findById(id);
     }
 
     public Optional<ProcessLog> findLatestByRunControlId(String runControlId) {
@@ -52,6 +75,29 @@ public class ProcessLogService {
         return processLogRepository.save(processLog);
     }
 
+    /**
+     * Save a process log in a transaction of its own, so it is written even when the caller's
+     * transaction is read-only or rolls back
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ProcessLog record(ProcessLog processLog) {
+        return save(processLog);
+    }
+
+    /**
+     * Insert new process logs in JDBC batches
+     */
+    public List<ProcessLog> saveAll(List<ProcessLog> processLogs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ProcessLog processLog : processLogs) {
+            if (processLog.getCreatedDate() == null) {
+                processLog.setCreatedDate(now);
+            }
+            processLog.setLastModifiedDate(now);
+        }
+        return batchWriter.persistAll(processLogs);
+    }
+
     public ProcessLog update(String id, ProcessLog processLog) {
         Optional<ProcessLog> existingProcessLog = processLogRepository.findById(id);
         if (existingProcessLog.isPresent()) {
@@ -0,0 +1,27 @@
+package com.novaflow.metadata.service;
+
+import java.util.Set;
+
+/**
+ * Invalidation event for cached RBAC decisions, published by the user-management backend over the
+ * Postgres channel {@value #CHANNEL}. Users are identified by email, which is the key of every
+ * per-user RBAC cache entry. The origin is the publishing user-management node; this backend only
+ * listens, so it applies every event.
+ */
+public record RbacInvalidationEvent(Scope scope, Set<String> emails, String reason, String origin) {
+
+    public static final String CHANNEL = "rbac_invalidation";
+
+    public enum Scope {
+        USERS, // evict entries of the listed emails
+        ALL    // evict every RBAC cache entry
+    }
+
+    public static RbacInvalidationEvent users(Set<String> emails, String reason) {
+        return new RbacInvalidationEvent(Scope.USERS, Set.copyOf(emails), reason, null);
+    }
+
+    public static RbacInvalidationEvent all(String reason) {
+        return new RbacInvalidationEvent(Scope.ALL, Set.of(), reason, null);
+    }
+}
@@ -0,0 +1,115 @@
+package com.novaflow.metadata.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Listens on the Postgres channel {@value RbacInvalidationEvent#CHANNEL} and applies the
+ * invalidation events published by the user-management backend to the local RBAC caches.
+ * Notifications sent while disconnected are lost, so every (re)connect clears the caches.
+ */
+@Component
+public class RbacInvalidationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacInvalidationListener.class);
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RbacCacheInvalidator cacheInvalidator;
+
+    @Value("${rbac.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("RBAC cache invalidation listener disabled; relying on TTL expiry only");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::listen, "rbac-invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + RbacInvalidationEvent.CHANNEL);
+                }
+                // Anything published while we were not listening was missed
+                cacheInvalidator.invalidateAll();
+                logger.info("Listening for RBAC invalidation events on channel {}", RbacInvalidationEvent.CHANNEL);
+                backoffMs = 1000;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("RBAC invalidation listener disconnected, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            cacheInvalidator.apply(objectMapper.readValue(payload, RbacInvalidationEvent.class));
+        } catch (Exception e) {
+            // Unreadable event: drop everything rather than risk serving a revoked grant
+            logger.warn("Unreadable RBAC invalidation event, clearing caches: {}", e.getMessage());
+            cacheInvalidator.invalidateAll();
+        }
+    }
+}
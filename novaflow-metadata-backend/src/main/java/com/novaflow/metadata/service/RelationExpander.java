@@ -0,0 +1,57 @@
+package com.novaflow.metadata.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Resolves an "expand" request parameter (comma separated relation names) against the lazy relations
+ * an entity offers, and initializes only the requested ones. Relations are mapped with @BatchSize, so
+ * initializing a relation on the first entity of a result loads it for the whole batch in one query.
+ * Relations that are not expanded stay unloaded and are left out of the JSON by UninitializedRelationFilter.
+ */
+final class RelationExpander<T> {
+
+    private final Map<String, Consumer<T>> initializers = new LinkedHashMap<>();
+
+    RelationExpander<T> relation(String name, Consumer<T> initializer) {
+        initializers.put(name, initializer);
+        return this;
+    }
+
+    /**
+     * Initialize the requested relations (null or blank expands nothing) on every entity.
+     * Must run inside the transaction that loaded the entities.
+     */
+    void expand(Collection<T> entities, String expand) {
+        Set<String> requested = parse(expand);
+        for (String name : requested) {
+            Consumer<T> initializer = initializers.get(name);
+            entities.forEach(initializer);
+        }
+    }
+
+    void expand(T entity, String expand) {
+        expand(List.of(entity), expand);
+    }
+
+    private Set<String> parse(String expand) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (expand == null || expand.isBlank()) {
+            return requested;
+        }
+        for (String name : Arrays.stream(expand.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList()) {
+            if (!initializers.containsKey(name)) {
+                throw new IllegalArgumentException("Unsupported expand: " + name
+                    + " (supported: " + String.join(", ", initializers.keySet()) + ")");
+            }
+            requested.add(name);
+        }
+        return requested;
+    }
+}
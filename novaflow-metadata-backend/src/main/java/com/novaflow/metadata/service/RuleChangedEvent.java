@@ -0,0 +1,8 @@
+package com.novaflow.metadata.service;
+
+/**
+ * Published by RuleService when a rule is created, updated, activated, deactivated or deleted.
+ * Listeners run after the transaction commits, so they see the rule's committed state.
+ */
+public record RuleChangedEvent(String ruleId, String domainId) {
+}
@@ -0,0 +1,131 @@
+package com.novaflow.metadata.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novaflow.metadata.dto.ColumnarRuleEvaluationResponse;
+import com.novaflow.metadata.dto.RuleEvaluationResponse;
+import com.novaflow.metadata.entity.ObjectSchemaAttribute;
+import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.repository.RuleRepository;
+import com.novaflow.metadata.rule.ColumnBatch;
+import com.novaflow.metadata.rule.ColumnType;
+import com.novaflow.metadata.rule.CompiledRule;
+import com.novaflow.metadata.rule.RuleCompiler;
+import com.novaflow.metadata.rule.VectorizedRule;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Evaluates rules against records. Rules are compiled once per (id, version) and kept in a bounded
+ * cache; updating a rule bumps its version, so stale compiled forms are simply never looked up again
+ * and age out.
+ */
+@Service
+public class RuleEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleEvaluationService.class);
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Value("${rules.compiled-cache.max-size:10000}")
+    private long compiledCacheMaxSize;
+
+    private Cache<RuleKey, CompiledRule> compiled;
+    private Cache<RuleKey, VectorizedRule> vectorized;
+
+    record RuleKey(String id, int version) {
+    }
+
+    @PostConstruct
+    void init() {
+        compiled = Caffeine.newBuilder().maximumSize(compiledCacheMaxSize).build();
+        vectorized = Caffeine.newBuilder().maximumSize(compiledCacheMaxSize).build();
+    }
+
+    /**
+     * Compiled form of the rule at its current version
+     */
+    public CompiledRule compile(Rule rule) {
+        int version = rule.getVersion() != null ? rule.getVersion() : 0;
+        return compiled.get(new RuleKey(rule.getId(), version), key -> {
+            logger.debug("Compiling rule {} version {}", key.id(), key.version());
+            return RuleCompiler.compile(rule);
+        });
+    }
+
+    /**
+     * Column-at-a-time form of the rule at its current version
+     */
+    public VectorizedRule vectorize(Rule rule) {
+        int version = rule.getVersion() != null ? rule.getVersion() : 0;
+        return vectorized.get(new RuleKey(rule.getId(), version), key -> VectorizedRule.compile(compile(rule)));
+    }
+
+    /**
+     * Evaluate a rule against a batch of records, applying its actions to matching records in place
+     *
+     * @param matchedOnly only return results for matching records
+     * @return empty when the rule does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<RuleEvaluationResponse> evaluate(String ruleId, List<Map<String, Object>> records, boolean matchedOnly) {
+        return ruleRepository.findById(ruleId).map(rule -> {
+            CompiledRule compiledRule = compile(rule);
+            List<RuleEvaluationResponse.RecordResult> results = new ArrayList<>(matchedOnly ? 16 : records.size());
+            int matched = 0;
+            for (int i = 0; i < records.size(); i++) {
+                Map<String, Object> record = records.get(i) != null ? records.get(i) : new LinkedHashMap<>();
+                boolean match = compiledRule.apply(record);
+                if (match) {
+                    matched++;
+                }
+                if (match || !matchedOnly) {
+                    results.add(new RuleEvaluationResponse.RecordResult(i, match, record));
+                }
+            }
+            return new RuleEvaluationResponse(rule.getId(), compiledRule.getVersion(), records.size(), matched, results);
+        });
+    }
+
+    /**
+     * Evaluate a rule against a columnar batch, applying its actions to the matching rows. Columns are
+     * typed from the rule's source object attributes where they are defined.
+     *
+     * @return empty when the rule does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<ColumnarRuleEvaluationResponse> evaluateColumnar(String ruleId, Map<String, List<Object>> columns) {
+        return ruleRepository.findById(ruleId).map(rule -> {
+            ColumnBatch batch = ColumnBatch.fromColumns(columns, schema(rule));
+            BitSet selection = vectorize(rule).apply(batch);
+            List<Integer> selected = new ArrayList<>(selection.cardinality());
+            selection.stream().forEach(selected::add);
+            return new ColumnarRuleEvaluationResponse(rule.getId(), rule.getVersion(), batch.rowCount(), selected.size(),
+                    selected, batch.toColumns());
+        });
+    }
+
+    private static Map<String, ColumnType> schema(Rule rule) {
+        Map<String, ColumnType> schema = new HashMap<>();
+        if (rule.getSourceObject() != null && rule.getSourceObject().getAttributes() != null) {
+            for (ObjectSchemaAttribute attribute : rule.getSourceObject().getAttributes()) {
+                schema.put(attribute.getAttributeName(), ColumnType.of(attribute.getDataType()));
+            }
+        }
+        return schema;
+    }
+}
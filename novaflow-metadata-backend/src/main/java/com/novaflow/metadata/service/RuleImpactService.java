@@ -0,0 +1,322 @@
+package com.novaflow.metadata.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novaflow.metadata.dto.RuleImpactResponse;
+import com.novaflow.metadata.entity.DynamicDataRecord;
+import com.novaflow.metadata.entity.IntegrationObject;
+import com.novaflow.metadata.repository.RuleRepository;
+import com.novaflow.metadata.rule.Arithmetic;
+import com.novaflow.metadata.rule.CompiledRule;
+import com.novaflow.metadata.rule.RuleDefinition;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dry-runs a rule, typically a draft version before it is activated, against the records of its source
+ * integration object: the active dynamic data records of the object's domain whose entity type is the
+ * object's name. Records are streamed, never loaded at once, and evaluated with the cached compiled rule
+ * on a bounded executor; callers start a job and poll it for progress. Nothing is written back.
+ */
+@Service
+public class RuleImpactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleImpactService.class);
+
+    /** Per-record latencies kept for the percentiles; beyond this a uniform reservoir sample is kept */
+    static final int LATENCY_SAMPLES = 8192;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private RuleEvaluationService ruleEvaluationService;
+
+    @Autowired
+    private DynamicDataRecordService dynamicDataRecordService;
+
+    @Autowired
+    private StreamConnectionBudget streamConnectionBudget;
+
+    @Value("${rules.impact.threads:2}")
+    private int threads;
+
+    @Value("${rules.impact.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${rules.impact.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, Job> jobs;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "rule-impact-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        jobs = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(retentionMinutes)).build();
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.asMap().values().forEach(Job::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue an impact analysis of the rule's current version
+     *
+     * @param sampleSize records to evaluate, drawn uniformly from the source object; 0 for a full scan
+     * @return empty when the rule does not exist
+     * @throws java.util.concurrent.RejectedExecutionException when the executor's queue is full
+     */
+    @Transactional(readOnly = true)
+    public Optional<RuleImpactResponse> start(String ruleId, int sampleSize) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("sampleSize must not be negative");
+        }
+        return ruleRepository.findById(ruleId).map(rule -> {
+            IntegrationObject source = rule.getSourceObject();
+            if (source == null) {
+                throw new IllegalArgumentException("Rule " + ruleId + " has no source object to analyse");
+            }
+            CompiledRule compiled = ruleEvaluationService.compile(rule);
+            Job job = new Job(UUID.randomUUID().toString(), compiled, source.getId(), source.getDomainId(), source.getName(), sampleSize);
+            executor.execute(job);
+            jobs.put(job.id, job);
+            logger.info("Queued impact analysis {} of rule {} version {} over {} ({})", job.id, ruleId,
+                    compiled.getVersion(), source.getId(), sampleSize > 0 ? "sample of " + sampleSize : "full scan");
+            return job.snapshot();
+        });
+    }
+
+    public Optional<RuleImpactResponse> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::snapshot);
+    }
+
+    /**
+     * Stop a queued or running job; the figures gathered so far are kept
+     */
+    public Optional<RuleImpactResponse> cancel(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(job -> {
+            job.cancel();
+            return job.snapshot();
+        });
+    }
+
+    /**
+     * Whether an action changed a value; numbers compare exactly by value, so 3 and 3.0 are the same
+     * but longs and decimals that only differ beyond double precision are not
+     */
+    static boolean changed(Object before, Object after) {
+        if (before instanceof Number a && after instanceof Number b) {
+            return Arithmetic.compare(a, b) != 0;
+        }
+        return !Objects.equals(before, after);
+    }
+
+    /**
+     * One step of selection sampling: whether to take the next record when {@code wanted} more are needed
+     * from the {@code remaining} not yet seen. Records added since the count was taken are always taken,
+     * so a sample only falls short when records were removed meanwhile.
+     */
+    static boolean select(SplittableRandom random, long wanted, long remaining) {
+        return remaining <= wanted || random.nextLong(remaining) < wanted;
+    }
+
+    private final class Job implements Runnable {
+        private final String id;
+        private final CompiledRule rule;
+        private final String sourceObjectId;
+        private final String domainId;
+        private final String entityType;
+        private final int sampleSize;
+        private final List<CompiledRule.Action> actions;
+        private final List<RuleDefinition.Action> definitions;
+        private final long[] actionChanges;
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private final SplittableRandom random = new SplittableRandom();
+
+        private volatile boolean cancelled;
+        private String status = "QUEUED";
+        private long totalRecords;
+        private long scanned;
+        private long evaluated;
+        private long matched;
+        private LocalDateTime startedDate;
+        private LocalDateTime finishedDate;
+        private String error;
+
+        Job(String id, CompiledRule rule, String sourceObjectId, String domainId, String entityType, int sampleSize) {
+            this.id = id;
+            this.rule = rule;
+            this.sourceObjectId = sourceObjectId;
+            this.domainId = domainId;
+            this.entityType = entityType;
+            this.sampleSize = sampleSize;
+            this.actions = rule.getActions();
+            this.definitions = rule.getDefinition().actions();
+            this.actionChanges = new long[actions.size()];
+        }
+
+        void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                if (status.equals("QUEUED")) {
+                    status = "CANCELLED";
+                    finishedDate = LocalDateTime.now();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                status = "RUNNING";
+                startedDate = LocalDateTime.now();
+            }
+            try {
+                // The scan holds a pooled connection until it ends, so it shares the run controls' budget
+                streamConnectionBudget.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish("CANCELLED", "Interrupted");
+                return;
+            }
+            try {
+                long total = dynamicDataRecordService.count(domainId, null, entityType, null, 'A');
+                synchronized (this) {
+                    totalRecords = total;
+                }
+                // Selection sampling: each record is taken with probability (still wanted) / (still unseen), which
+                // draws exactly sampleSize records, every subset equally likely, and lets the scan stop once full
+                dynamicDataRecordService.streamWhile(domainId, null, entityType, null, 'A', null, record -> {
+                    if (cancelled) {
+                        return false;
+                    }
+                    boolean take = sampleSize == 0 || select(random, sampleSize - evaluated, total - scanned);
+                    scanned++;
+                    if (!take) {
+                        return true;
+                    }
+                    evaluate(record);
+                    return sampleSize == 0 || evaluated < sampleSize;
+                });
+                finish(cancelled ? "CANCELLED" : "COMPLETED", null);
+            } catch (RuntimeException e) {
+                logger.warn("Impact analysis {} of rule {} failed", id, rule.getRuleId(), e);
+                finish("FAILED", e.getMessage());
+            } finally {
+                streamConnectionBudget.release();
+            }
+        }
+
+        private void evaluate(DynamicDataRecord source) {
+            Map<String, Object> record = source.getData() != null ? new LinkedHashMap<>(source.getData()) : new LinkedHashMap<>();
+            Object[] before = new Object[actions.size()];
+            long start = System.nanoTime();
+            boolean match = rule.matches(record);
+            if (match) {
+                for (int i = 0; i < actions.size(); i++) {
+                    before[i] = record.get(definitions.get(i).target());
+                    actions.get(i).apply(record);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            synchronized (this) {
+                if (match) {
+                    matched++;
+                    for (int i = 0; i < actions.size(); i++) {
+                        if (changed(before[i], record.get(definitions.get(i).target()))) {
+                            actionChanges[i]++;
+                        }
+                    }
+                }
+                if (evaluated < LATENCY_SAMPLES) {
+                    latencies[(int) evaluated] = elapsed;
+                } else {
+                    long slot = random.nextLong(evaluated + 1);
+                    if (slot < LATENCY_SAMPLES) {
+                        latencies[(int) slot] = elapsed;
+                    }
+                }
+                evaluated++;
+            }
+        }
+
+        private synchronized void finish(String outcome, String message) {
+            status = outcome;
+            error = message;
+            finishedDate = LocalDateTime.now();
+            logger.info("Impact analysis {} of rule {} {}: {} of {} records matched", id, rule.getRuleId(),
+                    outcome.toLowerCase(), matched, evaluated);
+        }
+
+        synchronized RuleImpactResponse snapshot() {
+            RuleImpactResponse response = new RuleImpactResponse();
+            response.setJobId(id);
+            response.setRuleId(rule.getRuleId());
+            response.setVersion(rule.getVersion());
+            response.setSourceObjectId(sourceObjectId);
+            response.setStatus(status);
+            response.setSampleSize(sampleSize);
+            response.setTotalRecords(totalRecords);
+            response.setEvaluated(evaluated);
+            response.setMatched(matched);
+            response.setSelectivity(evaluated > 0 ? (double) matched / evaluated : 0);
+            long target = sampleSize > 0 ? Math.min(sampleSize, totalRecords) : totalRecords;
+            response.setProgress(status.equals("COMPLETED") ? 1.0 : target > 0 ? Math.min(1.0, (double) evaluated / target) : 0);
+            long[] sorted = Arrays.copyOf(latencies, (int) Math.min(evaluated, LATENCY_SAMPLES));
+            Arrays.sort(sorted);
+            response.setP50Micros(percentile(sorted, 0.50));
+            response.setP99Micros(percentile(sorted, 0.99));
+            List<RuleImpactResponse.ActionImpact> impacts = new ArrayList<>(definitions.size());
+            for (int i = 0; i < definitions.size(); i++) {
+                RuleDefinition.Action action = definitions.get(i);
+                impacts.add(new RuleImpactResponse.ActionImpact(action.target(), action.operator().name(), actionChanges[i]));
+            }
+            response.setActions(impacts);
+            response.setStartedDate(startedDate);
+            response.setFinishedDate(finishedDate);
+            response.setError(error);
+            return response;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.dto.DomainRuleEvaluationResponse;
+import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.repository.RuleRepository;
+import com.novaflow.metadata.rule.CompiledRule;
+import com.novaflow.metadata.rule.ConditionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-domain ConditionIndex over the domain's active, effective rules. Indexes are built on first use
+ * and kept current one rule at a time from RuleChangedEvents. A domain is rebuilt in full once a rule
+ * that was active but not yet effective at build time reaches its effectiveDate. A build that raced with
+ * a rule change of its domain is used once but not cached, as BusinessCalendarService does.
+ */
+@Service
+public class RuleIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleIndexService.class);
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private RuleEvaluationService ruleEvaluationService;
+
+    private final Map<String, DomainIndex> domains = new ConcurrentHashMap<>();
+
+    // Rule changes seen per domain, bumped on every RuleChangedEvent
+    private final Map<String, AtomicLong> changes = new ConcurrentHashMap<>();
+
+    /**
+     * nextEffective is the earliest future effectiveDate among the domain's active rules, or null
+     */
+    private record DomainIndex(ConditionIndex index, LocalDateTime nextEffective) {
+    }
+
+    /**
+     * Index of the domain's rules effective now, building or refreshing it as needed
+     */
+    public ConditionIndex index(String domainId) {
+        LocalDateTime now = LocalDateTime.now();
+        DomainIndex domain = domains.get(domainId);
+        if (domain == null || (domain.nextEffective() != null && !domain.nextEffective().isAfter(now))) {
+            long seen = changes(domainId).get();
+            DomainIndex built = build(domainId, now);
+            // A rule change committed during the build may be missing from it and was not applied to it,
+            // so only cache a build no change raced with; compute orders this against onRuleChanged
+            domains.compute(domainId, (id, current) -> changes(id).get() == seen ? built : current);
+            domain = built;
+        }
+        return domain.index();
+    }
+
+    private AtomicLong changes(String domainId) {
+        return changes.computeIfAbsent(domainId, id -> new AtomicLong());
+    }
+
+    private DomainIndex build(String domainId, LocalDateTime now) {
+        List<CompiledRule> effective = new ArrayList<>();
+        LocalDateTime nextEffective = null;
+        for (Rule rule : ruleRepository.findByDomainIdAndStatus(domainId, 'A')) {
+            if (rule.getEffectiveDate() != null && rule.getEffectiveDate().isAfter(now)) {
+                if (nextEffective == null || rule.getEffectiveDate().isBefore(nextEffective)) {
+                    nextEffective = rule.getEffectiveDate();
+                }
+            } else {
+                effective.add(ruleEvaluationService.compile(rule));
+            }
+        }
+        logger.debug("Built condition index for domain {} with {} rules", domainId, effective.size());
+        return new DomainIndex(new ConditionIndex(effective), nextEffective);
+    }
+
+    /**
+     * Re-file a changed rule in its domain's index, if that index has been built
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRuleChanged(RuleChangedEvent event) {
+        // Counted before the rule is read, so a build that started earlier is not cached without it
+        long change = changes(event.domainId()).incrementAndGet();
+        if (!domains.containsKey(event.domainId())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Rule rule = ruleRepository.findById(event.ruleId()).orElse(null);
+        boolean active = rule != null && event.domainId().equals(rule.getDomainId())
+                && rule.getStatus() != null && rule.getStatus() == 'A';
+        boolean pending = active && rule.getEffectiveDate() != null && rule.getEffectiveDate().isAfter(now);
+        CompiledRule compiled = active && !pending ? ruleEvaluationService.compile(rule) : null;
+        // Applied under the domain's entry, so it cannot interleave with caching a fresh build
+        domains.computeIfPresent(event.domainId(), (id, domain) -> {
+            if (changes(id).get() != change) {
+                // Another change of the domain raced with this one and may be applied first: rebuild on next use
+                return null;
+            }
+            if (compiled != null) {
+                domain.index().put(compiled);
+                return domain;
+            }
+            domain.index().remove(event.ruleId());
+            if (pending && (domain.nextEffective() == null || rule.getEffectiveDate().isBefore(domain.nextEffective()))) {
+                return new DomainIndex(domain.index(), rule.getEffectiveDate());
+            }
+            return domain;
+        });
+        logger.debug("Re-indexed rule {} in domain {}", event.ruleId(), event.domainId());
+    }
+
+    /**
+     * Test a batch of records against every active rule of a domain, using the condition index to skip
+     * rules a record cannot match. Conditions are tested against the incoming record; the actions of
+     * matching rules are then applied in (priority, rule id) order.
+     */
+    public DomainRuleEvaluationResponse evaluate(String domainId, List<Map<String, Object>> records, boolean matchedOnly) {
+        ConditionIndex index = index(domainId);
+        List<DomainRuleEvaluationResponse.RecordResult> results = new ArrayList<>(matchedOnly ? 16 : records.size());
+        long tested = 0;
+        int matchedRecords = 0;
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, Object> record = records.get(i);
+            if (record == null) {
+                continue;
+            }
+            List<CompiledRule> matches = new ArrayList<>();
+            for (CompiledRule rule : index.candidates(record)) {
+                tested++;
+                if (rule.matches(record)) {
+                    matches.add(rule);
+                }
+            }
+            List<String> matchedRules = new ArrayList<>(matches.size());
+            for (CompiledRule rule : matches) {
+                rule.applyActions(record);
+                matchedRules.add(rule.getRuleId());
+            }
+            if (!matchedRules.isEmpty()) {
+                matchedRecords++;
+            }
+            if (!matchedRules.isEmpty() || !matchedOnly) {
+                results.add(new DomainRuleEvaluationResponse.RecordResult(i, matchedRules, record));
+            }
+        }
+        return new DomainRuleEvaluationResponse(domainId, index.size(), records.size(), matchedRecords, tested, results);
+    }
+}
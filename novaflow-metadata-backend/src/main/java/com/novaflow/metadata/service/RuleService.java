@@ -1,8 +1,14 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.RuleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -13,11 +19,29 @@ import java.util.Optional;
 @Transactional
 public class RuleService {
 
+    private static final KeysetPaginator<Rule> PAGINATOR = new KeysetPaginator<>(Rule.class,
+        "name", "name", "ruleType", "priority", "status", "effectiveDate", "createdDate", "lastModifiedDate");
+
     @Autowired
     private RuleRepository ruleRepository;
 
-    public List<Rule> getAllRules() {
-        return ruleRepository.findAll();
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Page through rules, ordered by name by default. Every filter is optional.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Rule> search(String domainId, String ruleType, Character status, String sourceObjectId,
+                                   String targetObjectId, String name, PageQuery page) {
+        Specification<Rule> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("ruleType", ruleType),
+            Filters.equal("status", status),
+            Filters.equal("sourceObject.id", sourceObjectId),
+            Filters.equal("targetObject.id", targetObjectId),
+            Filters.contains("name", name));
+        return PAGINATOR.page(ruleRepository, filter, page);
     }
 
     public Optional<Rule> getRuleById(String id) {
@@ -58,7 +82,9 @@ public class RuleService {
         if (rule.getEffectiveDate() == null) {
             rule.setEffectiveDate(LocalDateTime.now());
         }
-        return ruleRepository.save(rule);
+        Rule saved = ruleRepository.save(rule);
+        eventPublisher.publishEvent(new RuleChangedEvent(saved.getId(), saved.getDomainId()));
+        return saved;
     }
 
     public Rule updateRule(String id, Rule ruleDetails) {
@@ -78,12 +104,16 @@ public class RuleService {
                     rule.setLastModifiedBy(ruleDetails.getLastModifiedBy());
                     rule.setLastModifiedDate(LocalDateTime.now());
                     rule.setVersion(rule.getVersion() + 1);
-                    return ruleRepository.save(rule);
+                    Rule saved = ruleRepository.save(rule);
+                    eventPublisher.publishEvent(new RuleChangedEvent(saved.getId(), saved.getDomainId()));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
     }
 
     public void deleteRule(String id) {
+        ruleRepository.findById(id).ifPresent(rule ->
+                eventPublisher.publishEvent(new RuleChangedEvent(rule.getId(), rule.getDomainId())));
         ruleRepository.deleteById(id);
     }
 
@@ -93,7 +123,9 @@ public class RuleService {
                     rule.setStatus('A');
                     rule.setLastModifiedBy(modifiedBy);
                     rule.setLastModifiedDate(LocalDateTime.now());
-                    return ruleRepository.save(rule);
+                    Rule saved = ruleRepository.save(rule);
+                    eventPublisher.publishEvent(new RuleChangedEvent(saved.getId(), saved.getDomainId()));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
     }
@@ -104,7 +136,9 @@ public class RuleService {
                     rule.setStatus('I');
                     rule.setLastModifiedBy(modifiedBy);
                     rule.setLastModifiedDate(LocalDateTime.now());
-                    return ruleRepository.save(rule);
+                    Rule saved = ruleRepository.save(rule);
+                    eventPublisher.publishEvent(new RuleChangedEvent(saved.getId(), saved.getDomainId()));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
     }
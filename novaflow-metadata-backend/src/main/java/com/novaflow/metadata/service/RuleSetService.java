@@ -0,0 +1,224 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.dto.RuleSetExecutionResponse;
+import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.entity.RuleSet;
+import com.novaflow.metadata.repository.RuleRepository;
+import com.novaflow.metadata.repository.RuleSetRepository;
+import com.novaflow.metadata.rule.CompiledRule;
+import com.novaflow.metadata.rule.RuleSetExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Resolves a RuleSet's member rules and executes them over record batches.
+ *
+ * A rule set's rules JSON lists its members either as {"rules": [{"ruleId", "order", "isActive"}]} or as a
+ * map keyed by rule id whose values are {"order", "isActive"} or just the order. Inactive members, rules
+ * that are not active and rules whose effectiveDate is still in the future are skipped; the rest run by
+ * member order, then rule priority, then rule id.
+ */
+@Service
+public class RuleSetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleSetService.class);
+
+    @Autowired
+    private RuleSetRepository ruleSetRepository;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private RuleEvaluationService ruleEvaluationService;
+
+    @Value("${rules.parallel.threads:0}")
+    private int parallelThreads;
+
+    @Value("${rules.parallel.chunk-size:1024}")
+    private int chunkSize;
+
+    private ForkJoinPool pool;
+    private RuleSetExecutor executor;
+
+    record Member(String ruleId, int order, boolean active) {
+    }
+
+    @PostConstruct
+    void start() {
+        int threads = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        executor = new RuleSetExecutor(pool, chunkSize);
+        logger.info("Rule set executor started with {} threads, chunk size {}", threads, chunkSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RuleSet> getRuleSetById(String id) {
+        return ruleSetRepository.findById(id);
+    }
+
+    /**
+     * Compiled member rules of a rule set effective at asOf, in execution order
+     */
+    @Transactional(readOnly = true)
+    public List<CompiledRule> resolveRules(RuleSet ruleSet, LocalDateTime asOf) {
+        List<Rule> rules = memberRules(ruleSet, asOf);
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            compiled.add(ruleEvaluationService.compile(rule));
+        }
+        return compiled;
+    }
+
+    /**
+     * Member rules of a rule set effective at asOf, in execution order
+     */
+    @Transactional(readOnly = true)
+    public List<Rule> memberRules(RuleSet ruleSet, LocalDateTime asOf) {
+        Map<String, Member> members = new HashMap<>();
+        for (Member member : members(ruleSet)) {
+            if (member.active()) {
+                members.putIfAbsent(member.ruleId(), member);
+            }
+        }
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        List<Rule> rules = new ArrayList<>(ruleRepository.findActiveRulesByIdIn(members.keySet(), asOf));
+        rules.sort(Comparator.<Rule>comparingInt(rule -> members.get(rule.getId()).order())
+                .thenComparing(Rule::getPriority, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Rule::getId));
+        return rules;
+    }
+
+    /**
+     * A rule set resolved once for repeated execution over record batches
+     */
+    public record Prepared(RuleSet ruleSet, RuleSetExecutor.Mode mode, List<CompiledRule> rules) {
+    }
+
+    /**
+     * Resolve and compile a rule set's rules effective at asOf
+     *
+     * @param asOf point in time used to select effective rules; defaults to now
+     * @return empty when the rule set does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Prepared> prepare(String id, LocalDateTime asOf) {
+        LocalDateTime effectiveAt = asOf != null ? asOf : LocalDateTime.now();
+        return ruleSetRepository.findById(id).map(ruleSet -> {
+            if (ruleSet.getEffectiveDate() != null && ruleSet.getEffectiveDate().isAfter(effectiveAt)) {
+                throw new IllegalArgumentException("Rule set " + id + " is not effective until " + ruleSet.getEffectiveDate());
+            }
+            return new Prepared(ruleSet, RuleSetExecutor.Mode.of(ruleSet.getExecutionOrder()), resolveRules(ruleSet, effectiveAt));
+        });
+    }
+
+    /**
+     * Execute a prepared rule set over a batch of records, writing action outputs into the records;
+     * null records are replaced by empty ones
+     */
+    public List<RuleSetExecutor.RuleStats> execute(Prepared prepared, List<Map<String, Object>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i) == null) {
+                records.set(i, new LinkedHashMap<>());
+            }
+        }
+        return executor.execute(prepared.rules(), records, prepared.mode());
+    }
+
+    /**
+     * Execute a rule set over a batch of records, writing action outputs into the records
+     *
+     * @param asOf point in time used to select effective rules; defaults to now
+     * @return empty when the rule set does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<RuleSetExecutionResponse> execute(String id, List<Map<String, Object>> records, LocalDateTime asOf) {
+        return prepare(id, asOf).map(prepared -> {
+            long start = System.nanoTime();
+            List<RuleSetExecutor.RuleStats> stats = execute(prepared, records);
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            List<RuleSetExecutionResponse.RuleResult> results = new ArrayList<>(stats.size());
+            for (RuleSetExecutor.RuleStats rule : stats) {
+                results.add(new RuleSetExecutionResponse.RuleResult(rule.ruleId(), rule.version(), rule.priority(),
+                        rule.evaluated(), rule.matched(), rule.elapsedNanos() / 1_000_000.0));
+            }
+            RuleSet ruleSet = prepared.ruleSet();
+            logger.debug("Executed rule set {} ({} rules, {}) over {} records in {} ms",
+                    id, prepared.rules().size(), prepared.mode(), records.size(), elapsedMs);
+            return new RuleSetExecutionResponse(ruleSet.getId(), ruleSet.getVersion(), prepared.mode().name(), records.size(),
+                    elapsedMs, results, records);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Member> members(RuleSet ruleSet) {
+        Map<String, Object> rules = ruleSet.getRules();
+        List<Member> members = new ArrayList<>();
+        if (rules == null) {
+            return members;
+        }
+        if (rules.get("rules") instanceof List<?> list) {
+            int position = 0;
+            for (Object entry : list) {
+                position++;
+                if (entry instanceof Map<?, ?> map && map.get("ruleId") != null) {
+                    Map<String, Object> fields = (Map<String, Object>) map;
+                    members.add(new Member(fields.get("ruleId").toString(), order(fields.get("order"), position),
+                            !Boolean.FALSE.equals(fields.get("isActive"))));
+                }
+            }
+            return members;
+        }
+        int position = 0;
+        for (Map.Entry<String, Object> entry : rules.entrySet()) {
+            position++;
+            if (entry.getValue() instanceof Map<?, ?> map) {
+                members.add(new Member(entry.getKey(), order(map.get("order"), position),
+                        !Boolean.FALSE.equals(map.get("isActive"))));
+            } else if (entry.getValue() instanceof Boolean active) {
+                members.add(new Member(entry.getKey(), position, active));
+            } else {
+                members.add(new Member(entry.getKey(), order(entry.getValue(), position), true));
+            }
+        }
+        return members;
+    }
+
+    private static int order(Object value, int fallback) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        return fallback;
+    }
+}
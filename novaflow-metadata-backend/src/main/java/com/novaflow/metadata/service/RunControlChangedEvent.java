@@ -0,0 +1,8 @@
+package com.novaflow.metadata.service;
+
+/**
+ * Published by RunControlService when a run control is created, updated, activated, deactivated or
+ * deleted. Listeners run after the transaction commits, so they see the run control's committed state.
+ */
+public record RunControlChangedEvent(String runControlId) {
+}
@@ -0,0 +1,460 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.entity.DynamicDataRecord;
+import com.novaflow.metadata.entity.IntegrationObject;
+import com.novaflow.metadata.entity.ProcessLog;
+import com.novaflow.metadata.entity.Rule;
+import com.novaflow.metadata.entity.RuleSet;
+import com.novaflow.metadata.entity.RunControl;
+import com.novaflow.metadata.entity.Scaffold;
+import com.novaflow.metadata.entity.UIMetadata;
+import com.novaflow.metadata.repository.RuleSetRepository;
+import com.novaflow.metadata.repository.RunControlRepository;
+import com.novaflow.metadata.repository.ScaffoldRepository;
+import com.novaflow.metadata.repository.UIMetadataRepository;
+import com.novaflow.metadata.rule.RuleSetExecutor;
+import com.novaflow.metadata.runcontrol.InvalidRunControlException;
+import com.novaflow.metadata.runcontrol.PipelineRunner;
+import com.novaflow.metadata.runcontrol.RecordBatcher;
+import com.novaflow.metadata.runcontrol.RecordChannel;
+import com.novaflow.metadata.runcontrol.RunControlStep;
+import com.novaflow.metadata.runcontrol.RunType;
+import com.novaflow.metadata.runcontrol.SegmentGraph;
+import com.novaflow.metadata.runcontrol.StepMetrics;
+import com.novaflow.metadata.runcontrol.StepTask;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes run controls. The active steps of RunControl.steps are split into segments, each a
+ * Scaffold_In step and the RuleSet and Scaffold_Out steps after it, and every segment runs as a
+ * streaming pipeline (see PipelineRunner):
+ * <ul>
+ * <li>Scaffold_In executes the scaffold over its source and sends its output rows on in batches</li>
+ * <li>RuleSet applies the rule set's actions to each batch (the rule set's own executionOrder applies)</li>
+ * <li>Scaffold_Out applies the scaffold's plan to the records and inserts the result as active dynamic
+ * data records of the scaffold's target object; its input is passed on unchanged to any later step</li>
+ * </ul>
+ * Sequential run controls run their segments one after another. Parallel ones run them as a DAG inferred
+ * from the integration objects each segment reads and writes (see SegmentGraph), up to
+ * runcontrol.parallel.max-segments at a time per run. However many segments run, Scaffold_In scans only
+ * stream as StreamConnectionBudget allows, so the writers always find a pooled connection.
+ * <p>
+ * Runs are queued on a bounded executor and recorded as a ProcessLog, Running while they execute. A batch
+ * that fails in a RuleSet or Scaffold_Out step counts as error records and the run goes on; a step that
+ * fails outright stops its segment. A run with records that could not be written ends Failed.
+ */
+@Service
+public class RunControlExecutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunControlExecutionService.class);
+
+    @Autowired
+    private RunControlRepository runControlRepository;
+
+    @Autowired
+    private ScaffoldRepository scaffoldRepository;
+
+    @Autowired
+    private RuleSetRepository ruleSetRepository;
+
+    @Autowired
+    private UIMetadataRepository uiMetadataRepository;
+
+    @Autowired
+    private ScaffoldExecutionService scaffoldExecutionService;
+
+    @Autowired
+    private RuleSetService ruleSetService;
+
+    @Autowired
+    private DynamicDataRecordService dynamicDataRecordService;
+
+    @Autowired
+    private ProcessLogService processLogService;
+
+    @Autowired
+    private StreamConnectionBudget streamConnectionBudget;
+
+    @Value("${runcontrol.executor.threads:4}")
+    private int threads;
+
+    @Value("${runcontrol.executor.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${runcontrol.pipeline.batch-size:500}")
+    private int batchSize;
+
+    @Value("${runcontrol.pipeline.channel-capacity:4}")
+    private int channelCapacity;
+
+    @Value("${runcontrol.parallel.max-segments:4}")
+    private int maxSegments;
+
+    private ThreadPoolExecutor runs;
+    private ExecutorService steps;
+    private PipelineRunner runner;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger runSequence = new AtomicInteger();
+        runs = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "run-control-" + runSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Unbounded: the steps of a segment block on each other, so each needs a thread of its own
+        AtomicInteger stepSequence = new AtomicInteger();
+        steps = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "run-control-step-" + stepSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        runner = new PipelineRunner(steps, channelCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        runs.shutdownNow();
+        steps.shutdownNow();
+    }
+
+    /**
+     * Queue a run of a run control
+     *
+     * @return the run's process log, Running; empty when the run control does not exist
+     * @throws RejectedExecutionException when the executor's queue is full
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProcessLog> start(String runControlId, String triggeredBy) {
+        return runControlRepository.findById(runControlId).map(runControl -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (runControl.getEffectiveDate() != null && runControl.getEffectiveDate().isAfter(now)) {
+                throw new IllegalArgumentException("Run control " + runControlId + " is not effective until " + runControl.getEffectiveDate());
+            }
+            boolean parallel = "Parallel".equalsIgnoreCase(runControl.getExecutionMode());
+            List<List<RunControlStep>> segments = RunControlStep.segments(RunControlStep.parse(runControl.getSteps()));
+            List<SegmentGraph.Access> accesses = new ArrayList<>();
+            for (List<RunControlStep> segment : segments) {
+                accesses.add(access(segment, now));
+            }
+            SegmentGraph graph = parallel ? SegmentGraph.infer(accesses) : SegmentGraph.chain(segments.size());
+
+            String user = triggeredBy != null && !triggeredBy.isBlank() ? triggeredBy : "system";
+            ProcessLog log = new ProcessLog(UUID.randomUUID().toString(), runControl, UUID.randomUUID().toString(), "Running", user);
+            log.setCreatedBy(user);
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("component", "RunControlExecution");
+            details.put("runControlVersion", runControl.getVersion());
+            details.put("executionMode", parallel ? "Parallel" : "Sequential");
+            if (parallel) {
+                details.put("graph", graph.summary(segments.stream().map(segment -> segment.get(0).id()).toList()));
+            }
+            log.setLogs(details);
+            ProcessLog running = processLogService.record(log);
+            try {
+                runs.execute(() -> run(runControl, running, segments, graph, parallel ? maxSegments : 1, user));
+            } catch (RejectedExecutionException e) {
+                Map<String, Object> rejected = new LinkedHashMap<>(running.getLogs());
+                rejected.put("error", "Run control executor is busy");
+                running.setLogs(rejected);
+                running.setStatus("Failed");
+                running.setEndTime(LocalDateTime.now());
+                processLogService.record(running);
+                throw e;
+            }
+            logger.info("Queued run {} of run control {} ({} segments, {}, critical path {})", running.getExecutionId(), runControlId,
+                    segments.size(), parallel ? "Parallel" : "Sequential", graph.criticalPath());
+            return running;
+        });
+    }
+
+    /**
+     * Check that a segment's scaffolds and rule sets exist and collect the integration objects it reads
+     * and writes: Scaffold_In reads its scaffold's source object, Scaffold_Out writes its target object,
+     * and a rule set reads the source objects and writes the target objects of its effective rules
+     */
+    private SegmentGraph.Access access(List<RunControlStep> segment, LocalDateTime asOf) {
+        Set<String> reads = new HashSet<>();
+        Set<String> writes = new HashSet<>();
+        for (RunControlStep step : segment) {
+            if (step.runType() == RunType.RULE_SET) {
+                RuleSet ruleSet = ruleSetRepository.findById(step.runTypeName())
+                        .orElseThrow(() -> unknown(step, "rule set "));
+                for (Rule rule : ruleSetService.memberRules(ruleSet, asOf)) {
+                    addKeys(reads, rule.getSourceObject(), null);
+                    addKeys(writes, rule.getTargetObject(), null);
+                }
+            } else {
+                Scaffold scaffold = scaffoldRepository.findById(step.runTypeName())
+                        .orElseThrow(() -> unknown(step, "scaffold "));
+                if (step.runType() == RunType.SCAFFOLD_IN) {
+                    addKeys(reads, scaffold.getSourceObject(), scaffold.getSourceObjectName());
+                } else {
+                    addKeys(writes, scaffold.getTargetObject(), scaffold.getTargetObjectName());
+                }
+            }
+        }
+        return new SegmentGraph.Access(reads, writes);
+    }
+
+    private static InvalidRunControlException unknown(RunControlStep step, String kind) {
+        return new InvalidRunControlException("Step " + step.id() + " refers to unknown " + kind + step.runTypeName());
+    }
+
+    /**
+     * An object is known by its id and by its name, since scaffolds may name an object without linking it
+     */
+    private static void addKeys(Set<String> keys, IntegrationObject object, String name) {
+        if (object != null) {
+            keys.add("id:" + object.getId());
+            addName(keys, object.getName());
+        }
+        addName(keys, name);
+    }
+
+    private static void addName(Set<String> keys, String name) {
+        if (name != null && !name.isBlank()) {
+            keys.add("name:" + name.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private void run(RunControl runControl, ProcessLog log, List<List<RunControlStep>> segments, SegmentGraph graph,
+                     int concurrency, String user) {
+        log.setStartTime(LocalDateTime.now());
+        List<List<PipelineRunner.StepRun>> pipeline = new ArrayList<>();
+        for (List<RunControlStep> segment : segments) {
+            List<PipelineRunner.StepRun> stepRuns = new ArrayList<>();
+            for (RunControlStep step : segment) {
+                stepRuns.add(new PipelineRunner.StepRun(step, task(step, user)));
+            }
+            pipeline.add(stepRuns);
+        }
+        List<StepMetrics> metrics = List.of();
+        String error = null;
+        try {
+            metrics = runner.run(pipeline, graph, concurrency);
+            error = metrics.stream().filter(step -> step.getStatus() == StepMetrics.Status.FAILED)
+                    .map(step -> "Step " + step.getStep().id() + ": " + step.getError()).findFirst().orElse(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            logger.warn("Run {} of run control {} failed", log.getExecutionId(), runControl.getId(), e);
+        }
+        finish(log, segments, metrics, error);
+    }
+
+    private void finish(ProcessLog log, List<List<RunControlStep>> segments, List<StepMetrics> metrics, String error) {
+        long total = 0;
+        long success = 0;
+        long errors = 0;
+        int index = 0;
+        for (List<RunControlStep> segment : segments) {
+            List<StepMetrics> segmentMetrics = metrics.isEmpty() ? List.of() : metrics.subList(index, index + segment.size());
+            index += segment.size();
+            long written = 0;
+            boolean writes = false;
+            for (StepMetrics step : segmentMetrics) {
+                errors += step.getErrorRecords();
+                if (step.getStep().runType() == RunType.SCAFFOLD_IN) {
+                    total += step.getRecordsIn();
+                } else if (step.getStep().runType() == RunType.SCAFFOLD_OUT) {
+                    writes = true;
+                    written += step.getRecordsOut();
+                    if (step.getErrorRecords() > 0 && error == null) {
+                        // Records the run was meant to produce are missing, so the run did not complete
+                        error = "Step " + step.getStep().id() + ": " + step.getErrorRecords() + " records could not be written";
+                    }
+                }
+            }
+            // A segment without a Scaffold_Out succeeds with what reaches its last step
+            success += writes ? written : segmentMetrics.isEmpty() ? 0 : segmentMetrics.get(segmentMetrics.size() - 1).getRecordsOut();
+        }
+        log.setTotalRecords((int) Math.min(total, Integer.MAX_VALUE));
+        log.setSuccessRecords((int) Math.min(success, Integer.MAX_VALUE));
+        log.setErrorRecords((int) Math.min(errors, Integer.MAX_VALUE));
+        log.setStatus(error == null ? "Completed" : "Failed");
+        log.setEndTime(LocalDateTime.now());
+        Map<String, Object> details = new LinkedHashMap<>(log.getLogs());
+        details.put("steps", metrics.stream().map(StepMetrics::summary).toList());
+        if (error != null) {
+            details.put("error", error);
+        }
+        log.setLogs(details);
+        try {
+            processLogService.record(log);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the outcome of run {}: {}", log.getExecutionId(), e.getMessage());
+        }
+        logger.info("Run {} of run control {} {}: {} records read, {} succeeded, {} errors", log.getExecutionId(),
+                log.getRunControl().getId(), log.getStatus(), total, success, errors);
+    }
+
+    private StepTask task(RunControlStep step, String user) {
+        return switch (step.runType()) {
+            case SCAFFOLD_IN -> (input, output, metrics) -> scaffoldIn(step, output, metrics);
+            case RULE_SET -> (input, output, metrics) -> ruleSet(step, input, output, metrics);
+            case SCAFFOLD_OUT -> (input, output, metrics) -> scaffoldOut(step, input, output, metrics, user);
+        };
+    }
+
+    private void scaffoldIn(RunControlStep step, RecordChannel output, StepMetrics metrics) throws InterruptedException {
+        RecordBatcher batcher = output != null ? new RecordBatcher(output, batchSize) : null;
+        // The scan holds a pooled connection until its last row is read
+        streamConnectionBudget.acquire();
+        ScaffoldExecutionService.Outcome outcome;
+        try {
+            outcome = scaffoldExecutionService.run(step.runTypeName(), null, row -> {
+                metrics.addRecordsOut(1);
+                if (batcher != null) {
+                    batcher.accept(row);
+                }
+            }).orElseThrow(() -> new InvalidRunControlException("Scaffold " + step.runTypeName() + " no longer exists"));
+        } finally {
+            streamConnectionBudget.release();
+        }
+        if (batcher != null) {
+            batcher.flush();
+        }
+        metrics.addRecordsIn(outcome.rowsIn());
+        metrics.putDetail("spill", outcome.spill());
+    }
+
+    private void ruleSet(RunControlStep step, RecordChannel input, RecordChannel output, StepMetrics metrics) throws InterruptedException {
+        RuleSetService.Prepared prepared = ruleSetService.prepare(step.runTypeName(), null)
+                .orElseThrow(() -> new InvalidRunControlException("Rule set " + step.runTypeName() + " no longer exists"));
+        Map<String, Long> matched = new LinkedHashMap<>();
+        List<Map<String, Object>> batch;
+        while ((batch = input.receive()) != null) {
+            metrics.addRecordsIn(batch.size());
+            try {
+                for (RuleSetExecutor.RuleStats rule : ruleSetService.execute(prepared, batch)) {
+                    matched.merge(rule.ruleId(), rule.matched(), Long::sum);
+                }
+            } catch (RuntimeException e) {
+                // Sequential rules change records in place, so a failed batch cannot be passed on
+                metrics.addErrors(batch.size(), e);
+                continue;
+            }
+            metrics.addRecordsOut(batch.size());
+            if (output != null) {
+                output.send(batch);
+            }
+        }
+        metrics.putDetail("ruleSetVersion", prepared.ruleSet().getVersion());
+        metrics.putDetail("rulesMatched", matched);
+    }
+
+    private void scaffoldOut(RunControlStep step, RecordChannel input, RecordChannel output, StepMetrics metrics, String user)
+            throws InterruptedException {
+        TargetWriter writer = new TargetWriter(metrics, user);
+        ScaffoldExecutionService.Transformation transformation = scaffoldExecutionService.transform(step.runTypeName(), writer::add)
+                .orElseThrow(() -> new InvalidRunControlException("Scaffold " + step.runTypeName() + " no longer exists"));
+        try (transformation) {
+            if (transformation.getTargetEntityType() == null) {
+                throw new InvalidRunControlException("Scaffold " + step.runTypeName() + " has no target object to write to");
+            }
+            writer.target(transformation);
+            boolean wanted = true;
+            List<Map<String, Object>> batch;
+            while ((batch = input.receive()) != null) {
+                metrics.addRecordsIn(batch.size());
+                if (output != null) {
+                    // The next step may change its records while these are still being written
+                    List<Map<String, Object>> copies = new ArrayList<>(batch.size());
+                    for (Map<String, Object> record : batch) {
+                        copies.add(new LinkedHashMap<>(record));
+                    }
+                    output.send(copies);
+                }
+                for (int i = 0; i < batch.size() && wanted; i++) {
+                    wanted = transformation.accept(batch.get(i));
+                }
+            }
+            ScaffoldExecutionService.Outcome outcome = transformation.finish();
+            writer.flush();
+            metrics.putDetail("targetObject", transformation.getTargetEntityType());
+            metrics.putDetail("spill", outcome.spill());
+        }
+    }
+
+    /**
+     * Inserts a Scaffold_Out step's output as dynamic data records, a batch per transaction
+     */
+    private final class TargetWriter {
+        private final StepMetrics metrics;
+        private final String user;
+        private final List<DynamicDataRecord> pending = new ArrayList<>();
+        private String domainId;
+        private String entityType;
+        private UIMetadata uiMetadata;
+
+        TargetWriter(StepMetrics metrics, String user) {
+            this.metrics = metrics;
+            this.user = user;
+        }
+
+        void target(ScaffoldExecutionService.Transformation transformation) {
+            domainId = transformation.getTargetDomainId();
+            entityType = transformation.getTargetEntityType();
+            if (transformation.getTargetObjectId() != null) {
+                uiMetadata = uiMetadataRepository.findBySourceObjectId(transformation.getTargetObjectId())
+                        .stream().findFirst().orElse(null);
+            }
+        }
+
+        void add(Map<String, Object> row) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            row.forEach((name, value) -> data.put(name, value instanceof Temporal ? value.toString() : value));
+            DynamicDataRecord record = new DynamicDataRecord(UUID.randomUUID().toString(), uiMetadata, data, user);
+            record.setDomainId(domainId);
+            record.setEntityType(entityType);
+            record.setStatus('A');
+            record.setVersion(1);
+            pending.add(record);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                dynamicDataRecordService.saveAll(pending);
+                metrics.addRecordsOut(pending.size());
+            } catch (RuntimeException e) {
+                metrics.addErrors(pending.size(), e);
+            }
+            pending.clear();
+        }
+    }
+}
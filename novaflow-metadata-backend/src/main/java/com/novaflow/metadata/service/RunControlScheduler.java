@@ -0,0 +1,355 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.entity.HolidayCalendar;
+import com.novaflow.metadata.entity.RunControlSchedule;
+import com.novaflow.metadata.repository.RunControlScheduleRepository;
+import com.novaflow.metadata.runcontrol.BusinessCalendar;
+import com.novaflow.metadata.runcontrol.InvalidRunControlException;
+import com.novaflow.metadata.runcontrol.RunSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires scheduled run controls. The schedules of active run controls with trigger type Scheduled are
+ * loaded into memory, and the next firing of each (see RunSchedule for the holiday rules) waits in a
+ * priority queue ordered by fire time. A single timer thread sleeps until the head of the queue is due,
+ * hands it to a dispatch pool that starts the run through RunControlExecutionService, and queues the
+ * schedule's following firing; the database is not polled to find due schedules. Schedules are reloaded
+ * when a run control or holiday calendar changes and every runcontrol.scheduler.reload-ms, which also
+ * picks up changes made elsewhere. A firing missed while the node was down or the timer was late
+ * runs once, not once per missed firing.
+ * <p>
+ * With runcontrol.cluster.enabled, ScheduleLeaseCoordinator decides which run controls this node
+ * schedules: only those of the partitions it holds are loaded, each firing is claimed in the database
+ * before it runs, and firings the previous holder of a taken-over partition may have missed are caught up.
+ */
+@Service
+public class RunControlScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunControlScheduler.class);
+
+    static final String TRIGGERED_BY = "scheduler";
+
+    @Autowired
+    private RunControlScheduleRepository scheduleRepository;
+
+    @Autowired
+    private RunControlExecutionService runControlExecutionService;
+
+    @Autowired
+    private ScheduleLeaseCoordinator leaseCoordinator;
+
+    @Autowired
+    private BusinessCalendarService businessCalendarService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${runcontrol.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${runcontrol.scheduler.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    /**
+     * A loaded schedule; generation tells its queued firing from those of replaced versions
+     */
+    private record Entry(RunSchedule schedule, long generation) {
+    }
+
+    private record Pending(String runControlId, long generation, RunSchedule.Fire fire) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock
+    private final Map<String, Entry> schedules = new HashMap<>();
+    private final PriorityQueue<Pending> queue = new PriorityQueue<>(
+            Comparator.comparing((Pending pending) -> pending.fire().at()).thenComparing(Pending::runControlId));
+    private long generation;
+
+    private volatile boolean running;
+    private Thread timer;
+    private ExecutorService dispatch;
+    private TransactionTemplate readOnly;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Run control scheduler disabled");
+            return;
+        }
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger sequence = new AtomicInteger();
+        dispatch = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "run-control-dispatch-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        timer = new Thread(this::tick, "run-control-scheduler");
+        timer.setDaemon(true);
+        timer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.interrupt();
+        }
+        if (dispatch != null) {
+            dispatch.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Replace the loaded schedules with those in the database. Schedules that did not change keep their
+     * queued firing.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${runcontrol.scheduler.reload-ms:300000}")
+    public void reload() {
+        if (!running) {
+            return;
+        }
+        Map<String, RunSchedule> loaded;
+        try {
+            loaded = readOnly.execute(status -> load(scheduleRepository.findActiveScheduled()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not load run control schedules; keeping the current ones: {}", e.getMessage());
+            return;
+        }
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            schedules.keySet().removeIf(runControlId -> !loaded.containsKey(runControlId));
+            loaded.forEach((runControlId, schedule) -> put(schedule, now));
+            // Drop firings of removed or replaced schedules once they outnumber the live ones
+            if (queue.size() > 2 * schedules.size()) {
+                queue.removeIf(this::stale);
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Loaded {} run control schedules", loaded.size());
+    }
+
+    /**
+     * Reload the schedule of a run control that changed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRunControlChanged(RunControlChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        Map<String, RunSchedule> loaded;
+        try {
+            loaded = readOnly.execute(status ->
+                    load(scheduleRepository.findActiveScheduledByRunControlId(event.runControlId()).stream().toList()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload the schedule of run control {}; the next reload will: {}", event.runControlId(), e.getMessage());
+            return;
+        }
+        lock.lock();
+        try {
+            RunSchedule schedule = loaded.get(event.runControlId());
+            if (schedule == null) {
+                schedules.remove(event.runControlId());
+            } else {
+                put(schedule, Instant.now());
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-apply a changed holiday calendar to the schedules that use it
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHolidayCalendarChanged(HolidayCalendarChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Load the run controls of the partitions this node now holds
+     */
+    @EventListener
+    public void onPartitionsChanged(SchedulePartitionsChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * The next firing of a run control's schedule
+     *
+     * @return empty when the run control is not scheduled or never fires again
+     */
+    public Optional<RunSchedule.Fire> nextFire(String runControlId) {
+        lock.lock();
+        try {
+            Entry entry = schedules.get(runControlId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            return queue.stream()
+                    .filter(pending -> pending.runControlId().equals(runControlId) && pending.generation() == entry.generation())
+                    .map(Pending::fire).findFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, RunSchedule> load(List<RunControlSchedule> rows) {
+        Map<String, RunSchedule> loaded = new HashMap<>();
+        for (RunControlSchedule row : rows) {
+            if (!leaseCoordinator.owns(row.getRunControlId())) {
+                continue;
+            }
+            try {
+                HolidayCalendar holidayCalendar = row.getHolidayCalendar();
+                BusinessCalendar calendar = null;
+                if (holidayCalendar != null && (holidayCalendar.getStatus() == null || holidayCalendar.getStatus() == 'A')) {
+                    calendar = businessCalendarService.get(holidayCalendar);
+                }
+                loaded.put(row.getRunControlId(), RunSchedule.of(row.getRunControlId(), row.getCronExpression(), row.getTimezone(),
+                        calendar, Boolean.TRUE.equals(row.getSkipOnHoliday()), Boolean.TRUE.equals(row.getRunOnNextBusinessDay())));
+            } catch (InvalidRunControlException e) {
+                logger.warn("Not scheduling run control {}: {}", row.getRunControlId(), e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Install a schedule and queue its next firing, unless the same schedule is already installed.
+     * Called with lock held.
+     */
+    private void put(RunSchedule schedule, Instant now) {
+        Entry current = schedules.get(schedule.runControlId());
+        if (current != null && current.schedule().equals(schedule)) {
+            return;
+        }
+        Entry entry = new Entry(schedule, ++generation);
+        schedules.put(schedule.runControlId(), entry);
+        Instant from = now;
+        if (current == null) {
+            Instant catchUpFrom = leaseCoordinator.catchUpFrom(schedule.runControlId());
+            if (catchUpFrom != null && catchUpFrom.isBefore(now)) {
+                from = catchUpFrom;
+            }
+        }
+        RunSchedule.Fire next = schedule.next(from);
+        if (next != null) {
+            queue.add(new Pending(schedule.runControlId(), entry.generation(), next));
+        }
+    }
+
+    /**
+     * Called with lock held
+     */
+    private boolean stale(Pending pending) {
+        Entry entry = schedules.get(pending.runControlId());
+        return entry == null || entry.generation() != pending.generation();
+    }
+
+    private void tick() {
+        while (running) {
+            Pending due;
+            lock.lock();
+            try {
+                Pending head = queue.peek();
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+                if (stale(head)) {
+                    queue.poll();
+                    continue;
+                }
+                Instant now = Instant.now();
+                long waitNanos = Duration.between(now, head.fire().at()).toNanos();
+                if (waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+                due = queue.poll();
+                // From now rather than the fire time, so a late timer does not fire every missed time
+                Instant after = due.fire().at().isAfter(now) ? due.fire().at() : now;
+                RunSchedule.Fire next = schedules.get(due.runControlId()).schedule().next(after);
+                if (next != null) {
+                    queue.add(new Pending(due.runControlId(), due.generation(), next));
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            fire(due);
+        }
+    }
+
+    private void fire(Pending due) {
+        try {
+            dispatch.execute(() -> {
+                String runControlId = due.runControlId();
+                long lateMs = Duration.between(due.fire().at(), Instant.now()).toMillis();
+                try {
+                    if (!leaseCoordinator.claim(runControlId, due.fire().at())) {
+                        logger.debug("Firing of run control {} at {} claimed elsewhere or its lease was lost", runControlId, due.fire().at());
+                        return;
+                    }
+                    runControlExecutionService.start(runControlId, TRIGGERED_BY).ifPresentOrElse(
+                            log -> logger.info("Fired run control {} for {}{} ({} ms late): run {}", runControlId, due.fire().nominal(),
+                                    due.fire().rolled() ? " on the next business day" : "", lateMs, log.getExecutionId()),
+                            () -> logger.warn("Scheduled run control {} no longer exists", runControlId));
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Scheduled run of run control {} for {} dropped: run control executor is busy", runControlId,
+                            due.fire().nominal());
+                } catch (RuntimeException e) {
+                    logger.warn("Scheduled run of run control {} for {} could not start: {}", runControlId, due.fire().nominal(),
+                            e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+}
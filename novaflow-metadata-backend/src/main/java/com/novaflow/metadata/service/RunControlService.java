@@ -1,8 +1,15 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.RunControl;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.RunControlRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -13,23 +20,33 @@ import java.util.Optional;
 @Transactional
 public class RunControlService {
 
+    private static final KeysetPaginator<RunControl> PAGINATOR = new KeysetPaginator<>(RunControl.class,
+        "name", "name", "executionMode", "triggerType", "status", "effectiveDate", "createdDate", "lastModifiedDate");
+
     @Autowired
     private RunControlRepository runControlRepository;
 
-    public List<RunControl> getAllRunControls() {
-        // Step 1: Load base objects with processLogs
-        List<RunControl> controls = runControlRepository.findAllWithProcessLogs();
-        
-        if (controls.isEmpty()) {
-            return controls;
-        }
-        
-        // Step 2: Load remaining @OneToOne relationships in separate queries
-        runControlRepository.findWithSchedule(controls);
-        runControlRepository.findWithStream(controls);
-        runControlRepository.findWithFileWatch(controls);
-        
-        return controls;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Page through run controls, ordered by name by default. Every filter is optional.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RunControl> search(String domainId, String executionMode, Character status,
+                                         String holidayCalendarId, String name, PageQuery page) {
+        Specification<RunControl> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("executionMode", executionMode),
+            Filters.equal("status", status),
+            Filters.equal("holidayCalendar.id", holidayCalendarId),
+            Filters.contains("name", name),
+            // Inverse one-to-ones cannot be proxied: unless joined here, each row loads them one query at a time
+            Filters.fetch("runControlSchedule.holidayCalendar", "runControlStream", "runControlFileWatch"));
+        CursorPage<RunControl> result = PAGINATOR.page(runControlRepository, filter, page);
+        // processLogs is @BatchSize'd: the first initialization loads the whole page in one IN query
+        result.items().forEach(control -> Hibernate.initialize(control.getProcessLogs()));
+        return result;
     }
 
     public Optional<RunControl> findById(String id) {
@@ -61,7 +78,9 @@ public class RunControlService {
             runControl.setCreatedDate(LocalDateTime.now());
         }
         runControl.setLastModifiedDate(LocalDateTime.now());
-        return runControlRepository.save(runControl);
+        RunControl saved = runControlRepository.save(runControl);
+        eventPublisher.publishEvent(new RunControlChangedEvent(saved.getId()));
+        return saved;
     }
 
     public RunControl update(String id, RunControl runControl) {
@@ -79,12 +98,15 @@ public class RunControlService {
             updated.setVersion(runControl.getVersion() != null ? runControl.getVersion() + 1 : 1);
             updated.setLastModifiedBy(runControl.getLastModifiedBy());
             updated.setLastModifiedDate(LocalDateTime.now());
-            return runControlRepository.save(updated);
+            RunControl saved = runControlRepository.save(updated);
+            eventPublisher.publishEvent(new RunControlChangedEvent(saved.getId()));
+            return saved;
         }
         return null;
     }
 
     public void deleteById(String id) {
+        eventPublisher.publishEvent(new RunControlChangedEvent(id));
         runControlRepository.deleteById(id);
     }
 
@@ -95,7 +117,9 @@ public class RunControlService {
             updated.setStatus('A');
             updated.setLastModifiedBy(modifiedBy);
             updated.setLastModifiedDate(LocalDateTime.now());
-            return runControlRepository.save(updated);
+            RunControl saved = runControlRepository.save(updated);
+            eventPublisher.publishEvent(new RunControlChangedEvent(saved.getId()));
+            return saved;
         }
         return null;
     }
@@ -107,7 +131,9 @@ public class RunControlService {
                 updated.setStatus('I');
             updated.setLastModifiedBy(modifiedBy);
             updated.setLastModifiedDate(LocalDateTime.now());
-            return runControlRepository.save(updated);
+            RunControl saved = runControlRepository.save(updated);
+            eventPublisher.publishEvent(new RunControlChangedEvent(saved.getId()));
+            return saved;
         }
         return null;
     }
@@ -0,0 +1,487 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.dto.ScaffoldPlanResponse;
+import com.novaflow.metadata.entity.IntegrationObject;
+import com.novaflow.metadata.entity.ObjectSchemaAttribute;
+import com.novaflow.metadata.entity.ProcessLog;
+import com.novaflow.metadata.entity.RunControl;
+import com.novaflow.metadata.entity.Scaffold;
+import com.novaflow.metadata.repository.RunControlRepository;
+import com.novaflow.metadata.repository.ScaffoldRepository;
+import com.novaflow.metadata.scaffold.InvalidScaffoldException;
+import com.novaflow.metadata.scaffold.JdbcSource;
+import com.novaflow.metadata.scaffold.JdbcSourcePolicy;
+import com.novaflow.metadata.scaffold.RowSink;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition;
+import com.novaflow.metadata.scaffold.ScaffoldParser;
+import com.novaflow.metadata.scaffold.ScaffoldPlan;
+import com.novaflow.metadata.scaffold.ScaffoldPlanner;
+import com.novaflow.metadata.scaffold.SpillContext;
+import com.novaflow.metadata.scaffold.SqlDialect;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Executes scaffolds. A scaffold whose connectionString references a managed connection
+ * (connection:{connectionKey}) or is a JDBC URL reads its source table (the configuration's sourceTable,
+ * else the source object name) through a pushed-down query, provided the URL passes the
+ * scaffold.jdbc.allowed-drivers, -hosts and -properties allowlist; any other
+ * scaffold reads the active dynamic data records of its source object. Either way rows are streamed
+ * through the plan's in-memory operators to the caller, one at a time. A scaffold can also transform rows
+ * supplied by the caller, as run control steps do. Sorts and aggregations spill to disk past
+ * scaffold.spill.operator-memory-mb each; an execution on behalf of a run control is recorded as a
+ * ProcessLog with its row counts and spill statistics.
+ */
+@Service
+public class ScaffoldExecutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScaffoldExecutionService.class);
+
+    private static final String CONNECTION_PREFIX = "connection:";
+
+    @Autowired
+    private ScaffoldRepository scaffoldRepository;
+
+    @Autowired
+    private DynamicDataRecordService dynamicDataRecordService;
+
+    @Autowired
+    private RunControlRepository runControlRepository;
+
+    @Autowired
+    private ProcessLogService processLogService;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Value("${scaffold.jdbc.allowed-drivers:postgresql,sqlserver,oracle}")
+    private String[] allowedDrivers;
+
+    @Value("${scaffold.jdbc.allowed-hosts:}")
+    private String[] allowedHosts;
+
+    @Value("${scaffold.jdbc.allowed-properties:ssl,sslmode,currentSchema,ApplicationName,connectTimeout,socketTimeout,loginTimeout,databaseName,encrypt}")
+    private String[] allowedProperties;
+
+    @Value("${scaffold.jdbc.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${scaffold.jdbc.query-timeout-seconds:300}")
+    private int queryTimeoutSeconds;
+
+    @Value("${scaffold.spill.dir:${java.io.tmpdir}/novaflow-scaffold}")
+    private Path spillDir;
+
+    @Value("${scaffold.spill.operator-memory-mb:64}")
+    private long operatorMemoryMb;
+
+    @Value("${scaffold.spill.partitions:32}")
+    private int spillPartitions;
+
+    @Value("${scaffold.spill.merge-fan-in:64}")
+    private int mergeFanIn;
+
+    private JdbcSourcePolicy jdbcPolicy;
+
+    /**
+     * Scaffold with its parsed definition and plan
+     */
+    private record Planned(Scaffold scaffold, JdbcSource source, ScaffoldPlan plan) {
+
+        boolean jdbc() {
+            return source != null;
+        }
+    }
+
+    /**
+     * Row counts and spill statistics of one scaffold execution
+     */
+    public record Outcome(long rowsIn, long rowsOut, Map<String, Object> spill) {
+    }
+
+    @PostConstruct
+    void init() {
+        jdbcPolicy = new JdbcSourcePolicy(List.of(allowedDrivers), List.of(allowedHosts), List.of(allowedProperties));
+    }
+
+    /**
+     * Physical plan of a scaffold, without executing it
+     *
+     * @param limit caps the scaffold's own limit, null for none
+     * @return empty when the scaffold does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<ScaffoldPlanResponse> explain(String scaffoldId, Integer limit, Authentication authentication) {
+        return scaffoldRepository.findById(scaffoldId).map(scaffold -> {
+            Planned planned = plan(scaffold, limit, true, authentication);
+            ScaffoldPlan plan = planned.plan();
+            return new ScaffoldPlanResponse(scaffold.getId(), scaffold.getVersion(), planned.jdbc() ? "JDBC" : "DYNAMIC_RECORDS",
+                    plan.getSql(), plan.getParameters(), plan.getPushedDown(),
+                    plan.getStages().stream().map(ScaffoldPlan.Stage::description).toList(), plan.getOutputColumns());
+        });
+    }
+
+    /**
+     * Execute a scaffold, handing each output row to sink
+     *
+     * @param limit        caps the scaffold's own limit, null for none
+     * @param runControlId run control to record the execution under as a ProcessLog, null for none
+     * @return false when the scaffold does not exist
+     */
+    @Transactional(readOnly = true)
+    public boolean execute(String scaffoldId, Integer limit, String runControlId, String triggeredBy,
+                           Authentication authentication, Consumer<Map<String, Object>> sink) {
+        Optional<Scaffold> found = scaffoldRepository.findById(scaffoldId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        RunControl runControl = null;
+        if (runControlId != null) {
+            runControl = runControlRepository.findById(runControlId)
+                    .orElseThrow(() -> new IllegalArgumentException("Run control not found: " + runControlId));
+        }
+        Execution execution = new Execution(plan(found.get(), limit, true, authentication), sink);
+        LocalDateTime startTime = LocalDateTime.now();
+        String error = null;
+        try {
+            execution.scanSource();
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (runControl != null) {
+                record(runControl, execution, triggeredBy, startTime, error);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Execute a scaffold over its own source without recording it, handing each output row to sink
+     *
+     * @param limit caps the scaffold's own limit, null for none
+     * @return empty when the scaffold does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Outcome> run(String scaffoldId, Integer limit, Consumer<Map<String, Object>> sink) {
+        return scaffoldRepository.findById(scaffoldId).map(scaffold -> {
+            Execution execution = new Execution(plan(scaffold, limit, true, null), sink);
+            execution.scanSource();
+            return execution.outcome();
+        });
+    }
+
+    /**
+     * Apply a scaffold's plan in memory to rows the caller supplies instead of its source, such as the
+     * records of an earlier run control step
+     *
+     * @return empty when the scaffold does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Transformation> transform(String scaffoldId, Consumer<Map<String, Object>> sink) {
+        return scaffoldRepository.findById(scaffoldId).map(scaffold -> {
+            IntegrationObject target = scaffold.getTargetObject();
+            String domainId = target != null ? target.getDomainId() : scaffold.getDomainId();
+            String entityType = target != null ? target.getName() : scaffold.getTargetObjectName();
+            return new Transformation(new Execution(plan(scaffold, null, false, null), sink),
+                    target != null ? target.getId() : null, domainId, entityType);
+        });
+    }
+
+    /**
+     * A scaffold plan open for input: call accept per row, then finish once. close releases spill files
+     * when the input is abandoned.
+     */
+    public static final class Transformation implements AutoCloseable {
+
+        private final Execution execution;
+        private final String targetObjectId;
+        private final String targetDomainId;
+        private final String targetEntityType;
+
+        private Transformation(Execution execution, String targetObjectId, String targetDomainId, String targetEntityType) {
+            this.execution = execution;
+            this.targetObjectId = targetObjectId;
+            this.targetDomainId = targetDomainId;
+            this.targetEntityType = targetEntityType;
+        }
+
+        /**
+         * Id of the scaffold's target integration object, null when only its name is known
+         */
+        public String getTargetObjectId() {
+            return targetObjectId;
+        }
+
+        /**
+         * Domain of the scaffold's target object
+         */
+        public String getTargetDomainId() {
+            return targetDomainId;
+        }
+
+        /**
+         * Name of the scaffold's target object, null when it has none
+         */
+        public String getTargetEntityType() {
+            return targetEntityType;
+        }
+
+        /**
+         * @return false when the plan wants no more rows (its limit is reached)
+         */
+        public boolean accept(Map<String, Object> row) {
+            return execution.input.accept(row);
+        }
+
+        public Outcome finish() {
+            try {
+                execution.input.finish();
+            } finally {
+                execution.spill.close();
+            }
+            return execution.outcome();
+        }
+
+        @Override
+        public void close() {
+            execution.spill.close();
+        }
+    }
+
+    /**
+     * One run of a plan: its spill context, its operator pipeline and row counts
+     */
+    private final class Execution {
+        final Planned planned;
+        final SpillContext spill = new SpillContext(spillDir, operatorMemoryMb * 1024 * 1024, spillPartitions, mergeFanIn);
+        final RowSink input;
+        final long start = System.nanoTime();
+        long rowsIn;
+        long rowsOut;
+
+        Execution(Planned planned, Consumer<Map<String, Object>> sink) {
+            this.planned = planned;
+            RowSink pipeline = planned.plan().open(new RowSink() {
+                @Override
+                public boolean accept(Map<String, Object> row) {
+                    rowsOut++;
+                    sink.accept(row);
+                    return true;
+                }
+
+                @Override
+                public void finish() {
+                }
+            }, spill);
+            this.input = new RowSink() {
+                @Override
+                public boolean accept(Map<String, Object> row) {
+                    rowsIn++;
+                    return pipeline.accept(row);
+                }
+
+                @Override
+                public void finish() {
+                    pipeline.finish();
+                }
+            };
+        }
+
+        void scanSource() {
+            try {
+                if (planned.jdbc()) {
+                    scanJdbc(planned.scaffold(), planned.source(), planned.plan(), input);
+                } else {
+                    scanDynamicRecords(planned.scaffold(), input);
+                }
+                input.finish();
+            } finally {
+                spill.close();
+                logger.debug("Executed scaffold {} in {} ms: {} rows in, {} rows out, spill {}", planned.scaffold().getId(),
+                        elapsedMs(), rowsIn, rowsOut, spill.summary());
+            }
+        }
+
+        long elapsedMs() {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+
+        Outcome outcome() {
+            return new Outcome(rowsIn, rowsOut, spill.summary());
+        }
+    }
+
+    private void record(RunControl runControl, Execution execution, String triggeredBy, LocalDateTime startTime, String error) {
+        String user = triggeredBy != null && !triggeredBy.isBlank() ? triggeredBy : "system";
+        Scaffold scaffold = execution.planned.scaffold();
+        ProcessLog log = new ProcessLog(UUID.randomUUID().toString(), runControl, UUID.randomUUID().toString(),
+                error == null ? "Completed" : "Failed", user);
+        log.setStartTime(startTime);
+        log.setEndTime(LocalDateTime.now());
+        log.setCreatedBy(user);
+        int total = (int) Math.min(execution.rowsIn, Integer.MAX_VALUE);
+        log.setTotalRecords(total);
+        log.setSuccessRecords(error == null ? total : 0);
+        log.setErrorRecords(error == null ? 0 : total);
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("component", "ScaffoldExecution");
+        details.put("scaffoldId", scaffold.getId());
+        details.put("scaffoldVersion", scaffold.getVersion());
+        details.put("source", execution.planned.jdbc() ? "JDBC" : "DYNAMIC_RECORDS");
+        details.put("outputRows", execution.rowsOut);
+        details.put("durationMs", execution.elapsedMs());
+        details.put("spill", execution.spill.summary());
+        if (error != null) {
+            details.put("error", error);
+        }
+        log.setLogs(details);
+        try {
+            processLogService.record(log);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record process log for scaffold {} under run control {}: {}",
+                    scaffold.getId(), runControl.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @param ownSource      whether rows come from the scaffold's source, which may push work down to JDBC
+     * @param authentication caller whose domain access a managed connection is checked against, null for
+     *                       run control steps
+     */
+    private Planned plan(Scaffold scaffold, Integer limit, boolean ownSource, Authentication authentication) {
+        ScaffoldDefinition definition = ScaffoldParser.parse(scaffold);
+        if (limit != null) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("limit must not be negative");
+            }
+            int capped = definition.limit() != null ? Math.min(definition.limit(), limit) : limit;
+            definition = new ScaffoldDefinition(definition.columns(), definition.filters(), definition.groupBy(),
+                    definition.aggregates(), definition.ordering(), definition.sourceTable(), capped);
+        }
+        JdbcSource jdbcSource = ownSource ? source(scaffold, authentication) : null;
+        if (jdbcSource == null) {
+            return new Planned(scaffold, null, ScaffoldPlanner.plan(definition));
+        }
+        String table = definition.sourceTable() != null ? definition.sourceTable() : scaffold.getSourceObjectName();
+        if (table == null || table.isBlank()) {
+            throw new InvalidScaffoldException("Scaffold " + scaffold.getId() + " has no source table: set configuration.sourceTable or sourceObjectName");
+        }
+        Map<String, String> attributeTypes = new HashMap<>();
+        IntegrationObject source = scaffold.getSourceObject();
+        if (source != null && source.getAttributes() != null) {
+            for (ObjectSchemaAttribute attribute : source.getAttributes()) {
+                attributeTypes.put(attribute.getAttributeName(), attribute.getDataType());
+            }
+        }
+        return new Planned(scaffold, jdbcSource, ScaffoldPlanner.plan(definition, SqlDialect.of(jdbcSource.url()), table.trim(), attributeTypes));
+    }
+
+    /**
+     * JDBC source of a scaffold, null when it reads dynamic data records. A connectionString of the form
+     * connection:{connectionKey} names a managed connection, which ConnectionService resolves and
+     * authorizes; a jdbc: URL is used as is. Either way the URL must pass jdbcPolicy.
+     */
+    private JdbcSource source(Scaffold scaffold, Authentication authentication) {
+        String reference = scaffold.getConnectionString() != null ? scaffold.getConnectionString().trim() : "";
+        String lower = reference.toLowerCase(Locale.ROOT);
+        JdbcSource source;
+        if (lower.startsWith(CONNECTION_PREFIX)) {
+            UUID connectionKey;
+            try {
+                connectionKey = UUID.fromString(reference.substring(CONNECTION_PREFIX.length()).trim());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidScaffoldException("Scaffold " + scaffold.getId() + " references an invalid connection key", e);
+            }
+            source = connectionService.resolveJdbcSource(connectionKey, scaffold.getDomainId(), authentication);
+        } else if (lower.startsWith("jdbc:")) {
+            source = new JdbcSource(reference, new Properties());
+        } else {
+            return null;
+        }
+        return new JdbcSource(jdbcPolicy.check(source.url()), source.properties());
+    }
+
+    private void scanJdbc(Scaffold scaffold, JdbcSource source, ScaffoldPlan plan, RowSink pipeline) {
+        try (Connection connection = DriverManager.getConnection(source.url(), source.properties())) {
+            connection.setReadOnly(true);
+            // PostgreSQL only streams with a fetch size inside a transaction
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(plan.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setQueryTimeout(queryTimeoutSeconds);
+                List<Object> parameters = plan.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    ResultSetMetaData metadata = rows.getMetaData();
+                    String[] labels = new String[metadata.getColumnCount()];
+                    for (int i = 0; i < labels.length; i++) {
+                        labels[i] = metadata.getColumnLabel(i + 1);
+                    }
+                    while (rows.next()) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        for (int i = 0; i < labels.length; i++) {
+                            row.put(labels[i], value(rows.getObject(i + 1)));
+                        }
+                        if (!pipeline.accept(row)) {
+                            statement.cancel();
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Scaffold " + scaffold.getId() + " source query failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static Object value(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return value;
+    }
+
+    private void scanDynamicRecords(Scaffold scaffold, RowSink pipeline) {
+        IntegrationObject source = scaffold.getSourceObject();
+        String entityType = source != null ? source.getName() : scaffold.getSourceObjectName();
+        String domainId = source != null ? source.getDomainId() : scaffold.getDomainId();
+        if (entityType == null) {
+            throw new InvalidScaffoldException("Scaffold " + scaffold.getId() + " has no source object");
+        }
+        dynamicDataRecordService.streamWhile(domainId, null, entityType, null, 'A', null,
+                record -> pipeline.accept(record.getData() != null ? new LinkedHashMap<>(record.getData()) : new LinkedHashMap<>()));
+    }
+}
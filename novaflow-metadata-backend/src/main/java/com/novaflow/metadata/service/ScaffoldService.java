@@ -1,8 +1,13 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.Scaffold;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.ScaffoldRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -13,11 +18,26 @@ import java.util.Optional;
 @Transactional
 public class ScaffoldService {
 
+    private static final KeysetPaginator<Scaffold> PAGINATOR = new KeysetPaginator<>(Scaffold.class,
+        "name", "name", "type", "status", "effectiveDate", "createdDate", "lastModifiedDate");
+
     @Autowired
     private ScaffoldRepository scaffoldRepository;
 
-    public List<Scaffold> findAll() {
-        return scaffoldRepository.findAll();
+    /**
+     * Page through scaffolds, ordered by name by default. Every filter is optional.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Scaffold> search(String domainId, String type, Character status, String sourceObjectId,
+                                       String targetObjectId, String name, PageQuery page) {
+        Specification<Scaffold> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("type", type),
+            Filters.equal("status", status),
+            Filters.equal("sourceObject.id", sourceObjectId),
+            Filters.equal("targetObject.id", targetObjectId),
+            Filters.contains("name", name));
+        return PAGINATOR.page(scaffoldRepository, filter, page);
     }
 
     public Optional<Scaffold> findById(String id) {
@@ -0,0 +1,343 @@
+package com.novaflow.metadata.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares scheduled run controls between backend nodes through leases in Postgres. Run controls are
+ * hashed into a fixed number of partitions, one row each in run_control_scheduler_leases, and every node
+ * heartbeats in run_control_scheduler_nodes and holds up to its fair share of partitions (partitions
+ * divided by live nodes, rounded up): it renews its leases every heartbeat, releases leases above its
+ * share so a joining node can take them, and takes over free or expired ones, those of a dead node once
+ * its leases lapse. Every change of hands increments the partition's fencing token. A node only schedules
+ * the run controls of partitions it holds, stops trusting its leases one heartbeat before they would
+ * expire, and runs a firing only after inserting it into run_control_scheduler_fires with its current
+ * fencing token, so each firing runs once even when a lease changes hands around it. All lease times use
+ * the database clock. Heartbeats run on a thread of their own, so other scheduled work cannot delay them
+ * past the lease TTL. The tables and partition rows come from
+ * novaflow-ui/postgresql/14-run-control-scheduler-cluster.sql; the coordinator never creates them, and its
+ * heartbeats fail (holding no partitions) until they exist. Disabled by default, when this node schedules
+ * every run control.
+ */
+@Service
+public class ScheduleLeaseCoordinator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleLeaseCoordinator.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${runcontrol.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${runcontrol.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${runcontrol.cluster.heartbeat-ms:5000}")
+    private long heartbeatMs;
+
+    @Value("${runcontrol.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${runcontrol.cluster.max-catch-up-ms:600000}")
+    private long maxCatchUpMs;
+
+    @Value("${runcontrol.cluster.fire-retention-hours:72}")
+    private int fireRetentionHours;
+
+    /**
+     * A held partition
+     *
+     * @param catchUpFrom   from when firings may have been missed by the previous holder; null when none were
+     * @param acquiredNanos when this node took the partition over
+     */
+    private record Lease(int partition, long fencingToken, Instant catchUpFrom, long acquiredNanos) {
+    }
+
+    /**
+     * The partitions held as of the last heartbeat, trusted until validUntilNanos
+     */
+    private record Ownership(int partitions, Map<Integer, Lease> leases, long validUntilNanos) {
+    }
+
+    private volatile Ownership ownership = new Ownership(0, Map.of(), 0);
+    private volatile boolean initialized;
+    private volatile boolean running;
+    private ScheduledExecutorService heartbeats;
+    private volatile String nodeId;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (leaseTtlMs <= heartbeatMs) {
+            throw new IllegalStateException("runcontrol.cluster.lease-ttl-ms must be longer than runcontrol.cluster.heartbeat-ms");
+        }
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId.trim() : defaultNodeId();
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatMs, TimeUnit.MILLISECONDS);
+        logger.info("Schedule lease coordinator started as node {}", getNodeId());
+    }
+
+    /**
+     * Hand this node's partitions back so other nodes take them over at their next heartbeat
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        heartbeats.shutdownNow();
+        release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the scheduler, so it only fires while partitions are held
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This node's id in the lease tables; null when clustering is disabled
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Partition of a run control, stable across nodes and restarts
+     */
+    static int partition(String runControlId, int partitions) {
+        return Math.floorMod(runControlId.hashCode(), partitions);
+    }
+
+    /**
+     * Whether this node schedules the run control; always true when clustering is disabled
+     */
+    public boolean owns(String runControlId) {
+        if (!enabled) {
+            return true;
+        }
+        Lease lease = lease(runControlId);
+        return lease != null;
+    }
+
+    /**
+     * From when the run control's firings may have been missed because its partition changed hands,
+     * within runcontrol.cluster.max-catch-up-ms. Only while the takeover is recent (one lease TTL), so a
+     * schedule created later does not fire for times before it existed.
+     *
+     * @return null when clustering is disabled or nothing was missed
+     */
+    public Instant catchUpFrom(String runControlId) {
+        if (!enabled) {
+            return null;
+        }
+        Lease lease = lease(runControlId);
+        if (lease == null || lease.catchUpFrom() == null
+                || System.nanoTime() - lease.acquiredNanos() > leaseTtlMs * 1_000_000L) {
+            return null;
+        }
+        Instant earliest = Instant.now().minusMillis(maxCatchUpMs);
+        return lease.catchUpFrom().isBefore(earliest) ? earliest : lease.catchUpFrom();
+    }
+
+    private Lease lease(String runControlId) {
+        Ownership current = ownership;
+        if (current.partitions() == 0 || System.nanoTime() - current.validUntilNanos() >= 0) {
+            return null;
+        }
+        return current.leases().get(partition(runControlId, current.partitions()));
+    }
+
+    /**
+     * Claim a firing for this node
+     *
+     * @return whether the firing should run here: false when another node already ran it or this node no
+     * longer holds the run control's partition; always true when clustering is disabled
+     */
+    public boolean claim(String runControlId, Instant fireTime) {
+        if (!enabled) {
+            return true;
+        }
+        Lease lease = lease(runControlId);
+        if (lease == null) {
+            return false;
+        }
+        try {
+            int inserted = jdbcTemplate.update("""
+                INSERT INTO metadata.run_control_scheduler_fires (run_control_id, fire_time, node_id, fencing_token)
+                SELECT ?, ?, ?, ?
+                WHERE EXISTS (
+                    SELECT 1 FROM metadata.run_control_scheduler_leases
+                    WHERE partition_id = ? AND owner = ? AND fencing_token = ? AND expires_at > now())
+                ON CONFLICT (run_control_id, fire_time) DO NOTHING
+            """, runControlId, fireTime.atOffset(ZoneOffset.UTC), getNodeId(), lease.fencingToken(),
+                lease.partition(), getNodeId(), lease.fencingToken());
+            return inserted == 1;
+        } catch (RuntimeException e) {
+            // Not running is the safe side: the firing may be running elsewhere
+            logger.warn("Could not claim the firing of run control {} at {}; not running it: {}", runControlId, fireTime, e.getMessage());
+            return false;
+        }
+    }
+
+    synchronized void heartbeat() {
+        if (!running) {
+            return;
+        }
+        long started = System.nanoTime();
+        Ownership previous = ownership;
+        Ownership next;
+        try {
+            next = renew(previous, started);
+            initialized = true;
+        } catch (RuntimeException e) {
+            // The current leases stay trusted until they would expire, then this node stops firing
+            logger.warn("Schedule lease heartbeat of node {} failed: {}", getNodeId(), e.getMessage());
+            return;
+        }
+        ownership = next;
+        if (!next.leases().keySet().equals(previous.leases().keySet()) || next.partitions() != previous.partitions()) {
+            logger.info("Node {} now holds {} of {} schedule partitions", getNodeId(), next.leases().size(), next.partitions());
+            eventPublisher.publishEvent(new SchedulePartitionsChangedEvent(getNodeId()));
+        }
+    }
+
+    private Ownership renew(Ownership previous, long started) {
+        String node = getNodeId();
+        double ttlSeconds = leaseTtlMs / 1000.0;
+        jdbcTemplate.update("""
+            INSERT INTO metadata.run_control_scheduler_nodes (node_id) VALUES (?)
+            ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()
+        """, node);
+        jdbcTemplate.update("DELETE FROM metadata.run_control_scheduler_nodes WHERE heartbeat_at < now() - make_interval(secs => ?)",
+                ttlSeconds);
+        Integer partitions = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM metadata.run_control_scheduler_leases", Integer.class);
+        Integer live = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM metadata.run_control_scheduler_nodes", Integer.class);
+        if (partitions == null || partitions == 0) {
+            throw new IllegalStateException("run_control_scheduler_leases has no partitions; see 14-run-control-scheduler-cluster.sql");
+        }
+        int share = (partitions + Math.max(1, live) - 1) / Math.max(1, live);
+
+        Map<Integer, Lease> leases = new HashMap<>();
+        jdbcTemplate.query("""
+            UPDATE metadata.run_control_scheduler_leases SET expires_at = now() + make_interval(secs => ?)
+            WHERE owner = ? AND expires_at > now()
+            RETURNING partition_id, fencing_token
+        """, rs -> {
+            int partition = rs.getInt("partition_id");
+            Lease held = previous.leases().get(partition);
+            long token = rs.getLong("fencing_token");
+            leases.put(partition, held != null && held.fencingToken() == token ? held : new Lease(partition, token, null, started));
+        }, ttlSeconds, node);
+
+        if (leases.size() > share) {
+            List<Integer> extra = new ArrayList<>(leases.keySet());
+            extra.sort(null);
+            extra = extra.subList(share, extra.size());
+            // Stop scheduling them before another node can take them
+            extra.forEach(leases::remove);
+            ownership = new Ownership(partitions, Map.copyOf(leases), previous.validUntilNanos());
+            for (int partition : extra) {
+                jdbcTemplate.update("""
+                    UPDATE metadata.run_control_scheduler_leases SET owner = NULL, expires_at = now()
+                    WHERE owner = ? AND partition_id = ?
+                """, node, partition);
+            }
+        } else if (leases.size() < share) {
+            jdbcTemplate.query("""
+                UPDATE metadata.run_control_scheduler_leases l
+                SET owner = ?, fencing_token = l.fencing_token + 1, expires_at = now() + make_interval(secs => ?)
+                FROM (SELECT partition_id, owner AS previous_owner, expires_at AS previous_expiry
+                      FROM metadata.run_control_scheduler_leases
+                      WHERE owner IS NULL OR expires_at <= now()
+                      ORDER BY partition_id LIMIT ?
+                      FOR UPDATE SKIP LOCKED) free
+                WHERE l.partition_id = free.partition_id
+                RETURNING l.partition_id, l.fencing_token, free.previous_owner, free.previous_expiry
+            """, rs -> {
+                int partition = rs.getInt("partition_id");
+                Instant previousExpiry = rs.getObject("previous_expiry", OffsetDateTime.class).toInstant();
+                // A lapsed holder may have stopped firing as early as its last renewal; a releasing one stopped when it released
+                Instant catchUpFrom = rs.getString("previous_owner") != null ? previousExpiry.minusMillis(leaseTtlMs) : previousExpiry;
+                leases.put(partition, new Lease(partition, rs.getLong("fencing_token"), catchUpFrom, started));
+            }, node, ttlSeconds, share - leases.size());
+        }
+
+        if (leases.containsKey(0)) {
+            jdbcTemplate.update("DELETE FROM metadata.run_control_scheduler_fires WHERE fired_at < now() - make_interval(hours => ?)",
+                    fireRetentionHours);
+        }
+        // Trusted until a heartbeat before the leases expire, measured from before they were renewed
+        long validUntil = started + (leaseTtlMs - heartbeatMs) * 1_000_000L;
+        return new Ownership(partitions, Map.copyOf(leases), validUntil);
+    }
+
+    private synchronized void release() {
+        if (!initialized) {
+            return;
+        }
+        ownership = new Ownership(0, Map.of(), 0);
+        try {
+            jdbcTemplate.update("UPDATE metadata.run_control_scheduler_leases SET owner = NULL, expires_at = now() WHERE owner = ?",
+                    getNodeId());
+            jdbcTemplate.update("DELETE FROM metadata.run_control_scheduler_nodes WHERE node_id = ?", getNodeId());
+            logger.info("Node {} released its schedule partitions", getNodeId());
+        } catch (RuntimeException e) {
+            logger.warn("Could not release the schedule partitions of node {}; they lapse after {} ms: {}", getNodeId(), leaseTtlMs,
+                    e.getMessage());
+        }
+    }
+}
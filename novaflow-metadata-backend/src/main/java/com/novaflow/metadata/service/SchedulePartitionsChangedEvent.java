@@ -0,0 +1,8 @@
+package com.novaflow.metadata.service;
+
+/**
+ * Published by ScheduleLeaseCoordinator when the schedule partitions this node holds change, so the
+ * scheduler loads the run controls it now owns and drops the others.
+ */
+public record SchedulePartitionsChangedEvent(String nodeId) {
+}
@@ -0,0 +1,65 @@
+package com.novaflow.metadata.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the long-running reads that hold a pooled connection for a whole stream: the Scaffold_In step of
+ * every running run control segment and every running rule impact analysis. They share
+ * spring.datasource.hikari.maximum-pool-size less runcontrol.pool.reserved-connections, and a stream
+ * past that cap waits for a permit. The reserved connections stay free for the short transactions of
+ * Scaffold_Out writers and API requests, so a full set of streams cannot starve their writers.
+ */
+@Service
+public class StreamConnectionBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamConnectionBudget.class);
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${runcontrol.pool.reserved-connections:8}")
+    private int reservedConnections;
+
+    @Value("${runcontrol.executor.threads:4}")
+    private int runThreads;
+
+    @Value("${runcontrol.parallel.max-segments:4}")
+    private int maxSegments;
+
+    @Value("${rules.impact.threads:2}")
+    private int impactThreads;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void start() {
+        if (reservedConnections < 1 || reservedConnections >= poolSize) {
+            throw new IllegalStateException("runcontrol.pool.reserved-connections must be between 1 and "
+                    + (poolSize - 1) + " for a pool of " + poolSize);
+        }
+        int streams = poolSize - reservedConnections;
+        permits = new Semaphore(streams, true);
+        int demand = runThreads * maxSegments + impactThreads;
+        if (demand > streams) {
+            logger.info("Up to {} run control segments and impact analyses may stream at once; {} connections of {} allow {}, "
+                    + "the rest wait their turn", demand, streams, poolSize, streams);
+        }
+    }
+
+    /**
+     * Wait for a streaming connection; release it when the stream ends
+     */
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
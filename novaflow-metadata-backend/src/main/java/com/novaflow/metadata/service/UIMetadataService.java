@@ -1,8 +1,14 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.UIMetadata;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.UIMetadataRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -13,32 +19,63 @@ import java.util.Optional;
 @Transactional
 public class UIMetadataService {
 
+    private static final KeysetPaginator<UIMetadata> PAGINATOR = new KeysetPaginator<>(UIMetadata.class,
+        "name", "name", "layoutType", "status", "approvalStatus", "effectiveDate", "createdDate", "lastModifiedDate");
+
+    private static final RelationExpander<UIMetadata> EXPANDER = new RelationExpander<UIMetadata>()
+        .relation("dynamicDataRecords", uiMetadata -> Hibernate.initialize(uiMetadata.getDynamicDataRecords()));
+
     @Autowired
     private UIMetadataRepository uiMetadataRepository;
 
-    public List<UIMetadata> findAll() {
-        return uiMetadataRepository.findAllWithDynamicData();
+    /**
+     * Page through UI metadata, ordered by name by default. Every filter is optional.
+     * Dynamic data records are only loaded when expand names them.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UIMetadata> search(String domainId, String layoutType, Character status, String approvalStatus,
+                                         String sourceObjectId, String name, String expand, PageQuery page) {
+        Specification<UIMetadata> filter = Specification.allOf(
+            Filters.equal("domainId", domainId),
+            Filters.equal("layoutType", layoutType),
+            Filters.equal("status", status),
+            Filters.equal("approvalStatus", approvalStatus),
+            Filters.equal("sourceObject.id", sourceObjectId),
+            Filters.contains("name", name));
+        CursorPage<UIMetadata> result = PAGINATOR.page(uiMetadataRepository, filter, page);
+        EXPANDER.expand(result.items(), expand);
+        return result;
     }
 
-    public Optional<UIMetadata> findById(String id) {
-        return uiMetadataRepository.findById(id);
+    public Optional<UIMetadata> findById(String id, String expand) {
+        Optional<UIMetadata> uiMetadata = uiMetadataRepository.findById(id);
+        uiMetadata.ifPresent(found -> EXPANDER.expand(found, expand));
+        return uiMetadata;
     }
 
-    public List<UIMetadata> findByDomainId(String domainId) {
-        return uiMetadataRepository.findByDomainId(domainId);
+    public List<UIMetadata> findByDomainId(String domainId, String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataRepository.findByDomainId(domainId);
+        EXPANDER.expand(uiMetadataList, expand);
+        return uiMetadataList;
     }
 
-    public List<UIMetadata> findActiveByDomainId(String domainId) {
-        return uiMetadataRepository.findActiveByDomainId(domainId);
+    public List<UIMetadata> findActiveByDomainId(String domainId, String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataRepository.findActiveByDomainId(domainId);
+        EXPANDER.expand(uiMetadataList, expand);
+        return uiMetadataList;
     }
 
-    public List<UIMetadata> findBySourceObjectId(String sourceObjectId) {
-        return uiMetadataRepository.findBySourceObjectId(sourceObjectId);
+    public List<UIMetadata> findBySourceObjectId(String sourceObjectId, String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataRepository.findBySourceObjectId(sourceObjectId);
+        EXPANDER.expand(uiMetadataList, expand);
+        return uiMetadataList;
     }
 
 
-    public List<UIMetadata> searchByName(String domainId, String name) {
-        return uiMetadataRepository.findByDomainIdAndNameContainingIgnoreCase(domainId, name);
+    public List<UIMetadata> searchByName(String domainId, String name, String expand) {
+        List<UIMetadata> uiMetadataList = uiMetadataRepository.findByDomainIdAndNameContainingIgnoreCase(domainId, name);
+        EXPANDER.expand(uiMetadataList, expand);
+        return uiMetadataList;
     }
 
     public UIMetadata save(UIMetadata uiMetadata) {
@@ -1,51 +1,69 @@
 package com.novaflow.metadata.service;
 
 import com.novaflow.metadata.entity.VersionHistory;
+import com.novaflow.metadata.pagination.CursorPage;
+import com.novaflow.metadata.pagination.Filters;
+import com.novaflow.metadata.pagination.KeysetPaginator;
+import com.novaflow.metadata.pagination.PageQuery;
 import com.novaflow.metadata.repository.VersionHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class VersionHistoryService {
 
+    private static final KeysetPaginator<VersionHistory> PAGINATOR = new KeysetPaginator<>(VersionHistory.class,
+        "-changedDate", "changedDate", "version", "entityId", "entityType", "changeType", "changedBy");
+
     @Autowired
     private VersionHistoryRepository versionHistoryRepository;
 
-    public List<VersionHistory> findAll() {
-        return versionHistoryRepository.findAll();
-    }
-
-    public Optional<VersionHistory> findById(String id) {
-        return versionHistoryRepository.findById(id);
-    }
-
-    public List<VersionHistory> findByEntityId(String entityId) {
-        return versionHistoryRepository.findByEntityIdOrderByVersionDesc(entityId);
-    }
-
-    public List<VersionHistory> findByEntityType(String entityType) {
-        return versionHistoryRepository.findByEntityType(entityType);
-    }
+    @Autowired
+    private EntityStreamer entityStreamer;
 
-    public List<VersionHistory> findByChangedBy(String changedBy) {
-        return versionHistoryRepository.findByChangedBy(changedBy);
+    @Autowired
+    private BatchWriter batchWriter;
+
+    /**
+     * Page through version history, most recent change first by default. Every filter is optional;
+     * the date range applies to changedDate and is inclusive.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VersionHistory> search(String entityId, String entityType, String changedBy, String changeType,
+                                             LocalDateTime from, LocalDateTime to, PageQuery page) {
+        return PAGINATOR.page(versionHistoryRepository, filter(entityId, entityType, changedBy, changeType, from, to), page);
     }
 
-    public List<VersionHistory> findByChangeType(String changeType) {
-        return versionHistoryRepository.findByChangeType(changeType);
+    /**
+     * Stream all version history records matching the filters (same semantics as search) in the given sort order,
+     * one detached entity at a time
+     */
+    @Transactional(readOnly = true)
+    public void stream(String entityId, String entityType, String changedBy, String changeType,
+                       LocalDateTime from, LocalDateTime to, String sort, Consumer<VersionHistory> sink) {
+        entityStreamer.stream(VersionHistory.class, filter(entityId, entityType, changedBy, changeType, from, to), PAGINATOR.sort(sort), sink);
     }
 
-    public List<VersionHistory> findByEntityIdAndEntityType(String entityId, String entityType) {
-        return versionHistoryRepository.findByEntityIdAndEntityType(entityId, entityType);
+    private static Specification<VersionHistory> filter(String entityId, String entityType, String changedBy,
+                                                        String changeType, LocalDateTime from, LocalDateTime to) {
+        return Specification.allOf(
+            Filters.equal("entityId", entityId),
+            Filters.equal("entityType", entityType),
+            Filters.equal("changedBy", changedBy),
+            Filters.equal("changeType", changeType),
+            Filters.atLeast("changedDate", from),
+            Filters.atMost("changedDate", to));
     }
 
-    public List<VersionHistory> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return versionHistoryRepository.findByChangedDateBetween(startDate, endDate);
+    public Optional<VersionHistory> findById(String id) {
+        return versionHistoryRepository.findById(id);
     }
 
     public VersionHistory save(VersionHistory versionHistory) {
@@ -55,6 +73,19 @@ public class VersionHistoryService {
         return versionHistoryRepository.save(versionHistory);
     }
 
+    /**
+     * Insert new version history records in JDBC batches
+     */
+    public List<VersionHistory> saveAll(List<VersionHistory> versionHistories) {
+        LocalDateTime now = LocalDateTime.now();
+        for (VersionHistory versionHistory : versionHistories) {
+            if (versionHistory.getChangedDate() == null) {
+                versionHistory.setChangedDate(now);
+            }
+        }
+        return batchWriter.persistAll(versionHistories);
+    }
+
     public void deleteById(String id) {
         versionHistoryRepository.deleteById(id);
     }
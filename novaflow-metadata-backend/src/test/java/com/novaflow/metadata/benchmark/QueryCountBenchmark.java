@@ -0,0 +1,151 @@
+package com.novaflow.metadata.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novaflow.metadata.NovaFlowMetadataApplication;
+import com.novaflow.metadata.entity.ProcessLog;
+import com.novaflow.metadata.pagination.PageQuery;
+import com.novaflow.metadata.repository.ProcessLogRepository;
+import com.novaflow.metadata.service.HolidayCalendarService;
+import com.novaflow.metadata.service.IntegrationObjectService;
+import com.novaflow.metadata.service.ProcessLogService;
+import com.novaflow.metadata.service.RunControlService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts the JDBC statements behind the heaviest read and write paths, so the effect of a persistence
+ * profile can be measured against the real schema. Lives with the tests so it never ships in the
+ * application jar; run it once without and once with a profile and compare the reports:
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) com.novaflow.metadata.benchmark.QueryCountBenchmark
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) com.novaflow.metadata.benchmark.QueryCountBenchmark \
+ *       --spring.profiles.active=high-throughput
+ * </pre>
+ * Reads are serialized the way the controllers do, outside the service transaction, so any lazy
+ * load that would fail or fan out in production shows up here. Writes are rolled back.
+ */
+@Component
+@Profile("query-count-benchmark")
+public class QueryCountBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountBenchmark.class);
+
+    private static final int PAGE_SIZE = 100;
+    private static final int INSERT_ROWS = 1000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private RunControlService runControlService;
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @Autowired
+    private IntegrationObjectService integrationObjectService;
+
+    @Autowired
+    private ProcessLogService processLogService;
+
+    @Autowired
+    private ProcessLogRepository processLogRepository;
+
+    /**
+     * Start the application with application-query-count-benchmark.yml, report the counts and exit
+     */
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(NovaFlowMetadataApplication.class);
+        application.setAdditionalProfiles("query-count-benchmark");
+        application.run(args).close();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        PageQuery page = new PageQuery(null, null, PAGE_SIZE);
+
+        logger.info("Query counts with profiles {}", Arrays.toString(environment.getActiveProfiles()));
+        measure(statistics, "run controls, one page", () ->
+            serialize(runControlService.search(null, null, null, null, null, page).items()));
+        measure(statistics, "holiday calendars, one page", () ->
+            serialize(holidayCalendarService.search(null, null, null, null, page).items()));
+        measure(statistics, "integration objects, one page", () ->
+            serialize(integrationObjectService.search(null, null, null, null, null, null, page).items()));
+        measure(statistics, "integration objects, one page, all relations", () ->
+            serialize(integrationObjectService.search(null, null, null, null, null,
+                "attributes,sourceRules,targetRules,sourceScaffolds,targetScaffolds,uiMetadata.dynamicDataRecords", page).items()));
+
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        measure(statistics, INSERT_ROWS + " process logs, repository saveAll", () ->
+            rollback.executeWithoutResult(status -> {
+                processLogRepository.saveAll(processLogs());
+                processLogRepository.flush();
+                status.setRollbackOnly();
+            }));
+        measure(statistics, INSERT_ROWS + " process logs, batched insert", () ->
+            rollback.executeWithoutResult(status -> {
+                processLogService.saveAll(processLogs());
+                status.setRollbackOnly();
+            }));
+    }
+
+    private void measure(Statistics statistics, String scenario, Runnable work) {
+        statistics.clear();
+        long start = System.nanoTime();
+        work.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("{}: {} statements ({} entity loads, {} collection fetches, {} inserts), {} ms",
+            scenario, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(),
+            statistics.getCollectionFetchCount(), statistics.getEntityInsertCount(), elapsedMs);
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Serialization failed", e);
+        }
+    }
+
+    private static List<ProcessLog> processLogs() {
+        String executionId = "BENCH_" + UUID.randomUUID();
+        List<ProcessLog> logs = new ArrayList<>(INSERT_ROWS);
+        for (int i = 0; i < INSERT_ROWS; i++) {
+            ProcessLog log = new ProcessLog(UUID.randomUUID().toString(), null, executionId, "Completed", "benchmark");
+            log.setStartTime(LocalDateTime.now());
+            log.setCreatedBy("benchmark");
+            logs.add(log);
+        }
+        return logs;
+    }
+}
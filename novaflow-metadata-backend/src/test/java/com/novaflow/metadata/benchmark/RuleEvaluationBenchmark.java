@@ -0,0 +1,139 @@
+package com.novaflow.metadata.benchmark;
+
+import com.novaflow.metadata.rule.Column;
+import com.novaflow.metadata.rule.ColumnBatch;
+import com.novaflow.metadata.rule.CompiledRule;
+import com.novaflow.metadata.rule.RuleCompiler;
+import com.novaflow.metadata.rule.RuleParser;
+import com.novaflow.metadata.rule.VectorizedRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares row-at-a-time rule evaluation over Map records with column-at-a-time evaluation over a
+ * ColumnBatch, on the same synthetic data. Needs no database or Spring context, and lives with the tests
+ * so it never ships in the application jar:
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -Xmx4g -cp target/test-classes:target/classes:$(cat cp.txt) com.novaflow.metadata.benchmark.RuleEvaluationBenchmark [rows] [iterations]
+ * </pre>
+ * Each scenario runs warm-up iterations first, then reports the mean and best time of the measured ones.
+ */
+public final class RuleEvaluationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleEvaluationBenchmark.class);
+
+    private static final String CONDITIONS = "["
+        + "{\"id\":\"1\",\"sourceAttribute\":\"amount\",\"operator\":\">=\",\"value\":\"250\",\"conditionOperator\":\"AND\",\"parenthesis\":\"\"},"
+        + "{\"id\":\"2\",\"sourceAttribute\":\"region\",\"operator\":\"in\",\"value\":\"EMEA,APAC\",\"conditionOperator\":\"OR\",\"parenthesis\":\"(\"},"
+        + "{\"id\":\"3\",\"sourceAttribute\":\"flagged\",\"operator\":\"=\",\"value\":\"true\",\"conditionOperator\":\"AND\",\"parenthesis\":\")\"},"
+        + "{\"id\":\"4\",\"sourceAttribute\":\"quantity\",\"operator\":\"<\",\"value\":\"900\",\"conditionOperator\":null,\"parenthesis\":\"\"}]";
+
+    private static final String ACTIONS = "["
+        + "{\"id\":\"1\",\"targetAttribute\":\"fee\",\"operator\":\":=\",\"expression\":\"ROUND(amount * 0.015, 2)\"},"
+        + "{\"id\":\"2\",\"targetAttribute\":\"net\",\"operator\":\":=\",\"expression\":\"amount - fee\"},"
+        + "{\"id\":\"3\",\"targetAttribute\":\"status\",\"operator\":\":=\",\"expression\":\"'REVIEW'\"}]";
+
+    private static final String[] REGIONS = {"EMEA", "APAC", "AMER", "LATAM"};
+
+    private RuleEvaluationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int warmups = Math.max(3, iterations / 2);
+
+        CompiledRule rule = RuleCompiler.compile("BENCH", 1, 1, RuleParser.parse(CONDITIONS, ACTIONS));
+        VectorizedRule vectorized = VectorizedRule.compile(rule);
+        List<Map<String, Object>> records = records(rows);
+        ColumnBatch batch = columns(rows);
+
+        logger.info("Rule evaluation over {} rows, {} warm-up and {} measured iterations", rows, warmups, iterations);
+        run("row-at-a-time, conditions", warmups, iterations, rows, () -> {
+            long matched = 0;
+            for (Map<String, Object> record : records) {
+                if (rule.matches(record)) {
+                    matched++;
+                }
+            }
+            return matched;
+        });
+        run("vectorised, conditions", warmups, iterations, rows, () -> vectorized.select(batch).cardinality());
+        run("row-at-a-time, conditions and actions", warmups, iterations, rows, () -> {
+            long matched = 0;
+            for (Map<String, Object> record : records) {
+                if (rule.apply(record)) {
+                    matched++;
+                }
+            }
+            return matched;
+        });
+        run("vectorised, conditions and actions", warmups, iterations, rows, () -> vectorized.apply(batch).cardinality());
+
+        BitSet selection = vectorized.select(batch);
+        long rowMatches = records.stream().filter(rule::matches).count();
+        if (rowMatches != selection.cardinality()) {
+            throw new IllegalStateException("Row and vectorised evaluation disagree: " + rowMatches + " vs " + selection.cardinality());
+        }
+    }
+
+    private static void run(String scenario, int warmups, int iterations, int rows, LongSupplier work) {
+        long checksum = 0;
+        for (int i = 0; i < warmups; i++) {
+            checksum += work.getAsLong();
+        }
+        long[] times = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            checksum += work.getAsLong();
+            times[i] = System.nanoTime() - start;
+        }
+        double meanMs = Arrays.stream(times).average().orElse(0) / 1_000_000.0;
+        double bestMs = Arrays.stream(times).min().orElse(0) / 1_000_000.0;
+        logger.info(String.format("%-40s mean %8.2f ms  best %8.2f ms  %6.1f M rows/s  (checksum %d)",
+            scenario, meanMs, bestMs, rows / meanMs / 1000.0, checksum));
+    }
+
+    private static List<Map<String, Object>> records(int rows) {
+        Random random = new Random(42);
+        List<Map<String, Object>> records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("amount", random.nextInt(100_000) / 100.0);
+            record.put("quantity", (long) random.nextInt(1000));
+            record.put("region", REGIONS[random.nextInt(REGIONS.length)]);
+            record.put("flagged", random.nextInt(10) == 0);
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static ColumnBatch columns(int rows) {
+        Random random = new Random(42);
+        double[] amount = new double[rows];
+        long[] quantity = new long[rows];
+        String[] region = new String[rows];
+        boolean[] flagged = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            amount[i] = random.nextInt(100_000) / 100.0;
+            quantity[i] = random.nextInt(1000);
+            region[i] = REGIONS[random.nextInt(REGIONS.length)];
+            flagged[i] = random.nextInt(10) == 0;
+        }
+        return new ColumnBatch(rows)
+            .put("amount", Column.ofDoubles(amount))
+            .put("quantity", Column.ofLongs(quantity))
+            .put("region", Column.ofStrings(region))
+            .put("flagged", Column.ofBooleans(flagged));
+    }
+}
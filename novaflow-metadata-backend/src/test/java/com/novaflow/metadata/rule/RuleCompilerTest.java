@@ -0,0 +1,187 @@
+package com.novaflow.metadata.rule;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+
+    private static CompiledRule rule(String conditions, String actions) {
+        return RuleCompiler.compile("RULE001", 1, 1, RuleParser.parse(conditions, actions));
+    }
+
+    private static String assign(String target, String expression) {
+        return "[{\"targetAttribute\": \"" + target + "\", \"expression\": \"" + expression + "\"}]";
+    }
+
+    // Value the expression assigns for a record
+    private static Object evaluate(String expression, Object... attributes) {
+        Map<String, Object> record = new HashMap<>();
+        for (int i = 0; i < attributes.length; i += 2) {
+            record.put((String) attributes[i], attributes[i + 1]);
+        }
+        rule(null, assign("result", expression)).apply(record);
+        return record.get("result");
+    }
+
+    private static BigDecimal decimal(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    void arithmetic_DecimalLiterals_AreExact() {
+        assertEquals(decimal("0.3"), evaluate("0.1 + 0.2"));
+        assertEquals(decimal("1.5015"), evaluate("amount * 0.015", "amount", 100.1));
+        assertEquals(decimal("0.3"), evaluate("a + b", "a", decimal("0.1"), "b", decimal("0.2")));
+        assertEquals(decimal("13.50"), evaluate("price + 1", "price", "12.50"));
+    }
+
+    @Test
+    void arithmetic_Integers_StayLong() {
+        assertEquals(9007199254740993L, evaluate("a + 0", "a", 9007199254740993L));
+        assertEquals(12L, evaluate("a * b", "a", 3, "b", 4L));
+        assertEquals(2L, evaluate("6 / 3"));
+        assertEquals(1L, evaluate("7 % 3"));
+        assertEquals(-5L, evaluate("-a", "a", 5L));
+    }
+
+    @Test
+    void arithmetic_LongOverflowAndInexactQuotients_BecomeDecimal() {
+        assertEquals(decimal("9223372036854775808"), evaluate("a + 1", "a", Long.MAX_VALUE));
+        assertEquals(decimal("-9223372036854775809"), evaluate("a - 1", "a", Long.MIN_VALUE));
+        assertEquals(decimal("18446744073709551614"), evaluate("a * 2", "a", Long.MAX_VALUE));
+        assertEquals(decimal("9223372036854775808"), evaluate("ABS(a)", "a", Long.MIN_VALUE));
+        assertEquals(decimal("3.5"), evaluate("7 / 2"));
+        BigDecimal third = (BigDecimal) evaluate("1 / 3");
+        assertEquals(34, third.precision());
+        assertEquals(decimal("0.3333333333333333333333333333333333"), third);
+    }
+
+    @Test
+    void arithmetic_DoublesWithoutDecimals_UseDouble() {
+        assertEquals(2.0, evaluate("a * 4", "a", 0.5));
+        assertEquals(0.30000000000000004, evaluate("a + b", "a", 0.1, "b", 0.2));
+        assertEquals(1.5f + 1.0, evaluate("a + 1", "a", 1.5f));
+    }
+
+    @Test
+    void arithmetic_NullsAndDivisionByZero_YieldNull() {
+        assertNull(evaluate("a + 1"));
+        assertNull(evaluate("a / 0", "a", 5L));
+        assertNull(evaluate("a % 0.0", "a", decimal("5")));
+        assertNull(evaluate("a / b", "a", 1.0, "b", 0.0));
+        assertNull(evaluate("a * 2", "a", "abc"));
+        assertNull(evaluate("a * 2", "a", true));
+    }
+
+    @Test
+    void arithmetic_NonNumericLiteral_FailsToCompile() {
+        assertThrows(RuleSyntaxException.class, () -> rule(null, assign("x", "'abc' * 2")));
+        assertThrows(RuleSyntaxException.class, () -> rule(null, assign("x", "ROUND(1, 2, 3)")));
+    }
+
+    @Test
+    void functions_KeepTheOperandKind() {
+        assertEquals(decimal("2.35"), evaluate("ROUND(a, 2)", "a", decimal("2.345")));
+        assertEquals(decimal("-2.35"), evaluate("ROUND(-2.345, 2)"));
+        assertEquals(1200L, evaluate("ROUND(a, -2)", "a", 1234L));
+        assertEquals(3L, evaluate("ROUND(3)"));
+        assertEquals(3.0, evaluate("ROUND(a)", "a", 2.5));
+        assertEquals(decimal("-2"), evaluate("FLOOR(-1.5)"));
+        assertEquals(decimal("2"), evaluate("CEIL(1.01)"));
+        assertEquals(-2.0, evaluate("FLOOR(a)", "a", -1.5));
+        assertEquals(decimal("1.5"), evaluate("MIN(3, 1.5, 2)"));
+        assertEquals(3L, evaluate("MAX(3, 1.5, 2)"));
+        assertNull(evaluate("MAX(3, a)"));
+        assertEquals(3L, evaluate("LENGTH(name)", "name", "abc"));
+        assertEquals("ABC-x", evaluate("UPPER(code) || '-' || COALESCE(missing, 'x')", "code", "abc"));
+    }
+
+    @Test
+    void compoundOperators_CombineWithTheCurrentValue() {
+        // Arrange
+        CompiledRule rule = rule(null, """
+            [{"targetAttribute": "fee", "operator": "+=", "expression": "0.1"},
+             {"targetAttribute": "net", "operator": "-=", "expression": "fee"},
+             {"targetAttribute": "count", "operator": "*=", "expression": "2"},
+             {"targetAttribute": "ratio", "operator": "/=", "expression": "0"},
+             {"targetAttribute": "missing", "operator": "+=", "expression": "1"}]
+            """);
+        Map<String, Object> record = new HashMap<>(Map.of("fee", decimal("0.2"), "net", 10L, "count", 21L, "ratio", 1L));
+
+        // Act
+        rule.apply(record);
+
+        // Assert
+        assertEquals(decimal("0.3"), record.get("fee"));
+        assertEquals(decimal("9.7"), record.get("net"));
+        assertEquals(42L, record.get("count"));
+        assertNull(record.get("ratio"));
+        assertNull(record.get("missing"));
+    }
+
+    @Test
+    void conditions_FollowSqlNullSemantics() {
+        // Arrange
+        CompiledRule rule = rule("""
+            [{"sourceAttribute": "amount", "operator": ">", "value": "100", "conditionOperator": "AND"},
+             {"sourceAttribute": "status", "operator": "!=", "value": "CLOSED", "conditionOperator": "AND"},
+             {"sourceAttribute": "region", "operator": "in", "value": "EU, US"}]
+            """, "[]");
+
+        // Act & Assert
+        assertTrue(rule.matches(Map.of("amount", 100.5, "status", "OPEN", "region", "EU")));
+        assertTrue(rule.matches(Map.of("amount", "250", "status", "OPEN", "region", "US")));
+        assertFalse(rule.matches(Map.of("amount", 100L, "status", "OPEN", "region", "EU")));
+        assertFalse(rule.matches(Map.of("amount", 150L, "region", "EU")));
+        assertFalse(rule.matches(Map.of("amount", 150L, "status", "OPEN", "region", "APAC")));
+        assertFalse(rule.matches(Map.of("status", "OPEN", "region", "EU")));
+    }
+
+    @Test
+    void conditions_IsNullTreatsBlankAsEmpty() {
+        CompiledRule rule = rule("[{\"sourceAttribute\": \"note\", \"operator\": \"is empty\"}]", "[]");
+        assertTrue(rule.matches(Map.of("note", "  ")));
+        assertTrue(rule.matches(Map.of()));
+        assertFalse(rule.matches(Map.of("note", "x")));
+    }
+
+    @Test
+    void vectorizedRule_WritesWhatTheCompiledRuleWrites() {
+        // Arrange: double, long and decimal columns, with a decimal literal and integer arithmetic
+        CompiledRule rule = rule("[{\"sourceAttribute\": \"amount\", \"operator\": \">\", \"value\": \"0\"}]", """
+            [{"targetAttribute": "scaled", "expression": "amount * 2 + 1"},
+             {"targetAttribute": "fee", "expression": "amount * 0.015"},
+             {"targetAttribute": "units", "operator": "+=", "expression": "9007199254740993"},
+             {"targetAttribute": "net", "operator": "-=", "expression": "price"}]
+            """);
+        List<Map<String, Object>> records = new ArrayList<>();
+        records.add(new HashMap<>(Map.of("amount", 0.1, "units", 0L, "price", decimal("0.1"), "net", decimal("10.00"))));
+        records.add(new HashMap<>(Map.of("amount", 2.5, "units", 5L, "price", decimal("2.25"), "net", decimal("3"))));
+        records.add(new HashMap<>(Map.of("amount", -1.0, "units", 1L)));
+        ColumnBatch batch = ColumnBatch.fromRecords(records, Map.of("amount", ColumnType.DOUBLE, "units", ColumnType.LONG,
+            "price", ColumnType.DOUBLE, "net", ColumnType.DOUBLE));
+        List<Map<String, Object>> expected = new ArrayList<>();
+        for (Map<String, Object> record : batch.toRecords()) {
+            Map<String, Object> copy = new HashMap<>(record);
+            rule.apply(copy);
+            expected.add(copy);
+        }
+
+        // Act
+        VectorizedRule.compile(rule).apply(batch);
+
+        // Assert
+        assertEquals(expected, batch.toRecords().stream().map(HashMap::new).toList());
+        assertEquals(9007199254740993L, batch.toRecords().get(0).get("units"));
+        assertEquals(decimal("0.0015"), batch.toRecords().get(0).get("fee"));
+        assertEquals(decimal("9.90"), batch.toRecords().get(0).get("net"));
+        assertEquals(6.0, batch.toRecords().get(1).get("scaled"));
+    }
+}
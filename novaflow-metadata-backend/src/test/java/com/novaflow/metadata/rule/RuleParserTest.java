@@ -0,0 +1,127 @@
+package com.novaflow.metadata.rule;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleParserTest {
+
+    private static Condition.Comparison comparison(String attribute, ComparisonOperator operator, String value) {
+        return new Condition.Comparison(attribute, operator, value);
+    }
+
+    @Test
+    void parse_AndBindsTighterThanOr() {
+        // Arrange: a OR b AND c
+        String conditions = """
+            [{"sourceAttribute": "a", "operator": "=", "value": "1", "conditionOperator": "OR"},
+             {"sourceAttribute": "b", "operator": ">", "value": "2", "conditionOperator": "AND"},
+             {"sourceAttribute": "c", "operator": "contains", "value": "x"}]
+            """;
+
+        // Act
+        RuleDefinition definition = RuleParser.parse(conditions, null);
+
+        // Assert
+        assertEquals(new Condition.Or(List.of(
+            comparison("a", ComparisonOperator.EQ, "1"),
+            new Condition.And(List.of(comparison("b", ComparisonOperator.GT, "2"), comparison("c", ComparisonOperator.CONTAINS, "x"))))),
+            definition.condition());
+        assertTrue(definition.actions().isEmpty());
+    }
+
+    @Test
+    void parse_ParenthesisGroupsAndNotJoiner() {
+        // Arrange: (a OR b) AND NOT c
+        String conditions = """
+            [{"sourceAttribute": "a", "operator": "is null", "value": "ignored", "parenthesis": "(", "conditionOperator": "OR"},
+             {"sourceAttribute": "b", "operator": "IN", "value": "X,Y", "parenthesis": ")", "conditionOperator": "NOT"},
+             {"sourceAttribute": "c", "operator": "starts_with", "value": "Z"}]
+            """;
+
+        // Act
+        Condition condition = RuleParser.parse(conditions, "[]").condition();
+
+        // Assert: unary operators drop their value
+        assertEquals(new Condition.And(List.of(
+            new Condition.Or(List.of(comparison("a", ComparisonOperator.IS_NULL, null), comparison("b", ComparisonOperator.IN, "X,Y"))),
+            new Condition.Not(comparison("c", ComparisonOperator.STARTS_WITH, "Z")))), condition);
+    }
+
+    @Test
+    void parse_NoConditions_MatchesEverything() {
+        assertEquals(new Condition.Always(), RuleParser.parse(null, null).condition());
+        assertEquals(new Condition.Always(), RuleParser.parse("  ", "null").condition());
+        assertEquals(new Condition.Always(), RuleParser.parse("[]", "[]").condition());
+    }
+
+    @Test
+    void parse_InvalidConditions_Throw() {
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse("{\"a\": 1}", null));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse("[{", null));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(
+            "[{\"sourceAttribute\": \"a\", \"operator\": \"=\", \"value\": \"1\", \"parenthesis\": \"(\"}]", null));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(
+            "[{\"sourceAttribute\": \"a\", \"operator\": \"like\", \"value\": \"1\"}]", null));
+        RuleSyntaxException missing = assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(
+            "[{\"operator\": \"=\", \"value\": \"1\"}]", null));
+        assertEquals("Condition 1 is missing sourceAttribute", missing.getMessage());
+    }
+
+    @Test
+    void parse_Actions_ReadsOperatorAndExpression() {
+        // Arrange
+        String actions = """
+            [{"targetAttribute": "fee", "expression": "amount * 0.015"},
+             {"targetAttribute": "total", "operator": "+=", "expression": "fee"}]
+            """;
+
+        // Act
+        List<RuleDefinition.Action> parsed = RuleParser.parse(null, actions).actions();
+
+        // Assert
+        assertEquals(2, parsed.size());
+        assertEquals(new RuleDefinition.Action("fee", AssignmentOperator.ASSIGN,
+            new Expression.Binary("*", new Expression.AttributeRef("amount"), new Expression.Constant(new BigDecimal("0.015")))), parsed.get(0));
+        assertEquals(new RuleDefinition.Action("total", AssignmentOperator.ADD, new Expression.AttributeRef("fee")), parsed.get(1));
+    }
+
+    @Test
+    void parse_InvalidAction_NamesTheAction() {
+        RuleSyntaxException error = assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(null,
+            "[{\"targetAttribute\": \"a\", \"expression\": \"1\"}, {\"targetAttribute\": \"b\", \"expression\": \"1 +\"}]"));
+        assertTrue(error.getMessage().startsWith("Action 2: "), error.getMessage());
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(null,
+            "[{\"targetAttribute\": \"a\", \"operator\": \"^=\", \"expression\": \"1\"}]"));
+    }
+
+    @Test
+    void expression_PrecedenceAndLiterals() {
+        // Act & Assert: * before +, || last
+        assertEquals(new Expression.Binary("+", new Expression.Constant(1L),
+            new Expression.Binary("*", new Expression.Constant(2L), new Expression.Constant(3L))), ExpressionParser.parse("1 + 2 * 3"));
+        assertEquals(new Expression.Binary("||", new Expression.AttributeRef("first_name"),
+            new Expression.Constant("it's")), ExpressionParser.parse("first_name || 'it''s'"));
+        assertEquals(new Expression.Constant(new BigDecimal("-0.1")), ExpressionParser.parse("-0.1"));
+        assertEquals(new Expression.Constant(-7L), ExpressionParser.parse("-7"));
+        assertEquals(new Expression.Constant(new BigDecimal("1E+3")), ExpressionParser.parse("1e3"));
+        assertEquals(new Expression.Constant(new BigDecimal("92233720368547758070")), ExpressionParser.parse("92233720368547758070"));
+        assertEquals(new Expression.Negate(new Expression.AttributeRef("amount")), ExpressionParser.parse("-amount"));
+        assertEquals(new Expression.Call("ROUND", List.of(new Expression.AttributeRef("a.b"), new Expression.Constant(2L))),
+            ExpressionParser.parse("round(a.b, 2)"));
+        assertEquals(new Expression.Constant(null), ExpressionParser.parse("NULL"));
+        assertEquals(new Expression.Constant(Boolean.TRUE), ExpressionParser.parse("true"));
+    }
+
+    @Test
+    void expression_Invalid_Throws() {
+        assertThrows(RuleSyntaxException.class, () -> ExpressionParser.parse("(1 + 2"));
+        assertThrows(RuleSyntaxException.class, () -> ExpressionParser.parse("'open"));
+        assertThrows(RuleSyntaxException.class, () -> ExpressionParser.parse("SQRT(4)"));
+        assertThrows(RuleSyntaxException.class, () -> ExpressionParser.parse("1.2.3"));
+        assertThrows(RuleSyntaxException.class, () -> ExpressionParser.parse("a b"));
+    }
+}
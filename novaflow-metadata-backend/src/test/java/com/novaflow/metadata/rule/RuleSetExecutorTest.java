@@ -0,0 +1,94 @@
+package com.novaflow.metadata.rule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetExecutorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    // R1 always doubles amount into total; R2 copies total once it is above 5; R3 tags amounts above 3
+    private static final List<CompiledRule> RULES = List.of(
+        RuleCompiler.compile("R1", 1, 1, RuleParser.parse(null, """
+            [{"targetAttribute": "total", "expression": "amount * 2"},
+             {"targetAttribute": "tag", "expression": "'first'"}]
+            """)),
+        RuleCompiler.compile("R2", 1, 2, RuleParser.parse("[{\"sourceAttribute\": \"total\", \"operator\": \">\", \"value\": \"5\"}]", """
+            [{"targetAttribute": "tag", "expression": "'second'"},
+             {"targetAttribute": "copy", "expression": "total"}]
+            """)),
+        RuleCompiler.compile("R3", 1, 3, RuleParser.parse("[{\"sourceAttribute\": \"amount\", \"operator\": \">\", \"value\": \"3\"}]",
+            "[{\"targetAttribute\": \"tag\", \"expression\": \"'third'\"}]")));
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static List<Map<String, Object>> records() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (long amount = 1; amount <= 4; amount++) {
+            records.add(new HashMap<>(Map.of("amount", amount, "total", 0L)));
+        }
+        return records;
+    }
+
+    private static List<Object> column(List<Map<String, Object>> records, String attribute) {
+        return records.stream().map(record -> record.get(attribute)).toList();
+    }
+
+    private static List<Long> matched(List<RuleSetExecutor.RuleStats> stats) {
+        return stats.stream().map(RuleSetExecutor.RuleStats::matched).toList();
+    }
+
+    @Test
+    void execute_Parallel_EveryRuleSeesOriginalRecordsAndLaterRuleWins() {
+        for (int chunkSize : new int[] {1, 3, 100}) {
+            // Arrange
+            List<Map<String, Object>> records = records();
+
+            // Act
+            List<RuleSetExecutor.RuleStats> stats = new RuleSetExecutor(pool, chunkSize)
+                .execute(RULES, records, RuleSetExecutor.Mode.PARALLEL);
+
+            // Assert: R2 sees the original total of 0, so it never matches; R3 overrides R1's tag
+            assertEquals(List.of(2L, 4L, 6L, 8L), column(records, "total"), "chunk size " + chunkSize);
+            assertEquals(List.of("first", "first", "first", "third"), column(records, "tag"), "chunk size " + chunkSize);
+            assertTrue(records.stream().noneMatch(record -> record.containsKey("copy")), "chunk size " + chunkSize);
+            assertEquals(List.of(4L, 0L, 1L), matched(stats), "chunk size " + chunkSize);
+            assertTrue(stats.stream().allMatch(rule -> rule.evaluated() == 4));
+        }
+    }
+
+    @Test
+    void execute_Sequential_ChainsTheRules() {
+        // Arrange
+        List<Map<String, Object>> records = records();
+
+        // Act
+        List<RuleSetExecutor.RuleStats> stats = new RuleSetExecutor(pool, 1).execute(RULES, records, RuleSetExecutor.Mode.SEQUENTIAL);
+
+        // Assert: R2 sees the totals R1 wrote
+        assertEquals(List.of(2L, 4L, 6L, 8L), column(records, "total"));
+        assertEquals(List.of("first", "first", "second", "third"), column(records, "tag"));
+        assertEquals(Arrays.asList(null, null, 6L, 8L), column(records, "copy"));
+        assertEquals(List.of(4L, 2L, 1L), matched(stats));
+        assertEquals(List.of("R1", "R2", "R3"), stats.stream().map(RuleSetExecutor.RuleStats::ruleId).toList());
+    }
+
+    @Test
+    void mode_Of_ReadsExecutionOrder() {
+        assertEquals(RuleSetExecutor.Mode.SEQUENTIAL, RuleSetExecutor.Mode.of(null));
+        assertEquals(RuleSetExecutor.Mode.PARALLEL, RuleSetExecutor.Mode.of(" Parallel "));
+        assertThrows(IllegalArgumentException.class, () -> RuleSetExecutor.Mode.of("Random"));
+    }
+}
@@ -0,0 +1,184 @@
+package com.novaflow.metadata.runcontrol;
+
+import com.novaflow.metadata.entity.Holiday;
+import com.novaflow.metadata.entity.HolidayCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessCalendarTest {
+
+    private static final Set<DayOfWeek> WEEKEND = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    // Holidays either side of every 64-day word boundary of 2024, plus the last day of a leap year
+    private static final Map<LocalDate, String> DATES = Map.of(
+        LocalDate.ofYearDay(2024, 64), "Word end",
+        LocalDate.ofYearDay(2024, 65), "Word start",
+        LocalDate.ofYearDay(2024, 128), "Word end",
+        LocalDate.ofYearDay(2024, 129), "Word start",
+        LocalDate.ofYearDay(2024, 320), "Word end",
+        LocalDate.ofYearDay(2024, 321), "Word start",
+        LocalDate.of(2024, 12, 31), "Leap day 366",
+        LocalDate.of(2025, 1, 2), "Second of January");
+
+    private static final Map<MonthDay, String> RECURRING = Map.of(
+        MonthDay.of(1, 1), "New Year",
+        MonthDay.of(2, 29), "Leap day",
+        MonthDay.of(12, 25), "Christmas");
+
+    private final BusinessCalendar calendar = new BusinessCalendar("CAL", WEEKEND, DATES, RECURRING);
+
+    // Reference: what a business day is, day by day
+    private static boolean expectedBusinessDay(LocalDate day) {
+        return !WEEKEND.contains(day.getDayOfWeek()) && !DATES.containsKey(day) && !RECURRING.containsKey(MonthDay.from(day));
+    }
+
+    private static LocalDate expectedNext(LocalDate day, int n) {
+        LocalDate next = day;
+        for (int found = 0; found < n; ) {
+            next = next.plusDays(1);
+            if (expectedBusinessDay(next)) {
+                found++;
+            }
+        }
+        return next;
+    }
+
+    @Test
+    void isBusinessDay_EveryDayOfThreeYears_MatchesDayByDay() {
+        for (LocalDate day = LocalDate.of(2023, 1, 1); day.isBefore(LocalDate.of(2026, 1, 1)); day = day.plusDays(1)) {
+            assertEquals(expectedBusinessDay(day), calendar.isBusinessDay(day), day.toString());
+        }
+    }
+
+    @Test
+    void nextBusinessDay_EveryDayAndManyN_MatchesDayByDay() {
+        // n up to 140 crosses two or three 64-day words and, late in the year, the year end
+        for (LocalDate day = LocalDate.of(2023, 12, 1); day.isBefore(LocalDate.of(2025, 2, 1)); day = day.plusDays(1)) {
+            for (int n = 1; n <= 140; n += (n < 70 ? 1 : 13)) {
+                assertEquals(expectedNext(day, n), calendar.nextBusinessDay(day, n), day + " n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void nextBusinessDay_WordBoundaries_SkipsHolidaysOnBothSides() {
+        // Day 63 of 2024 is Sunday 3 March; days 64 and 65 are holidays
+        LocalDate before = LocalDate.ofYearDay(2024, 63);
+        assertEquals(LocalDate.ofYearDay(2024, 66), calendar.nextBusinessDay(before));
+        assertEquals(LocalDate.ofYearDay(2024, 66), calendar.nextBusinessDay(LocalDate.ofYearDay(2024, 64)));
+        assertEquals(expectedNext(LocalDate.ofYearDay(2024, 127), 1), calendar.nextBusinessDay(LocalDate.ofYearDay(2024, 127)));
+    }
+
+    @Test
+    void nextBusinessDay_DecemberThirtyFirst_ContinuesInNextYear() {
+        // 2023-12-31 is a Sunday, 1 January a holiday
+        assertEquals(LocalDate.of(2024, 1, 2), calendar.nextBusinessDay(LocalDate.of(2023, 12, 31)));
+        assertEquals(LocalDate.of(2024, 1, 3), calendar.nextBusinessDay(LocalDate.of(2023, 12, 31), 2));
+        // 2024 is a leap year: from Monday 30 December, the 31st (day 366), 1 and 2 January are holidays
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 12, 31)));
+        assertEquals(LocalDate.of(2025, 1, 3), calendar.nextBusinessDay(LocalDate.of(2024, 12, 30)));
+        assertEquals(LocalDate.of(2025, 1, 6), calendar.nextBusinessDay(LocalDate.of(2024, 12, 31), 2));
+    }
+
+    @Test
+    void nextBusinessDay_FromDecemberThirtyFirstOfLeapYear_UsesDay366() {
+        BusinessCalendar plain = new BusinessCalendar("PLAIN", WEEKEND, Map.of(), Map.of());
+        // Monday 30 December 2024, Tuesday 31 December is day 366
+        assertTrue(plain.isBusinessDay(LocalDate.of(2024, 12, 31)));
+        assertEquals(LocalDate.of(2024, 12, 31), plain.nextBusinessDay(LocalDate.of(2024, 12, 30)));
+        assertEquals(LocalDate.of(2025, 1, 1), plain.nextBusinessDay(LocalDate.of(2024, 12, 31)));
+        assertEquals(LocalDate.of(2025, 1, 1), plain.nextBusinessDay(LocalDate.of(2024, 12, 30), 2));
+    }
+
+    @Test
+    void isBusinessDay_RecurringLeapDay_OnlyInLeapYears() {
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 2, 29)));
+        assertEquals("Leap day", calendar.holidayName(LocalDate.of(2024, 2, 29)));
+        // 1 March 2023 is a Wednesday and not a holiday
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2023, 3, 1)));
+        assertEquals(LocalDate.of(2028, 3, 1), calendar.nextBusinessDay(LocalDate.of(2028, 2, 28)));
+    }
+
+    @Test
+    void nextBusinessDay_NoBusinessDays_ReturnsNull() {
+        BusinessCalendar never = new BusinessCalendar("NEVER", EnumSet.allOf(DayOfWeek.class), Map.of(), Map.of());
+        assertNull(never.nextBusinessDay(LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    void nextBusinessDay_NotPositive_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> calendar.nextBusinessDay(LocalDate.of(2024, 6, 1), 0));
+    }
+
+    @Test
+    void countBusinessDays_AcrossYears_MatchesDayByDay() {
+        LocalDate[] bounds = {LocalDate.of(2023, 12, 29), LocalDate.ofYearDay(2024, 64), LocalDate.ofYearDay(2024, 65),
+            LocalDate.of(2024, 12, 31), LocalDate.of(2025, 3, 5)};
+        for (LocalDate start : bounds) {
+            for (LocalDate end : bounds) {
+                if (end.isBefore(start)) {
+                    continue;
+                }
+                int expected = 0;
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    expected += expectedBusinessDay(day) ? 1 : 0;
+                }
+                assertEquals(expected, calendar.countBusinessDays(start, end), start + ".." + end);
+            }
+        }
+    }
+
+    @Test
+    void of_HolidayRowsAndJson_AllBecomeHolidays() {
+        // Arrange
+        HolidayCalendar source = new HolidayCalendar();
+        source.setId("CAL1");
+        Holiday row = new Holiday();
+        row.setDate(LocalDate.of(2024, 7, 4));
+        row.setName("Independence Day");
+        row.setRecurring(true);
+        source.setHolidayList(List.of(row));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("weekend", List.of("friday", "Saturday"));
+        Map<String, Object> listed = new HashMap<>();
+        listed.put("date", "2024-05-01");
+        listed.put("name", "Labour Day");
+        json.put("holidays", List.of(listed));
+        json.put("2024-08-15", "Assumption");
+        json.put("2024-11-11", Map.of("name", "Armistice", "recurring", true));
+        source.setHolidays(json);
+
+        // Act
+        BusinessCalendar built = BusinessCalendar.of(source);
+
+        // Assert
+        assertEquals("CAL1", built.getId());
+        assertFalse(built.isBusinessDay(LocalDate.of(2029, 7, 4)));
+        assertFalse(built.isBusinessDay(LocalDate.of(2024, 5, 1)));
+        assertTrue(built.isBusinessDay(LocalDate.of(2025, 5, 1)));
+        assertFalse(built.isBusinessDay(LocalDate.of(2024, 8, 15)));
+        assertEquals("Armistice", built.holidayName(LocalDate.of(2030, 11, 11)));
+        // Friday and Saturday are the weekend; Sunday works
+        assertFalse(built.isBusinessDay(LocalDate.of(2024, 6, 7)));
+        assertTrue(built.isBusinessDay(LocalDate.of(2024, 6, 9)));
+    }
+
+    @Test
+    void of_UnknownWeekendDay_Throws() {
+        HolidayCalendar source = new HolidayCalendar();
+        source.setId("CAL1");
+        source.setHolidays(Map.of("weekend", List.of("Caturday")));
+        assertThrows(InvalidRunControlException.class, () -> BusinessCalendar.of(source));
+    }
+}
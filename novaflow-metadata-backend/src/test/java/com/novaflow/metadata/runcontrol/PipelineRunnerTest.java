@@ -0,0 +1,187 @@
+package com.novaflow.metadata.runcontrol;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineRunnerTest {
+
+    private ExecutorService threads;
+    private PipelineRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        threads = Executors.newCachedThreadPool();
+        runner = new PipelineRunner(threads, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    private static PipelineRunner.StepRun step(String id, RunType runType, StepTask task) {
+        return new PipelineRunner.StepRun(new RunControlStep(id, 1, runType, id.toLowerCase(), null, true), task);
+    }
+
+    private static List<PipelineRunner.StepRun> segment(String id, StepTask task) {
+        return List.of(step(id, RunType.SCAFFOLD_IN, task));
+    }
+
+    private static SegmentGraph.Access access(Set<String> reads, Set<String> writes) {
+        return new SegmentGraph.Access(reads, writes);
+    }
+
+    private static List<StepMetrics.Status> statuses(List<StepMetrics> metrics) {
+        return metrics.stream().map(StepMetrics::getStatus).toList();
+    }
+
+    @Test
+    void run_Segment_StreamsRecordsThroughItsSteps() throws Exception {
+        // Arrange: 5 batches of 2 records, doubled by the rule set, summed by the last step
+        AtomicInteger total = new AtomicInteger();
+        List<PipelineRunner.StepRun> steps = List.of(
+            step("IN", RunType.SCAFFOLD_IN, (input, output, metrics) -> {
+                for (int i = 0; i < 5; i++) {
+                    output.send(new ArrayList<>(List.of(Map.of("n", 2 * i), Map.of("n", 2 * i + 1))));
+                    metrics.addRecordsOut(2);
+                }
+            }),
+            step("RULES", RunType.RULE_SET, (input, output, metrics) -> {
+                for (List<Map<String, Object>> batch = input.receive(); batch != null; batch = input.receive()) {
+                    metrics.addRecordsIn(batch.size());
+                    output.send(batch.stream().map(record -> Map.<String, Object>of("n", (Integer) record.get("n") * 2)).toList());
+                }
+            }),
+            step("OUT", RunType.SCAFFOLD_OUT, (input, output, metrics) -> {
+                assertNull(output);
+                for (List<Map<String, Object>> batch = input.receive(); batch != null; batch = input.receive()) {
+                    batch.forEach(record -> total.addAndGet((Integer) record.get("n")));
+                }
+            }));
+
+        // Act
+        List<StepMetrics> metrics = runner.run(List.of(steps), SegmentGraph.chain(1), 1);
+
+        // Assert
+        assertEquals(List.of(StepMetrics.Status.COMPLETED, StepMetrics.Status.COMPLETED, StepMetrics.Status.COMPLETED), statuses(metrics));
+        assertEquals(90, total.get());
+        assertEquals(10, metrics.get(0).getRecordsOut());
+        assertEquals(10, metrics.get(1).getRecordsIn());
+    }
+
+    @Test
+    void run_MaxSegments_CapsSegmentsRunningAtOnce() throws Exception {
+        // Arrange: six independent segments
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger most = new AtomicInteger();
+        StepTask task = (input, output, metrics) -> {
+            most.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+        };
+        List<List<PipelineRunner.StepRun>> segments = new ArrayList<>();
+        List<SegmentGraph.Access> accesses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            segments.add(segment("S" + i, task));
+            accesses.add(access(Set.of("source"), Set.of("target" + i)));
+        }
+
+        // Act
+        List<StepMetrics> metrics = runner.run(segments, SegmentGraph.infer(accesses), 2);
+
+        // Assert
+        assertEquals(2, most.get());
+        assertTrue(metrics.stream().allMatch(step -> step.getStatus() == StepMetrics.Status.COMPLETED));
+    }
+
+    @Test
+    void run_ReadySegments_LongestPathFirst() throws Exception {
+        // Arrange: 1 -> 2, with 0 on its own; one segment at a time
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<List<PipelineRunner.StepRun>> segments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int segment = i;
+            segments.add(segment("S" + i, (input, output, metrics) -> order.add(segment)));
+        }
+        SegmentGraph graph = SegmentGraph.infer(List.of(
+            access(Set.of(), Set.of("a")), access(Set.of(), Set.of("b")), access(Set.of("b"), Set.of("c"))));
+
+        // Act
+        runner.run(segments, graph, 1);
+
+        // Assert: segment 1 heads the longest path; 0 and 2 then tie and go by index
+        assertEquals(List.of(1, 0, 2), order);
+    }
+
+    @Test
+    void run_Chain_RunsSegmentsOneAfterAnother() throws Exception {
+        // Arrange
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        List<List<PipelineRunner.StepRun>> segments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "S" + i;
+            segments.add(segment(name, (input, output, metrics) -> {
+                events.add("start " + name);
+                Thread.sleep(20);
+                events.add("end " + name);
+            }));
+        }
+
+        // Act
+        runner.run(segments, SegmentGraph.chain(3), 3);
+
+        // Assert
+        assertEquals(List.of("start S0", "end S0", "start S1", "end S1", "start S2", "end S2"), events);
+    }
+
+    @Test
+    void run_FailedSegment_SkipsDependentsAndFinishesIndependentBranch() throws Exception {
+        // Arrange: 0 -> 1 -> 2 and 3 on its own; the first step of segment 0 fails
+        AtomicInteger independent = new AtomicInteger();
+        List<List<PipelineRunner.StepRun>> segments = List.of(
+            List.of(step("S0", RunType.SCAFFOLD_IN, (input, output, metrics) -> {
+                    throw new IllegalStateException("source unavailable");
+                }),
+                step("S0-OUT", RunType.SCAFFOLD_OUT, (input, output, metrics) -> {
+                    while (input.receive() != null) {
+                        // drain
+                    }
+                })),
+            segment("S1", (input, output, metrics) -> fail("depends on a failed segment")),
+            segment("S2", (input, output, metrics) -> fail("depends on a skipped segment")),
+            segment("S3", (input, output, metrics) -> {
+                Thread.sleep(50);
+                independent.incrementAndGet();
+            }));
+        SegmentGraph graph = SegmentGraph.infer(List.of(
+            access(Set.of("in"), Set.of("a")), access(Set.of("a"), Set.of("b")),
+            access(Set.of("b"), Set.of("c")), access(Set.of("x"), Set.of("y"))));
+
+        // Act
+        List<StepMetrics> metrics = runner.run(segments, graph, 4);
+
+        // Assert
+        assertEquals(List.of(StepMetrics.Status.FAILED, StepMetrics.Status.CANCELLED, StepMetrics.Status.SKIPPED,
+            StepMetrics.Status.SKIPPED, StepMetrics.Status.COMPLETED), statuses(metrics));
+        assertEquals("source unavailable", metrics.get(0).getError());
+        assertEquals(1, independent.get());
+    }
+
+    @Test
+    void run_GraphOfAnotherSize_Throws() {
+        assertThrows(IllegalArgumentException.class,
+            () -> runner.run(List.of(segment("S0", (input, output, metrics) -> { })), SegmentGraph.chain(2), 1));
+    }
+}
@@ -0,0 +1,190 @@
+package com.novaflow.metadata.runcontrol;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunScheduleTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    // Wednesday 25 and Thursday 26 December 2024 are holidays; Saturday and Sunday are the weekend
+    private static final BusinessCalendar CALENDAR = new BusinessCalendar("CAL", EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+        Map.of(LocalDate.of(2024, 12, 26), "Boxing Day"), Map.of(MonthDay.of(12, 25), "Christmas"));
+
+    private static Instant berlin(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, BERLIN).toInstant();
+    }
+
+    private static RunSchedule schedule(String cron, boolean skipOnHoliday, boolean runOnNextBusinessDay) {
+        return RunSchedule.of("RC1", cron, "Europe/Berlin", CALENDAR, skipOnHoliday, runOnNextBusinessDay);
+    }
+
+    private static List<RunSchedule.Fire> firings(RunSchedule schedule, Instant after, int count) {
+        List<RunSchedule.Fire> firings = new ArrayList<>();
+        Instant cursor = after;
+        for (int i = 0; i < count; i++) {
+            RunSchedule.Fire fire = schedule.next(cursor);
+            firings.add(fire);
+            cursor = fire.at();
+        }
+        return firings;
+    }
+
+    @Test
+    void of_UnixCron_MatchesMinutes() {
+        // Arrange
+        RunSchedule schedule = RunSchedule.of("RC1", " 15 9 * * 1-5 ", "Europe/Berlin", null, false, false);
+
+        // Act: from Friday afternoon
+        RunSchedule.Fire fire = schedule.next(berlin(2024, 6, 7, 10, 0));
+
+        // Assert
+        assertEquals(berlin(2024, 6, 10, 9, 15), fire.at());
+        assertFalse(fire.rolled());
+    }
+
+    @Test
+    void of_SpringCronMacroAndBlankZone_UseUtc() {
+        RunSchedule schedule = RunSchedule.of("RC1", "@daily", " ", null, false, false);
+        assertEquals(ZoneId.of("UTC"), schedule.zone());
+        assertEquals(Instant.parse("2024-06-08T00:00:00Z"), schedule.next(Instant.parse("2024-06-07T10:00:00Z")).at());
+    }
+
+    @Test
+    void of_InvalidCronOrZone_Throws() {
+        assertThrows(InvalidRunControlException.class, () -> RunSchedule.of("RC1", "61 9 * * *", "UTC", null, false, false));
+        assertThrows(InvalidRunControlException.class, () -> RunSchedule.of("RC1", null, "UTC", null, false, false));
+        assertThrows(InvalidRunControlException.class, () -> RunSchedule.of("RC1", "0 9 * * *", "Mars/Olympus", null, false, false));
+    }
+
+    @Test
+    void next_AcrossDaylightSavingChanges_KeepsWallClockTime() {
+        // Arrange
+        RunSchedule schedule = RunSchedule.of("RC1", "0 9 * * *", "Europe/Berlin", null, false, false);
+
+        // Act
+        List<RunSchedule.Fire> spring = firings(schedule, berlin(2024, 3, 30, 0, 0), 2);
+        List<RunSchedule.Fire> autumn = firings(schedule, berlin(2024, 10, 26, 0, 0), 2);
+
+        // Assert: 09:00 local is 08:00 UTC in winter and 07:00 UTC in summer
+        assertEquals(Instant.parse("2024-03-30T08:00:00Z"), spring.get(0).at());
+        assertEquals(Instant.parse("2024-03-31T07:00:00Z"), spring.get(1).at());
+        assertEquals(Instant.parse("2024-10-26T07:00:00Z"), autumn.get(0).at());
+        assertEquals(Instant.parse("2024-10-27T08:00:00Z"), autumn.get(1).at());
+        for (RunSchedule.Fire fire : List.of(spring.get(0), spring.get(1), autumn.get(0), autumn.get(1))) {
+            assertEquals(LocalTime.of(9, 0), fire.at().atZone(BERLIN).toLocalTime());
+        }
+    }
+
+    @Test
+    void next_TimeInDaylightSavingGapOrOverlap_FollowsCronExpression() {
+        RunSchedule schedule = RunSchedule.of("RC1", "30 2 * * *", "Europe/Berlin", null, false, false);
+
+        // 02:30 does not exist on 31 March 2024, so that day has no firing
+        List<RunSchedule.Fire> spring = firings(schedule, berlin(2024, 3, 30, 12, 0), 1);
+        assertEquals(Instant.parse("2024-04-01T00:30:00Z"), spring.get(0).at());
+
+        // 02:30 happens twice on 27 October 2024, and both match
+        List<RunSchedule.Fire> autumn = firings(schedule, berlin(2024, 10, 26, 12, 0), 3);
+        assertEquals(Instant.parse("2024-10-27T00:30:00Z"), autumn.get(0).at());
+        assertEquals(Instant.parse("2024-10-27T01:30:00Z"), autumn.get(1).at());
+        assertEquals(Instant.parse("2024-10-28T01:30:00Z"), autumn.get(2).at());
+    }
+
+    @Test
+    void next_HolidayWithoutFlags_FiresAnyway() {
+        RunSchedule.Fire fire = schedule("0 9 * * *", false, false).next(berlin(2024, 12, 24, 10, 0));
+        assertEquals(berlin(2024, 12, 25, 9, 0), fire.at());
+        assertFalse(fire.rolled());
+    }
+
+    @Test
+    void next_NoCalendar_IgnoresFlags() {
+        RunSchedule schedule = RunSchedule.of("RC1", "0 9 * * *", "Europe/Berlin", null, true, true);
+        assertEquals(berlin(2024, 12, 25, 9, 0), schedule.next(berlin(2024, 12, 24, 10, 0)).at());
+    }
+
+    @Test
+    void next_SkipOnHolidaySeveralFiringsPerDay_SkipsWholeDays() {
+        // Arrange
+        RunSchedule schedule = schedule("0 9,12,15 * * *", true, false);
+
+        // Act: from the evening before the holidays, for two business days and a weekend
+        List<RunSchedule.Fire> fires = firings(schedule, berlin(2024, 12, 24, 16, 0), 4);
+
+        // Assert
+        assertEquals(List.of(berlin(2024, 12, 27, 9, 0), berlin(2024, 12, 27, 12, 0), berlin(2024, 12, 27, 15, 0),
+            berlin(2024, 12, 30, 9, 0)), fires.stream().map(RunSchedule.Fire::at).toList());
+        assertTrue(fires.stream().noneMatch(RunSchedule.Fire::rolled));
+    }
+
+    @Test
+    void next_SkipOnHolidayFromMiddleOfHoliday_ResumesOnNextBusinessDay() {
+        RunSchedule schedule = schedule("0 9,12,15 * * *", true, false);
+        assertEquals(berlin(2024, 12, 27, 9, 0), schedule.next(berlin(2024, 12, 25, 12, 0)).at());
+        assertEquals(berlin(2024, 12, 30, 9, 0), schedule.next(berlin(2024, 12, 28, 0, 0)).at());
+    }
+
+    @Test
+    void next_SkipOnHolidayCronOnlyMatchesHolidays_ReturnsNull() {
+        assertNull(schedule("0 9 25 12 *", true, false).next(berlin(2024, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void next_RunOnNextBusinessDay_RollsForwardKeepingTime() {
+        // Arrange
+        RunSchedule schedule = schedule("0 9 * * *", false, true);
+
+        // Act
+        RunSchedule.Fire fire = schedule.next(berlin(2024, 12, 24, 10, 0));
+
+        // Assert
+        assertEquals(berlin(2024, 12, 27, 9, 0), fire.at());
+        assertEquals(berlin(2024, 12, 25, 9, 0), fire.nominal().toInstant());
+        assertTrue(fire.rolled());
+    }
+
+    @Test
+    void next_RunOnNextBusinessDay_MergesFiringsRolledToSameTime() {
+        // Arrange
+        RunSchedule schedule = schedule("0 9,12 * * *", false, true);
+
+        // Act: the holidays' and the weekend's firings roll onto the next business day's own
+        List<RunSchedule.Fire> fires = firings(schedule, berlin(2024, 12, 24, 13, 0), 5);
+
+        // Assert: each time runs once
+        assertEquals(List.of(berlin(2024, 12, 27, 9, 0), berlin(2024, 12, 27, 12, 0), berlin(2024, 12, 30, 9, 0),
+            berlin(2024, 12, 30, 12, 0), berlin(2024, 12, 31, 9, 0)), fires.stream().map(RunSchedule.Fire::at).toList());
+        assertEquals(berlin(2024, 12, 25, 9, 0), fires.get(0).nominal().toInstant());
+        assertEquals(berlin(2024, 12, 27, 12, 0), fires.get(1).nominal().toInstant());
+        assertEquals(berlin(2024, 12, 28, 9, 0), fires.get(2).nominal().toInstant());
+        assertFalse(fires.get(4).rolled());
+    }
+
+    @Test
+    void next_BothFlags_RollForwardWins() {
+        RunSchedule.Fire fire = schedule("0 9 * * *", true, true).next(berlin(2024, 12, 24, 10, 0));
+        assertEquals(berlin(2024, 12, 27, 9, 0), fire.at());
+        assertTrue(fire.rolled());
+    }
+
+    @Test
+    void next_RollForwardWithoutBusinessDays_ReturnsNull() {
+        BusinessCalendar never = new BusinessCalendar("NEVER", EnumSet.allOf(DayOfWeek.class), Map.of(), Map.of());
+        RunSchedule schedule = RunSchedule.of("RC1", "0 9 * * *", "Europe/Berlin", never, false, true);
+        assertNull(schedule.next(berlin(2024, 12, 24, 10, 0)));
+    }
+}
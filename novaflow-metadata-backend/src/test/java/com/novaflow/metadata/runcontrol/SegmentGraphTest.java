@@ -0,0 +1,112 @@
+package com.novaflow.metadata.runcontrol;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentGraphTest {
+
+    private static SegmentGraph.Access access(Set<String> reads, Set<String> writes) {
+        return new SegmentGraph.Access(reads, writes);
+    }
+
+    @Test
+    void infer_ReadAfterWrite_AddsEdge() {
+        SegmentGraph graph = SegmentGraph.infer(List.of(access(Set.of(), Set.of("orders")), access(Set.of("orders"), Set.of("totals"))));
+        assertEquals(List.of(0), graph.dependencies(1));
+        assertEquals(List.of(1), graph.dependents(0));
+    }
+
+    @Test
+    void infer_WriteAfterRead_AddsEdge() {
+        SegmentGraph graph = SegmentGraph.infer(List.of(access(Set.of("orders"), Set.of("totals")), access(Set.of(), Set.of("orders"))));
+        assertEquals(List.of(0), graph.dependencies(1));
+    }
+
+    @Test
+    void infer_WriteAfterWrite_AddsEdge() {
+        SegmentGraph graph = SegmentGraph.infer(List.of(access(Set.of("a"), Set.of("totals")), access(Set.of("b"), Set.of("totals"))));
+        assertEquals(List.of(0), graph.dependencies(1));
+    }
+
+    @Test
+    void infer_SharedReadsOrDisjointObjects_NoEdge() {
+        // Arrange
+        List<SegmentGraph.Access> accesses = List.of(
+            access(Set.of("orders"), Set.of("a")),
+            access(Set.of("orders"), Set.of("b")),
+            access(Set.of("customers"), Set.of()));
+
+        // Act
+        SegmentGraph graph = SegmentGraph.infer(accesses);
+
+        // Assert
+        for (int i = 0; i < graph.size(); i++) {
+            assertEquals(List.of(), graph.dependencies(i));
+            assertEquals(List.of(), graph.dependents(i));
+            assertEquals(1, graph.height(i));
+        }
+        assertEquals(1, graph.criticalPath());
+    }
+
+    @Test
+    void infer_LaterWriterOfEarlierInput_OnlyPointsForward() {
+        // Segment 1 writes what segment 0 reads: segment 1 waits for segment 0, never the other way round
+        SegmentGraph graph = SegmentGraph.infer(List.of(access(Set.of("stage"), Set.of("out")), access(Set.of("in"), Set.of("stage"))));
+        assertEquals(List.of(), graph.dependencies(0));
+        assertEquals(List.of(0), graph.dependencies(1));
+    }
+
+    @Test
+    void chain_EverySegmentDependsOnThePreviousOne() {
+        // Act
+        SegmentGraph graph = SegmentGraph.chain(3);
+
+        // Assert
+        assertEquals(List.of(), graph.dependencies(0));
+        assertEquals(List.of(0), graph.dependencies(1));
+        assertEquals(List.of(1), graph.dependencies(2));
+        assertEquals(3, graph.height(0));
+        assertEquals(1, graph.height(2));
+        assertEquals(3, graph.criticalPath());
+    }
+
+    @Test
+    void height_LongestPathToTheEnd() {
+        // Arrange: 0 -> 2 -> 3 and 1 -> 3, with 4 on its own
+        List<SegmentGraph.Access> accesses = List.of(
+            access(Set.of(), Set.of("a")),
+            access(Set.of(), Set.of("b")),
+            access(Set.of("a"), Set.of("c")),
+            access(Set.of("b", "c"), Set.of("d")),
+            access(Set.of("x"), Set.of("y")));
+
+        // Act
+        SegmentGraph graph = SegmentGraph.infer(accesses);
+
+        // Assert
+        assertEquals(List.of(1, 2), graph.dependencies(3));
+        assertEquals(3, graph.height(0));
+        assertEquals(2, graph.height(1));
+        assertEquals(2, graph.height(2));
+        assertEquals(1, graph.height(3));
+        assertEquals(1, graph.height(4));
+        assertEquals(3, graph.criticalPath());
+    }
+
+    @Test
+    void summary_NamesSegmentsByTheirSteps() {
+        // Act
+        Map<String, Object> summary = SegmentGraph.infer(List.of(access(Set.of(), Set.of("a")), access(Set.of("a"), Set.of())))
+            .summary(List.of("S1", "S2"));
+
+        // Assert
+        assertEquals(2, summary.get("segments"));
+        assertEquals(2, summary.get("criticalPath"));
+        assertEquals(Map.of("S1", List.of(), "S2", List.of("S1")), summary.get("dependsOn"));
+    }
+}
@@ -0,0 +1,331 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.AggregateFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalHashAggregateTest {
+
+    // About two groups fit, so the table spills on almost every new group
+    private static final long TINY_BUDGET = 1_000;
+
+    @TempDir
+    Path root;
+
+    private static final List<Operators.AggregateSpec> AGGREGATES = List.of(
+        new Operators.AggregateSpec(AggregateFunction.COUNT, null, "rows"),
+        new Operators.AggregateSpec(AggregateFunction.COUNT, row -> row.get("v"), "values"),
+        new Operators.AggregateSpec(AggregateFunction.SUM, row -> row.get("v"), "total"),
+        new Operators.AggregateSpec(AggregateFunction.AVG, row -> row.get("v"), "average"),
+        new Operators.AggregateSpec(AggregateFunction.MIN, row -> row.get("v"), "low"),
+        new Operators.AggregateSpec(AggregateFunction.MAX, row -> row.get("name"), "last"));
+
+    private static List<Map<String, Object>> randomRows(int count, int groups, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            int group = random.nextInt(groups);
+            // Mixed numeric types for the same key value must share a group
+            row.put("g", random.nextBoolean() ? (Object) (long) group : (Object) (double) group);
+            row.put("v", random.nextInt(8) == 0 ? null : (Object) (long) (random.nextInt(2_001) - 1_000));
+            row.put("name", "n" + random.nextInt(1_000));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static final class Expected {
+        long rows;
+        long values;
+        long total;
+        Long low;
+        String last;
+    }
+
+    // In-memory reference aggregation, keyed by the numeric value of g
+    private static Map<Double, Expected> expected(List<Map<String, Object>> rows) {
+        Map<Double, Expected> groups = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Expected group = groups.computeIfAbsent(((Number) row.get("g")).doubleValue(), key -> new Expected());
+            group.rows++;
+            Long v = (Long) row.get("v");
+            if (v != null) {
+                group.values++;
+                group.total += v;
+                group.low = group.low == null ? v : Math.min(group.low, v);
+            }
+            String name = (String) row.get("name");
+            if (group.last == null || name.compareTo(group.last) > 0) {
+                group.last = name;
+            }
+        }
+        return groups;
+    }
+
+    private static Map<Double, Map<String, Object>> byGroup(List<Map<String, Object>> rows) {
+        Map<Double, Map<String, Object>> groups = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            assertNull(groups.put(((Number) row.get("g")).doubleValue(), row), "group emitted twice: " + row);
+        }
+        return groups;
+    }
+
+    private List<Map<String, Object>> aggregate(List<Map<String, Object>> rows, SpillContext spill) {
+        return aggregate(rows, AGGREGATES, spill);
+    }
+
+    private List<Map<String, Object>> aggregate(List<Map<String, Object>> rows, List<Operators.AggregateSpec> aggregates,
+                                                SpillContext spill) {
+        ExternalSortTest.CollectingSink sink = new ExternalSortTest.CollectingSink();
+        ExternalHashAggregate aggregate = new ExternalHashAggregate(List.of("g"), List.of(row -> row.get("g")),
+            aggregates, spill, sink);
+        for (Map<String, Object> row : rows) {
+            assertTrue(aggregate.accept(row));
+        }
+        aggregate.finish();
+        assertTrue(sink.finished);
+        return sink.rows;
+    }
+
+    private static void assertMatches(Map<Double, Expected> expected, List<Map<String, Object>> actual) {
+        Map<Double, Map<String, Object>> groups = byGroup(actual);
+        assertEquals(expected.keySet(), groups.keySet());
+        expected.forEach((key, group) -> {
+            Map<String, Object> row = groups.get(key);
+            assertEquals(group.rows, row.get("rows"), "rows of " + key);
+            assertEquals(group.values, row.get("values"), "values of " + key);
+            assertEquals(group.values == 0 ? null : group.total, row.get("total"), "total of " + key);
+            assertEquals(group.values == 0 ? null : (double) group.total / group.values, row.get("average"), "average of " + key);
+            assertEquals(group.low, row.get("low"), "low of " + key);
+            assertEquals(group.last, row.get("last"), "last of " + key);
+        });
+    }
+
+    private long spillFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void aggregate_WithinBudget_KeepsFirstSeenOrderWithoutSpilling() {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(2_000, 50, 1);
+
+        try (SpillContext spill = new SpillContext(root, 64L * 1024 * 1024, 2, 2)) {
+            // Act
+            List<Map<String, Object>> result = aggregate(rows, spill);
+
+            // Assert
+            assertMatches(expected(rows), result);
+            assertEquals(0, spill.getHashPartitions());
+            List<Double> firstSeen = rows.stream().map(row -> ((Number) row.get("g")).doubleValue()).distinct().toList();
+            assertEquals(firstSeen, result.stream().map(row -> ((Number) row.get("g")).doubleValue()).toList());
+        }
+    }
+
+    @Test
+    void aggregate_TinyBudget_RepartitionsRecursivelyAndMatchesInMemory() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(5_000, 300, 2);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            List<Map<String, Object>> result = aggregate(rows, spill);
+
+            // Assert: partitions of partitions were written
+            assertMatches(expected(rows), result);
+            assertTrue(spill.getHashPartitions() > 2 * spill.getPartitions(), "partitions: " + spill.getHashPartitions());
+            assertEquals(0, spillFilesLeft());
+        }
+    }
+
+    @Test
+    void aggregate_TinyBudgetManyPartitions_MatchesInMemory() {
+        List<Map<String, Object>> rows = randomRows(5_000, 300, 3);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 16, 2)) {
+            assertMatches(expected(rows), aggregate(rows, spill));
+            assertTrue(spill.getHashPartitions() > 16);
+        }
+    }
+
+    @Test
+    void aggregate_SingleHugeGroup_StopsRepartitioningAtMaxDepth() {
+        // Arrange: hashing cannot split one group, so recursion must end
+        List<Map<String, Object>> rows = randomRows(3_000, 1, 4);
+
+        try (SpillContext spill = new SpillContext(root, 1, 2, 2)) {
+            // Act
+            List<Map<String, Object>> result = aggregate(rows, spill);
+
+            // Assert
+            assertMatches(expected(rows), result);
+            assertTrue(spill.getHashPartitions() <= 5, "partitions: " + spill.getHashPartitions());
+        }
+    }
+
+    @Test
+    void aggregate_DownstreamStops_DeletesPartitions() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(2_000, 200, 5);
+        ExternalSortTest.CollectingSink sink = new ExternalSortTest.CollectingSink(5);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            ExternalHashAggregate aggregate = new ExternalHashAggregate(List.of("g"), List.of(row -> row.get("g")),
+                AGGREGATES, spill, sink);
+            rows.forEach(aggregate::accept);
+            aggregate.finish();
+
+            // Assert
+            assertEquals(5, sink.rows.size());
+            assertTrue(sink.finished);
+            assertEquals(0, spillFilesLeft());
+        }
+    }
+
+    @Test
+    void aggregate_NoKeysNoRows_EmitsOneRow() {
+        // Arrange
+        ExternalSortTest.CollectingSink sink = new ExternalSortTest.CollectingSink();
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            ExternalHashAggregate aggregate = new ExternalHashAggregate(List.of(), List.of(), AGGREGATES, spill, sink);
+            aggregate.finish();
+
+            // Assert
+            Map<String, Object> expected = new LinkedHashMap<>();
+            expected.put("rows", 0L);
+            expected.put("values", 0L);
+            expected.put("total", null);
+            expected.put("average", null);
+            expected.put("low", null);
+            expected.put("last", null);
+            assertEquals(List.of(expected), sink.rows);
+        }
+    }
+
+    @Test
+    void aggregate_KeysNoRows_EmitsNothing() {
+        ExternalSortTest.CollectingSink sink = new ExternalSortTest.CollectingSink();
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            ExternalHashAggregate aggregate = new ExternalHashAggregate(List.of("g"), List.of(row -> row.get("g")),
+                AGGREGATES, spill, sink);
+            aggregate.finish();
+
+            assertEquals(List.of(), sink.rows);
+            assertTrue(sink.finished);
+        }
+    }
+
+    private static final List<Operators.AggregateSpec> SUMS = List.of(
+        new Operators.AggregateSpec(AggregateFunction.SUM, row -> row.get("v"), "total"),
+        new Operators.AggregateSpec(AggregateFunction.AVG, row -> row.get("v"), "average"));
+
+    private static Map<String, Object> row(Object group, Object value) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("g", group);
+        row.put("v", value);
+        return row;
+    }
+
+    @Test
+    void aggregate_LongsBeyondDoublePrecision_SumAndGroupExactlyInMemoryAndAfterSpilling() {
+        // Arrange: 100 keys that are all 2^53 as doubles, each summing 2^53 + 1 + 1; rows of a group are
+        // spread over the input so spilled partial sums get merged
+        long twoTo53 = 1L << 53;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object value : new Object[] {twoTo53, 1L, 1}) {
+            for (long i = 0; i < 100; i++) {
+                rows.add(row(twoTo53 + i, value));
+            }
+        }
+        rows.add(row(-1L, Long.MAX_VALUE));
+        rows.add(row(-1L, Long.MAX_VALUE));
+
+        for (long budget : new long[] {64L * 1024 * 1024, TINY_BUDGET}) {
+            try (SpillContext spill = new SpillContext(root, budget, 2, 2)) {
+                // Act
+                List<Map<String, Object>> result = aggregate(rows, SUMS, spill);
+
+                // Assert
+                assertEquals(budget == TINY_BUDGET, spill.getHashPartitions() > 0);
+                assertEquals(101, result.size());
+                for (Map<String, Object> group : result) {
+                    if (group.get("g").equals(-1L)) {
+                        // Past a long the sum moves to BigDecimal
+                        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2)), group.get("total"));
+                        continue;
+                    }
+                    assertEquals(twoTo53 + 2, group.get("total"), "group " + group.get("g"));
+                    assertEquals((double) (twoTo53 + 2) / 3, group.get("average"));
+                }
+                assertEquals(100, result.stream().map(group -> group.get("g")).filter(key -> !key.equals(-1L)).distinct().count());
+            }
+        }
+    }
+
+    @Test
+    void aggregate_Decimals_SumAndGroupExactlyInMemoryAndAfterSpilling() {
+        // Arrange: keys 1 + i * 10^-20, equal as doubles; each key also appears with trailing zeros
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String value : new String[] {"0.1", "0.2", "0.3"}) {
+            for (int i = 0; i < 100; i++) {
+                BigDecimal key = BigDecimal.ONE.add(BigDecimal.valueOf(i, 20));
+                rows.add(row(value.equals("0.3") ? key.setScale(25) : key, new BigDecimal(value)));
+            }
+        }
+        // 0.1 as a double, a decimal and a decimal with a trailing zero are one group
+        rows.add(row(0.1, new BigDecimal("0.1")));
+        rows.add(row(new BigDecimal("0.10"), new BigDecimal("0.2")));
+        rows.add(row(new BigDecimal("0.1"), new BigDecimal("0.3")));
+
+        for (long budget : new long[] {64L * 1024 * 1024, TINY_BUDGET}) {
+            try (SpillContext spill = new SpillContext(root, budget, 2, 2)) {
+                // Act
+                List<Map<String, Object>> result = aggregate(rows, SUMS, spill);
+
+                // Assert: 0.1 + 0.2 + 0.3 is 0.6, not 0.6000000000000001
+                assertEquals(budget == TINY_BUDGET, spill.getHashPartitions() > 0);
+                assertEquals(101, result.size());
+                for (Map<String, Object> group : result) {
+                    assertEquals(new BigDecimal("0.6"), group.get("total"), "group " + group.get("g"));
+                    assertEquals(0.2, (Double) group.get("average"), 1e-15);
+                }
+            }
+        }
+    }
+
+    @Test
+    void aggregate_IntegralDecimalAndDoubleKeys_GroupWithLongs() {
+        List<Map<String, Object>> rows = List.of(row(3L, 1L), row(3.0, 1L), row(new BigDecimal("3.00"), 1L),
+            row(new BigDecimal("3.5"), 1L), row(3.5, 1L));
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            List<Map<String, Object>> result = aggregate(rows, SUMS, spill);
+
+            assertEquals(2, result.size());
+            for (Map<String, Object> group : result) {
+                assertEquals(((Number) group.get("g")).doubleValue() == 3 ? 3L : 2L, group.get("total"));
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.RecordExpression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSortTest {
+
+    // A few rows per run, so every sort spills
+    private static final long TINY_BUDGET = 2_000;
+
+    @TempDir
+    Path root;
+
+    static final class CollectingSink implements RowSink {
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        final int stopAfter;
+        boolean finished;
+
+        CollectingSink(int stopAfter) {
+            this.stopAfter = stopAfter;
+        }
+
+        CollectingSink() {
+            this(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean accept(Map<String, Object> row) {
+            rows.add(row);
+            return rows.size() < stopAfter;
+        }
+
+        @Override
+        public void finish() {
+            finished = true;
+        }
+    }
+
+    private static List<Map<String, Object>> randomRows(int count, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i);
+            // Few distinct keys, so ties are common; some nulls
+            row.put("k", random.nextInt(10) == 0 ? null : (Object) (long) random.nextInt(20));
+            row.put("s", "name-" + random.nextInt(5));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<RecordExpression> keys(String... names) {
+        List<RecordExpression> keys = new ArrayList<>();
+        for (String name : names) {
+            keys.add(row -> row.get(name));
+        }
+        return keys;
+    }
+
+    // In-memory reference: a stable sort, k ascending (nulls last) then s descending
+    private static List<Map<String, Object>> expected(List<Map<String, Object>> rows, Integer limit) {
+        Comparator<Map<String, Object>> byK = (a, b) -> Operators.compareValues(a.get("k"), b.get("k"));
+        Comparator<Map<String, Object>> byS = (a, b) -> Operators.compareValues(b.get("s"), a.get("s"));
+        List<Map<String, Object>> sorted = new ArrayList<>(rows);
+        sorted.sort(byK.thenComparing(byS));
+        return limit == null ? sorted : sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private List<Map<String, Object>> sort(List<Map<String, Object>> rows, Integer limit, SpillContext spill) {
+        CollectingSink sink = new CollectingSink();
+        ExternalSort sort = new ExternalSort(keys("k", "s"), new boolean[] {false, true}, limit, spill, sink);
+        for (Map<String, Object> row : rows) {
+            assertTrue(sort.accept(row));
+        }
+        sort.finish();
+        assertTrue(sink.finished);
+        return sink.rows;
+    }
+
+    private long spillFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void sort_WithinBudget_DoesNotSpill() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(200, 1);
+
+        try (SpillContext spill = new SpillContext(root, 64L * 1024 * 1024, 2, 2)) {
+            // Act
+            List<Map<String, Object>> sorted = sort(rows, null, spill);
+
+            // Assert
+            assertEquals(expected(rows, null), sorted);
+            assertEquals(0, spill.getSortRuns());
+            assertEquals(0, spill.getSpillFiles());
+        }
+    }
+
+    @Test
+    void sort_TinyBudgetFanInTwo_MatchesInMemorySortAcrossMergePasses() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(1_000, 2);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            List<Map<String, Object>> sorted = sort(rows, null, spill);
+
+            // Assert
+            assertEquals(expected(rows, null), sorted);
+            assertTrue(spill.getSortRuns() > 10, "runs: " + spill.getSortRuns());
+            assertTrue(spill.getMergePasses() > 2, "merge passes: " + spill.getMergePasses());
+            assertEquals(0, spillFilesLeft());
+        }
+    }
+
+    @Test
+    void sort_TinyBudgetWiderFanIn_MatchesInMemorySort() {
+        List<Map<String, Object>> rows = randomRows(1_000, 3);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 7)) {
+            assertEquals(expected(rows, null), sort(rows, null, spill));
+            assertTrue(spill.getMergePasses() > 1);
+        }
+    }
+
+    @Test
+    void sort_EqualKeys_KeepInputOrderAcrossRuns() {
+        // Arrange
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i);
+            row.put("k", i % 2 == 0 ? 1L : 1.0);
+            rows.add(row);
+        }
+        CollectingSink sink = new CollectingSink();
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            ExternalSort sort = new ExternalSort(keys("k"), new boolean[] {true}, null, spill, sink);
+            rows.forEach(sort::accept);
+            sort.finish();
+
+            // Assert: 1 and 1.0 tie, and ties come out in input order
+            assertTrue(spill.getSortRuns() > 1);
+            assertEquals(rows, sink.rows);
+        }
+    }
+
+    @Test
+    void sort_Limit_KeepsBestRowsOnly() {
+        List<Map<String, Object>> rows = randomRows(1_000, 4);
+        for (Integer limit : new Integer[] {0, 1, 7, 100, 999, 1_000, 5_000}) {
+            try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+                assertEquals(expected(rows, limit), sort(rows, limit, spill), "limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void sort_DownstreamStops_StopsMergingAndDeletesRuns() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(500, 5);
+        CollectingSink sink = new CollectingSink(3);
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            ExternalSort sort = new ExternalSort(keys("k", "s"), new boolean[] {false, true}, null, spill, sink);
+            rows.forEach(sort::accept);
+            sort.finish();
+
+            // Assert
+            assertEquals(expected(rows, 3), sink.rows);
+            assertTrue(sink.finished);
+            assertEquals(0, spillFilesLeft());
+        }
+    }
+
+    @Test
+    void sort_SpilledRows_KeepValueTypes() {
+        // Arrange
+        List<Map<String, Object>> rows = randomRows(300, 6);
+        rows.forEach(row -> row.put("amount", new BigDecimal(row.get("id") + ".10")));
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            List<Map<String, Object>> sorted = sort(rows, null, spill);
+
+            // Assert
+            assertTrue(spill.getSortRuns() > 1);
+            for (Map<String, Object> row : sorted) {
+                assertInstanceOf(Long.class, row.get("id"));
+                assertInstanceOf(BigDecimal.class, row.get("amount"));
+            }
+        }
+    }
+
+    @Test
+    void compareValues_NumbersBeyondDoublePrecision_OrderExactly() {
+        long twoTo53 = 1L << 53;
+        assertTrue(Operators.compareValues(twoTo53 + 1, twoTo53) > 0);
+        assertTrue(Operators.compareValues(new BigDecimal("0.30000000000000000001"), new BigDecimal("0.3")) > 0);
+        assertTrue(Operators.compareValues(BigDecimal.valueOf(twoTo53).add(BigDecimal.ONE), (double) twoTo53) > 0);
+        assertEquals(0, Operators.compareValues(3L, new BigDecimal("3.00")));
+        assertEquals(0, Operators.compareValues(-0.0, 0L));
+        assertTrue(Operators.compareValues(Double.POSITIVE_INFINITY, Long.MAX_VALUE) > 0);
+    }
+
+    @Test
+    void sort_LongsBeyondDoublePrecision_OrderExactlyAfterSpilling() {
+        // Arrange: descending 2^53 + i, all equal as doubles
+        long twoTo53 = 1L << 53;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (long i = 300; i > 0; i--) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("k", twoTo53 + i);
+            rows.add(row);
+        }
+        CollectingSink sink = new CollectingSink();
+
+        try (SpillContext spill = new SpillContext(root, TINY_BUDGET, 2, 2)) {
+            // Act
+            ExternalSort sort = new ExternalSort(keys("k"), new boolean[] {false}, null, spill, sink);
+            rows.forEach(sort::accept);
+            sort.finish();
+
+            // Assert
+            assertTrue(spill.getSortRuns() > 1);
+            for (int i = 0; i < sink.rows.size(); i++) {
+                assertEquals(twoTo53 + i + 1, sink.rows.get(i).get("k"));
+            }
+        }
+    }
+}
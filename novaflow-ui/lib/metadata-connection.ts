@@ -64,8 +64,13 @@ export interface ConnectionHistory {
   created_date: string;
 }
 
+// List endpoints return one page per request and the next page's cursor in this header
+const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
+// Largest page size the metadata backend accepts
+const MAX_PAGE_SIZE = 1000;
+
 class MetadataConnectionService {
-  private async request<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
+  private async fetchOk(endpoint: string, options: RequestInit = {}): Promise<Response> {
     const token = localStorage.getItem('nf_token');
     
     const response = await fetch(`${METADATA_BASE_URL}${endpoint}`, {
@@ -81,13 +86,38 @@ class MetadataConnectionService {
       throw new Error(`HTTP ${response.status}: ${response.statusText}`);
     }
 
+    return response;
+  }
+
+  private async request<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
+    const response = await this.fetchOk(endpoint, options);
     return response.json();
   }
 
-  // Get current connections (only latest versions)
+  // Read every page of a paged list endpoint by following X-Next-Cursor
+  private async requestAllPages<T>(endpoint: string, params: URLSearchParams = new URLSearchParams()): Promise<T[]> {
+    const items: T[] = [];
+    let cursor: string | null = null;
+    do {
+      const pageParams = new URLSearchParams(params);
+      pageParams.set('limit', String(MAX_PAGE_SIZE));
+      if (cursor) {
+        pageParams.set('cursor', cursor);
+      }
+      const response = await this.fetchOk(`${endpoint}?${pageParams}`);
+      items.push(...(await response.json() as T[]));
+      cursor = response.headers.get(NEXT_CURSOR_HEADER);
+    } while (cursor);
+    return items;
+  }
+
+  // Get current connections (only latest versions). Connections of one domain come back in a
+  // single response; all accessible connections are paged, so every page is read.
   async getConnections(domainId?: string): Promise<Connection[]> {
-    const params = domainId ? `?domain_id=${domainId}` : '';
-    return this.request<Connection[]>(`/api/connections${params}`);
+    if (domainId && domainId !== 'all') {
+      return this.request<Connection[]>(`/api/connections?domain_id=${encodeURIComponent(domainId)}`);
+    }
+    return this.requestAllPages<Connection>('/api/connections');
   }
 
   // Create new connection
@@ -0,0 +1,37 @@
+-- Clustered run control scheduling (runcontrol.cluster.enabled=true).
+-- The only definition of these tables: apply it before enabling clustering, the backend does not create them.
+-- The partition count is the number of rows seeded into run_control_scheduler_leases.
+
+SET search_path TO metadata, public;
+
+-- Live backend nodes; a node whose heartbeat is older than the lease TTL is considered dead
+CREATE TABLE IF NOT EXISTS run_control_scheduler_nodes (
+    node_id TEXT PRIMARY KEY,
+    started_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    heartbeat_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- One row per schedule partition; a run control belongs to partition hash(run_control_id) mod the row count.
+-- fencing_token grows every time the partition changes hands.
+CREATE TABLE IF NOT EXISTS run_control_scheduler_leases (
+    partition_id INTEGER PRIMARY KEY,
+    owner TEXT,
+    fencing_token BIGINT NOT NULL DEFAULT 0,
+    expires_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Claimed firings: a firing runs only on the node that inserts its row while holding the partition's current lease
+CREATE TABLE IF NOT EXISTS run_control_scheduler_fires (
+    run_control_id TEXT NOT NULL,
+    fire_time TIMESTAMPTZ NOT NULL,
+    node_id TEXT NOT NULL,
+    fencing_token BIGINT NOT NULL,
+    fired_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (run_control_id, fire_time)
+);
+
+CREATE INDEX IF NOT EXISTS idx_run_control_scheduler_fires_fired_at ON run_control_scheduler_fires(fired_at);
+
+INSERT INTO run_control_scheduler_leases (partition_id)
+SELECT generate_series(0, 31)
+WHERE NOT EXISTS (SELECT 1 FROM run_control_scheduler_leases);
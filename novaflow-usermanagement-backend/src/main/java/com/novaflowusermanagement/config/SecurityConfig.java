@@ -3,22 +3,31 @@
 import java.util.Collections;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.novaflowusermanagement.service.AuthorizationService;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -33,6 +42,14 @@ public class SecurityConfig {
     @Value("${google.oauth2.hosted-domain:}")
     private String hostedDomain;
 
+    @Value("${rbac.actuator.admin-role:Admin}")
+    private String actuatorAdminRole;
+
+    // Lazy, so the security configuration does not create it before its caching proxy is in place
+    @Autowired
+    @Lazy
+    private AuthorizationService authorizationService;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -42,6 +59,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 // Public endpoints - zero trust: only these specific paths allowed without auth
                 .requestMatchers("/actuator/health").permitAll()
+                // Metrics reveal load and usage figures; administrators only
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").access(actuatorAdmin())
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 // Zero-trust on /metadata/** endpoints - require authentication
                 .requestMatchers("/metadata/**").authenticated()
@@ -60,6 +79,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Grants callers holding rbac.actuator.admin-role in user_management; JWT groups are not consulted
+     */
+    private AuthorizationManager<RequestAuthorizationContext> actuatorAdmin() {
+        return (authentication, context) -> {
+            Authentication caller = authentication.get();
+            boolean admin = caller instanceof JwtAuthenticationToken
+                && authorizationService.getAuthorizationContext(caller).roles().stream()
+                    .anyMatch(role -> role.equalsIgnoreCase(actuatorAdminRole));
+            return new AuthorizationDecision(admin);
+        };
+    }
+
     @Bean
     public JwtDecoder jwtDecoder() {
         NimbusJwtDecoder jwtDecoder = JwtDecoders.fromIssuerLocation(issuer);
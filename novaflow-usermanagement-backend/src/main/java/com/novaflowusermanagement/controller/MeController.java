@@ -32,22 +32,21 @@ public class MeController {
         
         AuthorizationService.Identity identity = authorizationService.getCurrentIdentity(authentication);
         
+        // Single cached snapshot: existence, roles, permissions and domains
+        AuthorizationService.UserProfile profile = authorizationService.getUserProfile(authentication);
+        
         // Check if user exists in database - reject if not found
-        if (!authorizationService.userExistsInDatabase(identity.email())) {
+        if (!profile.exists()) {
             return ResponseEntity.status(403).build(); // 403 Forbidden - user not authorized
         }
-        
-        Set<String> effectiveRoles = authorizationService.getEffectiveRoles(authentication);
-        List<AuthorizationService.UserPermission> permissions = authorizationService.getAllPermissions(authentication);
-        List<AuthorizationService.UserDomain> domains = authorizationService.getUserDomains(authentication);
 
         // Google OIDC: Return identity with DB-derived roles, permissions, and domains
         UserProfileResponse response = new UserProfileResponse(
             identity.sub(),
             identity.email(),
-            effectiveRoles,
-            permissions,
-            domains
+            profile.roles(),
+            profile.permissions(),
+            profile.domains()
         );
 
         return ResponseEntity.ok(response);
@@ -0,0 +1,83 @@
+package com.novaflowusermanagement.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rolls SUCCESS audit events up into per-window counts. Events are keyed by event type, entity and
+ * details; for PERMISSION_CHECK the details name exactly one page and permission, so the key is
+ * (eventType, entityId, page, permission). Writer thread only.
+ */
+final class AuditAggregator {
+
+    // Matches AuthorizationService's "Permission %s granted for page %s"
+    private static final Pattern PERMISSION_GRANTED = Pattern.compile("Permission (\\S+) granted for page (\\S+)");
+
+    private final long windowMs;
+    private final int maxKeys;
+    private final Map<Key, Summary> counts = new HashMap<>();
+    private long windowStart;
+
+    record Key(String eventType, String entityType, String entityId, String details) {
+    }
+
+    /**
+     * One key's count over a window; page and permission are set for PERMISSION_CHECK
+     */
+    static final class Summary {
+        final Key key;
+        final String page;
+        final String permission;
+        long count;
+        long firstSeen;
+        long lastSeen;
+
+        private Summary(Key key, long timestamp) {
+            this.key = key;
+            Matcher matcher = key.details() != null ? PERMISSION_GRANTED.matcher(key.details()) : null;
+            boolean permissionCheck = matcher != null && matcher.matches();
+            this.permission = permissionCheck ? matcher.group(1) : null;
+            this.page = permissionCheck ? matcher.group(2) : null;
+            this.firstSeen = timestamp;
+        }
+    }
+
+    AuditAggregator(long windowMs, int maxKeys) {
+        this.windowMs = windowMs;
+        this.maxKeys = maxKeys;
+    }
+
+    void add(AuditEvent event) {
+        if (counts.isEmpty()) {
+            windowStart = event.timestamp;
+        }
+        Key key = new Key(event.eventType, event.entityType, event.entityId, event.details);
+        Summary summary = counts.computeIfAbsent(key, k -> new Summary(k, event.timestamp));
+        summary.count++;
+        summary.lastSeen = event.timestamp;
+    }
+
+    long windowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Whether the window has elapsed, or the key count has hit its cap and must be flushed early
+     */
+    boolean due(long now) {
+        return !counts.isEmpty() && (now - windowStart >= windowMs || counts.size() >= maxKeys);
+    }
+
+    /**
+     * Return and reset the current window's summaries
+     */
+    List<Summary> drain() {
+        List<Summary> summaries = new ArrayList<>(counts.values());
+        counts.clear();
+        return summaries;
+    }
+}
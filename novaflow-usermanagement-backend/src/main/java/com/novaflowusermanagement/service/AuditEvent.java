@@ -0,0 +1,32 @@
+package com.novaflowusermanagement.service;
+
+/**
+ * One audit event as captured on the calling thread: raw references and an epoch-millis timestamp,
+ * nothing formatted. Instances are ring buffer slots and are reused, so they must not escape the writer.
+ */
+final class AuditEvent {
+
+    long timestamp;
+    String eventType;
+    String entityType;
+    String entityId;
+    String outcome;
+    String details;
+
+    void set(long timestamp, String eventType, String entityType, String entityId, String outcome, String details) {
+        this.timestamp = timestamp;
+        this.eventType = eventType;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.outcome = outcome;
+        this.details = details;
+    }
+
+    void clear() {
+        set(0L, null, null, null, null, null);
+    }
+
+    boolean isWarning() {
+        return AuditLogger.isWarning(outcome);
+    }
+}
@@ -0,0 +1,89 @@
+package com.novaflowusermanagement.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring of preallocated AuditEvent slots.
+ * Producers claim a sequence with a CAS, fill the slot and publish it; the consumer reads published
+ * slots in sequence order and releases them in bulk after each drain. A slot is never reclaimed
+ * before the consumer has released it, so a full ring makes tryClaim fail instead of overwriting.
+ */
+final class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final int mask;
+    // Sequence last published into each slot; -1 until first use
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read; only written by the consumer
+    private volatile long consumed;
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        slots = new AuditEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent();
+        }
+        mask = capacity - 1;
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Claim the next sequence, or -1 if the ring is full. A claimed sequence must be published.
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                return -1L;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    AuditEvent slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Hand up to max published events, in sequence order, to the handler and release their slots.
+     * Stops at the first claimed-but-unpublished slot. Consumer thread only.
+     */
+    int drain(Consumer<AuditEvent> handler, int max) {
+        long next = consumed;
+        int count = 0;
+        while (count < max && published.get((int) next & mask) == next) {
+            AuditEvent event = slots[(int) next & mask];
+            handler.accept(event);
+            event.clear();
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = next;
+        }
+        return count;
+    }
+
+    /**
+     * Claimed but not yet released events, including ones still being published
+     */
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+}
@@ -0,0 +1,19 @@
+package com.novaflowusermanagement.service;
+
+import java.util.List;
+
+/**
+ * Consumer of the audit journal, e.g. a Kafka producer. Every AuditSink bean is fed by
+ * AuditSinkDispatcher on its own thread, in sequence order, starting after the last batch it
+ * acknowledged. Delivery is at-least-once: a batch is acknowledged when publish returns, and is
+ * retried (from its first entry) when publish throws or the service stops before it returns.
+ */
+public interface AuditSink {
+
+    /**
+     * Stable name; the sink's journal position is stored under it
+     */
+    String name();
+
+    void publish(List<AuditJournal.Entry> entries) throws Exception;
+}
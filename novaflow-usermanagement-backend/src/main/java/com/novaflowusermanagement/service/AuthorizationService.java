@@ -1,7 +1,6 @@
 package com.novaflowusermanagement.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
@@ -9,6 +8,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.*;
 
@@ -18,14 +19,16 @@ public class AuthorizationService {
     // Identity record for Google OIDC
     public record Identity(String sub, String email) {}
 
+    private static final String CONTEXT_ATTRIBUTE = AuthorizationContext.class.getName();
+
     @Autowired
     private AuditLogger auditLogger;
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    @Value("${rbac.cache.ttl.seconds:600}")
-    private int cacheTtlSeconds;
+    @Autowired
+    private PermissionMatrixService permissionMatrixService;
 
     /**
      * Extract user identity from Google JWT token.
@@ -56,6 +59,24 @@ public class AuthorizationService {
         return new Identity(sub, email);
     }
 
+    /**
+     * Key of per-user RBAC cache entries: the email claim, so that RbacInvalidationEvents
+     * (which identify users by email) can evict them. Never throws; falls back to the principal name.
+     */
+    public String cacheKey(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
+            Jwt jwt = jwtAuth.getToken();
+            String email = jwt.getClaimAsString("email");
+            if (email == null || email.isEmpty()) {
+                email = jwt.getClaimAsString("preferred_username");
+            }
+            if (email != null && !email.isEmpty()) {
+                return email;
+            }
+        }
+        return authentication.getName();
+    }
+
     /**
      * Check if user exists in the database by email
      */
@@ -81,83 +102,96 @@ public class AuthorizationService {
     }
 
     /**
-     * Get effective roles for a user from database only - DB-only RBAC
+     * Authorization context of the caller, resolved once per HTTP request and reused by
+     * @PreAuthorize checks, services and controllers for the rest of that request.
+     * Outside a request (e.g. scheduled jobs) a fresh context is resolved on every call.
      */
-    @Cacheable(value = "userRoles", key = "#authentication.name")
-    public Set<String> getEffectiveRoles(Authentication authentication) {
-        Identity identity = getCurrentIdentity(authentication);
-        
-        String sql = """
-            SELECT DISTINCT r.name
-            FROM user_management.users u
-            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
-            JOIN user_management.roles r ON r.id = udr.role_id
-            WHERE u.email = ?
-        """;
-        Object[] params = new Object[]{identity.email()};
+    public AuthorizationContext getAuthorizationContext(Authentication authentication) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AuthorizationContext context
+                && context.isFor(authentication)) {
+            return context;
+        }
 
-        try {
-            List<String> roles = jdbcTemplate.queryForList(sql, String.class, params);
-            
-            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "SUCCESS", roles.size() + " roles found");
-            return new HashSet<>(roles);
-        } catch (Exception e) {
-            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "ERROR", "Failed to get effective roles: " + e.getMessage());
-            return new HashSet<>();
+        Identity identity = getCurrentIdentity(authentication);
+        AuthorizationContext context = new AuthorizationContext(authentication.getName(), identity,
+            lookupRoles(identity), () -> lookupAccessibleDomainIds(identity));
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CONTEXT_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
         }
+        return context;
     }
 
     /**
-     * Check if user has specific permission for a page - DB-only RBAC
+     * Get effective roles for a user from database only - DB-only RBAC.
+     * Empty results are not cached so new role assignments (and DB errors) are not pinned for the TTL.
      */
-    @Cacheable(value = "userPermissions", key = "#authentication.name + ':' + #pagePath + ':' + #permissionName")
+    @Cacheable(value = "userRoles", key = "#root.target.cacheKey(#authentication)", unless = "#result.isEmpty()")
+    public Set<String> getEffectiveRoles(Authentication authentication) {
+        return new HashSet<>(getAuthorizationContext(authentication).roles());
+    }
+
+    /**
+     * Check if user has specific permission for a page - DB-only RBAC.
+     * Only grants are cached; denials and failed checks are re-evaluated on the next call.
+     */
+    @Cacheable(value = "userPermissions", key = "#root.target.cacheKey(#authentication) + ':' + #pagePath + ':' + #permissionName", unless = "!#result")
     public boolean hasPermission(Authentication authentication, String permissionName, String pagePath) {
-        try {
-            // First get user's effective roles
-            Set<String> roles = getEffectiveRoles(authentication);
-            if (roles.isEmpty()) {
-                Identity identity = getCurrentIdentity(authentication);
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "DENIED", "No roles found for user");
-                return false;
-            }
+        AuthorizationContext context = getAuthorizationContext(authentication);
+        String email = context.email();
 
-            // Check if any role grants the permission for the page
-            String sql = """
-                SELECT EXISTS (
-                    SELECT 1
-                    FROM user_management.role_page_permissions rpp
-                    JOIN user_management.pages p ON p.id = rpp.page_id
-                    JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
-                    WHERE p.path = ?
-                    AND pt.name = ?
-                    AND rpp.is_granted = TRUE
-                    AND rpp.role_name = ANY(?)
-                )
-            """;
+        if (!context.rolesResolved()) {
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "ERROR", "Permission check failed: roles could not be resolved");
+            return false;
+        }
+        Set<String> roles = context.roles();
+        if (roles.isEmpty()) {
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "DENIED", "No roles found for user");
+            return false;
+        }
 
-            boolean hasPermission = jdbcTemplate.queryForObject(
-                sql, 
-                Boolean.class, 
-                pagePath, 
-                permissionName, 
-                roles.toArray(new String[0])
-            );
+        try {
+            // Check if any role grants the permission for the page, from the in-memory matrix when available
+            boolean hasPermission;
+            PermissionMatrix matrix = permissionMatrixService.current();
+            if (matrix != null) {
+                hasPermission = matrix.isGranted(roles, pagePath, permissionName);
+            } else {
+                String sql = """
+                    SELECT EXISTS (
+                        SELECT 1
+                        FROM user_management.role_page_permissions rpp
+                        JOIN user_management.pages p ON p.id = rpp.page_id
+                        JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
+                        WHERE p.path = ?
+                        AND pt.name = ?
+                        AND rpp.is_granted = TRUE
+                        AND rpp.role_name = ANY(?)
+                    )
+                """;
+
+                hasPermission = jdbcTemplate.queryForObject(
+                    sql, 
+                    Boolean.class, 
+                    pagePath, 
+                    permissionName, 
+                    roles.toArray(new String[0])
+                );
+            }
 
-            Identity identity = getCurrentIdentity(authentication);
-            
             if (hasPermission) {
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "SUCCESS", 
+                auditLogger.emit("PERMISSION_CHECK", "USER", email, "SUCCESS", 
                     String.format("Permission %s granted for page %s", permissionName, pagePath));
             } else {
-                auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "DENIED", 
+                auditLogger.emit("PERMISSION_CHECK", "USER", email, "DENIED", 
                     String.format("Permission %s denied for page %s", permissionName, pagePath));
             }
 
             return hasPermission;
 
         } catch (Exception e) {
-            Identity identity = getCurrentIdentity(authentication);
-            auditLogger.emit("PERMISSION_CHECK", "USER", identity.email(), "ERROR", "Permission check failed: " + e.getMessage());
+            auditLogger.emit("PERMISSION_CHECK", "USER", email, "ERROR", "Permission check failed: " + e.getMessage());
             return false;
         }
     }
@@ -165,10 +199,11 @@ public class AuthorizationService {
     /**
      * Get all permissions for a user across all pages 
      */
-    @Cacheable(value = "userAllPermissions", key = "#authentication.name")
+    @Cacheable(value = "userAllPermissions", key = "#root.target.cacheKey(#authentication)", unless = "#result.isEmpty()")
     public List<UserPermission> getAllPermissions(Authentication authentication) {
+        AuthorizationContext context = getAuthorizationContext(authentication);
         try {
-            Set<String> roles = getEffectiveRoles(authentication);
+            Set<String> roles = context.roles();
             if (roles.isEmpty()) {
                 return new ArrayList<>();
             }
@@ -189,8 +224,7 @@ public class AuthorizationService {
             );
 
         } catch (Exception e) {
-            Identity identity = getCurrentIdentity(authentication);
-            auditLogger.emit("PERMISSION_QUERY", "USER", identity.email(), "ERROR", "Failed to get all permissions: " + e.getMessage());
+            auditLogger.emit("PERMISSION_QUERY", "USER", context.email(), "ERROR", "Failed to get all permissions: " + e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -198,7 +232,7 @@ public class AuthorizationService {
     /**
      * Get accessible domains for a user from database
      */
-    @Cacheable(value = "userDomains", key = "#authentication.name")
+    @Cacheable(value = "userDomains", key = "#root.target.cacheKey(#authentication)", unless = "#result.isEmpty()")
     public List<UserDomain> getUserDomains(Authentication authentication) {
         Identity identity = getCurrentIdentity(authentication);
         
@@ -239,6 +273,82 @@ public class AuthorizationService {
         }
     }
 
+    /**
+     * Build the complete /api/me snapshot (existence, roles, permissions, domains) in one round trip.
+     * Users that are missing or inactive are not cached so provisioning takes effect immediately.
+     */
+    @Cacheable(value = "userProfiles", key = "#root.target.cacheKey(#authentication)", unless = "!#result.exists()")
+    public UserProfile getUserProfile(Authentication authentication) {
+        Identity identity = getCurrentIdentity(authentication);
+
+        // kind | a | b | c  ->  USER: id | ROLE: name | PERMISSION: path, permission | DOMAIN: code, id, name
+        String sql = """
+            WITH u AS (
+                SELECT id FROM user_management.users WHERE email = ? AND is_active = TRUE
+            ), r AS (
+                SELECT DISTINCT r.name, r.domain_id
+                FROM u
+                JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
+                JOIN user_management.roles r ON r.id = udr.role_id
+            )
+            SELECT 'USER' AS kind, u.id AS a, NULL::text AS b, NULL::text AS c FROM u
+            UNION ALL
+            SELECT DISTINCT 'ROLE', r.name, NULL::text, NULL::text FROM r
+            UNION ALL
+            SELECT DISTINCT 'PERMISSION', p.path, pt.name, NULL::text
+            FROM user_management.role_page_permissions rpp
+            JOIN user_management.pages p ON p.id = rpp.page_id
+            JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
+            WHERE rpp.is_granted = TRUE AND rpp.role_name IN (SELECT name FROM r)
+            UNION ALL
+            SELECT DISTINCT 'DOMAIN', d.code, d.id, d.name
+            FROM user_management.domains d
+            WHERE d.is_active = TRUE AND d.id IN (SELECT domain_id FROM r)
+            ORDER BY kind, a, b
+        """;
+
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, identity.email());
+
+            boolean exists = false;
+            Set<String> roles = new HashSet<>();
+            List<UserPermission> permissions = new ArrayList<>();
+            List<UserDomain> domains = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                String a = (String) row.get("a");
+                String b = (String) row.get("b");
+                switch ((String) row.get("kind")) {
+                    case "USER" -> exists = true;
+                    case "ROLE" -> roles.add(a);
+                    case "PERMISSION" -> permissions.add(new UserPermission(a, "", b));
+                    case "DOMAIN" -> domains.add(new UserDomain(b, a, (String) row.get("c")));
+                    default -> { }
+                }
+            }
+
+            auditLogger.emit("USER_EXISTENCE_CHECK", "USER", identity.email(), exists ? "SUCCESS" : "NOT_FOUND",
+                exists ? "User found in database" : "User not found in database");
+            if (!exists) {
+                return UserProfile.notFound();
+            }
+
+            auditLogger.emit("PROFILE_QUERY", "USER", identity.email(), "SUCCESS",
+                String.format("%d roles, %d permissions, %d domains found", roles.size(), permissions.size(), domains.size()));
+            return new UserProfile(true, Collections.unmodifiableSet(roles),
+                Collections.unmodifiableList(permissions), Collections.unmodifiableList(domains));
+        } catch (Exception e) {
+            auditLogger.emit("USER_EXISTENCE_CHECK", "USER", identity.email(), "ERROR", "Database error: " + e.getMessage());
+            return UserProfile.notFound(); // Fail closed - deny access on database errors
+        }
+    }
+
+    // Precomputed /api/me snapshot, cached per user
+    public record UserProfile(boolean exists, Set<String> roles, List<UserPermission> permissions, List<UserDomain> domains) {
+        static UserProfile notFound() {
+            return new UserProfile(false, Set.of(), List.of(), List.of());
+        }
+    }
+
     // Domain data transfer object
     public static class UserDomain {
         private final String id;
@@ -256,6 +366,44 @@ public class AuthorizationService {
         public String getName() { return name; }
     }
 
+    /**
+     * Effective role names of the user, or null when the lookup failed
+     */
+    private Set<String> lookupRoles(Identity identity) {
+        String sql = """
+            SELECT DISTINCT r.name
+            FROM user_management.users u
+            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
+            JOIN user_management.roles r ON r.id = udr.role_id
+            WHERE u.email = ?
+        """;
+        Object[] params = new Object[]{identity.email()};
+
+        try {
+            List<String> roles = jdbcTemplate.queryForList(sql, String.class, params);
+            
+            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "SUCCESS", roles.size() + " roles found");
+            return new HashSet<>(roles);
+        } catch (Exception e) {
+            auditLogger.emit("ROLE_QUERY", "USER", identity.email(), "ERROR", "Failed to get effective roles: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ids of the domains the (active) user holds an active role in
+     */
+    private Set<String> lookupAccessibleDomainIds(Identity identity) {
+        String sql = """
+            SELECT DISTINCT r.domain_id
+            FROM user_management.users u
+            JOIN user_management.user_domain_roles udr ON udr.user_id = u.id AND udr.is_active = TRUE
+            JOIN user_management.roles r ON r.id = udr.role_id
+            WHERE u.email = ? AND u.is_active = TRUE
+        """;
+        return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, identity.email()));
+    }
+
     // Inner classes for data transfer
 
     public static class UserPermission {
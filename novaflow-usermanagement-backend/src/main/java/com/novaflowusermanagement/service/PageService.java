@@ -16,6 +16,9 @@ public class PageService {
     @Autowired
     private PageRepository pageRepository;
 
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+
     public List<Page> getAllPages() {
         return pageRepository.findAll();
     }
@@ -82,7 +85,10 @@ public class PageService {
             page.setLastModifiedBy(pageDetails.getLastModifiedBy());
             page.setLastModifiedDate(LocalDateTime.now());
             
-            return pageRepository.save(page);
+            Page saved = pageRepository.save(page);
+            // Cached decisions are keyed by page path and permission name, not by id
+            rbacInvalidationPublisher.allChanged("page updated");
+            return saved;
         } else {
             throw new RuntimeException("Page not found with id: " + id);
         }
@@ -91,6 +97,7 @@ public class PageService {
     public void deletePage(String id) {
         if (pageRepository.existsById(id)) {
             pageRepository.deleteById(id);
+            rbacInvalidationPublisher.allChanged("page deleted");
         } else {
             throw new RuntimeException("Page not found with id: " + id);
         }
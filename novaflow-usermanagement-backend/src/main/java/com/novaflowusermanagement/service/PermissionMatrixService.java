@@ -0,0 +1,65 @@
+package com.novaflowusermanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current PermissionMatrix snapshot. Readers never lock: a rebuild creates a new
+ * matrix and swaps it in atomically. Rebuilt every rbac.matrix.refresh-ms and before RBAC caches
+ * are evicted by an RbacInvalidationEvent, so evicted decisions are never recomputed from a stale matrix.
+ */
+@Service
+public class PermissionMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionMatrixService.class);
+
+    private final AtomicReference<PermissionMatrix> snapshot = new AtomicReference<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${rbac.matrix.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Current snapshot, or null when disabled or not (successfully) built; callers then query the database
+     */
+    public PermissionMatrix current() {
+        return enabled ? snapshot.get() : null;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${rbac.matrix.refresh-ms:300000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        String sql = """
+            SELECT rpp.role_name, p.path, pt.name AS permission_name
+            FROM user_management.role_page_permissions rpp
+            JOIN user_management.pages p ON p.id = rpp.page_id
+            JOIN user_management.permission_types pt ON pt.id = rpp.permission_type_id
+            WHERE rpp.is_granted = TRUE
+        """;
+        try {
+            List<String[]> rows = jdbcTemplate.query(sql, (rs, rowNum) -> new String[] {
+                rs.getString("role_name"), rs.getString("path"), rs.getString("permission_name")
+            });
+            PermissionMatrix matrix = PermissionMatrix.build(rows);
+            snapshot.set(matrix);
+            logger.debug("Permission matrix rebuilt: {} roles, {} pages, {} permission types, {} grants",
+                matrix.getRoleCount(), matrix.getPageCount(), matrix.getPermissionTypeCount(), matrix.getGrantCount());
+        } catch (Exception e) {
+            // Fail closed to the per-check query rather than keep serving a possibly revoked grant
+            snapshot.set(null);
+            logger.warn("Permission matrix rebuild failed, falling back to per-check queries: {}", e.getMessage());
+        }
+    }
+}
@@ -16,6 +16,9 @@ public class PermissionTypeService {
     @Autowired
     private PermissionTypeRepository permissionTypeRepository;
 
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+
     public List<PermissionType> getAllPermissionTypes() {
         return permissionTypeRepository.findAll();
     }
@@ -75,7 +78,10 @@ public class PermissionTypeService {
             permissionType.setLastModifiedBy(permissionTypeDetails.getLastModifiedBy());
             permissionType.setLastModifiedDate(LocalDateTime.now());
             
-            return permissionTypeRepository.save(permissionType);
+            PermissionType saved = permissionTypeRepository.save(permissionType);
+            // Cached decisions are keyed by page path and permission name, not by id
+            rbacInvalidationPublisher.allChanged("permission type updated");
+            return saved;
         } else {
             throw new RuntimeException("Permission type not found with id: " + id);
         }
@@ -84,6 +90,7 @@ public class PermissionTypeService {
     public void deletePermissionType(String id) {
         if (permissionTypeRepository.existsById(id)) {
             permissionTypeRepository.deleteById(id);
+            rbacInvalidationPublisher.allChanged("permission type deleted");
         } else {
             throw new RuntimeException("Permission type not found with id: " + id);
         }
@@ -0,0 +1,65 @@
+package com.novaflowusermanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Applies RbacInvalidationEvents to the local permission matrix and RBAC caches.
+ * Per-user entries are keyed by email, or by "email:..." for per-page decisions.
+ */
+@Service
+public class RbacCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PermissionMatrixService permissionMatrixService;
+
+    public void apply(RbacInvalidationEvent event) {
+        // Rebuild first so evicted decisions are not recomputed from the old matrix
+        permissionMatrixService.rebuild();
+        if (event.scope() == RbacInvalidationEvent.Scope.ALL) {
+            invalidateAll();
+            logger.info("RBAC caches cleared ({})", event.reason());
+            return;
+        }
+        if (event.emails() == null || event.emails().isEmpty()) {
+            return;
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                caffeineCache.getNativeCache().asMap().keySet()
+                    .removeIf(key -> belongsTo(key, event.emails()));
+            } else if (cache != null) {
+                cache.clear();
+            }
+        }
+        logger.info("RBAC cache entries evicted for {} user(s) ({})", event.emails().size(), event.reason());
+    }
+
+    public void invalidateAll() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static boolean belongsTo(Object key, Set<String> emails) {
+        String k = String.valueOf(key);
+        int separator = k.indexOf(':');
+        return emails.contains(separator < 0 ? k : k.substring(0, separator));
+    }
+}
@@ -0,0 +1,31 @@
+package com.novaflowusermanagement.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Invalidation event for cached RBAC decisions, shared with the metadata backend over the
+ * Postgres channel {@value #CHANNEL}. Users are identified by email, which is the key of every
+ * per-user RBAC cache entry. The origin is the publishing node, which applies its own events before
+ * broadcasting them and skips them when they come back over the channel.
+ */
+public record RbacInvalidationEvent(Scope scope, Set<String> emails, String reason, String origin) {
+
+    public static final String CHANNEL = "rbac_invalidation";
+
+    /** Identifies this backend instance as the origin of the events it publishes */
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    public enum Scope {
+        USERS, // evict entries of the listed emails
+        ALL    // evict every RBAC cache entry
+    }
+
+    public static RbacInvalidationEvent users(Set<String> emails, String reason) {
+        return new RbacInvalidationEvent(Scope.USERS, Set.copyOf(emails), reason, NODE_ID);
+    }
+
+    public static RbacInvalidationEvent all(String reason) {
+        return new RbacInvalidationEvent(Scope.ALL, Set.of(), reason, NODE_ID);
+    }
+}
@@ -0,0 +1,143 @@
+package com.novaflowusermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Publishes RBAC invalidation events after role, grant, assignment or user changes.
+ * The affected users are resolved to emails here, evicted locally and broadcast to the
+ * other backends with pg_notify. Publishing never fails the write that triggered it.
+ */
+@Service
+public class RbacInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacInvalidationPublisher.class);
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more; larger events fall back to ALL
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RbacCacheInvalidator cacheInvalidator;
+
+    /**
+     * Users whose account itself changed (activation, email, deletion).
+     * A null collection means the affected users could not be resolved and invalidates everything.
+     */
+    public void usersChanged(Collection<String> emails, String reason) {
+        if (emails == null) {
+            publish(RbacInvalidationEvent.all(reason));
+            return;
+        }
+        Set<String> affected = new HashSet<>();
+        for (String email : emails) {
+            if (email != null && !email.isEmpty()) {
+                affected.add(email);
+            }
+        }
+        publish(RbacInvalidationEvent.users(affected, reason));
+    }
+
+    /**
+     * Holder of a single user-domain-role assignment
+     */
+    public void assignmentChanged(String assignmentId, String reason) {
+        usersChanged(assignmentHolders(assignmentId), reason);
+    }
+
+    /**
+     * All holders of a role
+     */
+    public void roleChanged(String roleId, String reason) {
+        usersChanged(roleHolders(roleId), reason);
+    }
+
+    /**
+     * All holders of any role with one of the given names (page grants are bound by role name)
+     */
+    public void roleNamesChanged(Collection<String> roleNames, String reason) {
+        String[] names = roleNames.stream().filter(Objects::nonNull).distinct().toArray(String[]::new);
+        if (names.length == 0) {
+            return;
+        }
+        usersChanged(resolve("""
+            SELECT DISTINCT u.email
+            FROM user_management.roles r
+            JOIN user_management.user_domain_roles udr ON udr.role_id = r.id
+            JOIN user_management.users u ON u.id = udr.user_id
+            WHERE r.name = ANY(?)
+        """, (Object) names), reason);
+    }
+
+    /**
+     * Changes that cannot be narrowed to a set of users, e.g. page paths or permission type names
+     */
+    public void allChanged(String reason) {
+        publish(RbacInvalidationEvent.all(reason));
+    }
+
+    /**
+     * Email of an assignment's holder; resolve before deleting, publish with usersChanged after
+     */
+    public List<String> assignmentHolders(String assignmentId) {
+        return resolve("""
+            SELECT u.email
+            FROM user_management.user_domain_roles udr
+            JOIN user_management.users u ON u.id = udr.user_id
+            WHERE udr.id = ?
+        """, assignmentId);
+    }
+
+    /**
+     * Emails of a role's holders; resolve before deleting, publish with usersChanged after
+     */
+    public List<String> roleHolders(String roleId) {
+        return resolve("""
+            SELECT DISTINCT u.email
+            FROM user_management.user_domain_roles udr
+            JOIN user_management.users u ON u.id = udr.user_id
+            WHERE udr.role_id = ?
+        """, roleId);
+    }
+
+    private List<String> resolve(String sql, Object... params) {
+        try {
+            return jdbcTemplate.queryForList(sql, String.class, params);
+        } catch (Exception e) {
+            logger.warn("Could not resolve users affected by RBAC change, invalidating all RBAC caches: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void publish(RbacInvalidationEvent event) {
+        if (event.scope() == RbacInvalidationEvent.Scope.USERS && event.emails().isEmpty()) {
+            return;
+        }
+        cacheInvalidator.apply(event);
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                payload = objectMapper.writeValueAsString(RbacInvalidationEvent.all(event.reason()));
+            }
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", RbacInvalidationEvent.CHANNEL, payload);
+        } catch (Exception e) {
+            // Other backends fall back to TTL expiry for this change
+            logger.error("Failed to broadcast RBAC invalidation event ({})", event.reason(), e);
+        }
+    }
+}
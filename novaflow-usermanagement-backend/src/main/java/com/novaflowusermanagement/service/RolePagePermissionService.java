@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +25,9 @@ public class RolePagePermissionService {
     @Autowired
     private PermissionTypeService permissionTypeService;
     
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+    
     public List<RolePagePermission> getAllRolePagePermissions() {
         return rolePagePermissionRepository.findAllWithJoinedData();
     }
@@ -60,12 +64,22 @@ public class RolePagePermissionService {
             rolePagePermission.setId(UUID.randomUUID().toString());
         }
         rolePagePermission.setCreatedDate(LocalDateTime.now());
-        return rolePagePermissionRepository.save(rolePagePermission);
+        RolePagePermission saved = rolePagePermissionRepository.save(rolePagePermission);
+        rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(saved.getRoleName()), "page permission created");
+        return saved;
     }
     
     public RolePagePermission createRolePagePermissionFromIds(String roleName, String pageId, 
                                                             String permissionTypeId, Boolean isGranted, 
                                                             String createdBy) {
+        RolePagePermission saved = upsertRolePagePermission(roleName, pageId, permissionTypeId, isGranted, createdBy);
+        rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(roleName), "page permission changed");
+        return saved;
+    }
+    
+    private RolePagePermission upsertRolePagePermission(String roleName, String pageId, 
+                                                      String permissionTypeId, Boolean isGranted, 
+                                                      String createdBy) {
         // Fetch Page and PermissionType entities
         Optional<Page> pageOpt = pageService.getPageById(pageId);
         Optional<PermissionType> permissionTypeOpt = permissionTypeService.getPermissionTypeById(permissionTypeId);
@@ -107,6 +121,7 @@ public class RolePagePermissionService {
         Optional<RolePagePermission> optionalRolePagePermission = rolePagePermissionRepository.findById(id);
         if (optionalRolePagePermission.isPresent()) {
             RolePagePermission rolePagePermission = optionalRolePagePermission.get();
+            String previousRoleName = rolePagePermission.getRoleName();
             
             if (rolePagePermissionDetails.getRoleName() != null) {
                 rolePagePermission.setRoleName(rolePagePermissionDetails.getRoleName());
@@ -119,14 +134,19 @@ public class RolePagePermissionService {
             }
             
             rolePagePermission.setLastModifiedDate(LocalDateTime.now());
-            return rolePagePermissionRepository.save(rolePagePermission);
+            RolePagePermission saved = rolePagePermissionRepository.save(rolePagePermission);
+            rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(previousRoleName, saved.getRoleName()), "page permission updated");
+            return saved;
         }
         return null;
     }
     
     public boolean deleteRolePagePermission(String id) {
-        if (rolePagePermissionRepository.existsById(id)) {
+        Optional<RolePagePermission> optionalRolePagePermission = rolePagePermissionRepository.findById(id);
+        if (optionalRolePagePermission.isPresent()) {
+            String roleName = optionalRolePagePermission.get().getRoleName();
             rolePagePermissionRepository.deleteById(id);
+            rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(roleName), "page permission deleted");
             return true;
         }
         return false;
@@ -139,7 +159,9 @@ public class RolePagePermissionService {
             rolePagePermission.setIsGranted(true);
             rolePagePermission.setLastModifiedBy(modifiedBy);
             rolePagePermission.setLastModifiedDate(LocalDateTime.now());
-            return rolePagePermissionRepository.save(rolePagePermission);
+            RolePagePermission saved = rolePagePermissionRepository.save(rolePagePermission);
+            rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(saved.getRoleName()), "page permission granted");
+            return saved;
         }
         return null;
     }
@@ -151,7 +173,9 @@ public class RolePagePermissionService {
             rolePagePermission.setIsGranted(false);
             rolePagePermission.setLastModifiedBy(modifiedBy);
             rolePagePermission.setLastModifiedDate(LocalDateTime.now());
-            return rolePagePermissionRepository.save(rolePagePermission);
+            RolePagePermission saved = rolePagePermissionRepository.save(rolePagePermission);
+            rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(saved.getRoleName()), "page permission revoked");
+            return saved;
         }
         return null;
     }
@@ -161,8 +185,10 @@ public class RolePagePermissionService {
                                         String modifiedBy) {
         for (String pageId : pageIds) {
             for (String permissionTypeId : permissionTypeIds) {
-                createRolePagePermissionFromIds(roleName, pageId, permissionTypeId, isGranted, modifiedBy);
+                upsertRolePagePermission(roleName, pageId, permissionTypeId, isGranted, modifiedBy);
             }
         }
+        // One event for the whole batch rather than one per page/permission pair
+        rbacInvalidationPublisher.roleNamesChanged(Arrays.asList(roleName), "page permissions bulk updated");
     }
 }
@@ -16,6 +16,9 @@ public class RoleService {
     @Autowired
     private RoleRepository roleRepository;
     
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+    
     public List<Role> getAllRoles() {
         return roleRepository.findAll();
     }
@@ -87,7 +90,10 @@ public class RoleService {
             role.setPermissions(roleDetails.getPermissions());
             role.setUpdatedBy(roleDetails.getUpdatedBy());
             role.setUpdatedDate(LocalDateTime.now());
-            return roleRepository.save(role);
+            Role saved = roleRepository.save(role);
+            // Page grants are bound by role name, so a rename changes what every holder can do
+            rbacInvalidationPublisher.roleChanged(id, "role updated");
+            return saved;
         }
         return null;
     }
@@ -105,7 +111,9 @@ public class RoleService {
     
     public boolean deleteRole(String id) {
         if (roleRepository.existsById(id)) {
+            List<String> holders = rbacInvalidationPublisher.roleHolders(id);
             roleRepository.deleteById(id);
+            rbacInvalidationPublisher.usersChanged(holders, "role deleted");
             return true;
         }
         return false;
@@ -25,6 +25,9 @@ public class UserDomainRoleService {
     @Autowired
     private RoleService roleService;
     
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+    
     // DTO methods with joined data
     public List<UserDomainRoleDTO> getAllUserDomainRolesWithJoinedData() {
         return userDomainRoleRepository.findAllWithJoinedData();
@@ -79,7 +82,9 @@ public class UserDomainRoleService {
             userDomainRole.setId(UUID.randomUUID().toString());
         }
         userDomainRole.setAssignedDate(LocalDateTime.now());
-        return userDomainRoleRepository.save(userDomainRole);
+        UserDomainRole saved = userDomainRoleRepository.save(userDomainRole);
+        rbacInvalidationPublisher.assignmentChanged(saved.getId(), "role assignment created");
+        return saved;
     }
     
     // New method to create UserDomainRole from IDs
@@ -103,7 +108,9 @@ public class UserDomainRoleService {
         userDomainRole.setAssignedBy(assignedBy);
         userDomainRole.setAssignedDate(LocalDateTime.now());
         
-        return userDomainRoleRepository.save(userDomainRole);
+        UserDomainRole saved = userDomainRoleRepository.save(userDomainRole);
+        rbacInvalidationPublisher.assignmentChanged(saved.getId(), "role assignment created");
+        return saved;
     }
     
     public UserDomainRole updateUserDomainRole(String id, UserDomainRole userDomainRoleDetails) {
@@ -118,7 +125,9 @@ public class UserDomainRoleService {
             if (userDomainRoleDetails.getAssignedBy() != null) {
                 userDomainRole.setAssignedBy(userDomainRoleDetails.getAssignedBy());
             }
-            return userDomainRoleRepository.save(userDomainRole);
+            UserDomainRole saved = userDomainRoleRepository.save(userDomainRole);
+            rbacInvalidationPublisher.assignmentChanged(id, "role assignment updated");
+            return saved;
         }
         return null;
     }
@@ -129,7 +138,9 @@ public class UserDomainRoleService {
             UserDomainRole userDomainRole = optionalUserDomainRole.get();
             userDomainRole.setIsActive(true);
             userDomainRole.setAssignedBy(assignedBy);
-            return userDomainRoleRepository.save(userDomainRole);
+            UserDomainRole saved = userDomainRoleRepository.save(userDomainRole);
+            rbacInvalidationPublisher.assignmentChanged(id, "role assignment activated");
+            return saved;
         }
         return null;
     }
@@ -140,14 +151,19 @@ public class UserDomainRoleService {
             UserDomainRole userDomainRole = optionalUserDomainRole.get();
             userDomainRole.setIsActive(false);
             userDomainRole.setAssignedBy(assignedBy);
-            return userDomainRoleRepository.save(userDomainRole);
+            UserDomainRole saved = userDomainRoleRepository.save(userDomainRole);
+            rbacInvalidationPublisher.assignmentChanged(id, "role assignment deactivated");
+            return saved;
         }
         return null;
     }
     
     public boolean deleteUserDomainRole(String id) {
         if (userDomainRoleRepository.existsById(id)) {
+            // Resolve the holder while the assignment still exists
+            List<String> holders = rbacInvalidationPublisher.assignmentHolders(id);
             userDomainRoleRepository.deleteById(id);
+            rbacInvalidationPublisher.usersChanged(holders, "role assignment deleted");
             return true;
         }
         return false;
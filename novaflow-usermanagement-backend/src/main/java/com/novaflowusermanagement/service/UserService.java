@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +17,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private RbacInvalidationPublisher rbacInvalidationPublisher;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -80,6 +84,7 @@ public class UserService {
         Optional<User> optionalUser = userRepository.findById(id);
         if (optionalUser.isPresent()) {
             User user = optionalUser.get();
+            String previousEmail = user.getEmail();
             
             // Validate required fields
             if (userDetails.getName() == null || userDetails.getName().trim().isEmpty()) {
@@ -112,7 +117,9 @@ public class UserService {
             user.setIsActive(userDetails.getIsActive());
             user.setUpdatedBy(userDetails.getUpdatedBy());
             user.setUpdatedDate(LocalDateTime.now());
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            rbacInvalidationPublisher.usersChanged(Arrays.asList(previousEmail, saved.getEmail()), "user updated");
+            return saved;
         }
         return null;
     }
@@ -135,7 +142,9 @@ public class UserService {
             user.setStatus("Active");
             user.setUpdatedBy(updatedBy);
             user.setUpdatedDate(LocalDateTime.now());
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            rbacInvalidationPublisher.usersChanged(Arrays.asList(saved.getEmail()), "user activated");
+            return saved;
         }
         return null;
     }
@@ -148,14 +157,19 @@ public class UserService {
             user.setStatus("Inactive");
             user.setUpdatedBy(updatedBy);
             user.setUpdatedDate(LocalDateTime.now());
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            rbacInvalidationPublisher.usersChanged(Arrays.asList(saved.getEmail()), "user deactivated");
+            return saved;
         }
         return null;
     }
     
     public boolean deleteUser(String id) {
-        if (userRepository.existsById(id)) {
+        Optional<User> optionalUser = userRepository.findById(id);
+        if (optionalUser.isPresent()) {
+            String email = optionalUser.get().getEmail();
             userRepository.deleteById(id);
+            rbacInvalidationPublisher.usersChanged(Arrays.asList(email), "user deleted");
             return true;
         }
         return false;
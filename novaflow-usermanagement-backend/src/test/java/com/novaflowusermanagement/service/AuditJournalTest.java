@@ -0,0 +1,417 @@
+package com.novaflowusermanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<AuditJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (AuditJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    private AuditJournal journal(long segmentBytes) throws IOException {
+        AuditJournal journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "directory", directory);
+        ReflectionTestUtils.setField(journal, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    // Room for about two events per segment
+    private static long twoEventSegments() {
+        return 2L * (AuditJournal.HEADER_BYTES + event(0).length()) + 1;
+    }
+
+    private static String event(int i) {
+        return "{\"eventType\":\"PERMISSION_CHECK\",\"outcome\":\"SUCCESS\",\"details\":\"event " + i + "\"}";
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    @Test
+    void append_ThenReplay_ReturnsEventsInSequenceOrder() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(1024 * 1024);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, journal.append(event(i)));
+        }
+
+        // Act
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        long next = journal.replay(3, entries::add);
+
+        // Assert
+        assertEquals(10, next);
+        assertEquals(7, entries.size());
+        assertEquals(3, entries.get(0).sequence());
+        assertEquals(event(3), entries.get(0).payload());
+        assertEquals(event(9), entries.get(6).payload());
+    }
+
+    @Test
+    void append_PastSegmentSize_RollsAndReadsAcrossSegments() throws IOException {
+        // Arrange: room for about two events per segment
+        AuditJournal journal = journal(2L * (AuditJournal.HEADER_BYTES + event(0).length()) + 1);
+
+        // Act
+        for (int i = 0; i < 7; i++) {
+            journal.append(event(i));
+        }
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+
+        // Assert
+        assertEquals(4, segments().size());
+        assertEquals(directory.resolve("audit-00000000000000000002.log"), segments().get(1));
+        assertEquals(7, entries.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i, entries.get(i).sequence());
+        }
+    }
+
+    @Test
+    void reader_TailsEventsAppendedAfterItCaughtUp() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(1024 * 1024);
+        journal.append(event(0));
+
+        try (AuditJournal.Reader reader = journal.reader(0)) {
+            // Act
+            List<AuditJournal.Entry> first = reader.poll(100);
+            List<AuditJournal.Entry> caughtUp = reader.poll(100);
+            journal.append(event(1));
+            journal.append(event(2));
+            List<AuditJournal.Entry> tail = reader.poll(100);
+
+            // Assert
+            assertEquals(1, first.size());
+            assertTrue(caughtUp.isEmpty());
+            assertEquals(List.of(1L, 2L), tail.stream().map(AuditJournal.Entry::sequence).toList());
+            assertEquals(3, reader.position());
+        }
+    }
+
+    @Test
+    void reader_WithFsync_SeesEventsOnlyOnceFlushed() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(1024 * 1024);
+        ReflectionTestUtils.setField(journal, "fsync", true);
+        journal.append(event(0));
+        journal.append(event(1));
+
+        try (AuditJournal.Reader reader = journal.reader(0)) {
+            // Act
+            List<AuditJournal.Entry> beforeFlush = reader.poll(100);
+            journal.flush();
+            List<AuditJournal.Entry> afterFlush = reader.poll(100);
+
+            // Assert
+            assertTrue(beforeFlush.isEmpty());
+            assertEquals(List.of(0L, 1L), afterFlush.stream().map(AuditJournal.Entry::sequence).toList());
+            assertEquals(2, journal.durableSequence());
+        }
+    }
+
+    @Test
+    void reader_EventsLostInCrash_WereNeverHandedOut() throws IOException {
+        // Arrange: two flushed events and one that a crash will take back
+        AuditJournal journal = journal(1024 * 1024);
+        ReflectionTestUtils.setField(journal, "fsync", true);
+        journal.append(event(0));
+        journal.append(event(1));
+        journal.flush();
+        long flushedSize = Files.size(segments().get(0));
+        journal.append(event(2));
+        long sinkOffset;
+        try (AuditJournal.Reader reader = journal.reader(0)) {
+            reader.poll(100);
+            sinkOffset = reader.position();
+        }
+        journal.close();
+        opened.clear();
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(flushedSize);
+        }
+
+        // Act: sequence 2 is reused by the next event after the restart
+        AuditJournal reopened = journal(1024 * 1024);
+        assertEquals(2, reopened.append("{\"details\":\"after restart\"}"));
+        List<AuditJournal.Entry> delivered;
+        try (AuditJournal.Reader reader = reopened.reader(sinkOffset)) {
+            delivered = reader.poll(100);
+        }
+
+        // Assert: the sink stopped before 2, so it still gets the new event 2
+        assertEquals(2, sinkOffset);
+        assertEquals(1, delivered.size());
+        assertTrue(delivered.get(0).payload().contains("after restart"));
+    }
+
+    @Test
+    void open_AfterTornWrite_TruncatesAndContinuesSequence() throws IOException {
+        // Arrange: three events, then a partial record as left by a crash mid-write
+        AuditJournal journal = journal(1024 * 1024);
+        for (int i = 0; i < 3; i++) {
+            journal.append(event(i));
+        }
+        journal.close();
+        opened.clear();
+        Path segment = segments().get(0);
+        long validSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 42, 1, 2, 3}));
+        }
+
+        // Act
+        AuditJournal reopened = journal(1024 * 1024);
+        long sequence = reopened.append(event(3));
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        reopened.replay(0, entries::add);
+
+        // Assert
+        assertEquals(3, sequence);
+        assertEquals(4, entries.size());
+        assertEquals(event(3), entries.get(3).payload());
+        assertEquals(validSize + AuditJournal.HEADER_BYTES + event(3).length(), Files.size(segment));
+    }
+
+    @Test
+    void reader_CorruptRecord_FailsChecksum() throws IOException {
+        // Arrange: flip a payload byte of the first record
+        AuditJournal journal = journal(1024 * 1024);
+        journal.append(event(0));
+        journal.append(event(1));
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), AuditJournal.HEADER_BYTES + 2);
+        }
+
+        // Act & Assert
+        try (AuditJournal.Reader reader = journal.reader(0)) {
+            assertThrows(IOException.class, () -> reader.poll(10));
+        }
+    }
+
+    @Test
+    void auditLogger_WithJournal_AppendsEveryEvent() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(1024 * 1024);
+        AuditLogger auditLogger = new AuditLogger();
+        ReflectionTestUtils.setField(auditLogger, "journal", journal);
+        ReflectionTestUtils.setField(auditLogger, "spillDir", directory.resolve("spill"));
+        auditLogger.start();
+
+        // Act
+        auditLogger.emit("PERMISSION_CHECK", "USER", "user@company.com", "SUCCESS", "Permission READ granted for page /connections");
+        auditLogger.emit("PERMISSION_CHECK", "USER", "user@company.com", "DENIED", "Permission WRITE denied for page /connections");
+        auditLogger.stop();
+
+        // Assert
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).payload().contains("\"outcome\":\"SUCCESS\""));
+        assertTrue(entries.get(1).payload().contains("\"service\":\"" + AuditLogger.SERVICE_NAME + "\""));
+    }
+
+    @Test
+    void release_DeletesSegmentsEverySinkAcknowledged() throws IOException {
+        // Arrange: segments starting at 0, 2, 4 and 6
+        AuditJournal journal = journal(twoEventSegments());
+        for (int i = 0; i < 7; i++) {
+            journal.append(event(i));
+        }
+
+        // Act: 0-3 acknowledged; segment 4 still holds unacknowledged event 5
+        journal.release(5);
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+
+        // Assert
+        assertEquals(List.of(directory.resolve("audit-00000000000000000004.log"), directory.resolve("audit-00000000000000000006.log")),
+            segments());
+        assertEquals(4, journal.firstSequence());
+        assertEquals(List.of(4L, 5L, 6L), entries.stream().map(AuditJournal.Entry::sequence).toList());
+    }
+
+    @Test
+    void release_NeverDeletesTheActiveSegment() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(twoEventSegments());
+        for (int i = 0; i < 3; i++) {
+            journal.append(event(i));
+        }
+
+        // Act
+        journal.release(journal.nextSequence());
+
+        // Assert
+        assertEquals(List.of(directory.resolve("audit-00000000000000000002.log")), segments());
+        assertEquals(2, journal.firstSequence());
+        assertEquals(3, journal.append(event(3)));
+    }
+
+    @Test
+    void append_PastRetentionMaxBytes_DeletesOldestUnacknowledgedSegments() throws IOException {
+        // Arrange: keep about three segments' worth of events, none acknowledged
+        AuditJournal journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "retentionMaxBytes", 3 * twoEventSegments());
+        ReflectionTestUtils.setField(journal, "directory", directory);
+        ReflectionTestUtils.setField(journal, "segmentBytes", twoEventSegments());
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+        opened.add(journal);
+
+        // Act: segments starting at 0, 2, 4, 6 and 8; the cap is checked as each one is started
+        for (int i = 0; i < 10; i++) {
+            journal.append(event(i));
+        }
+        List<AuditJournal.Entry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+
+        // Assert: three closed segments plus the active one
+        assertEquals(4, segments().size());
+        assertEquals(2, journal.firstSequence());
+        assertEquals(2, entries.get(0).sequence());
+        assertEquals(9, entries.get(entries.size() - 1).sequence());
+    }
+
+    @Test
+    void append_SegmentPastRetentionMaxAge_IsDeletedWhenTheJournalRolls() throws IOException {
+        // Arrange: two closed segments, the first last written long ago
+        AuditJournal journal = journal(twoEventSegments());
+        for (int i = 0; i < 5; i++) {
+            journal.append(event(i));
+        }
+        Files.setLastModifiedTime(segments().get(0), FileTime.from(Instant.now().minusSeconds(30L * 24 * 3600)));
+
+        // Act: roll to a new segment
+        journal.append(event(5));
+        journal.append(event(6));
+
+        // Assert
+        assertEquals(2, journal.firstSequence());
+        assertFalse(Files.exists(directory.resolve("audit-00000000000000000000.log")));
+        assertEquals(3, segments().size());
+    }
+
+    @Test
+    void reopen_AfterRetention_ContinuesFromTheRemainingSegments() throws IOException {
+        // Arrange
+        AuditJournal journal = journal(twoEventSegments());
+        for (int i = 0; i < 7; i++) {
+            journal.append(event(i));
+        }
+        journal.release(4);
+        journal.close();
+        opened.clear();
+
+        // Act
+        AuditJournal reopened = journal(twoEventSegments());
+
+        // Assert
+        assertEquals(4, reopened.firstSequence());
+        assertEquals(7, reopened.nextSequence());
+        try (AuditJournal.Reader reader = reopened.reader(0)) {
+            assertEquals(4, reader.poll(1).get(0).sequence());
+        }
+    }
+
+    @Test
+    void sinkDispatcher_ReleasesSegmentsOnceEverySinkAcknowledged() throws Exception {
+        // Arrange: a sink that keeps up and one that fails until allowed through
+        AuditJournal journal = journal(twoEventSegments());
+        for (int i = 0; i < 7; i++) {
+            journal.append(event(i));
+        }
+        List<Long> fastReceived = new CopyOnWriteArrayList<>();
+        AuditSink fast = sink("fast", entries -> entries.forEach(entry -> fastReceived.add(entry.sequence())));
+        boolean[] slowEnabled = {false};
+        AuditSink slow = sink("slow", entries -> {
+            if (!slowEnabled[0]) {
+                throw new IOException("unavailable");
+            }
+        });
+        AuditSinkDispatcher dispatcher = new AuditSinkDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "journal", journal);
+        ReflectionTestUtils.setField(dispatcher, "sinks", List.of(fast, slow));
+
+        try {
+            // Act: the fast sink acknowledges everything while the slow one holds segments back
+            dispatcher.start();
+            awaitUntil(() -> fastReceived.size() == 7);
+            int whileSlowBehind = segments().size();
+            slowEnabled[0] = true;
+            awaitUntil(() -> journal.firstSequence() == 6);
+
+            // Assert
+            assertEquals(4, whileSlowBehind);
+            assertEquals(List.of(directory.resolve("audit-00000000000000000006.log")), segments());
+            assertEquals(7, dispatcher.position(slow));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private interface Publisher {
+        void publish(List<AuditJournal.Entry> entries) throws Exception;
+    }
+
+    private static AuditSink sink(String name, Publisher publisher) {
+        return new AuditSink() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void publish(List<AuditJournal.Entry> entries) throws Exception {
+                publisher.publish(entries);
+            }
+        };
+    }
+
+    private interface Condition {
+        boolean met() throws Exception;
+    }
+
+    private static void awaitUntil(Condition condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.met()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.novaflowusermanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLoggerTest {
+
+    @TempDir
+    Path spillDir;
+
+    private AuditLogger auditLogger;
+
+    @AfterEach
+    void tearDown() {
+        if (auditLogger != null) {
+            auditLogger.stop();
+        }
+    }
+
+    private AuditLogger auditLogger(int bufferSize, AuditOverflowPolicy policy) {
+        auditLogger = new AuditLogger();
+        ReflectionTestUtils.setField(auditLogger, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(auditLogger, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(auditLogger, "dropSampleRate", 1000);
+        ReflectionTestUtils.setField(auditLogger, "spillDir", spillDir);
+        return auditLogger;
+    }
+
+    @Test
+    void emit_ConcurrentProducers_FlushesEveryEvent() throws Exception {
+        // Arrange
+        AuditLogger logger = auditLogger(16, AuditOverflowPolicy.BLOCK);
+        logger.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int producer = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    logger.emit("PERMISSION_CHECK", "USER", "user" + producer + "@company.com", "SUCCESS", "event " + i);
+                }
+            }));
+        }
+
+        // Act
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        logger.stop();
+
+        // Assert
+        assertEquals(2000, logger.getEmittedCount());
+        assertEquals(2000, logger.getFlushedCount());
+        assertEquals(0, logger.getDroppedCount());
+        assertEquals(0, logger.getQueueDepth());
+    }
+
+    @Test
+    void emit_DropSampledWhenFull_DropsSuccessEvents() {
+        // Arrange: the writer is not started, so nothing drains the 4-slot buffer
+        AuditLogger logger = auditLogger(4, AuditOverflowPolicy.DROP_SAMPLED);
+        ReflectionTestUtils.setField(logger, "buffer", new AuditRingBuffer(4));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            logger.emit("PERMISSION_CHECK", "USER", "user@company.com", "SUCCESS", "event " + i);
+        }
+
+        // Assert
+        assertEquals(4, logger.getEmittedCount());
+        assertEquals(6, logger.getDroppedCount());
+        assertEquals(4, logger.getQueueDepth());
+    }
+
+    @Test
+    void emit_SpillWhenFull_ReplaysSpilledEventsAfterDrain() {
+        // Arrange
+        AuditLogger logger = auditLogger(2, AuditOverflowPolicy.SPILL);
+        ReflectionTestUtils.setField(logger, "buffer", new AuditRingBuffer(2));
+
+        // Act: two events fill the buffer, three overflow to the spill file
+        for (int i = 0; i < 5; i++) {
+            logger.emit("PERMISSION_CHECK", "USER", "user@company.com", i % 2 == 0 ? "SUCCESS" : "DENIED", "event " + i);
+        }
+        boolean spillWritten = Files.exists(spillDir.resolve(AuditLogger.SERVICE_NAME + "-spill.ndjson"));
+        logger.start();
+        logger.stop();
+
+        // Assert
+        assertTrue(spillWritten);
+        assertEquals(5, logger.getEmittedCount());
+        assertEquals(3, logger.getSpilledCount());
+        assertEquals(5, logger.getFlushedCount());
+        assertFalse(Files.exists(spillDir.resolve(AuditLogger.SERVICE_NAME + "-spill.ndjson")));
+        assertFalse(Files.exists(spillDir.resolve(AuditLogger.SERVICE_NAME + "-spill.ndjson.draining")));
+    }
+
+    @Test
+    void emit_AggregationEnabled_RollsUpSuccessEventsIntoSummaries() throws Exception {
+        // Arrange
+        AuditJournal journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "directory", spillDir.resolve("journal"));
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+        AuditLogger logger = auditLogger(64, AuditOverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(logger, "journal", journal);
+        ReflectionTestUtils.setField(logger, "aggregationEnabled", true);
+        logger.start();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            logger.emit("PERMISSION_CHECK", "USER", "user@company.com", "SUCCESS", "Permission READ granted for page /connections");
+        }
+        logger.emit("PERMISSION_CHECK", "USER", "user@company.com", "SUCCESS", "Permission READ granted for page /rules");
+        logger.emit("PERMISSION_CHECK", "USER", "user@company.com", "DENIED", "Permission WRITE denied for page /connections");
+        logger.emit("PERMISSION_CHANGE", "ROLE_PAGE_PERMISSION", "ADMIN:/rules:WRITE", "SUCCESS", "granted");
+        logger.stop();
+
+        // Assert
+        List<String> records = new ArrayList<>();
+        journal.replay(0, entry -> records.add(entry.payload()));
+        journal.close();
+        assertEquals(4, records.size());
+        assertEquals(6, logger.getAggregatedCount());
+        assertEquals(2, logger.getSummaryCount());
+        assertTrue(records.get(0).contains("\"outcome\":\"DENIED\""));
+        assertTrue(records.get(1).contains("\"eventType\":\"PERMISSION_CHANGE\""));
+        String connections = records.stream().filter(r -> r.contains("\"page\":\"/connections\"")).findFirst().orElseThrow();
+        assertTrue(connections.contains("\"permission\":\"READ\""));
+        assertTrue(connections.contains("\"count\":5"));
+        assertTrue(connections.contains("\"summary\":true"));
+    }
+
+    @Test
+    void emit_AfterStop_WritesSynchronously() {
+        // Arrange
+        AuditLogger logger = auditLogger(4, AuditOverflowPolicy.BLOCK);
+        logger.start();
+        logger.stop();
+
+        // Act
+        logger.emit("ROLE_QUERY", "USER", "user@company.com", "SUCCESS", "1 roles found");
+
+        // Assert
+        assertEquals(1, logger.getEmittedCount());
+        assertEquals(1, logger.getFlushedCount());
+    }
+}
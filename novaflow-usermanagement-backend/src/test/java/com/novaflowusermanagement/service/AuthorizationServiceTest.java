@@ -7,10 +7,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.*;
 
@@ -27,6 +30,9 @@ class AuthorizationServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private PermissionMatrixService permissionMatrixService;
+
     @Mock
     private JwtAuthenticationToken jwtAuthenticationToken;
 
@@ -171,6 +177,58 @@ class AuthorizationServiceTest {
         verify(auditLogger).emit(eq("PERMISSION_CHECK"), eq("USER"), eq("user@company.com"), eq("DENIED"), anyString());
     }
 
+    @Test
+    void hasPermission_MatrixAvailable_SkipsPermissionQuery() {
+        // Arrange
+        when(jwtAuthenticationToken.getToken()).thenReturn(jwt);
+        when(jwt.getClaimAsString("sub")).thenReturn("user123");
+        when(jwt.getClaimAsString("email")).thenReturn("user@company.com");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(Arrays.asList("viewer"));
+        List<String[]> grants = new ArrayList<>();
+        grants.add(new String[] {"viewer", "/dashboard", "view"});
+        when(permissionMatrixService.current()).thenReturn(PermissionMatrix.build(grants));
+
+        // Act
+        boolean canView = authorizationService.hasPermission(jwtAuthenticationToken, "view", "/dashboard");
+        boolean canEdit = authorizationService.hasPermission(jwtAuthenticationToken, "edit", "/dashboard");
+
+        // Assert
+        assertTrue(canView);
+        assertFalse(canEdit);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class), any(Object[].class));
+    }
+
+    @Test
+    void getAuthorizationContext_WithinRequest_ResolvesIdentityAndRolesOnce() {
+        // Arrange
+        when(jwtAuthenticationToken.getToken()).thenReturn(jwt);
+        when(jwtAuthenticationToken.getName()).thenReturn("user123");
+        when(jwt.getClaimAsString("sub")).thenReturn("user123");
+        when(jwt.getClaimAsString("email")).thenReturn("user@company.com");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(Arrays.asList("admin"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString(), anyString(), any()))
+                .thenReturn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        try {
+            // Act
+            boolean canRead = authorizationService.hasPermission(jwtAuthenticationToken, "READ", "/connections");
+            boolean canCreate = authorizationService.hasPermission(jwtAuthenticationToken, "CREATE", "/connections");
+            AuthorizationContext context = authorizationService.getAuthorizationContext(jwtAuthenticationToken);
+
+            // Assert
+            assertTrue(canRead);
+            assertTrue(canCreate);
+            assertEquals(Set.of("admin"), context.roles());
+            verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class), any(Object[].class));
+            verify(auditLogger, times(1)).emit(eq("ROLE_QUERY"), eq("USER"), eq("user@company.com"), eq("SUCCESS"), anyString());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     @Test
     void hasPermission_DatabaseError_ReturnsFalse() {
         // Arrange
@@ -187,4 +245,58 @@ class AuthorizationServiceTest {
         assertFalse(hasPermission);
         verify(auditLogger).emit(eq("PERMISSION_CHECK"), eq("USER"), eq("user@company.com"), eq("ERROR"), anyString());
     }
+
+    @Test
+    void getUserProfile_ExistingUser_BuildsSnapshotFromSingleQuery() {
+        // Arrange
+        when(jwtAuthenticationToken.getToken()).thenReturn(jwt);
+        when(jwt.getClaimAsString("sub")).thenReturn("user123");
+        when(jwt.getClaimAsString("email")).thenReturn("user@company.com");
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                profileRow("DOMAIN", "FIN", "DOM001", "Finance"),
+                profileRow("PERMISSION", "/dashboard", "view", null),
+                profileRow("ROLE", "admin", null, null),
+                profileRow("USER", "U001", null, null)));
+
+        // Act
+        AuthorizationService.UserProfile profile = authorizationService.getUserProfile(jwtAuthenticationToken);
+
+        // Assert
+        assertTrue(profile.exists());
+        assertEquals(Set.of("admin"), profile.roles());
+        assertEquals(1, profile.permissions().size());
+        assertEquals("/dashboard", profile.permissions().get(0).getPage());
+        assertEquals("view", profile.permissions().get(0).getPermission());
+        assertEquals(1, profile.domains().size());
+        assertEquals("DOM001", profile.domains().get(0).getId());
+        assertEquals("FIN", profile.domains().get(0).getCode());
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), any(Object[].class));
+        verify(auditLogger).emit(eq("USER_EXISTENCE_CHECK"), eq("USER"), eq("user@company.com"), eq("SUCCESS"), anyString());
+    }
+
+    @Test
+    void getUserProfile_UnknownUser_ReturnsNotFound() {
+        // Arrange
+        when(jwtAuthenticationToken.getToken()).thenReturn(jwt);
+        when(jwt.getClaimAsString("sub")).thenReturn("user123");
+        when(jwt.getClaimAsString("email")).thenReturn("user@company.com");
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(Collections.emptyList());
+
+        // Act
+        AuthorizationService.UserProfile profile = authorizationService.getUserProfile(jwtAuthenticationToken);
+
+        // Assert
+        assertFalse(profile.exists());
+        assertTrue(profile.roles().isEmpty());
+        verify(auditLogger).emit(eq("USER_EXISTENCE_CHECK"), eq("USER"), eq("user@company.com"), eq("NOT_FOUND"), anyString());
+    }
+
+    private static Map<String, Object> profileRow(String kind, String a, String b, String c) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("kind", kind);
+        row.put("a", a);
+        row.put("b", b);
+        row.put("c", c);
+        return row;
+    }
 }
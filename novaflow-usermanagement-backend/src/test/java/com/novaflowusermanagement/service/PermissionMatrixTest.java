@@ -0,0 +1,63 @@
+package com.novaflowusermanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionMatrixTest {
+
+    @Test
+    void isGranted_MatchesAnyRoleGrant() {
+        // Arrange
+        List<String[]> grants = new ArrayList<>();
+        grants.add(new String[] {"admin", "/connections", "READ"});
+        grants.add(new String[] {"admin", "/connections", "WRITE"});
+        grants.add(new String[] {"viewer", "/dashboard", "READ"});
+        grants.add(new String[] {"viewer", "/dashboard", "READ"});
+
+        // Act
+        PermissionMatrix matrix = PermissionMatrix.build(grants);
+
+        // Assert
+        assertEquals(3, matrix.getGrantCount());
+        assertTrue(matrix.isGranted(Set.of("admin"), "/connections", "WRITE"));
+        assertTrue(matrix.isGranted(Set.of("viewer", "admin"), "/dashboard", "READ"));
+        assertFalse(matrix.isGranted(Set.of("viewer"), "/connections", "READ"));
+        assertFalse(matrix.isGranted(Set.of("admin"), "/dashboard", "READ"));
+    }
+
+    @Test
+    void isGranted_UnknownRolePageOrPermission_ReturnsFalse() {
+        // Arrange
+        List<String[]> grants = new ArrayList<>();
+        grants.add(new String[] {"admin", "/connections", "READ"});
+        PermissionMatrix matrix = PermissionMatrix.build(grants);
+
+        // Act & Assert
+        assertFalse(matrix.isGranted(Set.of("auditor"), "/connections", "READ"));
+        assertFalse(matrix.isGranted(Set.of("admin"), "/rules", "READ"));
+        assertFalse(matrix.isGranted(Set.of("admin"), "/connections", "DELETE"));
+        assertFalse(PermissionMatrix.build(new ArrayList<>()).isGranted(Set.of("admin"), "/connections", "READ"));
+    }
+
+    @Test
+    void isGranted_ManyCells_SpansMultipleWords() {
+        // Arrange: 40 pages x 3 permission types = 120 cells, more than one 64-bit word per role
+        List<String[]> grants = new ArrayList<>();
+        for (int page = 0; page < 40; page++) {
+            for (String permission : List.of("READ", "WRITE", "DELETE")) {
+                grants.add(new String[] {page % 2 == 0 ? "even" : "odd", "/page" + page, permission});
+            }
+        }
+        PermissionMatrix matrix = PermissionMatrix.build(grants);
+
+        // Act & Assert
+        assertTrue(matrix.isGranted(Set.of("even"), "/page38", "DELETE"));
+        assertFalse(matrix.isGranted(Set.of("even"), "/page39", "DELETE"));
+        assertTrue(matrix.isGranted(Set.of("odd"), "/page39", "READ"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.novaflowusermanagement.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novaflowusermanagement.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RbacCacheInvalidatorTest {
+
+    private CaffeineCacheManager cacheManager;
+    private RbacCacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder());
+        cacheManager.setCacheNames(List.of(CacheConfig.USER_ROLES, CacheConfig.USER_PERMISSIONS));
+
+        cacheInvalidator = new RbacCacheInvalidator();
+        ReflectionTestUtils.setField(cacheInvalidator, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(cacheInvalidator, "permissionMatrixService", mock(PermissionMatrixService.class));
+
+        Cache roles = cacheManager.getCache(CacheConfig.USER_ROLES);
+        roles.put("alice@company.com", Set.of("ADMIN"));
+        roles.put("bob@company.com", Set.of("VIEWER"));
+        Cache permissions = cacheManager.getCache(CacheConfig.USER_PERMISSIONS);
+        permissions.put("alice@company.com:/connections:READ", true);
+        permissions.put("alice@company.com:/connections:WRITE", true);
+        permissions.put("bob@company.com:/connections:READ", true);
+    }
+
+    @Test
+    void apply_UsersScope_EvictsOnlyListedUsers() {
+        // Act
+        cacheInvalidator.apply(RbacInvalidationEvent.users(Set.of("alice@company.com"), "test"));
+
+        // Assert
+        Cache roles = cacheManager.getCache(CacheConfig.USER_ROLES);
+        Cache permissions = cacheManager.getCache(CacheConfig.USER_PERMISSIONS);
+        assertNull(roles.get("alice@company.com"));
+        assertNull(permissions.get("alice@company.com:/connections:READ"));
+        assertNull(permissions.get("alice@company.com:/connections:WRITE"));
+        assertNotNull(roles.get("bob@company.com"));
+        assertNotNull(permissions.get("bob@company.com:/connections:READ"));
+    }
+
+    @Test
+    void apply_AllScope_ClearsEveryCache() {
+        // Act
+        cacheInvalidator.apply(RbacInvalidationEvent.all("test"));
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.USER_ROLES).get("bob@company.com"));
+        assertNull(cacheManager.getCache(CacheConfig.USER_PERMISSIONS).get("bob@company.com:/connections:READ"));
+    }
+}
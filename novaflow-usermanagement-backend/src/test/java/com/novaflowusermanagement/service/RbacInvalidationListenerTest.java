@@ -0,0 +1,61 @@
+package com.novaflowusermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RbacInvalidationListenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RbacCacheInvalidator cacheInvalidator;
+    private RbacInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidator = mock(RbacCacheInvalidator.class);
+        listener = new RbacInvalidationListener();
+        ReflectionTestUtils.setField(listener, "cacheInvalidator", cacheInvalidator);
+    }
+
+    @Test
+    void handle_OwnEvent_IsSkipped() throws Exception {
+        // Act: the publisher already applied it locally
+        listener.handle(objectMapper.writeValueAsString(RbacInvalidationEvent.users(Set.of("alice@company.com"), "test")));
+        listener.handle(objectMapper.writeValueAsString(RbacInvalidationEvent.all("test")));
+
+        // Assert
+        verifyNoInteractions(cacheInvalidator);
+    }
+
+    @Test
+    void handle_OtherNodesEvent_IsApplied() throws Exception {
+        // Arrange
+        RbacInvalidationEvent event = new RbacInvalidationEvent(RbacInvalidationEvent.Scope.USERS,
+            Set.of("alice@company.com"), "test", "another-node");
+
+        // Act
+        listener.handle(objectMapper.writeValueAsString(event));
+
+        // Assert
+        verify(cacheInvalidator).apply(event);
+    }
+
+    @Test
+    void handle_EventWithoutOrigin_IsApplied() {
+        listener.handle("{\"scope\":\"ALL\",\"emails\":[],\"reason\":\"test\"}");
+        verify(cacheInvalidator).apply(any(RbacInvalidationEvent.class));
+    }
+
+    @Test
+    void handle_UnreadablePayload_ClearsEverything() {
+        listener.handle("not json");
+        verify(cacheInvalidator).invalidateAll();
+        verify(cacheInvalidator, never()).apply(any());
+    }
+}